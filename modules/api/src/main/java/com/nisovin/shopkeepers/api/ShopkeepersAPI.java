@@ -13,11 +13,13 @@ import com.nisovin.shopkeepers.api.shopkeeper.ShopTypesRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.BookOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.OfferIndex;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.PriceOffer;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.TradeOffer;
 import com.nisovin.shopkeepers.api.shopobjects.DefaultShopObjectTypes;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics;
 import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
 import com.nisovin.shopkeepers.api.ui.UIRegistry;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
@@ -149,6 +151,18 @@ public final class ShopkeepersAPI {
 		return getPlugin().getShopkeeperRegistry();
 	}
 
+	// OFFER INDEX
+
+	/**
+	 * Gets the {@link OfferIndex}.
+	 * 
+	 * @return the offer index
+	 * @see ShopkeepersPlugin#getOfferIndex()
+	 */
+	public static OfferIndex getOfferIndex() {
+		return getPlugin().getOfferIndex();
+	}
+
 	// STORAGE
 
 	/**
@@ -161,6 +175,18 @@ public final class ShopkeepersAPI {
 		return getPlugin().getShopkeeperStorage();
 	}
 
+	// TRADE STATISTICS
+
+	/**
+	 * Gets the {@link TradeStatistics}.
+	 * 
+	 * @return the trade statistics
+	 * @see ShopkeepersPlugin#getTradeStatistics()
+	 */
+	public static TradeStatistics getTradeStatistics() {
+		return getPlugin().getTradeStatistics();
+	}
+
 	// ITEM UPDATES
 
 	/**
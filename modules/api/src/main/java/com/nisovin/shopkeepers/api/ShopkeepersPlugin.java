@@ -12,11 +12,13 @@ import com.nisovin.shopkeepers.api.shopkeeper.ShopTypesRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.BookOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.OfferIndex;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.PriceOffer;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.TradeOffer;
 import com.nisovin.shopkeepers.api.shopobjects.DefaultShopObjectTypes;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics;
 import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
 import com.nisovin.shopkeepers.api.ui.UIRegistry;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
@@ -78,6 +80,16 @@ public interface ShopkeepersPlugin extends Plugin {
 	 */
 	public static final String LIST_ADMIN_PERMISSION = "shopkeeper.list.admin";
 
+	/**
+	 * The <code>shopkeeper.search</code> permission.
+	 */
+	public static final String SEARCH_PERMISSION = "shopkeeper.search";
+
+	/**
+	 * The <code>shopkeeper.stats</code> permission.
+	 */
+	public static final String STATS_PERMISSION = "shopkeeper.stats";
+
 	/**
 	 * The <code>shopkeeper.remove.own</code> permission.
 	 */
@@ -286,6 +298,15 @@ public interface ShopkeepersPlugin extends Plugin {
 	 */
 	public ShopkeeperRegistry getShopkeeperRegistry();
 
+	// OFFER INDEX
+
+	/**
+	 * Gets the {@link OfferIndex}.
+	 * 
+	 * @return the offer index
+	 */
+	public OfferIndex getOfferIndex();
+
 	// STORAGE
 
 	/**
@@ -295,6 +316,15 @@ public interface ShopkeepersPlugin extends Plugin {
 	 */
 	public ShopkeeperStorage getShopkeeperStorage();
 
+	// TRADE STATISTICS
+
+	/**
+	 * Gets the {@link TradeStatistics}.
+	 * 
+	 * @return the trade statistics
+	 */
+	public TradeStatistics getTradeStatistics();
+
 	// ITEM UPDATES
 
 	/**
@@ -35,6 +35,11 @@ import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
  * for each of these trades. Canceling a trade will also cancel all successive trades that might
  * otherwise have been triggered by the same click event.
  * <p>
+ * If batched trades are enabled inside the config, several successive trades that use the same
+ * trading recipe can also be handled as a single batched trade. The {@link #getTradeCount() trade
+ * count} then indicates how many times the trade is applied. The offered, received, and result
+ * items of this event always specify the items of a single trade.
+ * <p>
  * This event cannot be used to determine whether the trade will actually take place. For example,
  * the shopkeeper might abort the trade if the player does not have the necessary inventory space
  * available to receive the result items. Use {@link #getTradeEffects()} to register effects that
@@ -54,6 +59,7 @@ public class ShopkeeperTradeEvent extends ShopkeeperEvent implements Cancellable
 	private final UnmodifiableItemStack offeredItem1;
 	private final @Nullable UnmodifiableItemStack offeredItem2;
 	private final boolean swappedItemOrder;
+	private final int tradeCount;
 
 	private @Nullable UnmodifiableItemStack receivedItem1;
 	private @Nullable UnmodifiableItemStack receivedItem2;
@@ -96,18 +102,67 @@ public class ShopkeeperTradeEvent extends ShopkeeperEvent implements Cancellable
 			UnmodifiableItemStack offeredItem1,
 			@Nullable UnmodifiableItemStack offeredItem2,
 			boolean swappedItemOrder
+	) {
+		this(
+				shopkeeper,
+				player,
+				clickEvent,
+				tradingRecipe,
+				offeredItem1,
+				offeredItem2,
+				swappedItemOrder,
+				1
+		);
+	}
+
+	/**
+	 * Creates a new {@link ShopkeeperTradeEvent} for a batched trade.
+	 * <p>
+	 * The offered items are expected to be immutable and their stack sizes match the trading recipe
+	 * items, i.e. they specify the items of a single trade.
+	 * 
+	 * @param shopkeeper
+	 *            the involved shopkeeper, not <code>null</code>
+	 * @param player
+	 *            the trading player, not <code>null</code>
+	 * @param clickEvent
+	 *            the click event that triggered the trade, not <code>null</code>
+	 * @param tradingRecipe
+	 *            the trading recipe, not <code>null</code>
+	 * @param offeredItem1
+	 *            the offered item that matches the first required item of the trading recipe, not
+	 *            <code>null</code> or empty
+	 * @param offeredItem2
+	 *            the offered item that matches the second required item of the trading recipe, can
+	 *            be <code>null</code>
+	 * @param swappedItemOrder
+	 *            <code>true</code> if the player provided the offered items in reverse order
+	 * @param tradeCount
+	 *            the number of times the trade is applied, at least <code>1</code>
+	 */
+	public ShopkeeperTradeEvent(
+			Shopkeeper shopkeeper,
+			Player player,
+			InventoryClickEvent clickEvent,
+			TradingRecipe tradingRecipe,
+			UnmodifiableItemStack offeredItem1,
+			@Nullable UnmodifiableItemStack offeredItem2,
+			boolean swappedItemOrder,
+			int tradeCount
 	) {
 		super(shopkeeper);
 		Preconditions.checkNotNull(player, "player is null");
 		Preconditions.checkNotNull(clickEvent, "clickEvent is null");
 		Preconditions.checkNotNull(tradingRecipe, "tradingRecipe is null");
 		Preconditions.checkNotNull(offeredItem1, "offeredItem1 is null");
+		Preconditions.checkArgument(tradeCount >= 1, "tradeCount is less than 1");
 		this.player = player;
 		this.clickEvent = clickEvent;
 		this.tradingRecipe = tradingRecipe;
 		this.offeredItem1 = offeredItem1;
 		this.offeredItem2 = offeredItem2; // Can be null
 		this.swappedItemOrder = swappedItemOrder;
+		this.tradeCount = tradeCount;
 
 		this.receivedItem1 = offeredItem1;
 		this.receivedItem2 = offeredItem2;
@@ -206,6 +261,20 @@ public class ShopkeeperTradeEvent extends ShopkeeperEvent implements Cancellable
 		return swappedItemOrder;
 	}
 
+	/**
+	 * Gets the number of times this trade is applied.
+	 * <p>
+	 * This is <code>1</code> unless several successive trades are handled as a single batched
+	 * trade. The items of this event specify the items of a single trade. The player and the
+	 * shopkeeper receive these items this many times, and {@link TradeEffect}s are expected to take
+	 * the trade count into account.
+	 * 
+	 * @return the trade count, at least <code>1</code>
+	 */
+	public int getTradeCount() {
+		return tradeCount;
+	}
+
 	/**
 	 * Gets an unmodifiable view on the first item that the shopkeeper will receive, or
 	 * <code>null</code> or empty if the shopkeeper will not receive any item.
@@ -0,0 +1,201 @@
+package com.nisovin.shopkeepers.api.shopkeeper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+
+/**
+ * An immutable snapshot of the loaded shopkeepers of the {@link ShopkeeperRegistry}.
+ * <p>
+ * Unlike the {@link ShopkeeperRegistry} and the {@link Shopkeeper}s themselves, which may only be
+ * accessed from the server's main thread, snapshots can be safely queried from any thread. This
+ * allows plugins such as web map exporters or chat bots to read the shopkeepers asynchronously,
+ * without having to schedule tasks on the main thread.
+ * <p>
+ * Once a snapshot has been requested for the first time, snapshots are published after changes to
+ * the loaded shopkeepers, at most once per tick. Each published snapshot has a higher
+ * {@link #getEpoch() epoch} than the previous snapshot. Because snapshots are immutable, a snapshot
+ * does not reflect any changes to the shopkeepers after it has been published. Use
+ * {@link ShopkeeperRegistry#getRegistrySnapshot()} to get the latest snapshot.
+ */
+public interface RegistrySnapshot {
+
+	/**
+	 * The immutable state of a single {@link Shopkeeper} at the time the snapshot was published.
+	 */
+	public interface ShopkeeperEntry {
+
+		/**
+		 * Gets the shopkeeper's session id.
+		 *
+		 * @return the shopkeeper id
+		 * @see Shopkeeper#getId()
+		 */
+		public int getId();
+
+		/**
+		 * Gets the shopkeeper's unique id.
+		 *
+		 * @return the unique id, not <code>null</code>
+		 * @see Shopkeeper#getUniqueId()
+		 */
+		public UUID getUniqueId();
+
+		/**
+		 * Gets the identifier of the shopkeeper's shop type.
+		 *
+		 * @return the shop type identifier, not <code>null</code>
+		 * @see Shopkeeper#getType()
+		 */
+		public String getShopTypeId();
+
+		/**
+		 * Gets the identifier of the shopkeeper's shop object type.
+		 *
+		 * @return the shop object type identifier, not <code>null</code>
+		 * @see Shopkeeper#getShopObject()
+		 */
+		public String getShopObjectTypeId();
+
+		/**
+		 * Gets the shopkeeper's name.
+		 *
+		 * @return the name, not <code>null</code>, can be empty
+		 * @see Shopkeeper#getName()
+		 */
+		public String getName();
+
+		/**
+		 * Checks whether the shopkeeper is virtual.
+		 *
+		 * @return <code>true</code> if the shopkeeper is virtual
+		 * @see Shopkeeper#isVirtual()
+		 */
+		public boolean isVirtual();
+
+		/**
+		 * Gets the name of the shopkeeper's world.
+		 *
+		 * @return the world name, or <code>null</code> if the shopkeeper is virtual
+		 * @see Shopkeeper#getWorldName()
+		 */
+		public @Nullable String getWorldName();
+
+		/**
+		 * Gets the shopkeeper's x coordinate.
+		 *
+		 * @return the x coordinate, or <code>0</code> if the shopkeeper is virtual
+		 * @see Shopkeeper#getX()
+		 */
+		public int getX();
+
+		/**
+		 * Gets the shopkeeper's y coordinate.
+		 *
+		 * @return the y coordinate, or <code>0</code> if the shopkeeper is virtual
+		 * @see Shopkeeper#getY()
+		 */
+		public int getY();
+
+		/**
+		 * Gets the shopkeeper's z coordinate.
+		 *
+		 * @return the z coordinate, or <code>0</code> if the shopkeeper is virtual
+		 * @see Shopkeeper#getZ()
+		 */
+		public int getZ();
+
+		/**
+		 * Gets the unique id of the shop owner.
+		 *
+		 * @return the owner's unique id, or <code>null</code> if the shopkeeper is not a
+		 *         {@link PlayerShopkeeper}
+		 * @see PlayerShopkeeper#getOwnerUUID()
+		 */
+		public @Nullable UUID getOwnerUUID();
+
+		/**
+		 * Gets the last known name of the shop owner.
+		 *
+		 * @return the owner's name, or <code>null</code> if the shopkeeper is not a
+		 *         {@link PlayerShopkeeper}
+		 * @see PlayerShopkeeper#getOwnerName()
+		 */
+		public @Nullable String getOwnerName();
+
+		/**
+		 * Gets the shopkeeper's offers.
+		 * <p>
+		 * The offers are captured without checking the stock of player shops: None of the returned
+		 * trading recipes is {@link TradingRecipe#isOutOfStock() out of stock}. The items of the
+		 * trading recipes are unmodifiable.
+		 *
+		 * @return an unmodifiable list of the shopkeeper's trading recipes, not <code>null</code>
+		 * @see Shopkeeper#getTradingRecipes(org.bukkit.entity.Player)
+		 */
+		public List<? extends TradingRecipe> getOffers();
+	}
+
+	/**
+	 * Gets the epoch of this snapshot.
+	 * <p>
+	 * Each published snapshot has a higher epoch than the snapshot that was published before it.
+	 *
+	 * @return the epoch
+	 */
+	public long getEpoch();
+
+	/**
+	 * Gets all shopkeepers of this snapshot.
+	 *
+	 * @return an unmodifiable view on the shopkeepers, not <code>null</code>
+	 */
+	public Collection<? extends ShopkeeperEntry> getAllShopkeepers();
+
+	/**
+	 * Gets the shopkeeper with the given unique id.
+	 *
+	 * @param shopkeeperUniqueId
+	 *            the unique id, not <code>null</code>
+	 * @return the shopkeeper, or <code>null</code> if there is no such shopkeeper in this snapshot
+	 */
+	public @Nullable ShopkeeperEntry getShopkeeperByUniqueId(UUID shopkeeperUniqueId);
+
+	/**
+	 * Gets the shopkeeper with the given session id.
+	 *
+	 * @param shopkeeperId
+	 *            the shopkeeper id
+	 * @return the shopkeeper, or <code>null</code> if there is no such shopkeeper in this snapshot
+	 */
+	public @Nullable ShopkeeperEntry getShopkeeperById(int shopkeeperId);
+
+	/**
+	 * Gets the player shopkeepers that are owned by the specified player.
+	 *
+	 * @param ownerUUID
+	 *            the owner's unique id, not <code>null</code>
+	 * @return an unmodifiable view on the shopkeepers, not <code>null</code>
+	 */
+	public Collection<? extends ShopkeeperEntry> getShopkeepersByOwner(UUID ownerUUID);
+
+	/**
+	 * Gets the shopkeepers in the specified world.
+	 *
+	 * @param worldName
+	 *            the world name, not <code>null</code>
+	 * @return an unmodifiable view on the shopkeepers, not <code>null</code>
+	 */
+	public Collection<? extends ShopkeeperEntry> getShopkeepersInWorld(String worldName);
+
+	/**
+	 * Gets the virtual shopkeepers.
+	 *
+	 * @return an unmodifiable view on the virtual shopkeepers, not <code>null</code>
+	 */
+	public Collection<? extends ShopkeeperEntry> getVirtualShopkeepers();
+}
@@ -1,6 +1,7 @@
 package com.nisovin.shopkeepers.api.shopkeeper;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -242,6 +243,83 @@ public interface ShopkeeperRegistry {
 	// a single shopkeeper at the same location.
 	public Collection<? extends Shopkeeper> getShopkeepersAtLocation(Location location);
 
+	// BY AREA
+
+	/**
+	 * Gets all shopkeepers within the specified distance around the given location.
+	 * <p>
+	 * Distances are measured from the given location to the center of the block at which a
+	 * shopkeeper is located. {@link Shopkeeper#isVirtual() Virtual} shopkeepers are not included.
+	 * <p>
+	 * Only the chunks that overlap the queried area are looked up, so this is considerably faster
+	 * than checking all shopkeepers of the world.
+	 * 
+	 * @param location
+	 *            the center location, not <code>null</code>, and the world is expected to be
+	 *            loaded
+	 * @param radius
+	 *            the maximum distance, not negative
+	 * @return the shopkeepers, ordered by their distance to the given location, not
+	 *         <code>null</code>
+	 */
+	public List<? extends Shopkeeper> getShopkeepersInRadius(Location location, double radius);
+
+	/**
+	 * Gets all shopkeepers that are located within the specified box of blocks.
+	 * <p>
+	 * The bounds are inclusive block coordinates. {@link Shopkeeper#isVirtual() Virtual}
+	 * shopkeepers are not included.
+	 * 
+	 * @param worldName
+	 *            the world name, not <code>null</code>
+	 * @param minX
+	 *            the minimum block x coordinate
+	 * @param minY
+	 *            the minimum block y coordinate
+	 * @param minZ
+	 *            the minimum block z coordinate
+	 * @param maxX
+	 *            the maximum block x coordinate
+	 * @param maxY
+	 *            the maximum block y coordinate
+	 * @param maxZ
+	 *            the maximum block z coordinate
+	 * @return the shopkeepers, in no particular order, not <code>null</code>
+	 */
+	public List<? extends Shopkeeper> getShopkeepersInBox(
+			String worldName,
+			int minX,
+			int minY,
+			int minZ,
+			int maxX,
+			int maxY,
+			int maxZ
+	);
+
+	/**
+	 * Gets the shopkeepers that are nearest to the given location.
+	 * <p>
+	 * Distances are measured from the given location to the center of the block at which a
+	 * shopkeeper is located. {@link Shopkeeper#isVirtual() Virtual} shopkeepers are not included.
+	 * <p>
+	 * The chunks around the given location are searched in order of increasing distance, and the
+	 * search stops as soon as the remaining chunks cannot contain any nearer shopkeepers.
+	 * 
+	 * @param location
+	 *            the location, not <code>null</code>, and the world is expected to be loaded
+	 * @param limit
+	 *            the maximum number of returned shopkeepers, positive
+	 * @param maxDistance
+	 *            the maximum distance, not negative
+	 * @return the nearest shopkeepers, ordered by their distance to the given location, not
+	 *         <code>null</code>
+	 */
+	public List<? extends Shopkeeper> getNearestShopkeepers(
+			Location location,
+			int limit,
+			double maxDistance
+	);
+
 	// BY SHOP OBJECT
 
 	/**
@@ -322,4 +400,22 @@ public interface ShopkeeperRegistry {
 	 * @see #getShopkeeperByBlock(Block)
 	 */
 	public boolean isShopkeeper(Block block);
+
+	// SNAPSHOTS
+
+	/**
+	 * Gets the latest immutable {@link RegistrySnapshot snapshot} of the loaded shopkeepers.
+	 * <p>
+	 * Unlike the other methods of this registry, this method can be called from any thread. When
+	 * called on the server's main thread, any pending changes to the shopkeepers are published
+	 * first, so that the returned snapshot is up-to-date. On other threads, the returned snapshot
+	 * might not yet reflect the changes of the current tick.
+	 * <p>
+	 * Snapshots are only published once a snapshot has been requested for the first time. If this
+	 * first request is made on another thread than the server's main thread, it returns an empty
+	 * snapshot, and the first snapshot with the loaded shopkeepers is published in the next tick.
+	 * 
+	 * @return the snapshot, not <code>null</code>
+	 */
+	public RegistrySnapshot getRegistrySnapshot();
 }
@@ -0,0 +1,94 @@
+package com.nisovin.shopkeepers.api.shopkeeper.offers;
+
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+
+/**
+ * An entry of the {@link OfferIndex}: A trade that a specific shopkeeper offers, together with the
+ * shop's last known stock for this trade.
+ * <p>
+ * Instances of this are immutable. They reflect the state of the shopkeeper at the time the entry
+ * was indexed.
+ */
+public interface IndexedOffer {
+
+	/**
+	 * The {@link #getStock() stock} of offers with an unlimited stock, such as the offers of admin
+	 * shops.
+	 */
+	public static final int UNLIMITED_STOCK = Integer.MAX_VALUE;
+
+	/**
+	 * The {@link #getStock() stock} of offers whose stock is not known, for example because the
+	 * shop's container has not been checked yet, or because the stock of the shop type is not
+	 * tracked, such as for buying and book shops.
+	 */
+	public static final int UNKNOWN_STOCK = -1;
+
+	/**
+	 * Gets the session id of the shopkeeper that offers this trade.
+	 *
+	 * @return the shopkeeper id
+	 * @see Shopkeeper#getId()
+	 */
+	public int getShopkeeperId();
+
+	/**
+	 * Gets the unique id of the shopkeeper that offers this trade.
+	 *
+	 * @return the shopkeeper's unique id, not <code>null</code>
+	 * @see Shopkeeper#getUniqueId()
+	 */
+	public UUID getShopkeeperUniqueId();
+
+	/**
+	 * Gets the indexed {@link TradingRecipe}.
+	 * <p>
+	 * Whether the recipe is {@link TradingRecipe#isOutOfStock() out of stock} reflects the last
+	 * known stock of the shop.
+	 *
+	 * @return the trading recipe, not <code>null</code>
+	 */
+	public TradingRecipe getTradingRecipe();
+
+	/**
+	 * Gets the result item of the trade.
+	 *
+	 * @return an unmodifiable view on the result item, not <code>null</code> or empty
+	 */
+	public UnmodifiableItemStack getResultItem();
+
+	/**
+	 * Gets the first item that the trade costs.
+	 *
+	 * @return an unmodifiable view on the first cost item, not <code>null</code> or empty
+	 */
+	public UnmodifiableItemStack getItem1();
+
+	/**
+	 * Gets the second item that the trade costs.
+	 *
+	 * @return an unmodifiable view on the second cost item, or <code>null</code>
+	 */
+	public @Nullable UnmodifiableItemStack getItem2();
+
+	/**
+	 * Gets the last known number of result items that the shop has in stock.
+	 *
+	 * @return the number of result items in stock, {@link #UNLIMITED_STOCK}, or
+	 *         {@link #UNKNOWN_STOCK}
+	 */
+	public int getStock();
+
+	/**
+	 * Checks whether the shop was out of stock for this trade when it was last checked.
+	 *
+	 * @return <code>true</code> if out of stock
+	 */
+	public boolean isOutOfStock();
+}
@@ -0,0 +1,70 @@
+package com.nisovin.shopkeepers.api.shopkeeper.offers;
+
+import java.util.List;
+
+import org.bukkit.Material;
+
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+
+/**
+ * An index of the trades offered by all loaded shopkeepers, by the types of their result and cost
+ * items.
+ * <p>
+ * The index is maintained incrementally: Shopkeepers are re-indexed when they are added, when their
+ * data changes, when they are traded with, and when the container of a player shop is closed. To
+ * avoid performance drops, the re-indexing is spread over several ticks. Queries therefore return
+ * the offers as of the last re-indexing of each shopkeeper, and might not include shopkeepers that
+ * have only been added recently, for example right after the shopkeepers have been loaded.
+ * <p>
+ * The stock of player shops is only checked if the chunk of the shop's container is loaded, and is
+ * otherwise kept at its last known value. It might therefore not reflect changes to the shop's
+ * container that the index is not informed about, for example by hoppers.
+ * <p>
+ * The index is only accessed on the server's main thread.
+ */
+public interface OfferIndex {
+
+	/**
+	 * Gets the indexed offers whose result item is of the specified type.
+	 * <p>
+	 * The offers are ordered by the ids of their shopkeepers, and then by the order of the
+	 * shopkeeper's trades.
+	 *
+	 * @param itemType
+	 *            the item type, not <code>null</code>
+	 * @return an unmodifiable list of the matching offers, not <code>null</code>
+	 */
+	public List<? extends IndexedOffer> getOffersByResultItem(Material itemType);
+
+	/**
+	 * Gets the indexed offers whose first or second cost item is of the specified type.
+	 * <p>
+	 * The offers are ordered by the ids of their shopkeepers, and then by the order of the
+	 * shopkeeper's trades.
+	 *
+	 * @param itemType
+	 *            the item type, not <code>null</code>
+	 * @return an unmodifiable list of the matching offers, not <code>null</code>
+	 */
+	public List<? extends IndexedOffer> getOffersByCostItem(Material itemType);
+
+	/**
+	 * Gets the indexed offers of the given shopkeeper.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 * @return an unmodifiable list of the shopkeeper's offers, not <code>null</code>
+	 */
+	public List<? extends IndexedOffer> getOffers(Shopkeeper shopkeeper);
+
+	/**
+	 * Re-indexes the offers of the given shopkeeper, including its stock, within the next ticks.
+	 * <p>
+	 * This can be used to inform the index about changes that it would not notice otherwise, such
+	 * as changes to the container of a player shop by other plugins.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 */
+	public void invalidate(Shopkeeper shopkeeper);
+}
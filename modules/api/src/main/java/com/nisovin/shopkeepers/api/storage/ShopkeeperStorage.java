@@ -1,10 +1,32 @@
 package com.nisovin.shopkeepers.api.storage;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Responsible for persisting and loading the data of shopkeepers.
  */
 public interface ShopkeeperStorage {
 
+	/**
+	 * Gets informed about completed saves.
+	 */
+	public interface SaveListener {
+
+		/**
+		 * This is called on the server's main thread whenever a save of the shopkeeper data has
+		 * completed.
+		 * <p>
+		 * If the save succeeded, all data changes that the save included have been persisted.
+		 * <p>
+		 * This is called while the storage is still post-processing the save. Listeners must not
+		 * trigger any saves or wait for saves to complete from within this method.
+		 * 
+		 * @param succeeded
+		 *            <code>true</code> if the save succeeded, <code>false</code> if it failed
+		 */
+		public void onSaveCompleted(boolean succeeded);
+	}
+
 	/**
 	 * Checks whether there is a pending save request, or whether there are any data changes that
 	 * have not yet been persisted.
@@ -78,4 +100,52 @@ public interface ShopkeeperStorage {
 	 * for any current and pending saves to complete.
 	 */
 	public void saveIfDirtyAndAwaitCompletion();
+
+	/**
+	 * {@link #saveNow() Saves} the data of all shopkeepers and returns a future that completes once
+	 * that save has completed.
+	 * <p>
+	 * The future completes with <code>true</code> if the save succeeded, i.e. if all data changes
+	 * up to the call of this method have been persisted. It completes with <code>false</code> if
+	 * the save failed or if saving is currently disabled. In the case of a failure, the storage
+	 * automatically retries the save later, but the returned future is not affected by that.
+	 * <p>
+	 * The future is completed on the server's main thread. Unlike
+	 * {@link #saveIfDirtyAndAwaitCompletion()}, this does not block the main thread while the save
+	 * is in progress.
+	 * 
+	 * @return the future, not <code>null</code>
+	 */
+	public CompletableFuture<Boolean> saveAsync();
+
+	/**
+	 * Returns a future that completes once all data changes up to the call of this method have
+	 * been persisted.
+	 * <p>
+	 * If there are {@link #isDirty() unsaved data changes}, this triggers a save like
+	 * {@link #saveAsync()}. Otherwise, if a save is currently in progress, the future completes
+	 * once that save has completed. If there is neither, the returned future is already completed.
+	 * <p>
+	 * The future completes with <code>false</code> if the save failed or if saving is currently
+	 * disabled. The future is completed on the server's main thread.
+	 * 
+	 * @return the future, not <code>null</code>
+	 */
+	public CompletableFuture<Boolean> flush();
+
+	/**
+	 * Registers a {@link SaveListener} that is informed whenever a save has completed.
+	 * 
+	 * @param listener
+	 *            the listener, not <code>null</code>
+	 */
+	public void addSaveListener(SaveListener listener);
+
+	/**
+	 * Unregisters the given {@link SaveListener}.
+	 * 
+	 * @param listener
+	 *            the listener, not <code>null</code>
+	 */
+	public void removeSaveListener(SaveListener listener);
 }
@@ -35,7 +35,9 @@ public interface TradeEffect {
 	 * This is called when the trade is being applied, after most of the default trade application,
 	 * but before the {@link ShopkeeperTradeCompletedEvent}.
 	 * <p>
-	 * This can be used to apply additional trade effects.
+	 * This can be used to apply additional trade effects. For batched trades, this is only called
+	 * once, and the effect is expected to be applied {@link ShopkeeperTradeEvent#getTradeCount()}
+	 * times.
 	 * <p>
 	 * Do not modify the given {@link ShopkeeperTradeEvent} at this point!
 	 * 
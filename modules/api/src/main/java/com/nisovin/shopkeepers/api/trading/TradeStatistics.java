@@ -0,0 +1,167 @@
+package com.nisovin.shopkeepers.api.trading;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Aggregated statistics about the trades of all shopkeepers.
+ * <p>
+ * If enabled in the config, every logged trade is added to hourly and daily rollups per shop, per
+ * shop owner, and per item type. Each rollup stores the number of trades, the number of items the
+ * shops received and gave away, and the value of the currency items the shops received and gave
+ * away. Querying these rollups is therefore cheap, even if the raw trade logs are large.
+ * <p>
+ * The periods are aligned to UTC: Hourly rollups start at full hours, daily rollups start at
+ * midnight UTC. Trades are aggregated in batches, so recent trades might not be included in the
+ * rollups yet.
+ */
+public interface TradeStatistics {
+
+	/**
+	 * The length of the aggregated periods.
+	 */
+	public enum Period {
+		/**
+		 * Hourly rollups.
+		 */
+		HOUR,
+		/**
+		 * Daily rollups.
+		 */
+		DAY;
+	}
+
+	/**
+	 * The dimension by which trades are aggregated.
+	 */
+	public enum Dimension {
+		/**
+		 * Per shopkeeper, keyed by the shopkeeper's unique id.
+		 */
+		SHOP,
+		/**
+		 * Per shop owner, keyed by the owner's unique id. Only includes the trades with player
+		 * shops.
+		 */
+		OWNER,
+		/**
+		 * Per item type, keyed by the namespaced key of the item type, for example
+		 * {@code minecraft:diamond}.
+		 * <p>
+		 * Each trade is added to the rollups of all item types that are involved in the trade. The
+		 * received and given items only count the items of the respective type. The received
+		 * currency only counts the trades in which the shops gave away items of this type, and the
+		 * given currency only counts the trades in which the shops received items of this type.
+		 */
+		ITEM;
+	}
+
+	/**
+	 * The aggregated trades of a single {@link Dimension} key during a single {@link Period}.
+	 */
+	public interface Rollup {
+
+		/**
+		 * Gets the {@link Period}.
+		 *
+		 * @return the period
+		 */
+		public Period getPeriod();
+
+		/**
+		 * Gets the start of the period.
+		 *
+		 * @return the start of the period
+		 */
+		public Instant getPeriodStart();
+
+		/**
+		 * Gets the {@link Dimension}.
+		 *
+		 * @return the dimension
+		 */
+		public Dimension getDimension();
+
+		/**
+		 * Gets the key within the {@link #getDimension() dimension}.
+		 *
+		 * @return the key
+		 */
+		public String getKey();
+
+		/**
+		 * Gets the number of trades.
+		 *
+		 * @return the number of trades
+		 */
+		public long getTradeCount();
+
+		/**
+		 * Gets the number of items that the shops received from the trading players.
+		 *
+		 * @return the number of received items
+		 */
+		public long getItemsIn();
+
+		/**
+		 * Gets the number of items that the shops gave to the trading players.
+		 *
+		 * @return the number of given items
+		 */
+		public long getItemsOut();
+
+		/**
+		 * Gets the value of the currency items that the shops received from the trading players,
+		 * in units of the base currency.
+		 *
+		 * @return the value of the received currency items
+		 */
+		public long getCurrencyIn();
+
+		/**
+		 * Gets the value of the currency items that the shops gave to the trading players, in
+		 * units of the base currency.
+		 *
+		 * @return the value of the given currency items
+		 */
+		public long getCurrencyOut();
+	}
+
+	/**
+	 * Checks if trades are currently aggregated.
+	 * <p>
+	 * Rollups that have been aggregated previously can also be queried while this is disabled.
+	 *
+	 * @return <code>true</code> if enabled
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Queries the rollups of the specified key whose periods start within the specified time
+	 * range.
+	 * <p>
+	 * The query is executed asynchronously. The returned future might be completed on another
+	 * thread.
+	 *
+	 * @param period
+	 *            the period, not <code>null</code>
+	 * @param dimension
+	 *            the dimension, not <code>null</code>
+	 * @param key
+	 *            the key within the dimension, not <code>null</code>
+	 * @param from
+	 *            the start of the time range (inclusive), not <code>null</code>
+	 * @param to
+	 *            the end of the time range (exclusive), not <code>null</code>
+	 * @return a future that provides an unmodifiable list of the rollups, ordered by the start of
+	 *         their periods. Periods without trades are omitted.
+	 */
+	public CompletableFuture<List<? extends Rollup>> getRollups(
+			Period period,
+			Dimension dimension,
+			String key,
+			Instant from,
+			Instant to
+	);
+}
@@ -1,9 +1,11 @@
 package com.nisovin.shopkeepers;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -29,6 +31,7 @@ import com.nisovin.shopkeepers.compat.MC_1_21_4;
 import com.nisovin.shopkeepers.compat.ServerAssumptionsTest;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.config.lib.ConfigLoadException;
+import com.nisovin.shopkeepers.config.lib.ConfigSnapshot;
 import com.nisovin.shopkeepers.container.protection.ProtectedContainers;
 import com.nisovin.shopkeepers.container.protection.RemoveShopOnContainerBreak;
 import com.nisovin.shopkeepers.debug.Debug;
@@ -50,6 +53,7 @@ import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.SKDefaultShopTypes;
 import com.nisovin.shopkeepers.shopkeeper.SKShopTypesRegistry;
 import com.nisovin.shopkeepers.shopkeeper.migration.ShopkeeperDataMigrator;
+import com.nisovin.shopkeepers.shopkeeper.offers.SKOfferIndex;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopobjects.SKDefaultShopObjectTypes;
 import com.nisovin.shopkeepers.shopobjects.SKShopObjectTypesRegistry;
@@ -59,11 +63,13 @@ import com.nisovin.shopkeepers.shopobjects.living.LivingShops;
 import com.nisovin.shopkeepers.spigot.SpigotFeatures;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
 import com.nisovin.shopkeepers.tradelog.TradeLoggers;
+import com.nisovin.shopkeepers.tradelog.stats.SKTradeStatistics;
 import com.nisovin.shopkeepers.tradenotifications.TradeNotifications;
 import com.nisovin.shopkeepers.trading.commandtrading.CommandTrading;
 import com.nisovin.shopkeepers.ui.SKDefaultUITypes;
 import com.nisovin.shopkeepers.ui.SKUIRegistry;
 import com.nisovin.shopkeepers.ui.SKUISystem;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
 import com.nisovin.shopkeepers.util.java.ClassUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
@@ -98,6 +104,12 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 
 	private final ApiInternals apiInternals = new SKApiInternals();
 
+	// Executor for background work (e.g. saving): Needs to be initialized before the components
+	// that use it.
+	private final BackgroundExecutor backgroundExecutor = new BackgroundExecutor(
+			Unsafe.initialized(this)
+	);
+
 	// Shop types and shop object types registry:
 	private final SKShopTypesRegistry shopTypesRegistry = new SKShopTypesRegistry();
 	private final SKShopObjectTypesRegistry shopObjectTypesRegistry = new SKShopObjectTypesRegistry();
@@ -112,6 +124,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 			Unsafe.initialized(this)
 	);
 
+	// Offer index:
+	private final SKOfferIndex offerIndex = new SKOfferIndex(Unsafe.initialized(this));
+
 	// Shopkeeper storage:
 	private final SKShopkeeperStorage shopkeeperStorage = new SKShopkeeperStorage(
 			Unsafe.initialized(this)
@@ -124,6 +139,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 	private final InteractionInput interactionInput = new InteractionInput(Unsafe.initialized(this));
 
 	private final CommandTrading commandTrading = new CommandTrading(Unsafe.initialized(this));
+	private final SKTradeStatistics tradeStatistics = new SKTradeStatistics(Unsafe.initialized(this));
 	private final TradeLoggers tradeLoggers = new TradeLoggers(Unsafe.initialized(this));
 	private final TradeNotifications tradeNotifications = new TradeNotifications(
 			Unsafe.initialized(this)
@@ -291,6 +307,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 			return;
 		}
 
+		// Start the executor for background work:
+		backgroundExecutor.onEnable();
+
 		// Load config (if not already loaded during onLoad):
 		if (!alreadySetUp) {
 			this.configLoadError = Settings.loadConfig();
@@ -408,6 +427,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		// Enable shopkeeper registry:
 		shopkeeperRegistry.onEnable();
 
+		// Enable offer index:
+		offerIndex.onEnable();
+
 		// Debug log the registered shopkeeper data migrations:
 		if (Debug.isDebugging()) {
 			ShopkeeperDataMigrator.logRegisteredMigrations();
@@ -481,6 +503,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		// Disable shopkeeper registry: Unloads all shopkeepers.
 		shopkeeperRegistry.onDisable();
 
+		// Disable offer index:
+		offerIndex.onDisable();
+
 		// Shutdown shopkeeper storage (saves shopkeepers):
 		shopkeeperStorage.onDisable();
 
@@ -532,6 +557,11 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 			Compat.getProvider().onDisable();
 		}
 
+		// Wait for any remaining background tasks to complete:
+		// This needs to happen before we cancel our pending tasks, because the background tasks
+		// might schedule additional tasks.
+		backgroundExecutor.onDisable(ASYNC_TASKS_TIMEOUT_SECONDS);
+
 		HandlerList.unregisterAll(this);
 		Bukkit.getScheduler().cancelTasks(this);
 
@@ -547,6 +577,302 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		this.onEnable();
 	}
 
+	// The settings reload is based on an allowlist: Any changed setting that is not contained in
+	// one of the following sets of config keys triggers a full reload. New settings therefore need
+	// to be added here explicitly once they are known to be applied without a full reload.
+
+	// The config keys of the settings that are read whenever they are used, or whose derived
+	// settings are updated when the config is loaded, and that therefore take effect without
+	// refreshing any components:
+	private static final Set<String> LIVE_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"language",
+					"bypass-spawn-blocking",
+					"check-shop-interaction-result",
+					"enable-world-guard-restrictions",
+					"require-world-guard-allow-shop-flag",
+					"enable-towny-restrictions",
+					"check-spawn-location-interaction-result",
+					"disable-inventory-verification",
+					"shop-creation-item",
+					"add-shop-creation-item-tag",
+					"identify-shop-creation-item-by-tag",
+					"prevent-shop-creation-item-regular-usage",
+					"invert-shop-type-and-object-type-selection",
+					"deleting-player-shop-returns-creation-item",
+					"create-player-shop-with-command",
+					"require-container-recently-placed",
+					"max-container-distance",
+					"max-shops-per-player",
+					"max-shops-perm-options",
+					"default-citizen-npc-type",
+					"cancel-citizen-npc-interactions",
+					"save-citizen-npcs-instantly",
+					"snapshots-save-citizen-npc-data",
+					"name-regex",
+					"selling-empty-trade-result-item",
+					"selling-empty-trade-item1",
+					"selling-empty-trade-item2",
+					"selling-empty-item1",
+					"selling-empty-item2",
+					"buying-empty-trade-result-item",
+					"buying-empty-trade-item1",
+					"buying-empty-trade-item2",
+					"buying-empty-result-item",
+					"buying-empty-item2",
+					"trading-empty-trade-result-item",
+					"trading-empty-trade-item1",
+					"trading-empty-trade-item2",
+					"trading-empty-result-item",
+					"trading-empty-item1",
+					"trading-empty-item2",
+					"book-empty-trade-result-item",
+					"book-empty-trade-item1",
+					"book-empty-trade-item2",
+					"book-empty-item1",
+					"book-empty-item2",
+					"max-trades-pages",
+					"previous-page-item",
+					"next-page-item",
+					"current-page-item",
+					"trade-setup-item",
+					"placeholder-item",
+					"name-item",
+					"move-item",
+					"container-item",
+					"trade-notifications-item",
+					"delete-item",
+					"disable-other-villagers",
+					"hire-other-villagers",
+					"disable-wandering-traders",
+					"hire-wandering-traders",
+					"edit-regular-villagers",
+					"edit-regular-wandering-traders",
+					"hire-item",
+					"hire-other-villagers-costs",
+					"hire-require-creation-permission",
+					"prevent-trading-with-own-shop",
+					"prevent-trading-while-owner-is-online",
+					"use-strict-item-comparison",
+					"batch-shift-click-trades",
+					"increment-villager-statistics",
+					"simulate-trading-sounds-only-for-the-trading-player",
+					"trade-succeeded-sound",
+					"trade-failed-sound",
+					"tax-rate",
+					"tax-round-up",
+					"currency-item",
+					"high-currency-item",
+					"high-currency-value",
+					"high-currency-min-cost"
+			))
+	);
+
+	// The config keys of the settings that are applied by the living entity AI:
+	private static final Set<String> ENTITY_AI_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"mob-behavior-tick-period",
+					"disable-gravity",
+					"gravity-chunk-range",
+					"event-driven-gravity-checks"
+			))
+	);
+
+	// The config keys of the settings that are applied when the shop objects are spawned:
+	private static final Set<String> RESPAWN_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"disable-gravity",
+					"silence-living-shop-entities",
+					"shulker-peek-if-player-nearby",
+					"shulker-peek-height",
+					"slime-max-size",
+					"magma-cube-max-size",
+					"simulate-villager-ambient-sounds",
+					"simulate-wandering-trader-ambient-sounds",
+					"enable-glowing-sign-text"
+			))
+	);
+
+	// The config keys of the settings that are applied when the shopkeeper names are set:
+	private static final Set<String> NAMEPLATE_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"show-nameplates",
+					"always-show-nameplates"
+			))
+	);
+
+	// The config keys of the settings that are applied when the trade loggers are enabled:
+	private static final Set<String> TRADE_LOG_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"trade-log-storage",
+					"trade-log-merge-duration-ticks",
+					"trade-log-next-merge-timeout-ticks",
+					"log-item-metadata",
+					"trade-log-csv-compress-old-files",
+					"trade-log-csv-retention-days",
+					"trade-statistics"
+			))
+	);
+
+	// The config keys of the settings that are applied when the trade notifications are enabled:
+	// 'notify-shop-owners-about-trades' also affects the editor buttons of player shops, and
+	// therefore requires a full reload.
+	private static final Set<String> TRADE_NOTIFICATION_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"notify-players-about-trades",
+					"trade-notification-sound",
+					"shop-owner-trade-notification-sound",
+					"trade-notification-batch-ticks"
+			))
+	);
+
+	// The config keys of the settings that are applied when the regular villager listeners are
+	// registered:
+	private static final Set<String> REGULAR_VILLAGER_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"block-villager-spawns",
+					"block-wandering-trader-spawns",
+					"disable-zombie-villager-curing"
+			))
+	);
+
+	// The config keys of the settings that are applied when the event debugger is enabled, or are
+	// otherwise read whenever they are used:
+	private static final Set<String> DEBUG_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"debug",
+					"debug-options"
+			))
+	);
+
+	// The config keys of the settings that are applied by the shopkeeper storage:
+	private static final Set<String> STORAGE_SETTINGS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(
+					"save-instantly",
+					"save-instantly-min-interval-ticks"
+			))
+	);
+
+	private static final List<Set<String>> RELOADABLE_SETTINGS = Collections.unmodifiableList(
+			Arrays.asList(
+					LIVE_SETTINGS,
+					ENTITY_AI_SETTINGS,
+					RESPAWN_SETTINGS,
+					NAMEPLATE_SETTINGS,
+					TRADE_LOG_SETTINGS,
+					TRADE_NOTIFICATION_SETTINGS,
+					REGULAR_VILLAGER_SETTINGS,
+					DEBUG_SETTINGS,
+					STORAGE_SETTINGS
+			)
+	);
+
+	private static boolean isReloadableSetting(String key) {
+		for (Set<String> settings : RELOADABLE_SETTINGS) {
+			if (settings.contains(key)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reloads the config and language file, and only re-applies the changed settings to the
+	 * affected components.
+	 * <p>
+	 * Unlike {@link #reload()}, this keeps the loaded shopkeepers and their spawned shop objects.
+	 * If any of the changed settings is not known to be applied without a full reload, or if the
+	 * config cannot be loaded, this falls back to a full {@link #reload()}.
+	 *
+	 * @return <code>true</code> if the settings have been reloaded, <code>false</code> if a full
+	 *         reload was performed instead
+	 */
+	public boolean reloadSettings() {
+		ConfigSnapshot previousSettings = ConfigSnapshot.of(Settings.getInstance());
+		ConfigSnapshot previousMessages = ConfigSnapshot.of(Messages.getInstance());
+
+		ConfigLoadException configLoadError = Settings.loadConfig();
+		if (configLoadError != null) {
+			Log.severe("Could not reload the config! Performing a full reload.", configLoadError);
+			this.reload();
+			return false;
+		}
+		Messages.loadLanguageFile();
+
+		Set<String> changedSettings = previousSettings.getChangedKeys(
+				ConfigSnapshot.of(Settings.getInstance())
+		);
+		boolean messagesChanged = !previousMessages.getChangedKeys(
+				ConfigSnapshot.of(Messages.getInstance())
+		).isEmpty();
+
+		for (String key : changedSettings) {
+			if (!isReloadableSetting(key)) {
+				Log.info("Setting '" + key + "' has changed: Performing a full reload.");
+				this.reload();
+				return false;
+			}
+		}
+
+		// The open UIs might depend on the previous settings and messages:
+		uiRegistry.abortUISessions();
+
+		List<String> refreshed = new ArrayList<>();
+		if (!Collections.disjoint(changedSettings, ENTITY_AI_SETTINGS)) {
+			livingShops.getLivingEntityAI().onSettingsChanged();
+			refreshed.add("entity AI");
+		}
+
+		if (!Collections.disjoint(changedSettings, RESPAWN_SETTINGS)) {
+			// Copy, since respawning the shop objects might affect the active shopkeepers:
+			List<AbstractShopkeeper> activeShopkeepers = new ArrayList<>(
+					shopkeeperRegistry.getActiveShopkeepers()
+			);
+			for (AbstractShopkeeper shopkeeper : activeShopkeepers) {
+				shopkeeper.getShopObject().respawn();
+			}
+			refreshed.add("shop objects");
+		} else if (messagesChanged || !Collections.disjoint(changedSettings, NAMEPLATE_SETTINGS)) {
+			// Re-apply the shopkeeper names (nameplates and sign texts):
+			for (AbstractShopkeeper shopkeeper : shopkeeperRegistry.getActiveShopkeepers()) {
+				shopkeeper.getShopObject().setName(shopkeeper.getName());
+			}
+			refreshed.add("shopkeeper names");
+		}
+
+		if (!Collections.disjoint(changedSettings, TRADE_LOG_SETTINGS)) {
+			tradeLoggers.onDisable();
+			tradeLoggers.onEnable();
+			refreshed.add("trade loggers");
+		}
+
+		if (!Collections.disjoint(changedSettings, TRADE_NOTIFICATION_SETTINGS)) {
+			tradeNotifications.onDisable();
+			tradeNotifications.onEnable();
+			refreshed.add("trade notifications");
+		}
+
+		if (!Collections.disjoint(changedSettings, REGULAR_VILLAGER_SETTINGS)) {
+			regularVillagers.onDisable();
+			regularVillagers.onEnable();
+			refreshed.add("regular villagers");
+		}
+
+		if (!Collections.disjoint(changedSettings, DEBUG_SETTINGS)) {
+			eventDebugger.onDisable();
+			eventDebugger.onEnable();
+			refreshed.add("event debugger");
+		}
+
+		if (!Collections.disjoint(changedSettings, STORAGE_SETTINGS)) {
+			shopkeeperStorage.onSettingsChanged();
+			refreshed.add("storage");
+		}
+
+		Log.info("Reloaded settings: " + changedSettings.size() + " changed settings"
+				+ (messagesChanged ? ", changed messages" : "")
+				+ (refreshed.isEmpty() ? "" : " (refreshed: " + String.join(", ", refreshed) + ")"));
+		return true;
+	}
+
 	// PLAYER JOINING AND QUITTING
 
 	void onPlayerJoin(Player player) {
@@ -576,6 +902,10 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return forcingEntityTeleporter;
 	}
 
+	public BackgroundExecutor getBackgroundExecutor() {
+		return backgroundExecutor;
+	}
+
 	// SHOPKEEPER REGISTRY
 
 	@Override
@@ -583,6 +913,13 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return shopkeeperRegistry;
 	}
 
+	// OFFER INDEX
+
+	@Override
+	public SKOfferIndex getOfferIndex() {
+		return offerIndex;
+	}
+
 	// SHOPKEEPER STORAGE
 
 	@Override
@@ -590,6 +927,13 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return shopkeeperStorage;
 	}
 
+	// TRADE STATISTICS
+
+	@Override
+	public SKTradeStatistics getTradeStatistics() {
+		return tradeStatistics;
+	}
+
 	// ITEM UPDATES
 
 	@Override
@@ -0,0 +1,261 @@
+package com.nisovin.shopkeepers.commands;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Applies command actions to large numbers of elements (e.g. shopkeepers) in time-budgeted slices
+ * that are spread across multiple ticks, instead of processing all elements within a single tick.
+ * <p>
+ * Each command sender can have at most one running bulk operation at a time. While the operation is
+ * running, the command sender is periodically informed about the progress, and can cancel the
+ * operation via {@link #handleCancellation(CommandSender)}.
+ */
+public class BulkOperations {
+
+	/**
+	 * The outcome of a bulk operation.
+	 */
+	public static final class Result {
+
+		private final int processed;
+		private final int total;
+		private final boolean cancelled;
+
+		private Result(int processed, int total, boolean cancelled) {
+			this.processed = processed;
+			this.total = total;
+			this.cancelled = cancelled;
+		}
+
+		/**
+		 * Gets the number of elements that have been processed.
+		 *
+		 * @return the number of processed elements
+		 */
+		public int getProcessed() {
+			return processed;
+		}
+
+		/**
+		 * Gets the total number of elements of the operation.
+		 *
+		 * @return the total number of elements
+		 */
+		public int getTotal() {
+			return total;
+		}
+
+		/**
+		 * Checks if the operation has been cancelled before all elements could be processed.
+		 *
+		 * @return <code>true</code> if the operation has been cancelled
+		 */
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	private class RunningOperation<E> implements Runnable {
+
+		private final Object senderKey;
+		private final CommandSender sender;
+		private final List<? extends E> elements;
+		private final Consumer<? super E> action;
+		private final Consumer<? super Result> onCompletion;
+		private final BukkitTask task;
+
+		private int nextIndex = 0;
+		private long lastProgressMessageNanos = System.nanoTime();
+
+		RunningOperation(
+				Object senderKey,
+				CommandSender sender,
+				List<? extends E> elements,
+				Consumer<? super E> action,
+				Consumer<? super Result> onCompletion
+		) {
+			this.senderKey = senderKey;
+			this.sender = sender;
+			this.elements = elements;
+			this.action = action;
+			this.onCompletion = onCompletion;
+			this.task = Bukkit.getScheduler().runTaskTimer(
+					plugin,
+					Unsafe.initialized(this),
+					1L,
+					1L
+			);
+		}
+
+		@Override
+		public void run() {
+			int total = elements.size();
+			long startNanos = System.nanoTime();
+			// We always process at least one element per tick:
+			do {
+				E element = elements.get(nextIndex);
+				nextIndex++;
+				action.accept(element);
+			} while (nextIndex < total && System.nanoTime() - startNanos < TICK_BUDGET_NANOS);
+
+			if (nextIndex >= total) {
+				this.end(false);
+				return;
+			}
+
+			long nowNanos = System.nanoTime();
+			if (nowNanos - lastProgressMessageNanos >= PROGRESS_MESSAGE_INTERVAL_NANOS) {
+				lastProgressMessageNanos = nowNanos;
+				TextUtils.sendMessage(sender, Messages.bulkOperationProgress,
+						"processed", nextIndex,
+						"total", total
+				);
+			}
+		}
+
+		void end(boolean cancelled) {
+			task.cancel();
+			runningOperations.remove(senderKey, this);
+			onCompletion.accept(new Result(nextIndex, elements.size(), cancelled));
+		}
+
+		// Ends the operation without informing the completion callback.
+		void abort() {
+			task.cancel();
+			runningOperations.remove(senderKey, this);
+		}
+	}
+
+	// The maximum duration per tick that we spend on processing the elements of a bulk operation:
+	private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5L);
+	private static final long PROGRESS_MESSAGE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+	private final Plugin plugin;
+	// Uses the same type of command sender keys as the confirmations.
+	private final Map<Object, RunningOperation<?>> runningOperations = new HashMap<>();
+
+	public BulkOperations(Plugin plugin) {
+		this.plugin = plugin;
+	}
+
+	public void onEnable() {
+	}
+
+	public void onDisable() {
+		// Abort all running operations:
+		for (RunningOperation<?> operation : runningOperations.values().toArray(
+				new RunningOperation<?>[0]
+		)) {
+			operation.abort();
+		}
+		assert runningOperations.isEmpty();
+	}
+
+	public void onPlayerQuit(Player player) {
+		assert player != null;
+		RunningOperation<?> operation = this.getRunningOperation(player);
+		if (operation != null) {
+			// Cancel the operation, but still inform the completion callback, e.g. so that it can
+			// trigger a save of the already applied changes:
+			operation.end(true);
+		}
+	}
+
+	/**
+	 * Checks if the given command sender has a running bulk operation.
+	 *
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 * @return <code>true</code> if there is a running bulk operation
+	 */
+	public boolean isRunning(CommandSender sender) {
+		Validate.notNull(sender, "sender is null");
+		return runningOperations.containsKey(Confirmations.getSenderKey(sender));
+	}
+
+	/**
+	 * Starts a new bulk operation that applies the given action to all the given elements.
+	 * <p>
+	 * The elements are processed in the given order, starting with the next tick. The given list is
+	 * expected to not be modified while the operation is running. Since the state of the elements
+	 * might change while the operation is running, the action is expected to check if the element
+	 * is still valid.
+	 * <p>
+	 * If the command sender already has a running bulk operation, the new operation is not started
+	 * and the sender is informed.
+	 *
+	 * @param <E>
+	 *            the element type
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 * @param elements
+	 *            the elements to process, not <code>null</code> or empty
+	 * @param action
+	 *            the action to apply to each element, not <code>null</code>
+	 * @param onCompletion
+	 *            invoked once all elements have been processed, or the operation has been cancelled
+	 *            by the command sender or because the player quit, not <code>null</code>
+	 * @return <code>true</code> if the operation has been started
+	 */
+	public <E> boolean start(
+			CommandSender sender,
+			List<? extends E> elements,
+			Consumer<? super E> action,
+			Consumer<? super Result> onCompletion
+	) {
+		Validate.notNull(sender, "sender is null");
+		Validate.notNull(elements, "elements is null");
+		Validate.isTrue(!elements.isEmpty(), "elements is empty");
+		Validate.notNull(action, "action is null");
+		Validate.notNull(onCompletion, "onCompletion is null");
+
+		Object senderKey = Confirmations.getSenderKey(sender);
+		if (runningOperations.containsKey(senderKey)) {
+			TextUtils.sendMessage(sender, Messages.bulkOperationAlreadyRunning);
+			return false;
+		}
+
+		runningOperations.put(senderKey, new RunningOperation<>(
+				senderKey,
+				sender,
+				elements,
+				action,
+				onCompletion
+		));
+		return true;
+	}
+
+	private @Nullable RunningOperation<?> getRunningOperation(CommandSender sender) {
+		return runningOperations.get(Confirmations.getSenderKey(sender));
+	}
+
+	public void handleCancellation(CommandSender sender) {
+		Validate.notNull(sender, "sender is null");
+		RunningOperation<?> operation = this.getRunningOperation(sender);
+		if (operation != null) {
+			TextUtils.sendMessage(sender, Messages.bulkOperationCancelled,
+					"processed", operation.nextIndex,
+					"total", operation.elements.size()
+			);
+			operation.end(true);
+		} else {
+			TextUtils.sendMessage(sender, Messages.nothingToCancel);
+		}
+	}
+}
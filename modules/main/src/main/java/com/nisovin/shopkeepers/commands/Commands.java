@@ -11,27 +11,32 @@ public class Commands {
 
 	private final SKShopkeepersPlugin plugin;
 	private final Confirmations confirmations;
+	private final BulkOperations bulkOperations;
 
 	private @Nullable ShopkeepersCommand shopkeepersCommand;
 
 	public Commands(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
 		this.confirmations = new Confirmations(plugin);
+		this.bulkOperations = new BulkOperations(plugin);
 	}
 
 	public void onEnable() {
 		confirmations.onEnable();
+		bulkOperations.onEnable();
 		// Register command executor:
-		shopkeepersCommand = new ShopkeepersCommand(plugin, confirmations);
+		shopkeepersCommand = new ShopkeepersCommand(plugin, confirmations, bulkOperations);
 	}
 
 	public void onDisable() {
 		confirmations.onDisable();
+		bulkOperations.onDisable();
 	}
 
 	public void onPlayerQuit(Player player) {
 		assert player != null;
 		confirmations.onPlayerQuit(player);
+		bulkOperations.onPlayerQuit(player);
 	}
 
 	public ShopkeepersCommand getShopkeepersCommand() {
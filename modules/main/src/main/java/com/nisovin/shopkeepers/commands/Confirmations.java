@@ -53,7 +53,8 @@ public class Confirmations {
 		pendingConfirmations.clear();
 	}
 
-	private Object getSenderKey(CommandSender sender) {
+	// Also used to track other per command sender state, such as running bulk operations.
+	static Object getSenderKey(CommandSender sender) {
 		// Note: We cannot use the CommandSender instance itself as key, because for some types of
 		// command senders we might get a new instance for each invoked command.
 		if (sender instanceof Player) {
@@ -61,7 +62,7 @@ public class Confirmations {
 		} else if (sender instanceof ProxiedCommandSender) {
 			// Messages and permission checks use the caller, so we also use the caller for
 			// confirmations.
-			return this.getSenderKey(((ProxiedCommandSender) sender).getCaller());
+			return getSenderKey(((ProxiedCommandSender) sender).getCaller());
 		} else {
 			// Any other type of command sender (console, rcon, command blocks, etc.).
 			// Using the CommandSender's class as key allows us to track separate pending
@@ -91,7 +92,7 @@ public class Confirmations {
 		}, timeoutTicks).getTaskId();
 
 		PendingConfirmation previousPendingConfirmation = pendingConfirmations.put(
-				this.getSenderKey(sender),
+				getSenderKey(sender),
 				new PendingConfirmation(action, taskId)
 		);
 		if (previousPendingConfirmation != null) {
@@ -103,7 +104,7 @@ public class Confirmations {
 	// Returns the action that was awaiting confirmation.
 	public @Nullable Runnable endConfirmation(CommandSender sender) {
 		Validate.notNull(sender, "sender is null");
-		PendingConfirmation pendingConfirmation = pendingConfirmations.remove(this.getSenderKey(sender));
+		PendingConfirmation pendingConfirmation = pendingConfirmations.remove(getSenderKey(sender));
 		if (pendingConfirmation != null) {
 			// End confirmation task:
 			Bukkit.getScheduler().cancelTask(pendingConfirmation.getTaskId());
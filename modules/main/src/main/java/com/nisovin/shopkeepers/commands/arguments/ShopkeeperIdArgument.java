@@ -15,7 +15,6 @@ import com.nisovin.shopkeepers.commands.lib.arguments.IntegerArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.ObjectIdArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils;
-import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils.TargetShopkeeperFilter;
 import com.nisovin.shopkeepers.util.java.ConversionUtils;
 
 /**
@@ -60,8 +59,8 @@ public class ShopkeeperIdArgument extends ObjectIdArgument<Integer> {
 	/**
 	 * Gets the default id completion suggestions.
 	 * <p>
-	 * This always suggests the id of the targeted shopkeeper(s), regardless of the
-	 * {@code minimumCompletionInput} argument.
+	 * This always suggests the ids of the targeted shopkeeper(s) and of the shopkeepers nearest to
+	 * the command sender, regardless of the {@code minimumCompletionInput} argument.
 	 * 
 	 * @param input
 	 *            the command input, not <code>null</code>
@@ -88,24 +87,23 @@ public class ShopkeeperIdArgument extends ObjectIdArgument<Integer> {
 			return Collections.emptyList();
 		}
 
-		// Suggestion for the id(s) of the targeted shopkeeper(s):
+		// Suggestions for the ids of the targeted and nearby shopkeepers:
 		CommandSender sender = input.getSender();
-		List<? extends Shopkeeper> targetedShopkeepers = ShopkeeperArgumentUtils.getTargetedShopkeepers(
-				sender,
-				TargetShopkeeperFilter.ANY
+		List<? extends Shopkeeper> preferredShopkeepers = ShopkeeperArgumentUtils.getTargetedAndNearbyShopkeepers(
+				sender
 		);
 
 		// Only provide other suggestions if there is a minimum length input:
 		Stream<Shopkeeper> shopkeepersStream;
 		if (idPrefix.length() >= minimumCompletionInput) {
 			shopkeepersStream = Stream.concat(
-					targetedShopkeepers.stream(),
+					preferredShopkeepers.stream(),
 					ShopkeepersAPI.getShopkeeperRegistry().getAllShopkeepers().stream()
-							.filter(shopkeeper -> !targetedShopkeepers.contains(shopkeeper))
+							.filter(shopkeeper -> !preferredShopkeepers.contains(shopkeeper))
 			);
 		} else {
 			// TODO CheckerFramework complains when using a wildcard Stream here.
-			shopkeepersStream = Unsafe.castNonNull(targetedShopkeepers.stream());
+			shopkeepersStream = Unsafe.castNonNull(preferredShopkeepers.stream());
 		}
 
 		// Note: No normalization required.
@@ -15,7 +15,6 @@ import com.nisovin.shopkeepers.commands.lib.argument.filter.ArgumentFilter;
 import com.nisovin.shopkeepers.commands.lib.arguments.ObjectUUIDArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils;
-import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils.TargetShopkeeperFilter;
 
 /**
  * Provides suggestions for the UUIDs of existing shopkeepers.
@@ -53,8 +52,8 @@ public class ShopkeeperUUIDArgument extends ObjectUUIDArgument {
 	/**
 	 * Gets the default uuid completion suggestions.
 	 * <p>
-	 * This always suggests the uuid of the targeted shopkeeper(s), regardless of the
-	 * {@code minimumCompletionInput} argument.
+	 * This always suggests the uuids of the targeted shopkeeper(s) and of the shopkeepers nearest
+	 * to the command sender, regardless of the {@code minimumCompletionInput} argument.
 	 * 
 	 * @param input
 	 *            the command input, not <code>null</code>
@@ -77,11 +76,10 @@ public class ShopkeeperUUIDArgument extends ObjectUUIDArgument {
 			ArgumentFilter<? super Shopkeeper> filter
 	) {
 		String normalizedUUIDPrefix = uuidPrefix.toLowerCase(Locale.ROOT);
-		// Suggestion for the unique id(s) of the targeted shopkeeper(s):
+		// Suggestions for the unique ids of the targeted and nearby shopkeepers:
 		CommandSender sender = input.getSender();
-		List<? extends Shopkeeper> targetedShopkeepers = ShopkeeperArgumentUtils.getTargetedShopkeepers(
-				sender,
-				TargetShopkeeperFilter.ANY
+		List<? extends Shopkeeper> preferredShopkeepers = ShopkeeperArgumentUtils.getTargetedAndNearbyShopkeepers(
+				sender
 		);
 
 		// Only provide other suggestions if there is a minimum length input:
@@ -89,13 +87,13 @@ public class ShopkeeperUUIDArgument extends ObjectUUIDArgument {
 		if (uuidPrefix.length() >= minimumCompletionInput) {
 			// TODO Improve by using a TreeMap for the prefix matching?
 			shopkeepersStream = Stream.concat(
-					targetedShopkeepers.stream(),
+					preferredShopkeepers.stream(),
 					ShopkeepersAPI.getShopkeeperRegistry().getAllShopkeepers().stream()
-							.filter(shopkeeper -> !targetedShopkeepers.contains(shopkeeper))
+							.filter(shopkeeper -> !preferredShopkeepers.contains(shopkeeper))
 			);
 		} else {
 			// TODO CheckerFramework complains when using a wildcard Stream here.
-			shopkeepersStream = Unsafe.castNonNull(targetedShopkeepers.stream());
+			shopkeepersStream = Unsafe.castNonNull(preferredShopkeepers.stream());
 		}
 
 		return shopkeepersStream
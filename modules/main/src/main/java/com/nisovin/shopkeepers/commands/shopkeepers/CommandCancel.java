@@ -0,0 +1,29 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import com.nisovin.shopkeepers.commands.BulkOperations;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.text.Text;
+
+class CommandCancel extends Command {
+
+	private final BulkOperations bulkOperations;
+
+	CommandCancel(BulkOperations bulkOperations) {
+		super("cancel");
+		this.bulkOperations = bulkOperations;
+
+		// Set description:
+		this.setDescription(Text.of("Cancels a running bulk operation."));
+
+		// Hidden command:
+		this.setHiddenInParentHelp(true);
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		bulkOperations.handleCancellation(input.getSender());
+	}
+}
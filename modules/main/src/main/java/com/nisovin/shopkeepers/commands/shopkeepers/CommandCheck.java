@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -14,6 +15,7 @@ import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Entity;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
@@ -31,9 +33,15 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.shopkeeper.activation.ShopkeeperChunkActivator;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopkeeper.spawning.ShopkeeperSpawner;
+import com.nisovin.shopkeepers.shopobjects.citizens.CitizensShops;
 import com.nisovin.shopkeepers.shopobjects.living.LivingEntityAI;
+import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
+import com.nisovin.shopkeepers.storage.StoragePhaseTimings;
+import com.nisovin.shopkeepers.storage.StoragePhaseTimings.ShopkeeperTiming;
 import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.inventory.ItemInterner;
 import com.nisovin.shopkeepers.util.taskqueue.TaskQueueStatistics;
 import com.nisovin.shopkeepers.util.timer.Timings;
 
@@ -70,6 +78,28 @@ class CommandCheck extends Command {
 		), true).optional()); // Join formats
 	}
 
+	private void sendStorageTimings(
+			CommandSender sender,
+			String label,
+			@Nullable StoragePhaseTimings timings
+	) {
+		if (timings == null) {
+			sender.sendMessage("  " + label + ": -");
+			return;
+		}
+		sender.sendMessage("  " + label + " (shopkeepers | total): " + timings.getShopkeeperCount()
+				+ " | " + TextUtils.format(timings.getTotalTimeMillis()) + " ms");
+		timings.getPhaseTimesMillis().forEach((phase, millis) -> {
+			sender.sendMessage("    " + phase + ": " + TextUtils.format(millis) + " ms");
+		});
+		List<? extends ShopkeeperTiming> slowest = timings.getSlowestShopkeepers();
+		if (!slowest.isEmpty()) {
+			sender.sendMessage("    Slowest shopkeepers: " + slowest.stream()
+					.map(ShopkeeperTiming::toString)
+					.collect(Collectors.joining(", ")));
+		}
+	}
+
 	@Override
 	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
 		CommandSender sender = input.getSender();
@@ -92,6 +122,7 @@ class CommandCheck extends Command {
 				+ plugin.getShopkeeperStorage().getUnsavedDirtyShopkeepersCount()
 				+ " | " + plugin.getShopkeeperStorage().getUnsavedDeletedShopkeepersCount()
 				+ " | " + plugin.getShopkeeperStorage().isDirty());
+		sender.sendMessage("  Interned offer items: " + ItemInterner.getSize());
 		sender.sendMessage("  Chunks with shopkeepers: " + totalChunksWithShopkeepers);
 		sender.sendMessage("    With active AI: " + livingEntityAI.getActiveAIChunksCount());
 		sender.sendMessage("    With active gravity: " + livingEntityAI.getActiveGravityChunksCount());
@@ -103,6 +134,33 @@ class CommandCheck extends Command {
 		TaskQueueStatistics spawnQueueStatistics = shopkeeperSpawner.getSpawnQueueStatistics();
 		sender.sendMessage("  Pending shopkeeper spawns | max: " + spawnQueueStatistics.getPendingCount()
 				+ " | " + spawnQueueStatistics.getMaxPendingCount());
+		sender.sendMessage("  Pending offer index updates: "
+				+ plugin.getOfferIndex().getStaleShopkeeperCount());
+
+		BackgroundExecutor backgroundExecutor = plugin.getBackgroundExecutor();
+		sender.sendMessage("  Background tasks (pending | max | active | done): "
+				+ backgroundExecutor.getPendingCount()
+				+ " | " + backgroundExecutor.getMaxPendingCount()
+				+ " | " + backgroundExecutor.getActiveCount()
+				+ " | " + backgroundExecutor.getExecutedCount());
+		sender.sendMessage("    Delay (avg | max): "
+				+ TextUtils.format(backgroundExecutor.getAverageDelayMillis()) + " ms"
+				+ " | " + TextUtils.format(backgroundExecutor.getMaxDelayMillis()) + " ms");
+		sender.sendMessage("    Execution (avg | max): "
+				+ TextUtils.format(backgroundExecutor.getAverageExecutionMillis()) + " ms"
+				+ " | " + TextUtils.format(backgroundExecutor.getMaxExecutionMillis()) + " ms");
+
+		SKShopkeeperStorage shopkeeperStorage = plugin.getShopkeeperStorage();
+		this.sendStorageTimings(sender, "Last save", shopkeeperStorage.getLastSaveTimings());
+		this.sendStorageTimings(sender, "Last load", shopkeeperStorage.getLastLoadTimings());
+
+		CitizensShops citizensShops = plugin.getCitizensShops();
+		Timings citizensSaveTimings = citizensShops.getNPCSaveTimings();
+		sender.sendMessage("  Citizens NPC saves (requested | done | avg | max): "
+				+ citizensShops.getRequestedNPCSaves()
+				+ " | " + citizensSaveTimings.getCounter()
+				+ " | " + TextUtils.format(citizensSaveTimings.getAverageTimeMillis()) + " ms"
+				+ " | " + TextUtils.format(citizensSaveTimings.getMaxTimeMillis()) + " ms");
 
 		Timings chunkActivationTimings = chunkActivator.getChunkActivationTimings();
 		double avgChunkActivationTimings = chunkActivationTimings.getAverageTimeMillis();
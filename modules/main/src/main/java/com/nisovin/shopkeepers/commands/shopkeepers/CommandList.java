@@ -2,9 +2,11 @@ package com.nisovin.shopkeepers.commands.shopkeepers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
@@ -15,6 +17,7 @@ import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
@@ -26,6 +29,7 @@ import com.nisovin.shopkeepers.commands.lib.arguments.PlayerUUIDArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.PositiveIntegerArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.SenderPlayerNameFallback;
 import com.nisovin.shopkeepers.commands.lib.arguments.TransformedArgument;
+import com.nisovin.shopkeepers.commands.lib.commands.PlayerCommand;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.commands.lib.util.PlayerArgumentUtils;
 import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils;
@@ -33,17 +37,20 @@ import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils.OwnedPlayer
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.PredicateUtils;
 
 class CommandList extends Command {
 
 	private static final String ARGUMENT_ALL = "all";
 	private static final String ARGUMENT_ADMIN = "admin";
+	private static final String ARGUMENT_NEARBY = "nearby";
 	private static final String ARGUMENT_PLAYER = "player";
 	private static final String ARGUMENT_PLAYER_NAME = "player:name";
 	private static final String ARGUMENT_PLAYER_UUID = "player:uuid";
 	private static final String ARGUMENT_PAGE = "page";
 
 	private static final int ENTRIES_PER_PAGE = 8;
+	private static final int NEARBY_SHOPS_RANGE = 50;
 
 	private final ShopkeeperRegistry shopkeeperRegistry;
 
@@ -60,6 +67,7 @@ class CommandList extends Command {
 		this.addArgument(new FirstOfArgument("target", Arrays.asList(
 				new LiteralArgument(ARGUMENT_ALL),
 				new LiteralArgument(ARGUMENT_ADMIN),
+				new LiteralArgument(ARGUMENT_NEARBY),
 				new FirstOfArgument(ARGUMENT_PLAYER, Arrays.asList(
 						// TODO Provide completions for known shop owners?
 						new PlayerUUIDArgument(ARGUMENT_PLAYER_UUID), // Accepts any uuid
@@ -92,29 +100,42 @@ class CommandList extends Command {
 		int page = context.get(ARGUMENT_PAGE);
 		boolean listAllShops = context.has(ARGUMENT_ALL);
 		boolean listAdminShops = context.has(ARGUMENT_ADMIN);
+		boolean listNearbyShops = context.has(ARGUMENT_NEARBY);
 		UUID targetPlayerUUID = context.getOrNull(ARGUMENT_PLAYER_UUID); // Can be null
 		String targetPlayerName = context.getOrNull(ARGUMENT_PLAYER_NAME); // Can be null
-		assert listAllShops ^ listAdminShops ^ (targetPlayerUUID != null ^ targetPlayerName != null);
+		assert listAllShops ^ listAdminShops ^ listNearbyShops
+				^ (targetPlayerUUID != null ^ targetPlayerName != null);
 
-		List<? extends Shopkeeper> shops;
+		// Note: We avoid copying all matching shops, since we only need the shops on the requested
+		// page.
+		Collection<? extends Shopkeeper> shops;
+		Predicate<? super Shopkeeper> filter;
 		if (listAllShops) {
 			// Permission check:
 			this.checkPermission(sender, ShopkeepersPlugin.LIST_ADMIN_PERMISSION);
 			this.checkPermission(sender, ShopkeepersPlugin.LIST_OTHERS_PERMISSION);
 
-			shops = new ArrayList<>(shopkeeperRegistry.getAllShopkeepers());
+			shops = shopkeeperRegistry.getAllShopkeepers();
+			filter = PredicateUtils.alwaysTrue();
 		} else if (listAdminShops) {
 			// Permission check:
 			this.checkPermission(sender, ShopkeepersPlugin.LIST_ADMIN_PERMISSION);
 
 			// Searching admin shops:
-			List<Shopkeeper> adminShops = new ArrayList<>();
-			for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
-				if (shopkeeper instanceof AdminShopkeeper) {
-					adminShops.add(shopkeeper);
-				}
+			shops = shopkeeperRegistry.getAllShopkeepers();
+			filter = shopkeeper -> shopkeeper instanceof AdminShopkeeper;
+		} else if (listNearbyShops) {
+			if (!(sender instanceof Player)) {
+				throw PlayerCommand.createCommandSourceRejectedException(sender);
 			}
-			shops = adminShops;
+			Player player = (Player) sender;
+
+			// Only the nearby shops that the player is allowed to list are included:
+			shops = shopkeeperRegistry.getShopkeepersInRadius(
+					player.getLocation(),
+					NEARBY_SHOPS_RANGE
+			);
+			filter = shopkeeper -> canList(player, shopkeeper);
 		} else {
 			// Check if the target matches the sender player:
 			boolean targetOwnShops = false;
@@ -178,12 +199,19 @@ class CommandList extends Command {
 
 			// Get found shops:
 			shops = ownedPlayerShopsResult.getShops();
+			filter = PredicateUtils.alwaysTrue();
 		}
-		assert shops != null;
+		assert shops != null && filter != null;
 
-		int shopsCount = shops.size();
+		List<Shopkeeper> pageShops = new ArrayList<>(ENTRIES_PER_PAGE);
+		int shopsCount = collectPage(shops, filter, page, pageShops);
 		int maxPage = Math.max(1, (int) Math.ceil((double) shopsCount / ENTRIES_PER_PAGE));
-		page = Math.max(1, Math.min(page, maxPage));
+		if (page > maxPage) {
+			// Collect the shops of the last page instead:
+			page = maxPage;
+			pageShops.clear();
+			collectPage(shops, filter, page, pageShops);
+		}
 
 		if (listAllShops) {
 			// Listing all shops:
@@ -199,6 +227,14 @@ class CommandList extends Command {
 					"page", page,
 					"maxPage", maxPage
 			);
+		} else if (listNearbyShops) {
+			// Listing nearby shops, ordered by distance:
+			TextUtils.sendMessage(sender, Messages.listNearbyShopsHeader,
+					"range", NEARBY_SHOPS_RANGE,
+					"shopsCount", shopsCount,
+					"page", page,
+					"maxPage", maxPage
+			);
 		} else {
 			// Listing player shops:
 			TextUtils.sendMessage(sender, Messages.listPlayerShopsHeader,
@@ -210,9 +246,9 @@ class CommandList extends Command {
 		}
 
 		int startIndex = (page - 1) * ENTRIES_PER_PAGE;
-		int endIndex = Math.min(startIndex + ENTRIES_PER_PAGE, shopsCount);
-		for (int index = startIndex; index < endIndex; index++) {
-			Shopkeeper shopkeeper = shops.get(index);
+		for (int pageIndex = 0; pageIndex < pageShops.size(); pageIndex++) {
+			int index = startIndex + pageIndex;
+			Shopkeeper shopkeeper = pageShops.get(pageIndex);
 			String shopName = shopkeeper.getName(); // Can be empty
 			// TODO Add shop info as hover text.
 			// TODO Add owner name/uuid as message arguments?
@@ -234,4 +270,43 @@ class CommandList extends Command {
 			);
 		}
 	}
+
+	// Also used by the search command to hide the shops that the sender is not allowed to list.
+	static boolean canList(CommandSender sender, Shopkeeper shopkeeper) {
+		if (shopkeeper instanceof PlayerShopkeeper) {
+			PlayerShopkeeper playerShop = (PlayerShopkeeper) shopkeeper;
+			if (sender instanceof Player && playerShop.isOwner((Player) sender)) {
+				return PermissionUtils.hasPermission(sender, ShopkeepersPlugin.LIST_OWN_PERMISSION);
+			} else {
+				return PermissionUtils.hasPermission(
+						sender,
+						ShopkeepersPlugin.LIST_OTHERS_PERMISSION
+				);
+			}
+		} else {
+			return PermissionUtils.hasPermission(sender, ShopkeepersPlugin.LIST_ADMIN_PERMISSION);
+		}
+	}
+
+	// Adds the matching shops of the specified page to the given list, and returns the total number
+	// of matching shops.
+	private static int collectPage(
+			Collection<? extends Shopkeeper> shops,
+			Predicate<? super Shopkeeper> filter,
+			int page,
+			List<Shopkeeper> pageShops
+	) {
+		// Long to avoid overflows for large page numbers:
+		long startIndex = (long) (page - 1) * ENTRIES_PER_PAGE;
+		long endIndex = startIndex + ENTRIES_PER_PAGE;
+		int matchingShopsCount = 0;
+		for (Shopkeeper shopkeeper : shops) {
+			if (!filter.test(shopkeeper)) continue;
+			if (matchingShopsCount >= startIndex && matchingShopsCount < endIndex) {
+				pageShops.add(shopkeeper);
+			}
+			matchingShopsCount++;
+		}
+		return matchingShopsCount;
+	}
 }
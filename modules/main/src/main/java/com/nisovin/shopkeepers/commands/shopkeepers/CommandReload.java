@@ -8,11 +8,14 @@ import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.lang.Messages;
 
 class CommandReload extends Command {
 
+	private static final String ARGUMENT_CONFIG = "config";
+
 	private final SKShopkeepersPlugin plugin;
 
 	CommandReload(SKShopkeepersPlugin plugin) {
@@ -24,12 +27,26 @@ class CommandReload extends Command {
 
 		// Set description:
 		this.setDescription(Messages.commandDescriptionReload);
+
+		// Arguments:
+		this.addArgument(new LiteralArgument(ARGUMENT_CONFIG).optional());
 	}
 
 	@Override
 	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
 		CommandSender sender = input.getSender();
 
+		if (context.has(ARGUMENT_CONFIG)) {
+			// Only reload the config and language file, if possible:
+			if (plugin.reloadSettings()) {
+				sender.sendMessage(ChatColor.GREEN + "Shopkeepers config reloaded!");
+			} else {
+				sender.sendMessage(ChatColor.GREEN + "Shopkeepers plugin reloaded! "
+						+ "(The changed settings required a full reload)");
+			}
+			return;
+		}
+
 		// Reload plugin:
 		plugin.reload();
 		sender.sendMessage(ChatColor.GREEN + "Shopkeepers plugin reloaded!");
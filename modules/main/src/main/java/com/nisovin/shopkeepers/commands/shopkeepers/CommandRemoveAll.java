@@ -9,6 +9,7 @@ import java.util.UUID;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.events.PlayerDeleteShopkeeperEvent;
@@ -17,6 +18,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.commands.BulkOperations;
 import com.nisovin.shopkeepers.commands.Confirmations;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
@@ -49,16 +51,19 @@ class CommandRemoveAll extends Command {
 	private final ShopkeepersPlugin plugin;
 	private final ShopkeeperRegistry shopkeeperRegistry;
 	private final Confirmations confirmations;
+	private final BulkOperations bulkOperations;
 
 	CommandRemoveAll(
 			ShopkeepersPlugin plugin,
 			ShopkeeperRegistry shopkeeperRegistry,
-			Confirmations confirmations
+			Confirmations confirmations,
+			BulkOperations bulkOperations
 	) {
 		super("removeAll", Arrays.asList("deleteAll"));
 		this.plugin = plugin;
 		this.shopkeeperRegistry = shopkeeperRegistry;
 		this.confirmations = confirmations;
+		this.bulkOperations = bulkOperations;
 
 		// Permission gets checked by testPermission and during execution.
 
@@ -145,6 +150,12 @@ class CommandRemoveAll extends Command {
 			this.checkPermission(sender, ShopkeepersPlugin.REMOVE_ALL_OTHERS_PERMISSION);
 		}
 
+		// Only one bulk operation per command sender can run at the same time:
+		if (bulkOperations.isRunning(sender)) {
+			TextUtils.sendMessage(sender, Messages.bulkOperationAlreadyRunning);
+			return;
+		}
+
 		// Get the affected shops:
 		// Note: Doing this before prompting the command executor for confirmation allows us to
 		// detect ambiguous player names and missing player information (the player name/uuid if
@@ -152,22 +163,10 @@ class CommandRemoveAll extends Command {
 		List<? extends Shopkeeper> affectedShops;
 		if (allAdmin) {
 			// Search all admin shops:
-			List<Shopkeeper> adminShops = new ArrayList<>();
-			for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
-				if (shopkeeper instanceof AdminShopkeeper) {
-					adminShops.add(shopkeeper);
-				}
-			}
-			affectedShops = adminShops;
+			affectedShops = this.getAllShopkeepers(AdminShopkeeper.class);
 		} else if (allPlayers) {
 			// Search all player shops:
-			List<Shopkeeper> playerShops = new ArrayList<>();
-			for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
-				if (shopkeeper instanceof PlayerShopkeeper) {
-					playerShops.add(shopkeeper);
-				}
-			}
-			affectedShops = playerShops;
+			affectedShops = this.getAllShopkeepers(PlayerShopkeeper.class);
 		} else {
 			assert targetPlayerUUID != null ^ targetPlayerName != null;
 			// Search for shops owned by the target player:
@@ -214,67 +213,25 @@ class CommandRemoveAll extends Command {
 		confirmations.awaitConfirmation(sender, () -> {
 			// Note: New shops might have been created in the meantime, but the command only affects
 			// the already determined affected shops.
-			// Remove shops:
-			int invalidShops = 0;
-			int cancelledDeletions = 0;
-			int actualShopCount = 0;
-			for (Shopkeeper shopkeeper : affectedShops) {
-				// Skip the shopkeeper if it no longer exists:
-				if (!shopkeeper.isValid()) {
-					invalidShops += 1;
-					continue;
-				}
-
-				if (senderPlayer != null) {
-					// Call event:
-					PlayerDeleteShopkeeperEvent deleteEvent = ShopkeeperEventHelper.callPlayerDeleteShopkeeperEvent(
-							shopkeeper,
-							senderPlayer
-					);
-					if (deleteEvent.isCancelled()) {
-						cancelledDeletions += 1;
-						continue;
-					}
-				}
+			// Remove the shops in time-budgeted slices across multiple ticks, to avoid lag spikes
+			// when removing large numbers of shops:
+			RemovalCounts counts = new RemovalCounts();
+			bulkOperations.start(sender, affectedShops, shopkeeper -> {
+				this.removeShop(shopkeeper, senderPlayer, counts);
+			}, result -> {
+				// Trigger save:
+				plugin.getShopkeeperStorage().save();
 
-				shopkeeper.delete(senderPlayer);
-				actualShopCount += 1;
-			}
-
-			// Trigger save:
-			plugin.getShopkeeperStorage().save();
-
-			// Print the result messages:
-			if (invalidShops > 0) {
-				TextUtils.sendMessage(sender, Messages.shopsAlreadyRemoved,
-						"shopsCount", invalidShops
-				);
-			}
-			if (cancelledDeletions > 0) {
-				TextUtils.sendMessage(sender, Messages.shopRemovalsCancelled,
-						"shopsCount", cancelledDeletions
-				);
-			}
-			if (allAdmin) {
-				// Removed all admin shops:
-				TextUtils.sendMessage(sender, Messages.adminShopsRemoved,
-						"shopsCount", actualShopCount
-				);
-			} else if (allPlayers) {
-				// Removed all player shops:
-				TextUtils.sendMessage(sender, Messages.playerShopsRemoved,
-						"shopsCount", actualShopCount
-				);
-			} else {
-				// Removed all shops of the specified player:
-				TextUtils.sendMessage(sender, Messages.shopsOfPlayerRemoved,
-						"player", TextUtils.getPlayerText(
-								finalTargetPlayerName,
-								finalTargetPlayerUUID
-						),
-						"shopsCount", actualShopCount
+				// Print the result messages:
+				this.sendResultMessages(
+						sender,
+						counts,
+						allAdmin,
+						allPlayers,
+						finalTargetPlayerName,
+						finalTargetPlayerUUID
 				);
-			}
+			});
 		});
 
 		// Inform the sender about required confirmation:
@@ -305,4 +262,86 @@ class CommandRemoveAll extends Command {
 		// TODO Add clickable command suggestion?
 		TextUtils.sendMessage(sender, Messages.confirmationRequired);
 	}
+
+	// Returns a snapshot of the currently loaded shopkeepers of the specified type:
+	private List<Shopkeeper> getAllShopkeepers(Class<? extends Shopkeeper> shopkeeperType) {
+		List<Shopkeeper> shopkeepers = new ArrayList<>();
+		for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
+			if (shopkeeperType.isInstance(shopkeeper)) {
+				shopkeepers.add(shopkeeper);
+			}
+		}
+		return shopkeepers;
+	}
+
+	private static class RemovalCounts {
+
+		private int invalidShops = 0;
+		private int cancelledDeletions = 0;
+		private int actualShopCount = 0;
+	}
+
+	private void removeShop(
+			Shopkeeper shopkeeper,
+			@Nullable Player senderPlayer,
+			RemovalCounts counts
+	) {
+		// Skip the shopkeeper if it no longer exists:
+		if (!shopkeeper.isValid()) {
+			counts.invalidShops += 1;
+			return;
+		}
+
+		if (senderPlayer != null) {
+			// Call event:
+			PlayerDeleteShopkeeperEvent deleteEvent = ShopkeeperEventHelper.callPlayerDeleteShopkeeperEvent(
+					shopkeeper,
+					senderPlayer
+			);
+			if (deleteEvent.isCancelled()) {
+				counts.cancelledDeletions += 1;
+				return;
+			}
+		}
+
+		shopkeeper.delete(senderPlayer);
+		counts.actualShopCount += 1;
+	}
+
+	private void sendResultMessages(
+			CommandSender sender,
+			RemovalCounts counts,
+			boolean allAdmin,
+			boolean allPlayers,
+			@Nullable String targetPlayerName,
+			@Nullable UUID targetPlayerUUID
+	) {
+		if (counts.invalidShops > 0) {
+			TextUtils.sendMessage(sender, Messages.shopsAlreadyRemoved,
+					"shopsCount", counts.invalidShops
+			);
+		}
+		if (counts.cancelledDeletions > 0) {
+			TextUtils.sendMessage(sender, Messages.shopRemovalsCancelled,
+					"shopsCount", counts.cancelledDeletions
+			);
+		}
+		if (allAdmin) {
+			// Removed all admin shops:
+			TextUtils.sendMessage(sender, Messages.adminShopsRemoved,
+					"shopsCount", counts.actualShopCount
+			);
+		} else if (allPlayers) {
+			// Removed all player shops:
+			TextUtils.sendMessage(sender, Messages.playerShopsRemoved,
+					"shopsCount", counts.actualShopCount
+			);
+		} else {
+			// Removed all shops of the specified player:
+			TextUtils.sendMessage(sender, Messages.shopsOfPlayerRemoved,
+					"player", TextUtils.getPlayerText(targetPlayerName, targetPlayerUUID),
+					"shopsCount", counts.actualShopCount
+			);
+		}
+	}
 }
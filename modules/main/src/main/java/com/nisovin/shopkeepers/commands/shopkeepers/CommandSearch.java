@@ -0,0 +1,136 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.IndexedOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.OfferIndex;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.EnumArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.PositiveIntegerArgument;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+
+/**
+ * Lists the offers of all shops that sell a specific type of item, based on the {@link OfferIndex}.
+ */
+class CommandSearch extends Command {
+
+	private static final String ARGUMENT_ITEM = "item";
+	private static final String ARGUMENT_PAGE = "page";
+
+	private static final int ENTRIES_PER_PAGE = 8;
+
+	// Offers that are in stock first, then grouped by the type of the first cost item, and then
+	// ordered by the amount of the first cost item per result item.
+	private static final Comparator<IndexedOffer> OFFER_ORDER = Comparator
+			.comparing(IndexedOffer::isOutOfStock)
+			.thenComparing(offer -> offer.getItem1().getType())
+			.thenComparingDouble(CommandSearch::getUnitPrice);
+
+	private static double getUnitPrice(IndexedOffer offer) {
+		return (double) offer.getItem1().getAmount() / offer.getResultItem().getAmount();
+	}
+
+	private final ShopkeeperRegistry shopkeeperRegistry;
+	private final OfferIndex offerIndex;
+
+	CommandSearch(ShopkeeperRegistry shopkeeperRegistry, OfferIndex offerIndex) {
+		super("search");
+		this.shopkeeperRegistry = shopkeeperRegistry;
+		this.offerIndex = offerIndex;
+
+		// Permission:
+		this.setPermission(ShopkeepersPlugin.SEARCH_PERMISSION);
+
+		// Set description:
+		this.setDescription(Messages.commandDescriptionSearch);
+
+		// Arguments:
+		this.addArgument(new EnumArgument<>(ARGUMENT_ITEM, Material.class));
+		this.addArgument(new PositiveIntegerArgument(ARGUMENT_PAGE).orDefaultValue(1));
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+		Material itemType = context.get(ARGUMENT_ITEM);
+		int page = context.get(ARGUMENT_PAGE);
+
+		// Only include the offers of shops that the sender is allowed to list. Otherwise, the
+		// search would reveal the locations of shops that are hidden by the list permissions.
+		List<IndexedOffer> offers = new ArrayList<>();
+		for (IndexedOffer offer : offerIndex.getOffersByResultItem(itemType)) {
+			Shopkeeper shopkeeper = shopkeeperRegistry.getShopkeeperById(offer.getShopkeeperId());
+			if (shopkeeper == null) continue; // Not expected
+			if (!CommandList.canList(sender, shopkeeper)) continue;
+
+			offers.add(offer);
+		}
+		if (offers.isEmpty()) {
+			TextUtils.sendMessage(sender, Messages.searchNoOffersFound,
+					"item", itemType.name()
+			);
+			return;
+		}
+		offers.sort(OFFER_ORDER);
+
+		int offersCount = offers.size();
+		int maxPage = Math.max(1, (int) Math.ceil((double) offersCount / ENTRIES_PER_PAGE));
+		page = Math.min(page, maxPage);
+
+		TextUtils.sendMessage(sender, Messages.searchOffersHeader,
+				"item", itemType.name(),
+				"offersCount", offersCount,
+				"page", page,
+				"maxPage", maxPage
+		);
+
+		int startIndex = (page - 1) * ENTRIES_PER_PAGE;
+		int endIndex = Math.min(startIndex + ENTRIES_PER_PAGE, offersCount);
+		for (int index = startIndex; index < endIndex; index++) {
+			IndexedOffer offer = offers.get(index);
+			Shopkeeper shopkeeper = shopkeeperRegistry.getShopkeeperById(offer.getShopkeeperId());
+			if (shopkeeper == null) continue; // Not expected
+
+			UnmodifiableItemStack item2 = offer.getItem2();
+			String shopName = shopkeeper.getName(); // Can be empty
+			TextUtils.sendMessage(sender, (item2 == null)
+					? Messages.searchOffersEntryOneItem
+					: Messages.searchOffersEntryTwoItems,
+					"shopId", shopkeeper.getId(),
+					"shopName", (shopName.isEmpty() ? "" : (shopName + " ")),
+					"location", shopkeeper.getPositionString(),
+					"resultItem", TextUtils.getItemText(offer.getResultItem()),
+					"resultItemAmount", offer.getResultItem().getAmount(),
+					"item1", TextUtils.getItemText(offer.getItem1()),
+					"item1Amount", offer.getItem1().getAmount(),
+					"item2", TextUtils.getItemText(item2),
+					"item2Amount", (item2 == null) ? 0 : item2.getAmount(),
+					"stock", getStockText(offer)
+			);
+		}
+	}
+
+	private static String getStockText(IndexedOffer offer) {
+		int stock = offer.getStock();
+		if (stock == IndexedOffer.UNLIMITED_STOCK) {
+			return "\u221E";
+		} else if (stock == IndexedOffer.UNKNOWN_STOCK) {
+			return offer.isOutOfStock() ? "0" : "?";
+		} else {
+			return String.valueOf(stock);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Dimension;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Period;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Rollup;
+import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
+import com.nisovin.shopkeepers.commands.arguments.ShopkeeperArgument;
+import com.nisovin.shopkeepers.commands.arguments.ShopkeeperFilter;
+import com.nisovin.shopkeepers.commands.arguments.TargetShopkeeperFallback;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.BoundedIntegerArgument;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils.TargetShopkeeperFilter;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.text.MessageArguments;
+
+/**
+ * Shows the daily {@link TradeStatistics} of a shop.
+ */
+class CommandStats extends Command {
+
+	private static final String ARGUMENT_SHOPKEEPER = "shopkeeper";
+	private static final String ARGUMENT_DAYS = "days";
+
+	private static final int DEFAULT_DAYS = 7;
+	private static final int MAX_DAYS = 31;
+
+	// The daily rollups start at midnight UTC:
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE
+			.withZone(ZoneOffset.UTC);
+
+	private final Plugin plugin;
+	private final TradeStatistics tradeStatistics;
+
+	CommandStats(Plugin plugin, TradeStatistics tradeStatistics) {
+		super("stats");
+		this.plugin = plugin;
+		this.tradeStatistics = tradeStatistics;
+
+		// Permission:
+		this.setPermission(ShopkeepersPlugin.STATS_PERMISSION);
+
+		// Set description:
+		this.setDescription(Messages.commandDescriptionStats);
+
+		// Arguments:
+		this.addArgument(new TargetShopkeeperFallback(
+				new ShopkeeperArgument(ARGUMENT_SHOPKEEPER,
+						ShopkeeperFilter.withAccess(DefaultUITypes.EDITOR())),
+				TargetShopkeeperFilter.ANY
+		));
+		this.addArgument(new BoundedIntegerArgument(ARGUMENT_DAYS, 1, MAX_DAYS)
+				.orDefaultValue(DEFAULT_DAYS));
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+		AbstractShopkeeper shopkeeper = context.get(ARGUMENT_SHOPKEEPER);
+		int days = context.get(ARGUMENT_DAYS);
+
+		if (!shopkeeper.canEdit(sender, false)) {
+			return;
+		}
+
+		if (!tradeStatistics.isEnabled()) {
+			TextUtils.sendMessage(sender, Messages.tradeStatisticsDisabled);
+			return;
+		}
+
+		// The requested number of days, including the current day:
+		Instant to = Instant.now();
+		Instant from = to.truncatedTo(ChronoUnit.DAYS).minus(days - 1, ChronoUnit.DAYS);
+		MessageArguments shopArguments = shopkeeper.getMessageArguments("shop_");
+		int shopkeeperId = shopkeeper.getId();
+		tradeStatistics.getRollups(
+				Period.DAY,
+				Dimension.SHOP,
+				shopkeeper.getUniqueId().toString(),
+				from,
+				to
+		).whenComplete((rollups, error) -> {
+			// The query completes asynchronously:
+			SchedulerUtils.runTaskOrOmit(plugin, () -> {
+				if (error != null) {
+					Log.severe("Failed to query the trade statistics of shop " + shopkeeperId + "!",
+							error);
+					TextUtils.sendMessage(sender, Messages.tradeStatisticsQueryFailed);
+					return;
+				}
+				this.sendStatistics(sender, shopArguments, days, rollups);
+			});
+		});
+	}
+
+	private void sendStatistics(
+			CommandSender sender,
+			MessageArguments shopArguments,
+			int days,
+			@Nullable List<? extends Rollup> rollups
+	) {
+		if (rollups == null || rollups.isEmpty()) {
+			Messages.tradeStatisticsNoTrades.setPlaceholderArguments(shopArguments);
+			TextUtils.sendMessage(sender, Messages.tradeStatisticsNoTrades,
+					"days", days
+			);
+			return;
+		}
+
+		Messages.tradeStatisticsHeader.setPlaceholderArguments(shopArguments);
+		TextUtils.sendMessage(sender, Messages.tradeStatisticsHeader,
+				"days", days
+		);
+
+		long tradeCount = 0L;
+		long itemsIn = 0L;
+		long itemsOut = 0L;
+		long currencyIn = 0L;
+		long currencyOut = 0L;
+		for (Rollup rollup : rollups) {
+			TextUtils.sendMessage(sender, Messages.tradeStatisticsEntry,
+					"date", DATE_FORMAT.format(rollup.getPeriodStart()),
+					"trades", rollup.getTradeCount(),
+					"itemsIn", rollup.getItemsIn(),
+					"itemsOut", rollup.getItemsOut(),
+					"currencyIn", rollup.getCurrencyIn(),
+					"currencyOut", rollup.getCurrencyOut()
+			);
+			tradeCount += rollup.getTradeCount();
+			itemsIn += rollup.getItemsIn();
+			itemsOut += rollup.getItemsOut();
+			currencyIn += rollup.getCurrencyIn();
+			currencyOut += rollup.getCurrencyOut();
+		}
+
+		TextUtils.sendMessage(sender, Messages.tradeStatisticsTotal,
+				"trades", tradeCount,
+				"itemsIn", itemsIn,
+				"itemsOut", itemsOut,
+				"currencyIn", currencyIn,
+				"currencyOut", currencyOut
+		);
+	}
+}
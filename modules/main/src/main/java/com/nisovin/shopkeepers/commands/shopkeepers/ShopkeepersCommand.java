@@ -19,6 +19,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopType;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopType;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObjectType;
+import com.nisovin.shopkeepers.commands.BulkOperations;
 import com.nisovin.shopkeepers.commands.Confirmations;
 import com.nisovin.shopkeepers.commands.arguments.ShopObjectTypeArgument;
 import com.nisovin.shopkeepers.commands.arguments.ShopTypeArgument;
@@ -48,7 +49,11 @@ public class ShopkeepersCommand extends BaseCommand {
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
 
-	public ShopkeepersCommand(SKShopkeepersPlugin plugin, Confirmations confirmations) {
+	public ShopkeepersCommand(
+			SKShopkeepersPlugin plugin,
+			Confirmations confirmations,
+			BulkOperations bulkOperations
+	) {
 		super(plugin, COMMAND_NAME);
 		this.plugin = plugin;
 		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
@@ -76,8 +81,11 @@ public class ShopkeepersCommand extends BaseCommand {
 		childCommands.register(new CommandDebug());
 		childCommands.register(new CommandNotify());
 		childCommands.register(new CommandList(shopkeeperRegistry));
+		childCommands.register(new CommandSearch(shopkeeperRegistry, plugin.getOfferIndex()));
+		childCommands.register(new CommandStats(plugin, plugin.getTradeStatistics()));
 		childCommands.register(new CommandRemove(confirmations));
-		childCommands.register(new CommandRemoveAll(plugin, shopkeeperRegistry, confirmations));
+		childCommands.register(new CommandRemoveAll(plugin, shopkeeperRegistry, confirmations,
+				bulkOperations));
 		childCommands.register(new CommandGive());
 		childCommands.register(new CommandGiveCurrency());
 		childCommands.register(new CommandSetCurrency());
@@ -93,6 +101,7 @@ public class ShopkeepersCommand extends BaseCommand {
 		childCommands.register(new CommandEditVillager());
 		// Hidden commands:
 		childCommands.register(new CommandConfirm(confirmations));
+		childCommands.register(new CommandCancel(bulkOperations));
 		// Hidden debugging / utility commands:
 		childCommands.register(new CommandReplaceAllWithVanillaVillagers(plugin, shopkeeperRegistry,
 				confirmations));
@@ -40,6 +40,9 @@ import com.nisovin.shopkeepers.util.java.Validate;
 public final class ShopkeeperArgumentUtils {
 
 	private static final int SHOPKEEPER_TARGET_RANGE = 10;
+	// The maximum distance and number of nearby shopkeepers that are suggested:
+	private static final double NEARBY_SHOPKEEPERS_RANGE = 32.0D;
+	private static final int NEARBY_SHOPKEEPERS_LIMIT = 5;
 
 	public static final class TargetShopkeepersResult {
 
@@ -267,6 +270,42 @@ public final class ShopkeeperArgumentUtils {
 		}
 	}
 
+	/**
+	 * Gets the shopkeepers targeted by the given command sender, followed by the shopkeepers that
+	 * are nearest to the command sender, ordered by their distance.
+	 * <p>
+	 * These are the shopkeepers that are preferably suggested during command completions.
+	 * 
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 * @return the targeted and nearby shopkeepers, or an empty list if the command sender is not a
+	 *         player
+	 */
+	public static List<? extends Shopkeeper> getTargetedAndNearbyShopkeepers(CommandSender sender) {
+		if (!(sender instanceof Player)) return Collections.emptyList();
+
+		Player player = (Player) sender;
+		List<? extends Shopkeeper> targetedShopkeepers = getTargetedShopkeepers(
+				player,
+				TargetShopkeeperFilter.ANY
+		);
+		List<? extends Shopkeeper> nearbyShopkeepers = ShopkeepersAPI.getShopkeeperRegistry()
+				.getNearestShopkeepers(
+						player.getLocation(),
+						NEARBY_SHOPKEEPERS_LIMIT,
+						NEARBY_SHOPKEEPERS_RANGE
+				);
+		if (nearbyShopkeepers.isEmpty()) return targetedShopkeepers;
+
+		List<Shopkeeper> shopkeepers = new ArrayList<>(targetedShopkeepers);
+		nearbyShopkeepers.forEach(shopkeeper -> {
+			if (!targetedShopkeepers.contains(shopkeeper)) {
+				shopkeepers.add(shopkeeper);
+			}
+		});
+		return shopkeepers;
+	}
+
 	public static class OwnedPlayerShopsResult {
 
 		private final @Nullable UUID playerUUID; // Can be null
@@ -75,6 +75,7 @@ public class Settings extends Config {
 	 * Shopkeeper Data
 	 */
 	public static boolean saveInstantly = true;
+	public static int saveInstantlyMinIntervalTicks = 20; // 1 second
 
 	/*
 	 * Plugin Compatibility
@@ -214,6 +215,7 @@ public class Settings extends Config {
 
 	public static boolean disableGravity = false;
 	public static int gravityChunkRange = 4;
+	public static boolean eventDrivenGravityChecks = true;
 
 	// A tick period of 4 and higher is clearly noticeable, especially when entities are affected by
 	// gravity.
@@ -333,6 +335,7 @@ public class Settings extends Config {
 	public static boolean preventTradingWithOwnShop = true;
 	public static boolean preventTradingWhileOwnerIsOnline = false;
 	public static boolean useStrictItemComparison = false;
+	public static boolean batchShiftClickTrades = false;
 
 	public static boolean incrementVillagerStatistics = false;
 	public static boolean simulateVillagerTradingSounds = true;
@@ -361,6 +364,8 @@ public class Settings extends Config {
 	public static SoundEffect shopOwnerTradeNotificationSound = new SoundEffect(Sound.ENTITY_EXPERIENCE_ORB_PICKUP)
 			.withVolume(0.25f);
 
+	public static int tradeNotificationBatchTicks = 40; // 2 seconds
+
 	/*
 	 * Trade Log
 	 */
@@ -371,6 +376,11 @@ public class Settings extends Config {
 
 	public static boolean logItemMetadata = false;
 
+	public static boolean tradeLogCsvCompressOldFiles = false;
+	public static int tradeLogCsvRetentionDays = 0; // Keep forever
+
+	public static boolean tradeStatistics = false;
+
 	/*
 	 * Currencies
 	 */
@@ -865,6 +875,11 @@ public class Settings extends Config {
 
 	@Override
 	protected void validateSettings() {
+		if (saveInstantlyMinIntervalTicks < 0) {
+			Log.warning(this.getLogPrefix()
+					+ "'save-instantly-min-interval-ticks' cannot be negative.");
+			saveInstantlyMinIntervalTicks = 0;
+		}
 		if (maxContainerDistance > 50) {
 			Log.warning(this.getLogPrefix() + "'max-container-distance' can be at most 50.");
 			maxContainerDistance = 50;
@@ -934,6 +949,11 @@ public class Settings extends Config {
 			taxRate = 100;
 		}
 
+		if (tradeNotificationBatchTicks < 0) {
+			Log.warning(this.getLogPrefix() + "'trade-notification-batch-ticks' cannot be negative.");
+			tradeNotificationBatchTicks = 0;
+		}
+
 		if (tradeLogMergeDurationTicks < 0) {
 			Log.warning(this.getLogPrefix() + "'trade-log-merge-duration-ticks' cannot be negative.");
 			tradeLogMergeDurationTicks = 0;
@@ -942,6 +962,10 @@ public class Settings extends Config {
 			Log.warning(this.getLogPrefix() + "'trade-log-next-merge-timeout-ticks' cannot be negative.");
 			tradeLogNextMergeTimeoutTicks = 0;
 		}
+		if (tradeLogCsvRetentionDays < 0) {
+			Log.warning(this.getLogPrefix() + "'trade-log-csv-retention-days' cannot be negative.");
+			tradeLogCsvRetentionDays = 0;
+		}
 		// Note: If tradeLogNextMergeTimeoutTicks is greater than or equal to
 		// tradeLogMergeDurationTicks, it has no effect. However, we do not print a warning in this
 		// case to allow tradeLogMergeDurationTicks to be easily adjusted inside the config without
@@ -0,0 +1,62 @@
+package com.nisovin.shopkeepers.config.lib;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * The serialized values of the settings of a {@link Config} at a certain point in time.
+ * <p>
+ * This can be used to determine which settings have changed, for example after the config has been
+ * reloaded.
+ */
+public final class ConfigSnapshot {
+
+	/**
+	 * Creates a snapshot of the current setting values of the given {@link Config}.
+	 *
+	 * @param config
+	 *            the config, not <code>null</code>
+	 * @return the snapshot, not <code>null</code>
+	 */
+	public static ConfigSnapshot of(Config config) {
+		Validate.notNull(config, "config is null");
+		DataContainer values = DataContainer.create();
+		config.save(values);
+		return new ConfigSnapshot(values.getValuesCopy());
+	}
+
+	private final Map<String, Object> values;
+
+	private ConfigSnapshot(Map<String, Object> values) {
+		this.values = values;
+	}
+
+	/**
+	 * Gets the config keys of the settings whose values differ between this and the given
+	 * snapshot.
+	 *
+	 * @param other
+	 *            the other snapshot, not <code>null</code>
+	 * @return the config keys of the changed settings, not <code>null</code>
+	 */
+	public Set<String> getChangedKeys(ConfigSnapshot other) {
+		Validate.notNull(other, "other is null");
+		Set<String> changedKeys = new LinkedHashSet<>();
+		values.forEach((key, value) -> {
+			if (!Objects.equals(value, other.values.get(key))) {
+				changedKeys.add(key);
+			}
+		});
+		other.values.keySet().forEach(key -> {
+			if (!values.containsKey(key)) {
+				changedKeys.add(key);
+			}
+		});
+		return changedKeys;
+	}
+}
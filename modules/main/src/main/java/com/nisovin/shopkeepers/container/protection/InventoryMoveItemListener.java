@@ -1,6 +1,7 @@
 package com.nisovin.shopkeepers.container.protection;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -9,6 +10,7 @@ import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.inventory.Inventory;
 
 import com.nisovin.shopkeepers.container.ShopContainers;
+import com.nisovin.shopkeepers.util.bukkit.LocationUtils;
 
 /**
  * Prevents item movement from/to protected containers. Can be disabled via a config setting.
@@ -36,6 +38,18 @@ class InventoryMoveItemListener implements Listener {
 		// inventories this creates a snapshot of the block's BlockState.
 		Location inventoryLocation = inventory.getLocation(); // can be null
 		if (inventoryLocation == null) return false;
+
+		// Quickly rule out most inventories without accessing the block, e.g. for hoppers in chunks
+		// without any shop containers:
+		World world = LocationUtils.getWorld(inventoryLocation);
+		if (!protectedContainers.mightBeProtected(
+				world.getName(),
+				inventoryLocation.getBlockX(),
+				inventoryLocation.getBlockZ()
+		)) {
+			return false;
+		}
+
 		Block block = inventoryLocation.getBlock(); // not null
 		if (!ShopContainers.isSupportedContainer(block.getType())) return false;
 		// Also checks for protected connected chests (double chests):
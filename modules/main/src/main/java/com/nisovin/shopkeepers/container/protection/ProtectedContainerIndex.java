@@ -0,0 +1,155 @@
+package com.nisovin.shopkeepers.container.protection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.util.bukkit.MutableChunkCoords;
+
+/**
+ * A compact per-world and per-chunk index of the block columns that either contain a protected
+ * container, or that are horizontally adjacent to one.
+ * <p>
+ * Adjacent columns are included because chests that form a double chest with a protected chest are
+ * protected as well. If a block's column is not indexed, the block is guaranteed to not be
+ * protected. This allows us to quickly rule out the protection of most blocks without accessing the
+ * block (e.g. to check its type or block data) or looking up its exact location.
+ * <p>
+ * Each indexed container location is expected to be added and removed exactly once, regardless of
+ * how many shopkeepers use it.
+ */
+final class ProtectedContainerIndex {
+
+	private static final int CHUNK_SIZE = 16;
+
+	private static final class ChunkIndex {
+
+		// The number of indexed containers per block column, indexed by (localZ * 16 + localX):
+		// Even with all blocks of a column and its adjacent columns being protected, the count
+		// stays well within the range of a short for all supported world heights.
+		private final short[] columnCounts = new short[CHUNK_SIZE * CHUNK_SIZE];
+		private int totalCount = 0;
+
+		private static int getColumnIndex(int x, int z) {
+			return ((z & (CHUNK_SIZE - 1)) * CHUNK_SIZE) + (x & (CHUNK_SIZE - 1));
+		}
+
+		void increment(int x, int z) {
+			columnCounts[getColumnIndex(x, z)]++;
+			totalCount++;
+		}
+
+		void decrement(int x, int z) {
+			int columnIndex = getColumnIndex(x, z);
+			assert columnCounts[columnIndex] > 0;
+			columnCounts[columnIndex]--;
+			totalCount--;
+		}
+
+		boolean isEmpty() {
+			return totalCount == 0;
+		}
+
+		boolean contains(int x, int z) {
+			return columnCounts[getColumnIndex(x, z)] > 0;
+		}
+	}
+
+	// Does not need to be reset after every use.
+	private final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
+	private final Map<ChunkCoords, ChunkIndex> chunks = new HashMap<>();
+
+	ProtectedContainerIndex() {
+	}
+
+	private ChunkCoords getSharedKey(String worldName, int blockX, int blockZ) {
+		sharedChunkCoords.set(
+				worldName,
+				ChunkCoords.fromBlock(blockX),
+				ChunkCoords.fromBlock(blockZ)
+		);
+		return sharedChunkCoords;
+	}
+
+	/**
+	 * Adds the container at the specified location to the index.
+	 *
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the container's x coordinate
+	 * @param z
+	 *            the container's z coordinate
+	 */
+	void add(String worldName, int x, int z) {
+		this.increment(worldName, x, z);
+		this.increment(worldName, x + 1, z);
+		this.increment(worldName, x - 1, z);
+		this.increment(worldName, x, z + 1);
+		this.increment(worldName, x, z - 1);
+	}
+
+	/**
+	 * Removes the container at the specified location from the index.
+	 *
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the container's x coordinate
+	 * @param z
+	 *            the container's z coordinate
+	 */
+	void remove(String worldName, int x, int z) {
+		this.decrement(worldName, x, z);
+		this.decrement(worldName, x + 1, z);
+		this.decrement(worldName, x - 1, z);
+		this.decrement(worldName, x, z + 1);
+		this.decrement(worldName, x, z - 1);
+	}
+
+	private void increment(String worldName, int x, int z) {
+		ChunkIndex chunkIndex = chunks.get(this.getSharedKey(worldName, x, z));
+		if (chunkIndex == null) {
+			chunkIndex = new ChunkIndex();
+			chunks.put(ChunkCoords.fromBlock(worldName, x, z), chunkIndex);
+		}
+		chunkIndex.increment(x, z);
+	}
+
+	private void decrement(String worldName, int x, int z) {
+		ChunkCoords key = this.getSharedKey(worldName, x, z);
+		ChunkIndex chunkIndex = chunks.get(key);
+		if (chunkIndex == null) {
+			assert false : "Removing a container that is not indexed!";
+			return;
+		}
+		chunkIndex.decrement(x, z);
+		if (chunkIndex.isEmpty()) {
+			chunks.remove(key);
+		}
+	}
+
+	/**
+	 * Quickly checks if the block at the specified location might be a protected container.
+	 * <p>
+	 * If this returns <code>false</code>, the block is guaranteed to not be protected. Otherwise,
+	 * the block needs to be checked in more detail.
+	 *
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the block's x coordinate
+	 * @param z
+	 *            the block's z coordinate
+	 * @return <code>true</code> if the block might be protected
+	 */
+	boolean mightBeProtected(String worldName, int x, int z) {
+		ChunkIndex chunkIndex = chunks.get(this.getSharedKey(worldName, x, z));
+		if (chunkIndex == null) return false; // No containers in or adjacent to this chunk
+		return chunkIndex.contains(x, z);
+	}
+
+	void clear() {
+		chunks.clear();
+	}
+}
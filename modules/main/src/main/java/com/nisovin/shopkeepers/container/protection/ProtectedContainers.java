@@ -71,6 +71,8 @@ public class ProtectedContainers {
 	private final ContainerProtectionListener containerProtectionListener = new ContainerProtectionListener(Unsafe.initialized(this));
 	private final InventoryMoveItemListener inventoryMoveItemListener = new InventoryMoveItemListener(Unsafe.initialized(this));
 	private final Map<BlockLocation, List<AbstractPlayerShopkeeper>> protectedContainers = new HashMap<>();
+	// Allows us to quickly rule out that a block is protected:
+	private final ProtectedContainerIndex protectedContainerIndex = new ProtectedContainerIndex();
 
 	public ProtectedContainers(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
@@ -90,6 +92,7 @@ public class ProtectedContainers {
 		HandlerList.unregisterAll(containerProtectionListener);
 		HandlerList.unregisterAll(inventoryMoveItemListener);
 		protectedContainers.clear();
+		protectedContainerIndex.clear();
 	}
 
 	private BlockLocation getSharedKey(String worldName, int x, int y, int z) {
@@ -100,11 +103,12 @@ public class ProtectedContainers {
 	public void addContainer(BlockLocation location, AbstractPlayerShopkeeper shopkeeper) {
 		Validate.notNull(location, "location is null");
 		Validate.notNull(shopkeeper, "shopkeeper is null");
-		List<AbstractPlayerShopkeeper> shopkeepers = protectedContainers.computeIfAbsent(
-				location.immutable(),
-				key -> new ArrayList<>(1)
-		);
-		assert shopkeepers != null;
+		List<AbstractPlayerShopkeeper> shopkeepers = protectedContainers.get(location);
+		if (shopkeepers == null) {
+			shopkeepers = new ArrayList<>(1);
+			protectedContainers.put(location.immutable(), shopkeepers);
+			this.indexContainer(location);
+		}
 		shopkeepers.add(shopkeeper);
 	}
 
@@ -114,15 +118,46 @@ public class ProtectedContainers {
 		// This operation either updates the value inside the Map, or removes it. It does not insert
 		// a new entry for the passed key. We can therefore safely use the given location, without
 		// first creating an immutable copy of it.
-		protectedContainers.computeIfPresent(location, (key, shopkeepers) -> {
-			shopkeepers.remove(shopkeeper);
-			if (shopkeepers.isEmpty()) {
-				// TODO Requires uncheckedNull due to Checker Framework limitation
-				return Unsafe.uncheckedNull(); // Removes the mapping
-			} else {
-				return shopkeepers; // Keeps the updated mapping
-			}
-		});
+		List<AbstractPlayerShopkeeper> shopkeepers = protectedContainers.get(location);
+		if (shopkeepers == null) return;
+
+		shopkeepers.remove(shopkeeper);
+		if (shopkeepers.isEmpty()) {
+			protectedContainers.remove(location);
+			this.unindexContainer(location);
+		}
+	}
+
+	private void indexContainer(BlockLocation location) {
+		String worldName = location.getWorldName();
+		// Containers without world cannot be matched by any block lookups anyway:
+		if (worldName == null) return;
+		protectedContainerIndex.add(worldName, location.getX(), location.getZ());
+	}
+
+	private void unindexContainer(BlockLocation location) {
+		String worldName = location.getWorldName();
+		if (worldName == null) return;
+		protectedContainerIndex.remove(worldName, location.getX(), location.getZ());
+	}
+
+	/**
+	 * Quickly checks if the block at the specified location might be a protected container.
+	 * <p>
+	 * This does not access the block, and can therefore be used to cheaply rule out the protection
+	 * of most blocks before checking them in more detail via
+	 * {@link #isContainerProtected(Block, Player)}.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the block's x coordinate
+	 * @param z
+	 *            the block's z coordinate
+	 * @return <code>false</code> if the block is guaranteed to not be protected
+	 */
+	boolean mightBeProtected(String worldName, int x, int z) {
+		return protectedContainerIndex.mightBeProtected(worldName, x, z);
 	}
 
 	// Gets the shopkeepers that are directly using the container at the specified location:
@@ -468,6 +468,7 @@ public class Messages extends Config {
 	public static Text tradeNotificationAdminShop = Text.parse("&eAdmin Shop");
 	public static Text tradeNotificationNamedAdminShop = Text.parse("&e\"{shop_name}\"");
 	public static Text tradeNotificationTradeCount = Text.parse("&7 (&6{count}x&7)");
+	public static Text tradeNotificationsSummary = Text.parse("&7... and &6{count}&7 more trades.");
 
 	// Placeholders: Same as the general trade notification messages.
 	public static Text ownerTradeNotificationOneItem = Text.parse("&e{player}&7 bought &6{resultItemAmount}x &a{resultItem}&7 from {shop}{trade_count}");
@@ -479,6 +480,7 @@ public class Messages extends Config {
 	public static Text ownerBuyNotificationShop = Text.parse("one of your shops");
 	public static Text ownerBuyNotificationNamedShop = Text.parse("your shop &e\"{shop_name}\"");
 	public static Text ownerTradeNotificationTradeCount = Text.parse("&7 (&6{count}x&7)");
+	public static Text ownerTradeNotificationsSummary = Text.parse("&7... and &6{count}&7 more trades in your shops.");
 
 	public static Text disableTradeNotificationsHint = Text.parse("&7You can disable these trade notifications with the command &e{command}");
 	public static Text disableTradeNotificationsHintCommand = Text.parse("/shopkeeper notify trades");
@@ -707,9 +709,22 @@ public class Messages extends Config {
 
 	public static Text listAdminShopsHeader = Text.parse("&9There are &e{shopsCount} &9admin shops: &e(Page {page} of {maxPage})");
 	public static Text listAllShopsHeader = Text.parse("&9There are &e{shopsCount} &9shops in total: &e(Page {page} of {maxPage})");
+	public static Text listNearbyShopsHeader = Text.parse("&9There are &e{shopsCount} &9shops within &e{range} &9blocks: &e(Page {page} of {maxPage})");
 	public static Text listPlayerShopsHeader = Text.parse("&9Player '&e{player}&9' has &e{shopsCount} &9shops: &e(Page {page} of {maxPage})");
 	public static Text listShopsEntry = Text.parse("  &e{shopId}) &7{shopName}&r&8at &7({location})&8, type: &7{shopType}&8, object: &7{objectType}");
 
+	public static Text searchOffersHeader = Text.parse("&9There are &e{offersCount} &9offers for &e{item}&9: &e(Page {page} of {maxPage})");
+	public static Text searchOffersEntryOneItem = Text.parse("  &e{shopId}) &7{shopName}&r&8at &7({location})&8: [&6{item1Amount}x &a{item1}&8] \u279e [&6{resultItemAmount}x &a{resultItem}&8], stock: &7{stock}");
+	public static Text searchOffersEntryTwoItems = Text.parse("  &e{shopId}) &7{shopName}&r&8at &7({location})&8: [&6{item1Amount}x &a{item1}&8] [&6{item2Amount}x &a{item2}&8] \u279e [&6{resultItemAmount}x &a{resultItem}&8], stock: &7{stock}");
+	public static Text searchNoOffersFound = Text.parse("&7No offers for &e{item}&7 were found.");
+
+	public static Text tradeStatisticsHeader = Text.parse("&9Trades of shop &e{shop_id} &9during the last &e{days} &9days (UTC):");
+	public static Text tradeStatisticsEntry = Text.parse("  &e{date}&8: &7{trades} &8trades, items in: &7{itemsIn}&8, items out: &7{itemsOut}&8, currency in: &7{currencyIn}&8, currency out: &7{currencyOut}");
+	public static Text tradeStatisticsTotal = Text.parse("&9Total: &e{trades} &9trades, items in: &e{itemsIn}&9, items out: &e{itemsOut}&9, currency in: &e{currencyIn}&9, currency out: &e{currencyOut}");
+	public static Text tradeStatisticsNoTrades = Text.parse("&7Shop &e{shop_id} &7had no trades during the last &e{days} &7days.");
+	public static Text tradeStatisticsDisabled = Text.parse("&7The trade statistics are disabled.");
+	public static Text tradeStatisticsQueryFailed = Text.parse("&cFailed to query the trade statistics! Check the server log for details.");
+
 	public static Text shopRemoved = Text.parse("&aThe shopkeeper has been removed.");
 	public static Text shopAlreadyRemoved = Text.parse("&7The shopkeeper has already been removed.");
 	public static Text shopNoLongerExists = Text.parse("&7The shopkeeper no longer exists.");
@@ -738,6 +753,11 @@ public class Messages extends Config {
 	public static Text confirmationExpired = Text.parse("&cConfirmation expired.");
 	public static Text nothingToConfirm = Text.parse("&cThere is nothing to confirm currently.");
 
+	public static Text bulkOperationProgress = Text.parse("&7Processed &e{processed}&7 of &e{total}&7 shops. Type &6/shopkeepers cancel&7 to cancel.");
+	public static Text bulkOperationCancelled = Text.parse("&cOperation cancelled after processing &e{processed}&c of &e{total}&c shops.");
+	public static Text bulkOperationAlreadyRunning = Text.parse("&cYou already have a running operation. Type &6/shopkeepers cancel&c to cancel it.");
+	public static Text nothingToCancel = Text.parse("&cThere is no running operation to cancel.");
+
 	public static String confirmationUiDeleteShopTitle = c("&cReally delete this shop?");
 	public static List<String> confirmationUiDeleteShopConfirmLore = c(Arrays.asList(
 			"This will irrevocably",
@@ -814,6 +834,8 @@ public class Messages extends Config {
 	public static Text commandDescriptionDebug = Text.parse("Toggles debug mode on and off.");
 	public static Text commandDescriptionNotify = Text.parse("Turns trade notifications for you on or off.");
 	public static Text commandDescriptionList = Text.parse("Lists all shops of a specific player, or all admin shops.");
+	public static Text commandDescriptionSearch = Text.parse("Searches the offers of all shops for a specific item.");
+	public static Text commandDescriptionStats = Text.parse("Shows the daily trade statistics of a specific shop.");
 	public static Text commandDescriptionRemove = Text.parse("Removes a specific shop.");
 	public static Text commandDescriptionRemoveAll = Text.parse("Removes all shops of a specific player, all players, or all admin shops.");
 	public static Text commandDescriptionGive = Text.parse("Gives shop creation item(s) to the specified player.");
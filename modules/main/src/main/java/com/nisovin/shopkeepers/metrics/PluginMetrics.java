@@ -5,6 +5,7 @@ import org.bstats.bukkit.Metrics;
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 /**
@@ -40,6 +41,15 @@ public class PluginMetrics {
 		metrics.addCustomChart(new PlayerShopsChart(shopkeeperRegistry));
 		metrics.addCustomChart(new FeaturesChart());
 		metrics.addCustomChart(new WorldsChart(shopkeeperRegistry));
+		SKShopkeeperStorage shopkeeperStorage = plugin.getShopkeeperStorage();
+		metrics.addCustomChart(new StorageTimingsChart(
+				"save_duration",
+				shopkeeperStorage::getLastSaveTimings
+		));
+		metrics.addCustomChart(new StorageTimingsChart(
+				"load_duration",
+				shopkeeperStorage::getLastLoadTimings
+		));
 		// TODO Add chart with number of virtual shops?
 		// TODO Add chart with the server variant used (CraftBukkit, Spigot, Paper, other..).
 	}
@@ -0,0 +1,40 @@
+package com.nisovin.shopkeepers.metrics;
+
+import java.util.function.Supplier;
+
+import org.bstats.bukkit.Metrics;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.storage.StoragePhaseTimings;
+
+/**
+ * Reports the (rough) duration of the last save or load of the shopkeeper data.
+ */
+public class StorageTimingsChart extends Metrics.SimplePie {
+
+	public StorageTimingsChart(
+			String chartId,
+			Supplier<@Nullable StoragePhaseTimings> timingsSupplier
+	) {
+		super(chartId, () -> {
+			StoragePhaseTimings timings = timingsSupplier.get();
+			// bStats skips the chart if we return null:
+			if (timings == null) return Unsafe.uncheckedNull();
+			double millis = timings.getTotalTimeMillis();
+			if (millis >= 1000.0D) {
+				return ">=1000ms";
+			} else if (millis >= 500.0D) {
+				return "[500ms,1000ms)";
+			} else if (millis >= 100.0D) {
+				return "[100ms,500ms)";
+			} else if (millis >= 50.0D) {
+				return "[50ms,100ms)";
+			} else if (millis >= 10.0D) {
+				return "[10ms,50ms)";
+			} else {
+				return "<10ms";
+			}
+		});
+	}
+}
@@ -2,15 +2,17 @@ package com.nisovin.shopkeepers.playershops.inactivity;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
@@ -51,6 +53,7 @@ class DeleteShopsOfInactivePlayersProcedure {
 
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
+	private final ShopOwnerActivityLedger activityLedger;
 	private final int playerInactivityDays;
 
 	private boolean started = false;
@@ -58,12 +61,16 @@ class DeleteShopsOfInactivePlayersProcedure {
 	private final long currentTimeMillis = System.currentTimeMillis();
 	private final Map<User, @Nullable InactivePlayerData> inactivePlayers = new HashMap<>();
 
-	public DeleteShopsOfInactivePlayersProcedure(SKShopkeepersPlugin plugin) {
+	public DeleteShopsOfInactivePlayersProcedure(
+			SKShopkeepersPlugin plugin,
+			ShopOwnerActivityLedger activityLedger
+	) {
 		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(activityLedger, "activityLedger is null");
 		this.plugin = plugin;
 		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
-		// Local copy, because this setting might change while we use it, and we might access it
-		// asynchronously:
+		this.activityLedger = activityLedger;
+		// Local copy, because this setting might change while we use it:
 		this.playerInactivityDays = Settings.playerShopkeeperInactiveDays;
 	}
 
@@ -82,10 +89,19 @@ class DeleteShopsOfInactivePlayersProcedure {
 
 		this.collectShopOwners();
 		if (inactivePlayers.isEmpty()) {
+			activityLedger.save(true);
 			return; // There are no player shops
 		}
 
-		this.asyncCheckInactivityOfAllShopOwnersAndContinue();
+		// Check the inactivity of all shop owners based on the ledger. This leaves the shop owners
+		// that seem to be inactive, or whose last seen time is not yet known:
+		this.checkInactivityOfAllShopOwners();
+		if (inactivePlayers.isEmpty()) {
+			activityLedger.save(true);
+			return;
+		}
+
+		this.asyncConfirmInactivityAndContinue();
 	}
 
 	// This initially collects all shop owners into the inactivePlayers Map, which is subsequently
@@ -96,33 +112,83 @@ class DeleteShopsOfInactivePlayersProcedure {
 			// shopkeepers yet. Later, we collect the shopkeepers of only the inactive shop owners.
 			inactivePlayers.put(playerShop.getOwnerUser(), null);
 		});
+
+		// Forget players that no longer own any shops:
+		Set<UUID> shopOwnerIds = new HashSet<>();
+		inactivePlayers.keySet().forEach(user -> shopOwnerIds.add(user.getUniqueId()));
+		activityLedger.retainShopOwners(shopOwnerIds);
+	}
+
+	// Removes all shop owners that are online, or that are known to not be inactive.
+	private void checkInactivityOfAllShopOwners() {
+		inactivePlayers.keySet().removeIf(user -> {
+			UUID playerId = user.getUniqueId();
+			if (user.isOnline()) {
+				activityLedger.recordActivity(playerId, currentTimeMillis);
+				return true;
+			}
+
+			long lastSeenMillis = activityLedger.getLastSeen(playerId);
+			if (lastSeenMillis == ShopOwnerActivityLedger.UNKNOWN) {
+				// Not yet known: Seeded from the server's player data.
+				return false;
+			}
+			return this.getDaysSince(lastSeenMillis) < playerInactivityDays;
+		});
 	}
 
-	private void asyncCheckInactivityOfAllShopOwnersAndContinue() {
-		// We retrieve the OfflinePlayers and their 'last played' times asynchronously:
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				// Set up the data for all inactive shop owners, and remove all shop owners that are
-				// not inactive:
-				setUpInactiveShopOwners();
+	private void asyncConfirmInactivityAndContinue() {
+		// We retrieve the 'last played' times of the remaining shop owners asynchronously. This
+		// seeds the ledger with the shop owners that it does not know yet, and confirms the
+		// inactivity of the other shop owners, in case the ledger is outdated (e.g. if the
+		// inactivity check was disabled for some time):
+		List<User> users = new ArrayList<>(inactivePlayers.keySet());
+		boolean submitted = plugin.getBackgroundExecutor().execute(() -> {
+			Map<UUID, Long> lastPlayed = this.getLastPlayedTimes(users);
+
+			// If the plugin is disabled or reloaded in the meantime, the plugin waits for this
+			// background task to complete and then cancels all its pending tasks, including the
+			// following one:
+			SchedulerUtils.runTaskOrOmit(plugin, () -> {
+				this.setUpInactiveShopOwners(lastPlayed);
+				activityLedger.save(true);
 
 				// Abort if no inactive players were found:
 				if (inactivePlayers.isEmpty()) return;
 
-				// Abort if the task has been cancelled in the meantime (e.g. if the plugin has been
-				// disabled or reloaded):
-				if (this.isCancelled()) return;
+				this.continueWithInactiveShopOwners();
+			});
+		});
+		if (!submitted) {
+			Log.debug("Skipping the inactivity check: The background executor is not running.");
+		}
+	}
 
-				SchedulerUtils.runTaskOrOmit(plugin, () -> continueWithInactiveShopOwners());
-			}
-		}.runTaskAsynchronously(plugin);
+	// This is called asynchronously.
+	private Map<UUID, Long> getLastPlayedTimes(List<? extends User> users) {
+		Map<UUID, Long> lastPlayed = new HashMap<>();
+		users.forEach(user -> {
+			OfflinePlayer offlinePlayer = user.getOfflinePlayer();
+			// Some servers may delete player data files, either regularly for all players, or for
+			// particular players (for example to reset or fix some issue with their data). If this
+			// is the case, we cannot reliably determine when the player was last seen on the
+			// server.
+			if (!offlinePlayer.hasPlayedBefore()) return;
+
+			long lastPlayedMillis = offlinePlayer.getLastPlayed();
+			if (lastPlayedMillis == 0) return; // 0 if unknown (see reasoning above)
+
+			lastPlayed.put(user.getUniqueId(), lastPlayedMillis);
+		});
+		return lastPlayed;
 	}
 
-	// This may be called asynchronously.
-	// Sets up the data for all inactive shop owners, and removes all shop owners that are not
-	// inactive.
-	private void setUpInactiveShopOwners() {
+	// Updates the ledger with the given 'last played' times, sets up the data for all inactive
+	// shop owners, and removes all shop owners that are not inactive.
+	private void setUpInactiveShopOwners(Map<? extends UUID, ? extends Long> lastPlayed) {
+		assert Bukkit.isPrimaryThread();
+		lastPlayed.forEach(activityLedger::recordActivity);
+
 		Iterator<Entry<User, @Nullable InactivePlayerData>> iterator = inactivePlayers.entrySet().iterator();
 		while (iterator.hasNext()) {
 			Entry<User, @Nullable InactivePlayerData> entry = iterator.next();
@@ -138,25 +204,25 @@ class DeleteShopsOfInactivePlayersProcedure {
 		assert !CollectionUtils.containsNull(inactivePlayers.values());
 	}
 
-	// This may be called asynchronously.
 	// Returns null if the given user is not inactive.
 	private @Nullable InactivePlayerData setUpIfInactive(User user) {
 		assert user != null;
-		OfflinePlayer offlinePlayer = user.getOfflinePlayer();
-		// Some servers may delete player data files, either regularly for all players (which breaks
-		// this feature), or for particular players (for example to reset or fix some issue with
-		// their data). If this is the case, we cannot reliably determine when the player was last
-		// seen on the server, and therefore do not delete their shopkeepers.
-		if (!offlinePlayer.hasPlayedBefore()) return null;
+		// The player might have joined in the meantime:
+		if (user.isOnline()) return null;
 
-		long lastPlayedMillis = offlinePlayer.getLastPlayed();
-		if (lastPlayedMillis == 0) return null; // 0 if unknown (see reasoning above)
+		// If neither the ledger nor the server know when the player was last seen, we cannot
+		// reliably determine their inactivity, and therefore do not delete their shopkeepers.
+		long lastSeenMillis = activityLedger.getLastSeen(user.getUniqueId());
+		if (lastSeenMillis == ShopOwnerActivityLedger.UNKNOWN) return null;
 
-		long millisSinceLastPlayed = currentTimeMillis - lastPlayedMillis;
-		int daysSinceLastPlayed = (int) TimeUnit.MILLISECONDS.toDays(millisSinceLastPlayed);
-		if (daysSinceLastPlayed < playerInactivityDays) return null;
+		int daysSinceLastSeen = this.getDaysSince(lastSeenMillis);
+		if (daysSinceLastSeen < playerInactivityDays) return null;
+
+		return new InactivePlayerData(daysSinceLastSeen);
+	}
 
-		return new InactivePlayerData(daysSinceLastPlayed);
+	private int getDaysSince(long timeMillis) {
+		return (int) TimeUnit.MILLISECONDS.toDays(currentTimeMillis - timeMillis);
 	}
 
 	private void continueWithInactiveShopOwners() {
@@ -16,23 +16,28 @@ import com.nisovin.shopkeepers.util.java.Validate;
 public class PlayerInactivity {
 
 	private final SKShopkeepersPlugin plugin;
+	private final ShopOwnerActivityLedger activityLedger;
 	private final DeleteInactivePlayerShopsTask task;
 
 	public PlayerInactivity(SKShopkeepersPlugin plugin) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
+		this.activityLedger = new ShopOwnerActivityLedger(plugin);
 		this.task = new DeleteInactivePlayerShopsTask(plugin);
 	}
 
 	public void onEnable() {
 		if (Settings.playerShopkeeperInactiveDays <= 0) return; // Feature is disabled
 
+		activityLedger.onEnable();
+
 		// Delete inactive player shops, once shortly after plugin startup, and then periodically:
 		task.start();
 	}
 
 	public void onDisable() {
 		task.stop();
+		activityLedger.onDisable();
 	}
 
 	/**
@@ -41,17 +46,18 @@ public class PlayerInactivity {
 	 * <p>
 	 * The task is also run shortly after being started.
 	 * <p>
-	 * Since we measure player inactivity in granularity of days, and since the checking for
-	 * inactive players is relatively performance-intensive, we run this task very infrequently. It
-	 * is also not required that this task runs exactly in the specified interval, which is
-	 * unlikely, because server lag can noticeably influence the exact interval duration. The
-	 * primary purpose of this task is to account for servers that keep running for very long
-	 * durations.
+	 * Since we measure player inactivity in granularity of days, we run this task infrequently. The
+	 * inactivity check itself is cheap, because it is based on the in-memory
+	 * {@link ShopOwnerActivityLedger}, and only the few detected inactive shop owners are confirmed
+	 * against the player data of the server. It is also not required that this task runs exactly in
+	 * the specified interval, which is unlikely, because server lag can noticeably influence the
+	 * exact interval duration. The primary purpose of this task is to account for servers that keep
+	 * running for very long durations.
 	 */
 	private final class DeleteInactivePlayerShopsTask implements Runnable {
 
-		// ~4 hours (can be noticeably longer if the server lags)
-		private static final long INTERVAL_TICKS = Ticks.PER_SECOND * 60 * 60 * 4L;
+		// ~1 hour (can be noticeably longer if the server lags)
+		private static final long INTERVAL_TICKS = Ticks.PER_SECOND * 60 * 60L;
 
 		private final Plugin plugin;
 		private @Nullable BukkitTask task = null;
@@ -84,6 +90,6 @@ public class PlayerInactivity {
 	// TODO Also add a command to manually detect and then optionally delete inactive player shops?
 	public void deleteShopsOfInactivePlayers() {
 		if (Settings.playerShopkeeperInactiveDays <= 0) return; // Feature is disabled
-		new DeleteShopsOfInactivePlayersProcedure(plugin).start();
+		new DeleteShopsOfInactivePlayersProcedure(plugin, activityLedger).start();
 	}
 }
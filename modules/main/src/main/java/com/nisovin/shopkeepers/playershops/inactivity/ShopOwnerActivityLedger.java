@@ -0,0 +1,286 @@
+package com.nisovin.shopkeepers.playershops.inactivity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.java.ThrowableUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Keeps track of when the owners of player shops were last seen on the server.
+ * <p>
+ * Querying the {@link org.bukkit.OfflinePlayer#getLastPlayed() last played} time from Bukkit reads
+ * the player's data from disk. Instead of doing this for every shop owner during every inactivity
+ * check, we record the last seen times of shop owners ourselves whenever they join or leave the
+ * server, and persist them in a small plugin-owned file. Owners that are not yet known to this
+ * ledger are seeded once from Bukkit.
+ * <p>
+ * The ledger is only accessed on the server's main thread. Only the writing of the file is
+ * performed asynchronously. All writes go through a {@link SingletonTask}, so that they are
+ * executed in the order in which they were requested, and an older snapshot of the ledger cannot
+ * overwrite a newer one.
+ */
+class ShopOwnerActivityLedger implements Listener {
+
+	/**
+	 * Indicates that the last seen time of a player is not known.
+	 */
+	static final long UNKNOWN = 0L;
+
+	private static final String DATA_FOLDER = "data";
+	private static final String FILE_NAME = "owner-activity.txt";
+
+	private final SKShopkeepersPlugin plugin;
+	private final Map<UUID, Long> lastSeen = new HashMap<>();
+	private boolean dirty = false;
+	private final SaveTask saveTask;
+
+	ShopOwnerActivityLedger(SKShopkeepersPlugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+		this.saveTask = new SaveTask(plugin);
+	}
+
+	void onEnable() {
+		this.load();
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+
+		// Shop owners that are already online (e.g. after a reload) are active:
+		long now = System.currentTimeMillis();
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			this.recordIfShopOwner(player, now);
+		}
+	}
+
+	void onDisable() {
+		HandlerList.unregisterAll(this);
+
+		// Wait for any pending asynchronous save, so that it cannot overwrite the final save below:
+		saveTask.awaitExecutions();
+
+		// Shop owners that are still online have been active until now:
+		// The shopkeepers might already have been unloaded at this point, so we check the ledger
+		// instead of the shopkeeper registry.
+		long now = System.currentTimeMillis();
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			UUID playerId = player.getUniqueId();
+			if (lastSeen.containsKey(playerId)) {
+				this.recordActivity(playerId, now);
+			}
+		}
+		this.save(false);
+		lastSeen.clear();
+	}
+
+	private Path getFile() {
+		return plugin.getDataFolder().toPath().resolve(DATA_FOLDER).resolve(FILE_NAME);
+	}
+
+	private void load() {
+		lastSeen.clear();
+		dirty = false;
+		Path file = this.getFile();
+		if (!Files.exists(file)) {
+			Log.debug("The shop owner activity file does not exist yet.");
+			return;
+		}
+
+		int invalidLines = 0;
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) continue;
+				int separatorIndex = line.indexOf(' ');
+				try {
+					if (separatorIndex < 0) throw new IllegalArgumentException("Missing separator");
+					UUID playerId = UUID.fromString(line.substring(0, separatorIndex));
+					long lastSeenMillis = Long.parseLong(line.substring(separatorIndex + 1));
+					if (lastSeenMillis != UNKNOWN) {
+						lastSeen.put(playerId, lastSeenMillis);
+					}
+				} catch (IllegalArgumentException e) {
+					invalidLines++;
+				}
+			}
+		} catch (IOException e) {
+			// The ledger is rebuilt from Bukkit's player data if necessary:
+			Log.warning("Could not load the shop owner activity file: "
+					+ ThrowableUtils.getDescription(e));
+			lastSeen.clear();
+			return;
+		}
+
+		if (invalidLines > 0) {
+			Log.warning("Ignored " + invalidLines
+					+ " invalid entries in the shop owner activity file.");
+			dirty = true;
+		}
+		Log.debug(() -> "Loaded the last seen times of " + lastSeen.size() + " shop owners.");
+	}
+
+	/**
+	 * Saves the ledger, if it has changed since it was last saved.
+	 *
+	 * @param async
+	 *            <code>true</code> to write the file asynchronously, if possible
+	 */
+	void save(boolean async) {
+		if (!dirty) return;
+
+		if (async) {
+			saveTask.run(); // Usually async, but may be sync during plugin disable
+		} else {
+			// Waits for any current async save to complete:
+			saveTask.runImmediately();
+		}
+	}
+
+	private class SaveTask extends SingletonTask {
+
+		private @Nullable String data = null;
+		private boolean saveSucceeded = false;
+
+		private SaveTask(SKShopkeepersPlugin plugin) {
+			super(plugin, plugin.getBackgroundExecutor());
+		}
+
+		private class InternalAsyncTask extends SingletonTask.InternalAsyncTask {
+		}
+
+		private class InternalSyncCallbackTask extends SingletonTask.InternalSyncCallbackTask {
+		}
+
+		@Override
+		protected InternalAsyncTask createInternalAsyncTask() {
+			return new InternalAsyncTask();
+		}
+
+		@Override
+		protected InternalSyncCallbackTask createInternalSyncCallbackTask() {
+			return new InternalSyncCallbackTask();
+		}
+
+		@Override
+		protected void prepare() {
+			// Serialize the data on the main thread:
+			StringBuilder content = new StringBuilder(lastSeen.size() * 52);
+			lastSeen.forEach((playerId, lastSeenMillis) -> {
+				content.append(playerId).append(' ').append(lastSeenMillis).append('\n');
+			});
+			data = content.toString();
+			saveSucceeded = false;
+
+			// Changes that occur from now on are saved by the next save:
+			dirty = false;
+		}
+
+		@Override
+		protected void execute() {
+			String data = this.data;
+			assert data != null;
+			try {
+				FileUtils.writeSafely(
+						getFile(),
+						data,
+						StandardCharsets.UTF_8,
+						plugin.getLogger(),
+						plugin.getDataFolder().toPath()
+				);
+				saveSucceeded = true;
+			} catch (IOException e) {
+				Log.warning("Could not save the shop owner activity file: "
+						+ ThrowableUtils.getDescription(e));
+			}
+		}
+
+		@Override
+		protected void syncCallback() {
+			data = null;
+			if (!saveSucceeded) {
+				// Retry with the next save:
+				dirty = true;
+			}
+		}
+	}
+
+	/**
+	 * Gets the time at which the specified player was last seen on the server.
+	 *
+	 * @param playerId
+	 *            the player's unique id
+	 * @return the time in milliseconds since the epoch, or {@link #UNKNOWN}
+	 */
+	long getLastSeen(UUID playerId) {
+		Long lastSeenMillis = lastSeen.get(playerId);
+		return (lastSeenMillis != null) ? lastSeenMillis : UNKNOWN;
+	}
+
+	/**
+	 * Records that the specified player was seen at the given time.
+	 * <p>
+	 * This has no effect if the player is already known to have been seen at a later time.
+	 *
+	 * @param playerId
+	 *            the player's unique id
+	 * @param lastSeenMillis
+	 *            the time in milliseconds since the epoch, or {@link #UNKNOWN} to ignore
+	 */
+	void recordActivity(UUID playerId, long lastSeenMillis) {
+		if (lastSeenMillis == UNKNOWN) return;
+		Long previous = lastSeen.get(playerId);
+		if (previous != null && previous >= lastSeenMillis) return;
+		lastSeen.put(playerId, lastSeenMillis);
+		dirty = true;
+	}
+
+	/**
+	 * Removes the entries of all players that are not contained in the given set of shop owners.
+	 *
+	 * @param shopOwners
+	 *            the unique ids of the current shop owners
+	 */
+	void retainShopOwners(Set<? extends UUID> shopOwners) {
+		if (lastSeen.keySet().retainAll(shopOwners)) {
+			dirty = true;
+		}
+	}
+
+	private void recordIfShopOwner(Player player, long timeMillis) {
+		UUID playerId = player.getUniqueId();
+		if (plugin.getShopkeeperRegistry().getPlayerShopkeepersByOwner(playerId).isEmpty()) {
+			return;
+		}
+		this.recordActivity(playerId, timeMillis);
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerJoin(PlayerJoinEvent event) {
+		this.recordIfShopOwner(event.getPlayer(), System.currentTimeMillis());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerQuit(PlayerQuitEvent event) {
+		this.recordIfShopOwner(event.getPlayer(), System.currentTimeMillis());
+	}
+}
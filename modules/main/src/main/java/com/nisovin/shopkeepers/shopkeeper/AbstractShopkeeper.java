@@ -166,6 +166,12 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	// of. A value of 'false' only indicates that the storage is aware of the latest data of the
 	// shopkeeper, not that it has actually persisted the data to disk yet.
 	private boolean dirty = false;
+	// The serialized data of the large data sections (e.g. offers, shop object data, and snapshots)
+	// that have not changed since they were last saved to the storage: Only used and updated by
+	// saves of the storage. A section is removed once it is marked as dirty.
+	private final Map<String, Object> savedSectionsData = new HashMap<>();
+	// Whether we are currently saving our data to the storage:
+	private boolean savingToStorage = false;
 	// Is currently registered:
 	private boolean valid = false;
 	private boolean active = false;
@@ -515,6 +521,79 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		this.saveSnapshots(shopkeeperData);
 	}
 
+	/**
+	 * Saves the shopkeeper's state to the given {@link ShopkeeperData} of the
+	 * {@link ShopkeeperStorage}.
+	 * <p>
+	 * This behaves like {@link #save(ShopkeeperData, boolean)} without saving any external data,
+	 * but reuses the previously serialized data of any large data sections that have not been
+	 * {@link #markDirty(Property) marked dirty} since the last save to the storage.
+	 * <p>
+	 * The reused data is shared with the data that was previously saved to the storage. The storage
+	 * must therefore only use this for data that replaces the previously saved data of this
+	 * shopkeeper.
+	 * 
+	 * @param shopkeeperData
+	 *            the shopkeeper data, not <code>null</code>
+	 */
+	public final void saveToStorage(ShopkeeperData shopkeeperData) {
+		assert !savingToStorage;
+		savingToStorage = true;
+		try {
+			this.save(shopkeeperData, false);
+		} finally {
+			savingToStorage = false;
+		}
+	}
+
+	/**
+	 * Saves a large section of data, such as the offers, to the given {@link ShopkeeperData}.
+	 * <p>
+	 * When the shopkeeper is {@link #saveToStorage(ShopkeeperData) saved to the storage}, this
+	 * reuses the previously serialized data of the section if the section has not been
+	 * {@link #markDirty(Property) marked dirty} since then. Otherwise, the section's value is
+	 * retrieved from the given {@link Supplier} and then serialized.
+	 * <p>
+	 * Every change to the section's value needs to be marked via {@link #markDirty(Property)} or
+	 * {@link #markDirty()}.
+	 * 
+	 * @param <T>
+	 *            the type of the section's value
+	 * @param shopkeeperData
+	 *            the shopkeeper data, not <code>null</code>
+	 * @param section
+	 *            the property of the section, not <code>null</code>
+	 * @param valueSupplier
+	 *            supplies the section's current value, not <code>null</code>
+	 */
+	protected final <T> void saveSection(
+			ShopkeeperData shopkeeperData,
+			Property<T> section,
+			Supplier<? extends T> valueSupplier
+	) {
+		Validate.notNull(shopkeeperData, "shopkeeperData is null");
+		Validate.notNull(section, "section is null");
+		Validate.notNull(valueSupplier, "valueSupplier is null");
+		if (!savingToStorage) {
+			shopkeeperData.set(section, valueSupplier.get());
+			return;
+		}
+
+		String dataKey = section.getName();
+		Object sectionData = savedSectionsData.get(dataKey);
+		if (sectionData != null) {
+			// The section has not changed since the last save:
+			shopkeeperData.set(dataKey, sectionData);
+			return;
+		}
+
+		shopkeeperData.set(section, valueSupplier.get());
+		sectionData = shopkeeperData.get(dataKey);
+		if (sectionData != null) {
+			savedSectionsData.put(dataKey, sectionData);
+		}
+	}
+
 	/**
 	 * Saves the shopkeeper's dynamic state to the given {@link ShopkeeperData}.
 	 * <p>
@@ -548,9 +627,11 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		shopkeeperData.set(NAME, name);
 
 		// Shop object:
-		ShopObjectData shopObjectData = ShopObjectData.ofNonNull(DataContainer.create());
-		shopObject.save(shopObjectData, saveAll);
-		shopkeeperData.set(SHOP_OBJECT_DATA, shopObjectData);
+		this.saveSection(shopkeeperData, SHOP_OBJECT_DATA, () -> {
+			ShopObjectData shopObjectData = ShopObjectData.ofNonNull(DataContainer.create());
+			shopObject.save(shopObjectData, saveAll);
+			return shopObjectData;
+		});
 	}
 
 	@Override
@@ -576,14 +657,43 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	 * saved with the next successful save of the {@link ShopkeeperStorage}. If the shopkeeper has
 	 * already been deleted or unloaded, invoking this method will have no effect on the data that
 	 * is stored by the storage.
+	 * <p>
+	 * This marks all data sections as dirty. If the change only affects a single data section, use
+	 * {@link #markDirty(Property)} instead.
 	 */
 	public final void markDirty() {
+		savedSectionsData.clear();
+		this.setDirty();
+	}
+
+	/**
+	 * Marks this shopkeeper as {@link #markDirty() dirty}, but only marks the specified section of
+	 * its data as changed.
+	 * <p>
+	 * The next save of the storage reuses the previously serialized data of any other
+	 * {@link #saveSection(ShopkeeperData, Property, Supplier) large data sections}. Only use this if
+	 * the change does not affect the data of any other section.
+	 * 
+	 * @param section
+	 *            the property of the changed data section, not <code>null</code>
+	 */
+	public final void markDirty(Property<?> section) {
+		Validate.notNull(section, "section is null");
+		savedSectionsData.remove(section.getName());
+		this.setDirty();
+	}
+
+	private void setDirty() {
 		dirty = true;
 		// Inform the storage that the shopkeeper is dirty:
 		if (this.isValid()) {
 			// If the shopkeeper is marked as dirty during creation or loading (while it is not yet
 			// valid), the storage is informed once the shopkeeper becomes valid.
-			SKShopkeepersPlugin.getInstance().getShopkeeperStorage().markDirty(this);
+			SKShopkeepersPlugin plugin = SKShopkeepersPlugin.getInstance();
+			plugin.getShopkeeperStorage().markDirty(this);
+			// The shopkeeper's offers might have changed:
+			plugin.getOfferIndex().invalidate(this);
+			plugin.getShopkeeperRegistry().onShopkeeperChanged(this);
 		}
 	}
 
@@ -1105,7 +1215,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		this.location = location.immutable(); // Immutable copy if necessary
 
 		this.updateChunkCoords();
-		this.markDirty();
+		this.markDirty(LOCATION);
 
 		// Inform shopkeeper registry:
 		if (this.isValid()) {
@@ -1174,7 +1284,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	public final void setYaw(float yaw) {
 		Validate.State.isTrue(!this.isVirtual(), "Cannot set yaw of virtual shopkeeper!");
 		this.yaw = yaw;
-		this.markDirty();
+		this.markDirty(YAW);
 	}
 
 	@Override
@@ -1280,7 +1390,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	@Override
 	public final void setName(@Nullable String newName) {
 		this._setName(newName);
-		this.markDirty();
+		this.markDirty(NAME);
 	}
 
 	private void _setName(@Nullable String newName) {
@@ -1416,7 +1526,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 
 	private void saveSnapshots(ShopkeeperData shopkeeperData) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(SNAPSHOTS, snapshotsView);
+		this.saveSection(shopkeeperData, SNAPSHOTS, () -> snapshotsView);
 	}
 
 	@Override
@@ -1462,7 +1572,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	public final void addSnapshot(ShopkeeperSnapshot snapshot) {
 		this._addSnapshot(snapshot);
 		this.checkSnapshotsCountLimit();
-		this.markDirty();
+		this.markDirty(SNAPSHOTS);
 	}
 
 	private void _addSnapshot(ShopkeeperSnapshot snapshot) {
@@ -1488,14 +1598,14 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	@Override
 	public final SKShopkeeperSnapshot removeSnapshot(int index) {
 		SKShopkeeperSnapshot snapshot = snapshots.remove(index);
-		this.markDirty();
+		this.markDirty(SNAPSHOTS);
 		return snapshot;
 	}
 
 	@Override
 	public final void removeAllSnapshots() {
 		snapshots.clear();
-		this.markDirty();
+		this.markDirty(SNAPSHOTS);
 	}
 
 	@Override
@@ -1,16 +1,23 @@
 package com.nisovin.shopkeepers.shopkeeper;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.util.data.property.Property;
 import com.nisovin.shopkeepers.util.data.property.value.AbstractPropertyValuesHolder;
 import com.nisovin.shopkeepers.util.data.property.value.PropertyValuesHolder;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 /**
  * A {@link PropertyValuesHolder} that is associated with a specific {@link Shopkeeper}.
+ * <p>
+ * If the property values are saved within a specific section of the shopkeeper's data, changes to
+ * the property values only {@link AbstractShopkeeper#markDirty(Property) mark that section dirty}.
  */
 public class ShopkeeperPropertyValuesHolder extends AbstractPropertyValuesHolder {
 
 	private final AbstractShopkeeper shopkeeper;
+	private final @Nullable Property<?> section;
 
 	/**
 	 * Creates a new {@link ShopkeeperPropertyValuesHolder}.
@@ -19,8 +26,25 @@ public class ShopkeeperPropertyValuesHolder extends AbstractPropertyValuesHolder
 	 *            the shopkeeper, not <code>null</code>
 	 */
 	public ShopkeeperPropertyValuesHolder(AbstractShopkeeper shopkeeper) {
+		this(shopkeeper, null);
+	}
+
+	/**
+	 * Creates a new {@link ShopkeeperPropertyValuesHolder}.
+	 * 
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 * @param section
+	 *            the property of the shopkeeper data section that the property values are saved
+	 *            within, or <code>null</code> to mark all of the shopkeeper's data dirty on changes
+	 */
+	public ShopkeeperPropertyValuesHolder(
+			AbstractShopkeeper shopkeeper,
+			@Nullable Property<?> section
+	) {
 		Validate.notNull(shopkeeper, "shopkeeper is null");
 		this.shopkeeper = shopkeeper;
+		this.section = section;
 	}
 
 	/**
@@ -39,6 +63,11 @@ public class ShopkeeperPropertyValuesHolder extends AbstractPropertyValuesHolder
 
 	@Override
 	public void markDirty() {
-		shopkeeper.markDirty();
+		Property<?> section = this.section;
+		if (section != null) {
+			shopkeeper.markDirty(section);
+		} else {
+			shopkeeper.markDirty();
+		}
 	}
 }
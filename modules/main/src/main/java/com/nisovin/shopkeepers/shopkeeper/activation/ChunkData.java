@@ -1,6 +1,5 @@
 package com.nisovin.shopkeepers.shopkeeper.activation;
 
-import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.util.ChunkCoords;
@@ -14,9 +13,9 @@ final class ChunkData {
 	// delayed activation.
 	private boolean shouldBeActive;
 	private boolean active;
-	// TODO Use one task (or a small number of tasks) for all pending delayed chunk activations,
-	// instead of one task per chunk?
-	private @Nullable BukkitTask delayedActivationTask = null;
+	// The batch of chunks loaded within the same tick that this chunk is pending a delayed
+	// activation with:
+	private ShopkeeperChunkActivator.@Nullable DelayedActivationBatch delayedActivationBatch = null;
 
 	ChunkData(ChunkCoords chunkCoords) {
 		Validate.notNull(chunkCoords, "chunkCoords is null");
@@ -47,18 +46,22 @@ final class ChunkData {
 	}
 
 	public boolean isActivationDelayed() {
-		return (delayedActivationTask != null);
+		return (delayedActivationBatch != null);
 	}
 
-	void setDelayedActivationTask(@Nullable BukkitTask delayedActivationTask) {
-		this.delayedActivationTask = delayedActivationTask;
+	ShopkeeperChunkActivator.@Nullable DelayedActivationBatch getDelayedActivationBatch() {
+		return delayedActivationBatch;
 	}
 
+	void setDelayedActivationBatch(
+			ShopkeeperChunkActivator.@Nullable DelayedActivationBatch delayedActivationBatch
+	) {
+		this.delayedActivationBatch = delayedActivationBatch;
+	}
+
+	// The batch skips the chunks that are no longer associated with it.
 	void cancelDelayedActivation() {
-		if (delayedActivationTask != null) {
-			delayedActivationTask.cancel();
-			delayedActivationTask = null;
-		}
+		delayedActivationBatch = null;
 	}
 
 	// Checks if the chunk is loaded, but not yet active or pending activation:
@@ -3,6 +3,7 @@ package com.nisovin.shopkeepers.shopkeeper.activation;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,7 +17,6 @@ import org.bukkit.Server;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
-import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
@@ -77,6 +77,9 @@ public class ShopkeeperChunkActivator {
 	// should be sufficiently fast.
 	private final Queue<ChunkData> deferredChunkActivations = new ArrayDeque<>();
 
+	// The batch that chunks loaded during the current tick are added to:
+	private @Nullable DelayedActivationBatch openDelayedActivationBatch = null;
+
 	private final Timer chunkActivationTimings = new Timer();
 	private int immediateChunkActivationRadius;
 
@@ -108,6 +111,7 @@ public class ShopkeeperChunkActivator {
 
 	public void onDisable() {
 		HandlerList.unregisterAll(listener);
+		openDelayedActivationBatch = null;
 		chunkActivationTimings.reset();
 		this.ensureEmpty();
 	}
@@ -289,36 +293,82 @@ public class ShopkeeperChunkActivator {
 		}
 
 		// Delay the activation to not activate shopkeepers for chunks that are only loaded briefly:
-		new DelayedChunkActivationTask(chunkData).start();
+		// Chunks are often loaded in bulk, e.g. when a player teleports. All chunks that are loaded
+		// within the same tick are activated together.
+		DelayedActivationBatch batch = openDelayedActivationBatch;
+		if (batch == null) {
+			batch = new DelayedActivationBatch();
+			batch.start();
+			openDelayedActivationBatch = batch;
+		}
+		batch.add(chunkData);
 	}
 
-	private class DelayedChunkActivationTask implements Runnable {
+	/**
+	 * The chunks that were loaded within the same tick, and that are activated together after a
+	 * delay.
+	 */
+	final class DelayedActivationBatch implements Runnable {
 
-		private final ChunkData chunkData;
+		private final List<ChunkData> chunks = new ArrayList<>();
 
-		DelayedChunkActivationTask(ChunkData chunkData) {
-			assert chunkData != null;
-			this.chunkData = chunkData;
+		DelayedActivationBatch() {
 		}
 
 		void start() {
+			Bukkit.getScheduler().runTaskLater(plugin, this, CHUNK_ACTIVATION_DELAY_TICKS);
+			// Chunks that are loaded during subsequent ticks are added to a new batch:
+			Bukkit.getScheduler().runTask(plugin, () -> {
+				if (openDelayedActivationBatch == this) {
+					openDelayedActivationBatch = null;
+				}
+			});
+		}
+
+		void add(ChunkData chunkData) {
 			assert !chunkData.isActive() && !chunkData.isActivationDelayed();
-			BukkitTask task = Bukkit.getScheduler().runTaskLater(
-					plugin,
-					this,
-					CHUNK_ACTIVATION_DELAY_TICKS
-			);
-			chunkData.setDelayedActivationTask(task);
+			chunkData.setDelayedActivationBatch(this);
+			chunks.add(chunkData);
 		}
 
 		@Override
 		public void run() {
-			assert chunkData.getChunkCoords().isChunkLoaded(); // We stop the task on chunk unloads
-			chunkData.setDelayedActivationTask(null);
-			activateChunk(chunkData);
+			activateDelayedChunks(this, chunks);
 		}
 	}
 
+	private void activateDelayedChunks(DelayedActivationBatch batch, List<ChunkData> chunks) {
+		List<ChunkData> pendingChunks = new ArrayList<>(chunks.size());
+		for (ChunkData chunkData : chunks) {
+			// Skip chunks whose delayed activation has been cancelled in the meantime (e.g. because
+			// the chunk was unloaded), or which have been activated by other means:
+			if (chunkData.getDelayedActivationBatch() != batch) continue;
+			assert chunkData.getChunkCoords().isChunkLoaded(); // Cancelled on chunk unloads
+			chunkData.setDelayedActivationBatch(null);
+			pendingChunks.add(chunkData);
+		}
+		if (pendingChunks.isEmpty()) return;
+
+		if (pendingChunks.size() == 1 || chunkActivationInProgress) {
+			pendingChunks.forEach(this::activateChunk);
+			return;
+		}
+
+		// Activate the chunks together:
+		List<ChunkData> chunksToActivate = new ArrayList<>(pendingChunks.size());
+		for (ChunkData chunkData : pendingChunks) {
+			chunkData.setShouldBeActive(true);
+			if (!chunkData.isActive()) {
+				chunksToActivate.add(chunkData);
+			}
+		}
+		if (chunksToActivate.isEmpty()) return;
+
+		Log.debug(DebugOptions.shopkeeperActivation,
+				() -> "Activating a batch of " + chunksToActivate.size() + " chunks.");
+		this.activateChunksNow(chunksToActivate);
+	}
+
 	void activatePendingNearbyChunksDelayed(Player player) {
 		assert player != null;
 		Bukkit.getScheduler().runTask(plugin, new ActivatePendingNearbyChunksTask(player));
@@ -436,58 +486,81 @@ public class ShopkeeperChunkActivator {
 		// in progress.
 		assert !this.isActivationDeferred(chunkData);
 
+		this.activateChunksNow(Collections.singletonList(chunkData));
+	}
+
+	// Activates the given chunks together. The chunks are expected to be loaded, marked as
+	// 'should-be-active', and not yet active, and no other chunk activation is expected to be in
+	// progress currently.
+	// The activation of all chunks is recorded as a single chunk activation timing.
+	private void activateChunksNow(List<? extends ChunkData> chunks) {
+		assert !chunkActivationInProgress;
 		chunkActivationInProgress = true;
 		chunkActivationTimings.start();
 
-		// Get the chunk shopkeepers:
-		Collection<? extends AbstractShopkeeper> shopkeepers = shopkeeperRegistry.getShopkeepersInChunkSnapshot(chunkCoords);
-
-		Log.debug(DebugOptions.shopkeeperActivation,
-				() -> "Activating " + shopkeepers.size() + " shopkeepers in chunk "
-						+ TextUtils.getChunkString(chunkCoords)
-		);
-
-		// Mark the chunk as active:
-		chunkData.setActive(true);
-
-		// Mark the shopkeepers as active:
-		shopkeepers.forEach(shopkeeper -> shopkeeper.setActive(true));
-
 		try {
-			for (AbstractShopkeeper shopkeeper : shopkeepers) {
-				// Abort the chunk activation if it has been deactivated again in the meantime:
-				if (!chunkData.isActive()) {
-					return;
-				}
+			// Get the chunk shopkeepers, and mark the chunks and shopkeepers as active:
+			List<Collection<? extends AbstractShopkeeper>> chunkShopkeepers = new ArrayList<>(
+					chunks.size()
+			);
+			for (ChunkData chunkData : chunks) {
+				assert chunkData.isShouldBeActive() && !chunkData.isActive();
+				ChunkCoords chunkCoords = chunkData.getChunkCoords();
+				Collection<? extends AbstractShopkeeper> shopkeepers = shopkeeperRegistry.getShopkeepersInChunkSnapshot(chunkCoords);
+				chunkShopkeepers.add(shopkeepers);
 
-				// Skip if the shopkeeper's activation state has already changed again:
-				if (!shopkeeper.isActive()) {
-					continue;
-				}
+				Log.debug(DebugOptions.shopkeeperActivation,
+						() -> "Activating " + shopkeepers.size() + " shopkeepers in chunk "
+								+ TextUtils.getChunkString(chunkCoords)
+				);
 
-				// Note: Even if the shopkeeper has changed its chunk in the meantime, we still need
-				// to complete its activation, because no one else does (we have already set its
-				// activation state earlier, so everyone else assumes that it is already active).
+				// Mark the chunk as active:
+				chunkData.setActive(true);
 
-				// Start ticking the shopkeepers:
-				shopkeeperTicker.startTicking(shopkeeper);
+				// Mark the shopkeepers as active:
+				shopkeepers.forEach(shopkeeper -> shopkeeper.setActive(true));
 			}
 
-			// Abort the chunk activation if it has been deactivated again in the meantime:
-			if (!chunkData.isActive()) {
-				return;
+			// Start ticking the shopkeepers:
+			for (int i = 0; i < chunks.size(); i++) {
+				ChunkData chunkData = chunks.get(i);
+				for (AbstractShopkeeper shopkeeper : chunkShopkeepers.get(i)) {
+					// Abort the chunk activation if it has been deactivated again in the meantime:
+					if (!chunkData.isActive()) {
+						break;
+					}
+
+					// Skip if the shopkeeper's activation state has already changed again:
+					if (!shopkeeper.isActive()) {
+						continue;
+					}
+
+					// Note: Even if the shopkeeper has changed its chunk in the meantime, we still
+					// need to complete its activation, because no one else does (we have already
+					// set its activation state earlier, so everyone else assumes that it is already
+					// active).
+					shopkeeperTicker.startTicking(shopkeeper);
+				}
 			}
 
 			// Spawn the shopkeepers that are still marked as active:
 			// In order to avoid spawning lots of shopkeepers at the same time, we don't actually
 			// spawn the shopkeepers immediately, but add them to the spawn queue instead.
-			shopkeeperSpawner.spawnChunkShopkeepers(
-					chunkCoords,
-					"activation",
-					shopkeepers,
-					SHOPKEEPER_IS_ACTIVE,
-					false
-			);
+			for (int i = 0; i < chunks.size(); i++) {
+				ChunkData chunkData = chunks.get(i);
+				// Skip the chunk if it has been deactivated again in the meantime:
+				if (!chunkData.isActive()) {
+					continue;
+				}
+
+				shopkeeperSpawner.spawnChunkShopkeepers(
+						chunkData.getChunkCoords(),
+						"activation",
+						chunkShopkeepers.get(i),
+						SHOPKEEPER_IS_ACTIVE,
+						false
+				);
+			}
 		} finally {
 			chunkActivationTimings.stop();
 			chunkActivationInProgress = false;
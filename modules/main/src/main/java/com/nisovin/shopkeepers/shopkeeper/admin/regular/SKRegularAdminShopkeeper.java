@@ -140,7 +140,7 @@ public class SKRegularAdminShopkeeper
 
 	private void saveOffers(ShopkeeperData shopkeeperData) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveSection(shopkeeperData, OFFERS, this::getOffers);
 	}
 
 	@Override
@@ -151,7 +151,7 @@ public class SKRegularAdminShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -163,7 +163,7 @@ public class SKRegularAdminShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(List<? extends TradeOffer> offers) {
@@ -176,7 +176,7 @@ public class SKRegularAdminShopkeeper
 	public void addOffer(TradeOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(TradeOffer offer) {
@@ -193,7 +193,7 @@ public class SKRegularAdminShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(List<? extends TradeOffer> offers) {
@@ -0,0 +1,58 @@
+package com.nisovin.shopkeepers.shopkeeper.offers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.events.ShopkeeperTradeCompletedEvent;
+import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.container.ShopContainers;
+
+/**
+ * Marks the offers of shopkeepers as stale when their stock might have changed.
+ */
+class OfferIndexListener implements Listener {
+
+	private final SKShopkeepersPlugin plugin;
+	private final SKOfferIndex offerIndex;
+
+	OfferIndexListener(SKShopkeepersPlugin plugin, SKOfferIndex offerIndex) {
+		assert plugin != null && offerIndex != null;
+		this.plugin = plugin;
+		this.offerIndex = offerIndex;
+	}
+
+	void onEnable() {
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+	}
+
+	void onDisable() {
+		HandlerList.unregisterAll(this);
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onTradeCompleted(ShopkeeperTradeCompletedEvent event) {
+		offerIndex.invalidate(event.getShopkeeper());
+	}
+
+	// Players might have added or removed items from the container of a player shop.
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onInventoryClose(InventoryCloseEvent event) {
+		Location location = event.getInventory().getLocation();
+		if (location == null) return;
+
+		Block block = location.getBlock();
+		if (!ShopContainers.isSupportedContainer(block.getType())) return;
+
+		for (PlayerShopkeeper shopkeeper : plugin.getProtectedContainers()
+				.getShopkeepersUsingContainer(block)) {
+			offerIndex.invalidate(shopkeeper);
+		}
+	}
+}
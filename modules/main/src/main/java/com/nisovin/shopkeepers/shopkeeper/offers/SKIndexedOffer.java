@@ -0,0 +1,76 @@
+package com.nisovin.shopkeepers.shopkeeper.offers;
+
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.IndexedOffer;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+public class SKIndexedOffer implements IndexedOffer {
+
+	private final int shopkeeperId;
+	private final UUID shopkeeperUniqueId;
+	private final TradingRecipe tradingRecipe;
+	private final int stock;
+
+	public SKIndexedOffer(Shopkeeper shopkeeper, TradingRecipe tradingRecipe, int stock) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		Validate.notNull(tradingRecipe, "tradingRecipe is null");
+		Validate.isTrue(stock >= 0 || stock == UNKNOWN_STOCK, "stock is invalid");
+		this.shopkeeperId = shopkeeper.getId();
+		this.shopkeeperUniqueId = shopkeeper.getUniqueId();
+		this.tradingRecipe = tradingRecipe;
+		this.stock = stock;
+	}
+
+	@Override
+	public int getShopkeeperId() {
+		return shopkeeperId;
+	}
+
+	@Override
+	public UUID getShopkeeperUniqueId() {
+		return shopkeeperUniqueId;
+	}
+
+	@Override
+	public TradingRecipe getTradingRecipe() {
+		return tradingRecipe;
+	}
+
+	@Override
+	public UnmodifiableItemStack getResultItem() {
+		return tradingRecipe.getResultItem();
+	}
+
+	@Override
+	public UnmodifiableItemStack getItem1() {
+		return tradingRecipe.getItem1();
+	}
+
+	@Override
+	public @Nullable UnmodifiableItemStack getItem2() {
+		return tradingRecipe.getItem2();
+	}
+
+	@Override
+	public int getStock() {
+		return stock;
+	}
+
+	@Override
+	public boolean isOutOfStock() {
+		return tradingRecipe.isOutOfStock();
+	}
+
+	@Override
+	public String toString() {
+		return "SKIndexedOffer [shopkeeperId=" + shopkeeperId
+				+ ", tradingRecipe=" + tradingRecipe
+				+ ", stock=" + stock + "]";
+	}
+}
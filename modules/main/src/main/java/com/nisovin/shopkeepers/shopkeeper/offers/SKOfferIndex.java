@@ -0,0 +1,382 @@
+package com.nisovin.shopkeepers.shopkeeper.offers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.IndexedOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.OfferIndex;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.player.book.SKBookPlayerShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.player.buy.SKBuyingPlayerShopkeeper;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * The {@link OfferIndex} implementation.
+ * <p>
+ * Added shopkeepers and changes to shopkeepers only mark the shopkeepers as stale. A task
+ * re-indexes a limited number of stale shopkeepers per tick, so that the initial indexing of all
+ * loaded shopkeepers, as well as the re-indexing after many changes, is spread over several ticks.
+ * This also avoids repeatedly re-indexing shopkeepers that are modified or traded with many times
+ * in a row. Queries do not re-index any shopkeepers, but return the offers as of the last
+ * re-indexing of each shopkeeper.
+ */
+public class SKOfferIndex implements OfferIndex {
+
+	/**
+	 * Creates the offers of a shopkeeper.
+	 */
+	@FunctionalInterface
+	interface OffersFactory {
+
+		/**
+		 * Creates the offers of the given shopkeeper.
+		 *
+		 * @param shopkeeper
+		 *            the shopkeeper, not <code>null</code>
+		 * @param previousOffers
+		 *            the previously indexed offers of the shopkeeper, can be empty
+		 * @return the offers, not <code>null</code>
+		 */
+		public List<SKIndexedOffer> createOffers(
+				Shopkeeper shopkeeper,
+				List<SKIndexedOffer> previousOffers
+		);
+	}
+
+	// With this configuration we can re-index around 400 shopkeepers per second. Re-indexing a
+	// shopkeeper is usually cheap, but can involve checking the container contents of player shops.
+	private static final int REINDEX_TASK_PERIOD_TICKS = 1;
+	private static final int REINDEXES_PER_EXECUTION = 20;
+
+	private final Plugin plugin;
+	private final OffersFactory offersFactory;
+	// Null if the index is not informed about events (only the case in tests):
+	private final @Nullable OfferIndexListener listener;
+	private @Nullable BukkitTask reindexTask = null;
+
+	// Shopkeeper id -> offers of that shopkeeper, in the order of the shopkeeper's trades:
+	private final Map<Integer, List<SKIndexedOffer>> offersByShopkeeper = new HashMap<>();
+	// Item type -> shopkeeper id -> offers of that shopkeeper with a matching item.
+	// The TreeMaps keep the offers ordered by shopkeeper id.
+	private final Map<Material, TreeMap<Integer, List<SKIndexedOffer>>> offersByResultType
+			= new EnumMap<>(Material.class);
+	private final Map<Material, TreeMap<Integer, List<SKIndexedOffer>>> offersByCostType
+			= new EnumMap<>(Material.class);
+
+	// Shopkeepers whose offers need to be re-indexed, in the order in which they became stale.
+	// Shopkeepers that become stale again keep their position, so that frequently changing
+	// shopkeepers cannot delay the re-indexing of the other shopkeepers.
+	private final Map<Integer, Shopkeeper> staleShopkeepers = new LinkedHashMap<>();
+
+	public SKOfferIndex(SKShopkeepersPlugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+		this.offersFactory = (shopkeeper, previousOffers) -> createOffers(
+				(AbstractShopkeeper) shopkeeper,
+				previousOffers
+		);
+		this.listener = new OfferIndexListener(plugin, this);
+	}
+
+	// Only used by tests: The index is not informed about events.
+	SKOfferIndex(Plugin plugin, OffersFactory offersFactory) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(offersFactory, "offersFactory is null");
+		this.plugin = plugin;
+		this.offersFactory = offersFactory;
+		this.listener = null;
+	}
+
+	public void onEnable() {
+		if (listener != null) {
+			listener.onEnable();
+		}
+		if (reindexTask == null) {
+			reindexTask = Bukkit.getScheduler().runTaskTimer(
+					plugin,
+					new ReindexTask(),
+					1L,
+					REINDEX_TASK_PERIOD_TICKS
+			);
+		}
+	}
+
+	public void onDisable() {
+		if (listener != null) {
+			listener.onDisable();
+		}
+		if (reindexTask != null) {
+			reindexTask.cancel();
+			reindexTask = null;
+		}
+		this.clear();
+	}
+
+	private void clear() {
+		offersByShopkeeper.clear();
+		offersByResultType.clear();
+		offersByCostType.clear();
+		staleShopkeepers.clear();
+	}
+
+	// SHOPKEEPER CHANGES
+
+	/**
+	 * Informs the index about a newly added shopkeeper.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper
+	 */
+	public void onShopkeeperAdded(AbstractShopkeeper shopkeeper) {
+		this.invalidate(shopkeeper);
+	}
+
+	/**
+	 * Removes the offers of the given shopkeeper from the index.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper
+	 */
+	public void onShopkeeperRemoved(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		staleShopkeepers.remove(shopkeeper.getId());
+		this.removeOffers(shopkeeper.getId());
+	}
+
+	@Override
+	public void invalidate(Shopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		staleShopkeepers.putIfAbsent(shopkeeper.getId(), shopkeeper);
+	}
+
+	/**
+	 * Gets the number of shopkeepers that are pending to be re-indexed.
+	 *
+	 * @return the number of stale shopkeepers
+	 */
+	public int getStaleShopkeeperCount() {
+		return staleShopkeepers.size();
+	}
+
+	// QUERIES
+
+	@Override
+	public List<? extends IndexedOffer> getOffersByResultItem(Material itemType) {
+		Validate.notNull(itemType, "itemType is null");
+		return collectOffers(offersByResultType.get(itemType));
+	}
+
+	@Override
+	public List<? extends IndexedOffer> getOffersByCostItem(Material itemType) {
+		Validate.notNull(itemType, "itemType is null");
+		return collectOffers(offersByCostType.get(itemType));
+	}
+
+	private static List<? extends IndexedOffer> collectOffers(
+			@Nullable TreeMap<Integer, List<SKIndexedOffer>> offersByShopkeeperId
+	) {
+		if (offersByShopkeeperId == null) return Collections.emptyList();
+		List<SKIndexedOffer> offers = new ArrayList<>();
+		offersByShopkeeperId.values().forEach(offers::addAll);
+		return Collections.unmodifiableList(offers);
+	}
+
+	@Override
+	public List<? extends IndexedOffer> getOffers(Shopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		List<SKIndexedOffer> offers = offersByShopkeeper.get(shopkeeper.getId());
+		if (offers == null) return Collections.emptyList();
+		return Collections.unmodifiableList(offers);
+	}
+
+	// INDEXING
+
+	private class ReindexTask implements Runnable {
+		@Override
+		public void run() {
+			SKOfferIndex.this.updateStaleShopkeepers(REINDEXES_PER_EXECUTION);
+		}
+	}
+
+	/**
+	 * Re-indexes up to the specified number of stale shopkeepers, in the order in which they became
+	 * stale.
+	 *
+	 * @param maxCount
+	 *            the maximum number of shopkeepers to re-index
+	 */
+	void updateStaleShopkeepers(int maxCount) {
+		for (int i = 0; i < maxCount; i++) {
+			// Creating the offers might mark shopkeepers as stale again, so we poll the next
+			// shopkeeper via a new iterator each time:
+			Iterator<Shopkeeper> iterator = staleShopkeepers.values().iterator();
+			if (!iterator.hasNext()) return;
+
+			Shopkeeper shopkeeper = iterator.next();
+			iterator.remove();
+			this.indexShopkeeper(shopkeeper);
+		}
+	}
+
+	private void indexShopkeeper(Shopkeeper shopkeeper) {
+		List<SKIndexedOffer> previousOffers = this.removeOffers(shopkeeper.getId());
+		if (!shopkeeper.isValid()) return;
+
+		List<SKIndexedOffer> offers = offersFactory.createOffers(shopkeeper, previousOffers);
+		if (offers.isEmpty()) return;
+
+		int shopkeeperId = shopkeeper.getId();
+		offersByShopkeeper.put(shopkeeperId, offers);
+		for (SKIndexedOffer offer : offers) {
+			Material resultType = offer.getResultItem().getType();
+			Material item1Type = offer.getItem1().getType();
+			UnmodifiableItemStack item2 = offer.getItem2();
+
+			addOffer(offersByResultType, resultType, shopkeeperId, offer);
+			addOffer(offersByCostType, item1Type, shopkeeperId, offer);
+			if (item2 != null && item2.getType() != item1Type) {
+				addOffer(offersByCostType, item2.getType(), shopkeeperId, offer);
+			}
+		}
+	}
+
+	private static void addOffer(
+			Map<Material, TreeMap<Integer, List<SKIndexedOffer>>> offersByType,
+			Material itemType,
+			int shopkeeperId,
+			SKIndexedOffer offer
+	) {
+		offersByType.computeIfAbsent(itemType, key -> new TreeMap<>())
+				.computeIfAbsent(shopkeeperId, key -> new ArrayList<>())
+				.add(offer);
+	}
+
+	// Returns the removed offers, or an empty list if the shopkeeper has no indexed offers.
+	private List<SKIndexedOffer> removeOffers(int shopkeeperId) {
+		List<SKIndexedOffer> offers = offersByShopkeeper.remove(shopkeeperId);
+		if (offers == null) return Collections.emptyList();
+
+		for (SKIndexedOffer offer : offers) {
+			removeOffers(offersByResultType, offer.getResultItem().getType(), shopkeeperId);
+			removeOffers(offersByCostType, offer.getItem1().getType(), shopkeeperId);
+			UnmodifiableItemStack item2 = offer.getItem2();
+			if (item2 != null) {
+				removeOffers(offersByCostType, item2.getType(), shopkeeperId);
+			}
+		}
+		return offers;
+	}
+
+	private static void removeOffers(
+			Map<Material, TreeMap<Integer, List<SKIndexedOffer>>> offersByType,
+			Material itemType,
+			int shopkeeperId
+	) {
+		TreeMap<Integer, List<SKIndexedOffer>> offersByShopkeeperId = offersByType.get(itemType);
+		if (offersByShopkeeperId == null) return;
+
+		offersByShopkeeperId.remove(shopkeeperId);
+		if (offersByShopkeeperId.isEmpty()) {
+			offersByType.remove(itemType);
+		}
+	}
+
+	private static List<SKIndexedOffer> createOffers(
+			AbstractShopkeeper shopkeeper,
+			List<SKIndexedOffer> previousOffers
+	) {
+		if (!(shopkeeper instanceof AbstractPlayerShopkeeper)) {
+			List<? extends TradingRecipe> recipes = shopkeeper.getTradingRecipes(null);
+			List<SKIndexedOffer> offers = new ArrayList<>(recipes.size());
+			for (TradingRecipe recipe : recipes) {
+				offers.add(new SKIndexedOffer(shopkeeper, recipe, IndexedOffer.UNLIMITED_STOCK));
+			}
+			return offers;
+		}
+
+		AbstractPlayerShopkeeper playerShopkeeper = (AbstractPlayerShopkeeper) shopkeeper;
+		// We only check the stock if this does not require us to load the container's chunk.
+		// Otherwise, we keep the previously known stock.
+		boolean checkStock = playerShopkeeper.isContainerChunkLoaded();
+		List<? extends TradingRecipe> recipes = playerShopkeeper.getTradingRecipes(
+				null,
+				checkStock
+		);
+		// Only looked up when needed:
+		@Nullable ItemStack @Nullable [] containerContents = null;
+		List<SKIndexedOffer> offers = new ArrayList<>(recipes.size());
+		for (TradingRecipe recipe : recipes) {
+			if (!checkStock) {
+				offers.add(getPreviousOffer(shopkeeper, recipe, previousOffers));
+				continue;
+			}
+
+			int stock;
+			if (shopkeeper instanceof SKBookPlayerShopkeeper) {
+				// The books are copied: The number of copies that can be sold depends on the blank
+				// books, not on the number of similar books inside the container.
+				stock = IndexedOffer.UNKNOWN_STOCK;
+			} else if (shopkeeper instanceof SKBuyingPlayerShopkeeper) {
+				// The result item is the currency: The number of trades that the shop can still
+				// afford depends on the total value of all currency items inside the container, not
+				// on the number of items similar to the result item.
+				stock = IndexedOffer.UNKNOWN_STOCK;
+			} else {
+				if (containerContents == null) {
+					containerContents = playerShopkeeper.getContainerContents();
+				}
+				stock = countSimilar(containerContents, recipe.getResultItem());
+			}
+			offers.add(new SKIndexedOffer(shopkeeper, recipe, stock));
+		}
+		return offers;
+	}
+
+	// Reuses the stock of the previous offer with the same items, if there is one.
+	private static SKIndexedOffer getPreviousOffer(
+			AbstractShopkeeper shopkeeper,
+			TradingRecipe recipe,
+			List<SKIndexedOffer> previousOffers
+	) {
+		for (SKIndexedOffer previousOffer : previousOffers) {
+			if (previousOffer.getTradingRecipe().areItemsEqual(recipe)) {
+				return previousOffer;
+			}
+		}
+		return new SKIndexedOffer(shopkeeper, recipe, IndexedOffer.UNKNOWN_STOCK);
+	}
+
+	private static int countSimilar(
+			@ReadOnly @Nullable ItemStack[] contents,
+			UnmodifiableItemStack item
+	) {
+		int count = 0;
+		for (ItemStack content : contents) {
+			if (content == null) continue;
+			if (item.isSimilar(content)) {
+				count += content.getAmount();
+			}
+		}
+		return count;
+	}
+}
@@ -27,6 +27,7 @@ import com.nisovin.shopkeepers.util.data.serialization.MissingDataException;
 import com.nisovin.shopkeepers.util.data.serialization.bukkit.ItemStackSerializers;
 import com.nisovin.shopkeepers.util.data.serialization.java.DataContainerSerializers;
 import com.nisovin.shopkeepers.util.data.serialization.java.NumberSerializers;
+import com.nisovin.shopkeepers.util.inventory.ItemInterner;
 import com.nisovin.shopkeepers.util.inventory.ItemMigration;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
@@ -41,7 +42,8 @@ public class SKPriceOffer implements PriceOffer {
 	/**
 	 * Creates a new {@link SKPriceOffer}.
 	 * <p>
-	 * The given item stack is copied before it is stored by the price offer.
+	 * The given item stack is copied before it is stored by the price offer, unless an equal
+	 * {@link ItemInterner interned} item stack can be reused.
 	 * 
 	 * @param item
 	 *            the item being traded, not <code>null</code> or empty
@@ -49,14 +51,15 @@ public class SKPriceOffer implements PriceOffer {
 	 *            the price, has to be positive
 	 */
 	public SKPriceOffer(ItemStack item, int price) {
-		this(ItemUtils.nonNullUnmodifiableClone(item), price);
+		this(ItemInterner.internCopy(item), price);
 	}
 
 	/**
 	 * Creates a new {@link SKPriceOffer}.
 	 * <p>
 	 * The given item stack is assumed to be immutable and therefore not copied before it is stored
-	 * by the price offer.
+	 * by the price offer. If there is an equal {@link ItemInterner interned} item stack, that item
+	 * stack is stored instead.
 	 * 
 	 * @param item
 	 *            the item being traded, not <code>null</code> or empty
@@ -66,7 +69,7 @@ public class SKPriceOffer implements PriceOffer {
 	public SKPriceOffer(UnmodifiableItemStack item, int price) {
 		Validate.isTrue(!ItemUtils.isEmpty(item), "item is empty");
 		Validate.isTrue(price > 0, "price has to be positive");
-		this.item = item;
+		this.item = ItemInterner.intern(item);
 		this.price = price;
 	}
 
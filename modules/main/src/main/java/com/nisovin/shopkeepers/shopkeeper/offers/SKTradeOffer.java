@@ -27,6 +27,7 @@ import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
 import com.nisovin.shopkeepers.util.data.serialization.MissingDataException;
 import com.nisovin.shopkeepers.util.data.serialization.bukkit.ItemStackSerializers;
 import com.nisovin.shopkeepers.util.data.serialization.java.DataContainerSerializers;
+import com.nisovin.shopkeepers.util.inventory.ItemInterner;
 import com.nisovin.shopkeepers.util.inventory.ItemMigration;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
@@ -39,7 +40,8 @@ public class SKTradeOffer extends SKTradingRecipe implements TradeOffer {
 	/**
 	 * Creates a new {@link SKTradeOffer}.
 	 * <p>
-	 * The given item stacks are copied before they are stored by the trade offer.
+	 * The given item stacks are copied before they are stored by the trade offer, unless equal
+	 * {@link ItemInterner interned} item stacks can be reused.
 	 * 
 	 * @param resultItem
 	 *            the result item, not empty
@@ -53,14 +55,19 @@ public class SKTradeOffer extends SKTradingRecipe implements TradeOffer {
 			@ReadOnly ItemStack item1,
 			@ReadOnly @Nullable ItemStack item2
 	) {
-		super(resultItem, item1, item2);
+		super(
+				ItemInterner.internCopy(resultItem),
+				ItemInterner.internCopy(item1),
+				ItemInterner.internCopy(item2)
+		);
 	}
 
 	/**
 	 * Creates a new {@link SKTradeOffer}.
 	 * <p>
 	 * The given item stacks are assumed to be immutable and therefore not copied before they are
-	 * stored by the trade offer.
+	 * stored by the trade offer. Any item stacks for which there are equal
+	 * {@link ItemInterner interned} item stacks are replaced with these interned item stacks.
 	 * 
 	 * @param resultItem
 	 *            the result item, not empty
@@ -74,7 +81,11 @@ public class SKTradeOffer extends SKTradingRecipe implements TradeOffer {
 			UnmodifiableItemStack item1,
 			@Nullable UnmodifiableItemStack item2
 	) {
-		super(resultItem, item1, item2);
+		super(
+				ItemInterner.intern(resultItem),
+				ItemInterner.intern(item1),
+				ItemInterner.intern(item2)
+		);
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package com.nisovin.shopkeepers.shopkeeper.player;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
@@ -28,6 +29,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
 import com.nisovin.shopkeepers.api.user.User;
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.config.Settings.DerivedSettings;
@@ -626,6 +628,22 @@ public abstract class AbstractPlayerShopkeeper
 		return container.getBlock();
 	}
 
+	/**
+	 * Checks whether the chunk of the shop's container is currently loaded.
+	 * <p>
+	 * Accessing the container while its chunk is not loaded loads the chunk.
+	 * 
+	 * @return <code>true</code> if the container's chunk is loaded
+	 */
+	public boolean isContainerChunkLoaded() {
+		World world = container.getWorld();
+		if (world == null) return false;
+		return world.isChunkLoaded(
+				ChunkCoords.fromBlock(container.getX()),
+				ChunkCoords.fromBlock(container.getZ())
+		);
+	}
+
 	// Returns null if the container could not be found.
 	public @Nullable Inventory getContainerInventory() {
 		Block container = this.getContainer();
@@ -646,6 +664,30 @@ public abstract class AbstractPlayerShopkeeper
 		}
 	}
 
+	@Override
+	public List<? extends TradingRecipe> getTradingRecipes(@Nullable Player player) {
+		return this.getTradingRecipes(player, true);
+	}
+
+	/**
+	 * Gets the trading recipes of this shopkeeper, optionally without checking the shop's stock.
+	 * <p>
+	 * Checking the stock accesses the shop's container, which loads the container's chunk if it is
+	 * not loaded currently. If the stock is not checked, none of the returned trading recipes is
+	 * marked as {@link TradingRecipe#isOutOfStock() out of stock}.
+	 * 
+	 * @param player
+	 *            the trading player, can be <code>null</code>
+	 * @param checkStock
+	 *            <code>true</code> to check the stock inside the shop's container
+	 * @return an unmodifiable view on the trading recipes, not <code>null</code>
+	 * @see #getTradingRecipes(Player)
+	 */
+	public abstract List<? extends TradingRecipe> getTradingRecipes(
+			@Nullable Player player,
+			boolean checkStock
+	);
+
 	@Override
 	public int getCurrencyInContainer() {
 		int totalCurrency = 0;
@@ -118,6 +118,23 @@ public class BookPlayerShopTradingView extends PlayerShopTradingView {
 		return true;
 	}
 
+	@Override
+	protected int getMaxTradeCount(Trade trade, int maxTradeCount) {
+		BookOffer offer = Unsafe.assertNonNull(this.currentOffer);
+		@Nullable ItemStack[] containerContents = Unsafe.assertNonNull(this.newContainerContents)
+				.clone();
+
+		// Simulate the container changes of the successive trades:
+		int amountAfterTaxes = this.getAmountAfterTaxes(offer.getPrice());
+		int tradeCount = 0;
+		while (tradeCount < maxTradeCount
+				&& InventoryUtils.removeItems(containerContents, WRITABLE_BOOK_MATCHER, 1) == 0
+				&& this.addCurrencyItems(containerContents, amountAfterTaxes) == 0) {
+			tradeCount++;
+		}
+		return tradeCount;
+	}
+
 	@Override
 	protected void onTradeOver(TradingContext tradingContext) {
 		super.onTradeOver(tradingContext);
@@ -100,9 +100,14 @@ public class SKBookPlayerShopkeeper
 	}
 
 	@Override
-	public List<? extends TradingRecipe> getTradingRecipes(@Nullable Player player) {
-		Map<? extends String, ? extends ItemStack> containerBooksByTitle = this.getCopyableBooksFromContainer();
-		boolean hasBlankBooks = this.hasContainerBlankBooks();
+	public List<? extends TradingRecipe> getTradingRecipes(
+			@Nullable Player player,
+			boolean checkStock
+	) {
+		Map<? extends String, ? extends ItemStack> containerBooksByTitle = checkStock
+				? this.getCopyableBooksFromContainer()
+				: Collections.emptyMap();
+		boolean hasBlankBooks = !checkStock || this.hasContainerBlankBooks();
 		List<? extends BookOffer> offers = this.getOffers();
 		List<TradingRecipe> recipes = new ArrayList<>(offers.size());
 		offers.forEach(bookOffer -> {
@@ -110,7 +115,7 @@ public class SKBookPlayerShopkeeper
 			ItemStack bookItem = containerBooksByTitle.get(bookTitle);
 			boolean outOfStock = !hasBlankBooks;
 			if (bookItem == null) {
-				outOfStock = true;
+				outOfStock = checkStock;
 				bookItem = this.createDummyBook(bookTitle);
 			} else {
 				// Create a copy of the book from the container:
@@ -245,7 +250,7 @@ public class SKBookPlayerShopkeeper
 
 	private void saveOffers(ShopkeeperData shopkeeperData) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveSection(shopkeeperData, OFFERS, this::getOffers);
 	}
 
 	@Override
@@ -285,7 +290,7 @@ public class SKBookPlayerShopkeeper
 		while (iterator.hasNext()) {
 			if (iterator.next().getBookTitle().equals(bookTitle)) {
 				iterator.remove();
-				this.markDirty();
+				this.markDirty(OFFERS);
 				break;
 			}
 		}
@@ -294,7 +299,7 @@ public class SKBookPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -306,7 +311,7 @@ public class SKBookPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(@ReadOnly List<? extends BookOffer> offers) {
@@ -319,7 +324,7 @@ public class SKBookPlayerShopkeeper
 	public void addOffer(BookOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(BookOffer offer) {
@@ -340,7 +345,7 @@ public class SKBookPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(@ReadOnly List<? extends BookOffer> offers) {
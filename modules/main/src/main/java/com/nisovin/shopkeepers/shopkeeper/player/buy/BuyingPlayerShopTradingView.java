@@ -120,6 +120,27 @@ public class BuyingPlayerShopTradingView extends PlayerShopTradingView {
 		return true;
 	}
 
+	@Override
+	protected int getMaxTradeCount(Trade trade, int maxTradeCount) {
+		PriceOffer offer = Unsafe.assertNonNull(this.currentOffer);
+		@Nullable ItemStack[] containerContents = Unsafe.assertNonNull(this.newContainerContents)
+				.clone();
+
+		// Simulate the container changes of the successive trades:
+		// The trade event has not been called yet, so the received items are the offered items.
+		ShopkeeperTradeEvent tradeEvent = trade.getTradeEvent();
+		UnmodifiableItemStack receivedItem1 = tradeEvent.getReceivedItem1();
+		UnmodifiableItemStack receivedItem2 = tradeEvent.getReceivedItem2();
+		int tradeCount = 0;
+		while (tradeCount < maxTradeCount
+				&& this.removeCurrency(containerContents, offer.getPrice()) == 0
+				&& this.addReceivedItem(containerContents, receivedItem1) == 0
+				&& this.addReceivedItem(containerContents, receivedItem2) == 0) {
+			tradeCount++;
+		}
+		return tradeCount;
+	}
+
 	@Override
 	protected void onTradeOver(TradingContext tradingContext) {
 		super.onTradeOver(tradingContext);
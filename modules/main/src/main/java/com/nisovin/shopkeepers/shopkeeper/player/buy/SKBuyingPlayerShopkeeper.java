@@ -106,8 +106,11 @@ public class SKBuyingPlayerShopkeeper
 	}
 
 	@Override
-	public List<? extends TradingRecipe> getTradingRecipes(@Nullable Player player) {
-		int currencyInContainer = this.getCurrencyInContainer();
+	public List<? extends TradingRecipe> getTradingRecipes(
+			@Nullable Player player,
+			boolean checkStock
+	) {
+		int currencyInContainer = checkStock ? this.getCurrencyInContainer() : Integer.MAX_VALUE;
 		List<? extends PriceOffer> offers = this.getOffers();
 		List<TradingRecipe> recipes = new ArrayList<>(offers.size());
 		offers.forEach(offer -> {
@@ -162,7 +165,7 @@ public class SKBuyingPlayerShopkeeper
 
 	private void saveOffers(ShopkeeperData shopkeeperData) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveSection(shopkeeperData, OFFERS, this::getOffers);
 	}
 
 	@Override
@@ -195,7 +198,7 @@ public class SKBuyingPlayerShopkeeper
 			PriceOffer offer = iterator.next();
 			if (offer.getItem().isSimilar(tradedItem)) {
 				iterator.remove();
-				this.markDirty();
+				this.markDirty(OFFERS);
 				break;
 			}
 		}
@@ -210,7 +213,7 @@ public class SKBuyingPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -222,7 +225,7 @@ public class SKBuyingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(@ReadOnly List<? extends PriceOffer> offers) {
@@ -235,7 +238,7 @@ public class SKBuyingPlayerShopkeeper
 	public void addOffer(PriceOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(PriceOffer offer) {
@@ -255,7 +258,7 @@ public class SKBuyingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(@ReadOnly List<? extends PriceOffer> offers) {
@@ -107,20 +107,23 @@ public class SKSellingPlayerShopkeeper
 	}
 
 	@Override
-	public List<? extends TradingRecipe> getTradingRecipes(@Nullable Player player) {
+	public List<? extends TradingRecipe> getTradingRecipes(
+			@Nullable Player player,
+			boolean checkStock
+	) {
 		// Empty if the container is not found:
-		@Nullable ItemStack[] containerContents = this.getContainerContents();
+		@Nullable ItemStack[] containerContents = checkStock ? this.getContainerContents() : null;
 		List<? extends PriceOffer> offers = this.getOffers();
 		List<TradingRecipe> recipes = new ArrayList<>(offers.size());
 		offers.forEach(offer -> {
 			// Both the offer's and the trading recipe's items are immutable. So there is no need to
 			// copy the item.
 			UnmodifiableItemStack tradedItem = offer.getItem();
-			boolean outOfStock = !InventoryUtils.containsAtLeast(
+			boolean outOfStock = (containerContents != null && !InventoryUtils.containsAtLeast(
 					containerContents,
 					tradedItem,
 					tradedItem.getAmount()
-			);
+			));
 			TradingRecipe recipe = this.createSellingRecipe(
 					tradedItem,
 					offer.getPrice(),
@@ -168,7 +171,7 @@ public class SKSellingPlayerShopkeeper
 
 	private void saveOffers(ShopkeeperData shopkeeperData) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveSection(shopkeeperData, OFFERS, this::getOffers);
 	}
 
 	@Override
@@ -201,7 +204,7 @@ public class SKSellingPlayerShopkeeper
 			PriceOffer offer = iterator.next();
 			if (offer.getItem().isSimilar(tradedItem)) {
 				iterator.remove();
-				this.markDirty();
+				this.markDirty(OFFERS);
 				break;
 			}
 		}
@@ -216,7 +219,7 @@ public class SKSellingPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -228,7 +231,7 @@ public class SKSellingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(@ReadOnly List<? extends PriceOffer> offers) {
@@ -241,7 +244,7 @@ public class SKSellingPlayerShopkeeper
 	public void addOffer(PriceOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(PriceOffer offer) {
@@ -261,7 +264,7 @@ public class SKSellingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(@ReadOnly List<? extends PriceOffer> offers) {
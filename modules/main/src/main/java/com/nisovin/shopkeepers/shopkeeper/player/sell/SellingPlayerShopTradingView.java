@@ -103,6 +103,24 @@ public class SellingPlayerShopTradingView extends PlayerShopTradingView {
 		return true;
 	}
 
+	@Override
+	protected int getMaxTradeCount(Trade trade, int maxTradeCount) {
+		PriceOffer offer = Unsafe.assertNonNull(this.currentOffer);
+		@Nullable ItemStack[] containerContents = Unsafe.assertNonNull(this.newContainerContents)
+				.clone();
+
+		// Simulate the container changes of the successive trades:
+		UnmodifiableItemStack soldItem = trade.getTradingRecipe().getResultItem();
+		int amountAfterTaxes = this.getAmountAfterTaxes(offer.getPrice());
+		int tradeCount = 0;
+		while (tradeCount < maxTradeCount
+				&& InventoryUtils.removeItems(containerContents, soldItem) == 0
+				&& this.addCurrencyItems(containerContents, amountAfterTaxes) == 0) {
+			tradeCount++;
+		}
+		return tradeCount;
+	}
+
 	@Override
 	protected void onTradeOver(TradingContext tradingContext) {
 		super.onTradeOver(tradingContext);
@@ -104,18 +104,21 @@ public class SKTradingPlayerShopkeeper
 	}
 
 	@Override
-	public List<? extends TradingRecipe> getTradingRecipes(@Nullable Player player) {
+	public List<? extends TradingRecipe> getTradingRecipes(
+			@Nullable Player player,
+			boolean checkStock
+	) {
 		// Empty if the container is not found
-		@Nullable ItemStack[] containerContents = this.getContainerContents();
+		@Nullable ItemStack[] containerContents = checkStock ? this.getContainerContents() : null;
 		List<? extends TradeOffer> offers = this.getOffers();
 		List<TradingRecipe> recipes = new ArrayList<>(offers.size());
 		offers.forEach(offer -> {
 			UnmodifiableItemStack resultItem = offer.getResultItem();
-			boolean outOfStock = !InventoryUtils.containsAtLeast(
+			boolean outOfStock = (containerContents != null && !InventoryUtils.containsAtLeast(
 					containerContents,
 					resultItem,
 					resultItem.getAmount()
-			);
+			));
 			TradingRecipe recipe = SKTradeOffer.toTradingRecipe(offer, outOfStock);
 			recipes.add(recipe);
 		});
@@ -157,7 +160,7 @@ public class SKTradingPlayerShopkeeper
 
 	private void saveOffers(ShopkeeperData shopkeeperData) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveSection(shopkeeperData, OFFERS, this::getOffers);
 	}
 
 	@Override
@@ -187,7 +190,7 @@ public class SKTradingPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -199,7 +202,7 @@ public class SKTradingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(List<? extends TradeOffer> offers) {
@@ -212,7 +215,7 @@ public class SKTradingPlayerShopkeeper
 	public void addOffer(TradeOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(TradeOffer offer) {
@@ -229,7 +232,7 @@ public class SKTradingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(List<? extends TradeOffer> offers) {
@@ -89,4 +89,25 @@ public class TradingPlayerShopTradingView extends PlayerShopTradingView {
 
 		return true;
 	}
+
+	@Override
+	protected int getMaxTradeCount(Trade trade, int maxTradeCount) {
+		@Nullable ItemStack[] containerContents = Unsafe.assertNonNull(this.newContainerContents)
+				.clone();
+
+		// Simulate the container changes of the successive trades:
+		// The trade event has not been called yet, so the received items are the offered items.
+		UnmodifiableItemStack resultItem = trade.getTradingRecipe().getResultItem();
+		ShopkeeperTradeEvent tradeEvent = trade.getTradeEvent();
+		UnmodifiableItemStack receivedItem1 = tradeEvent.getReceivedItem1();
+		UnmodifiableItemStack receivedItem2 = tradeEvent.getReceivedItem2();
+		int tradeCount = 0;
+		while (tradeCount < maxTradeCount
+				&& InventoryUtils.removeItems(containerContents, resultItem) == 0
+				&& this.addReceivedItem(containerContents, receivedItem1) == 0
+				&& this.addReceivedItem(containerContents, receivedItem2) == 0) {
+			tradeCount++;
+		}
+		return tradeCount;
+	}
 }
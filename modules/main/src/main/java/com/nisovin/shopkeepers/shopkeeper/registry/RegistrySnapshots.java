@@ -0,0 +1,162 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.shopkeeper.RegistrySnapshot;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.registry.SKRegistrySnapshot.Partition;
+import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Publishes the {@link RegistrySnapshot}s of the shopkeeper registry.
+ * <p>
+ * Snapshots are only published once a snapshot has been requested for the first time. Until then,
+ * changes to shopkeepers are not tracked at all. The first request on the main thread captures all
+ * loaded shopkeepers. The first request on another thread returns the empty snapshot and schedules
+ * the capturing of all loaded shopkeepers on the main thread.
+ * <p>
+ * Afterwards, changes to shopkeepers only remember the shopkeeper as changed. On the first change,
+ * we schedule a task that publishes a new snapshot in the next tick. Any further changes until then
+ * are covered by the same snapshot. Bulk operations, such as the loading of all shopkeepers,
+ * therefore only result in a single new snapshot. Building the new snapshot only captures the
+ * changed shopkeepers, and shares everything else with the previous snapshot.
+ * <p>
+ * Snapshots are replaced by publishing a new snapshot instance to a volatile field. Readers on
+ * other threads therefore always see a fully built snapshot, without any locking.
+ */
+final class RegistrySnapshots {
+
+	private final Plugin plugin;
+	private final SKShopkeeperRegistry shopkeeperRegistry;
+
+	private volatile SKRegistrySnapshot snapshot = SKRegistrySnapshot.EMPTY;
+	// Set by the first request for a snapshot, on any thread:
+	private volatile boolean requested = false;
+	// Only accessed on the main thread:
+	// Whether the snapshots capture all loaded shopkeepers and changes to shopkeepers are tracked:
+	private boolean tracking = false;
+	private long lastEpoch = 0L;
+	// Shopkeeper id -> changed shopkeeper. Ordered, so that the building of the snapshots is
+	// deterministic.
+	private final Map<Integer, AbstractShopkeeper> changedShopkeepers = new LinkedHashMap<>();
+	private @Nullable BukkitTask publishTask = null;
+
+	RegistrySnapshots(Plugin plugin, SKShopkeeperRegistry shopkeeperRegistry) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(shopkeeperRegistry, "shopkeeperRegistry is null");
+		this.plugin = plugin;
+		this.shopkeeperRegistry = shopkeeperRegistry;
+	}
+
+	void onDisable() {
+		this.cancelPublishTask();
+		changedShopkeepers.clear();
+		tracking = false;
+		requested = false;
+		// Readers that are still active continue to use their current snapshot:
+		snapshot = new SKRegistrySnapshot(++lastEpoch, new HashMap<>());
+	}
+
+	/**
+	 * Gets the latest snapshot.
+	 * <p>
+	 * When called on the main thread, any pending changes are published first.
+	 *
+	 * @return the snapshot, not <code>null</code>
+	 */
+	RegistrySnapshot getSnapshot() {
+		if (SchedulerUtils.isMainThread()) {
+			requested = true;
+			if (tracking) {
+				this.publishIfChanged();
+			} else {
+				this.startTracking();
+			}
+		} else if (!requested) {
+			requested = true;
+			// Omitted if the plugin is being disabled:
+			SchedulerUtils.runTaskOrOmit(plugin, this::startTracking);
+		}
+		return snapshot;
+	}
+
+	private void startTracking() {
+		if (tracking) return;
+		tracking = true;
+		for (AbstractShopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
+			changedShopkeepers.put(shopkeeper.getId(), shopkeeper);
+		}
+		this.publishIfChanged();
+	}
+
+	/**
+	 * Remembers the given shopkeeper as changed.
+	 * <p>
+	 * This is called when a shopkeeper is added, removed, or has been modified. This has no effect
+	 * if no snapshot has been requested yet.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper
+	 */
+	void onShopkeeperChanged(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		if (!tracking) return;
+
+		changedShopkeepers.put(shopkeeper.getId(), shopkeeper);
+		if (publishTask != null) return; // A publish is already pending
+
+		// Omitted if the plugin is being disabled:
+		publishTask = SchedulerUtils.runTaskOrOmit(plugin, this::publishIfChanged);
+	}
+
+	private void cancelPublishTask() {
+		if (publishTask != null) {
+			publishTask.cancel();
+			publishTask = null;
+		}
+	}
+
+	private void publishIfChanged() {
+		this.cancelPublishTask();
+		if (changedShopkeepers.isEmpty()) return;
+
+		SKRegistrySnapshot previousSnapshot = snapshot;
+		// The partitions without changed shopkeepers are reused as they are:
+		Map<String, Partition> partitions = previousSnapshot.copyPartitions();
+		for (AbstractShopkeeper shopkeeper : changedShopkeepers.values()) {
+			// Remove the previous entry, if there is one. The shopkeeper might have moved to
+			// another world, or might have been removed.
+			SnapshotShopkeeperEntry previousEntry = previousSnapshot.getEntry(shopkeeper.getId());
+			if (previousEntry != null) {
+				String partitionKey = SKRegistrySnapshot.getPartitionKey(
+						previousEntry.getWorldName()
+				);
+				Partition partition = partitions.getOrDefault(partitionKey, Partition.EMPTY)
+						.without(previousEntry);
+				if (partition.isEmpty()) {
+					partitions.remove(partitionKey);
+				} else {
+					partitions.put(partitionKey, partition);
+				}
+			}
+			if (!shopkeeper.isValid()) continue;
+
+			SnapshotShopkeeperEntry entry = SnapshotShopkeeperEntry.capture(shopkeeper);
+			String partitionKey = SKRegistrySnapshot.getPartitionKey(entry.getWorldName());
+			partitions.put(
+					partitionKey,
+					partitions.getOrDefault(partitionKey, Partition.EMPTY).with(entry)
+			);
+		}
+		changedShopkeepers.clear();
+
+		snapshot = new SKRegistrySnapshot(++lastEpoch, partitions);
+	}
+}
@@ -0,0 +1,238 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.shopkeeper.RegistrySnapshot;
+import com.nisovin.shopkeepers.util.java.PersistentHashMap;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * The {@link RegistrySnapshot} implementation.
+ * <p>
+ * The shopkeepers are partitioned by world, with a separate partition for the virtual shopkeepers.
+ * Partitions are immutable once created. They store their entries in {@link PersistentHashMap}s,
+ * so that adding or removing an entry only copies the few trie nodes on the path to the entry, and
+ * the new partition shares everything else with the previous partition. Publishing a new snapshot
+ * therefore only costs time proportional to the number of changed shopkeepers, regardless of the
+ * number of shopkeepers in the affected worlds.
+ */
+final class SKRegistrySnapshot implements RegistrySnapshot {
+
+	// The key of the partition of the virtual shopkeepers. World names are never empty.
+	static final String VIRTUAL_PARTITION_KEY = "";
+
+	static String getPartitionKey(@Nullable String worldName) {
+		return (worldName == null) ? VIRTUAL_PARTITION_KEY : worldName;
+	}
+
+	static final class Partition {
+
+		static final Partition EMPTY = new Partition(
+				PersistentHashMap.empty(),
+				PersistentHashMap.empty(),
+				PersistentHashMap.empty()
+		);
+
+		private final PersistentHashMap<Integer, SnapshotShopkeeperEntry> entriesById;
+		private final PersistentHashMap<UUID, SnapshotShopkeeperEntry> entriesByUUID;
+		// The lists are unmodifiable, and copied when they change. Owners usually only have a few
+		// shops.
+		private final PersistentHashMap<UUID, List<SnapshotShopkeeperEntry>> entriesByOwner;
+
+		private Partition(
+				PersistentHashMap<Integer, SnapshotShopkeeperEntry> entriesById,
+				PersistentHashMap<UUID, SnapshotShopkeeperEntry> entriesByUUID,
+				PersistentHashMap<UUID, List<SnapshotShopkeeperEntry>> entriesByOwner
+		) {
+			this.entriesById = entriesById;
+			this.entriesByUUID = entriesByUUID;
+			this.entriesByOwner = entriesByOwner;
+		}
+
+		boolean isEmpty() {
+			return entriesById.isEmpty();
+		}
+
+		int size() {
+			return entriesById.size();
+		}
+
+		// Returns a partition that additionally contains the given entry. The partition must not
+		// contain an entry for the same shopkeeper yet.
+		Partition with(SnapshotShopkeeperEntry entry) {
+			assert entry != null && entriesById.get(entry.getId()) == null;
+			PersistentHashMap<UUID, List<SnapshotShopkeeperEntry>> newByOwner = entriesByOwner;
+			@Nullable UUID ownerUUID = entry.getOwnerUUID();
+			if (ownerUUID != null) {
+				List<SnapshotShopkeeperEntry> ownerEntries = new ArrayList<>(
+						this.getEntriesByOwner(ownerUUID)
+				);
+				ownerEntries.add(entry);
+				newByOwner = newByOwner.with(
+						ownerUUID,
+						Collections.unmodifiableList(ownerEntries)
+				);
+			}
+			return new Partition(
+					entriesById.with(entry.getId(), entry),
+					entriesByUUID.with(entry.getUniqueId(), entry),
+					newByOwner
+			);
+		}
+
+		// Returns a partition without the given entry.
+		Partition without(SnapshotShopkeeperEntry entry) {
+			assert entry != null;
+			PersistentHashMap<UUID, List<SnapshotShopkeeperEntry>> newByOwner = entriesByOwner;
+			@Nullable UUID ownerUUID = entry.getOwnerUUID();
+			if (ownerUUID != null) {
+				List<SnapshotShopkeeperEntry> ownerEntries = new ArrayList<>(
+						this.getEntriesByOwner(ownerUUID)
+				);
+				ownerEntries.removeIf(ownerEntry -> ownerEntry.getId() == entry.getId());
+				if (ownerEntries.isEmpty()) {
+					newByOwner = newByOwner.without(ownerUUID);
+				} else {
+					newByOwner = newByOwner.with(
+							ownerUUID,
+							Collections.unmodifiableList(ownerEntries)
+					);
+				}
+			}
+			return new Partition(
+					entriesById.without(entry.getId()),
+					entriesByUUID.without(entry.getUniqueId()),
+					newByOwner
+			);
+		}
+
+		Collection<? extends SnapshotShopkeeperEntry> getEntries() {
+			return entriesById.values();
+		}
+
+		@Nullable SnapshotShopkeeperEntry getEntry(int shopkeeperId) {
+			return entriesById.get(shopkeeperId);
+		}
+
+		@Nullable SnapshotShopkeeperEntry getEntry(UUID shopkeeperUniqueId) {
+			return entriesByUUID.get(shopkeeperUniqueId);
+		}
+
+		List<? extends SnapshotShopkeeperEntry> getEntriesByOwner(UUID ownerUUID) {
+			List<SnapshotShopkeeperEntry> entries = entriesByOwner.get(ownerUUID);
+			return (entries != null) ? entries : Collections.emptyList();
+		}
+	}
+
+	static final SKRegistrySnapshot EMPTY = new SKRegistrySnapshot(0L, Collections.emptyMap());
+
+	private final long epoch;
+	// Partition key -> partition. Contains no empty partitions.
+	private final Map<String, Partition> partitions;
+	private final int size;
+	private final Collection<? extends SnapshotShopkeeperEntry> allEntriesView
+			= new AbstractCollection<SnapshotShopkeeperEntry>() {
+				@Override
+				public Iterator<SnapshotShopkeeperEntry> iterator() {
+					Stream<SnapshotShopkeeperEntry> entries = partitions.values().stream()
+							.flatMap(partition -> partition.getEntries().stream());
+					return entries.iterator();
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+
+	// Takes ownership of the given map.
+	SKRegistrySnapshot(long epoch, Map<String, Partition> partitions) {
+		this.epoch = epoch;
+		this.partitions = partitions;
+		int size = 0;
+		for (Partition partition : partitions.values()) {
+			size += partition.size();
+		}
+		this.size = size;
+	}
+
+	// Returns a modifiable copy of the partitions, for building a new snapshot.
+	Map<String, Partition> copyPartitions() {
+		return new HashMap<>(partitions);
+	}
+
+	Partition getPartition(String partitionKey) {
+		return partitions.getOrDefault(partitionKey, Partition.EMPTY);
+	}
+
+	@Override
+	public long getEpoch() {
+		return epoch;
+	}
+
+	@Override
+	public Collection<? extends ShopkeeperEntry> getAllShopkeepers() {
+		return allEntriesView;
+	}
+
+	@Override
+	public @Nullable ShopkeeperEntry getShopkeeperByUniqueId(UUID shopkeeperUniqueId) {
+		Validate.notNull(shopkeeperUniqueId, "shopkeeperUniqueId is null");
+		for (Partition partition : partitions.values()) {
+			SnapshotShopkeeperEntry entry = partition.getEntry(shopkeeperUniqueId);
+			if (entry != null) return entry;
+		}
+		return null;
+	}
+
+	@Override
+	public @Nullable ShopkeeperEntry getShopkeeperById(int shopkeeperId) {
+		return this.getEntry(shopkeeperId);
+	}
+
+	@Nullable SnapshotShopkeeperEntry getEntry(int shopkeeperId) {
+		for (Partition partition : partitions.values()) {
+			SnapshotShopkeeperEntry entry = partition.getEntry(shopkeeperId);
+			if (entry != null) return entry;
+		}
+		return null;
+	}
+
+	@Override
+	public Collection<? extends ShopkeeperEntry> getShopkeepersByOwner(UUID ownerUUID) {
+		Validate.notNull(ownerUUID, "ownerUUID is null");
+		List<SnapshotShopkeeperEntry> entries = new ArrayList<>();
+		for (Partition partition : partitions.values()) {
+			entries.addAll(partition.getEntriesByOwner(ownerUUID));
+		}
+		return Collections.unmodifiableList(entries);
+	}
+
+	@Override
+	public Collection<? extends ShopkeeperEntry> getShopkeepersInWorld(String worldName) {
+		Validate.notNull(worldName, "worldName is null");
+		Validate.isTrue(!worldName.isEmpty(), "worldName is empty");
+		return this.getPartition(worldName).getEntries();
+	}
+
+	@Override
+	public Collection<? extends ShopkeeperEntry> getVirtualShopkeepers() {
+		return this.getPartition(VIRTUAL_PARTITION_KEY).getEntries();
+	}
+
+	@Override
+	public String toString() {
+		return "SKRegistrySnapshot [epoch=" + epoch + ", shopkeepers=" + size + "]";
+	}
+}
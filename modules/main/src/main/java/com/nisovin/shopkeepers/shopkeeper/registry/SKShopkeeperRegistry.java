@@ -25,6 +25,7 @@ import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.events.ShopkeeperAddedEvent;
 import com.nisovin.shopkeepers.api.events.ShopkeeperRemoveEvent;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.shopkeeper.RegistrySnapshot;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopType;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
@@ -44,6 +45,7 @@ import com.nisovin.shopkeepers.shopobjects.AbstractShopObjectType;
 import com.nisovin.shopkeepers.shopobjects.block.BlockShopObjectIds;
 import com.nisovin.shopkeepers.shopobjects.entity.EntityShopObjectIds;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
+import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
 import com.nisovin.shopkeepers.util.bukkit.LocationUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
@@ -136,6 +138,8 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	private final ShopkeeperSpawner shopkeeperSpawner;
 	private final ShopkeeperChunkActivator chunkActivator;
 	private final ActiveChunkQueries activeChunkQueries;
+	private final SpatialQueries spatialQueries;
+	private final RegistrySnapshots registrySnapshots;
 
 	public SKShopkeeperRegistry(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
@@ -149,6 +153,8 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 				shopkeeperSpawner
 		);
 		this.activeChunkQueries = new ActiveChunkQueries(chunkMap, chunkActivator);
+		this.spatialQueries = new SpatialQueries(chunkMap);
+		this.registrySnapshots = new RegistrySnapshots(plugin, Unsafe.initialized(this));
 	}
 
 	public void onEnable() {
@@ -170,6 +176,7 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		shopkeeperSpawner.onDisable();
 		chunkActivator.onDisable();
 		shopObjectRegistry.onDisable();
+		registrySnapshots.onDisable();
 	}
 
 	private void ensureEmpty() {
@@ -245,6 +252,29 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	// a certain shopkeeper id is already in use) would no longer work as expected.
 	public AbstractShopkeeper loadShopkeeper(
 			ShopkeeperData shopkeeperData
+	) throws InvalidDataException {
+		AbstractShopkeeper shopkeeper = this.deserializeShopkeeper(shopkeeperData);
+		this.addLoadedShopkeeper(shopkeeper);
+		return shopkeeper;
+	}
+
+	/**
+	 * Recreates a shopkeeper from the given {@link ShopkeeperData}, but does not yet add it to this
+	 * registry.
+	 * <p>
+	 * This is the first part of {@link #loadShopkeeper(ShopkeeperData)}. The storage uses this to
+	 * separately time the deserialization and the registration of shopkeepers. The returned
+	 * shopkeeper is expected to be passed to {@link #addLoadedShopkeeper(AbstractShopkeeper)}
+	 * right away.
+	 * 
+	 * @param shopkeeperData
+	 *            the shopkeeper data
+	 * @return the loaded shopkeeper, not <code>null</code>
+	 * @throws InvalidDataException
+	 *             if the shopkeeper data could not be loaded
+	 */
+	public AbstractShopkeeper deserializeShopkeeper(
+			ShopkeeperData shopkeeperData
 	) throws InvalidDataException {
 		Validate.notNull(shopkeeperData, "shopkeeperData is null");
 
@@ -260,12 +290,19 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		} catch (RuntimeException e) {
 			throw new InvalidDataException(e.getMessage(), e);
 		}
+		return shopkeeper;
+	}
 
-		// Success:
-
-		// Add the shopkeeper to the registry and spawn it:
+	/**
+	 * Adds a shopkeeper that has been {@link #deserializeShopkeeper(ShopkeeperData) loaded} to
+	 * this registry and spawns it.
+	 * 
+	 * @param shopkeeper
+	 *            the loaded shopkeeper, not <code>null</code>
+	 */
+	public void addLoadedShopkeeper(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
 		this.addShopkeeper(shopkeeper, ShopkeeperAddedEvent.Cause.LOADED);
-		return shopkeeper;
 	}
 
 	private void validateUnusedShopkeeperIds(Shopkeeper shopkeeper) {
@@ -325,6 +362,10 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		// might register the already spawned shop object.
 		shopkeeper.informAdded(cause);
 
+		// Index the shopkeeper's offers:
+		plugin.getOfferIndex().onShopkeeperAdded(shopkeeper);
+		registrySnapshots.onShopkeeperChanged(shopkeeper);
+
 		// Call event:
 		Bukkit.getPluginManager().callEvent(new ShopkeeperAddedEvent(shopkeeper, cause));
 		if (!shopkeeper.isValid()) {
@@ -388,12 +429,22 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			playerShopCount--;
 		}
 
+		// Remove the shopkeeper's offers from the offer index:
+		plugin.getOfferIndex().onShopkeeperRemoved(shopkeeper);
+		registrySnapshots.onShopkeeperChanged(shopkeeper);
+
 		if (cause == ShopkeeperRemoveEvent.Cause.DELETE) {
 			// Remove shopkeeper from storage:
 			this.getShopkeeperStorage().deleteShopkeeper(shopkeeper);
 		}
 	}
 
+	// This is expected to be called for changes to valid shopkeepers.
+	public void onShopkeeperChanged(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		registrySnapshots.onShopkeeperChanged(shopkeeper);
+	}
+
 	// This is not expected to be called for invalid or virtual shopkeepers.
 	public void onShopkeeperMoved(AbstractShopkeeper shopkeeper) {
 		Validate.notNull(shopkeeper, "shopkeeper is null");
@@ -613,20 +664,62 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	@Override
 	public Collection<? extends AbstractShopkeeper> getShopkeepersAtLocation(Location location) {
 		World world = LocationUtils.getWorld(location);
-		String worldName = world.getName();
 		int x = location.getBlockX();
 		int y = location.getBlockY();
 		int z = location.getBlockZ();
+		return spatialQueries.getShopkeepersInBox(world.getName(), x, y, z, x, y, z);
+	}
 
-		List<AbstractShopkeeper> shopkeepers = new ArrayList<>();
-		ChunkCoords chunkCoords = ChunkCoords.fromBlock(worldName, x, z);
-		this.getShopkeepersInChunk(chunkCoords).forEach(shopkeeper -> {
-			assert worldName.equals(shopkeeper.getWorldName());
-			if (shopkeeper.getX() == x && shopkeeper.getY() == y && shopkeeper.getZ() == z) {
-				shopkeepers.add(shopkeeper);
-			}
-		});
-		return shopkeepers;
+	// BY AREA
+
+	@Override
+	public List<? extends AbstractShopkeeper> getShopkeepersInRadius(
+			Location location,
+			double radius
+	) {
+		World world = LocationUtils.getWorld(location);
+		Validate.isTrue(radius >= 0.0D, "radius is negative");
+		return spatialQueries.getShopkeepersInRadius(
+				world.getName(),
+				location.getX(),
+				location.getY(),
+				location.getZ(),
+				radius
+		);
+	}
+
+	@Override
+	public List<? extends AbstractShopkeeper> getShopkeepersInBox(
+			String worldName,
+			int minX,
+			int minY,
+			int minZ,
+			int maxX,
+			int maxY,
+			int maxZ
+	) {
+		Validate.notNull(worldName, "worldName is null");
+		Validate.isTrue(minX <= maxX && minY <= maxY && minZ <= maxZ, "min > max");
+		return spatialQueries.getShopkeepersInBox(worldName, minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	@Override
+	public List<? extends AbstractShopkeeper> getNearestShopkeepers(
+			Location location,
+			int limit,
+			double maxDistance
+	) {
+		World world = LocationUtils.getWorld(location);
+		Validate.isTrue(limit > 0, "limit is not positive");
+		Validate.isTrue(maxDistance >= 0.0D, "maxDistance is negative");
+		return spatialQueries.getNearestShopkeepers(
+				world.getName(),
+				location.getX(),
+				location.getY(),
+				location.getZ(),
+				limit,
+				maxDistance
+		);
 	}
 
 	// BY SHOP OBJECT
@@ -638,7 +731,12 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	@Override
 	public @Nullable AbstractShopkeeper getShopkeeperByEntity(Entity entity) {
 		Validate.notNull(entity, "entity is null");
-		Object objectId = EntityShopObjectIds.getObjectId(entity);
+		// If the entity is a complex entity part, we check the type of its parent entity:
+		Entity resolvedEntity = EntityUtils.resolveComplexEntity(entity);
+		// Quickly rule out most entities that are not shopkeepers:
+		if (!shopObjectRegistry.mightBeShopEntity(resolvedEntity.getType())) return null;
+
+		Object objectId = EntityShopObjectIds.getObjectId(resolvedEntity);
 		return shopObjectRegistry.getShopkeeperByObjectId(objectId);
 	}
 
@@ -668,4 +766,11 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	public boolean isShopkeeper(Block block) {
 		return (this.getShopkeeperByBlock(block) != null);
 	}
+
+	// SNAPSHOTS
+
+	@Override
+	public RegistrySnapshot getRegistrySnapshot() {
+		return registrySnapshots.getSnapshot();
+	}
 }
@@ -0,0 +1,55 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.Arrays;
+
+import org.bukkit.entity.EntityType;
+
+/**
+ * Counts the spawned entity shop objects per {@link EntityType}.
+ * <p>
+ * Many high-frequency entity events (damage, targeting, potion effects, ...) need to check whether
+ * the involved entity is a shopkeeper. Especially on servers with mob farms, the overwhelming
+ * majority of these entities are of types for which there are no shopkeepers at all. This index
+ * allows us to reject these entities with a single array access, before we resolve and hash the
+ * entity's unique id for the actual shop object lookup.
+ * <p>
+ * If the entity type of a shop object cannot be determined, it is counted as
+ * {@link EntityType#UNKNOWN}, which disables the filtering for all entity types for as long as this
+ * shop object is registered.
+ */
+final class ShopEntityTypeIndex {
+
+	private static final int UNKNOWN_INDEX = EntityType.UNKNOWN.ordinal();
+
+	private final int[] counts = new int[EntityType.values().length];
+
+	ShopEntityTypeIndex() {
+	}
+
+	void add(EntityType entityType) {
+		counts[entityType.ordinal()]++;
+	}
+
+	void remove(EntityType entityType) {
+		int index = entityType.ordinal();
+		assert counts[index] > 0;
+		counts[index]--;
+	}
+
+	void clear() {
+		Arrays.fill(counts, 0);
+	}
+
+	/**
+	 * Checks if there might be a shop object for an entity of the given type.
+	 * <p>
+	 * If this returns <code>false</code>, the entity is guaranteed to not be a shopkeeper.
+	 *
+	 * @param entityType
+	 *            the entity type
+	 * @return <code>true</code> if there might be a shop object for an entity of the given type
+	 */
+	boolean mightBeShopEntity(EntityType entityType) {
+		return counts[entityType.ordinal()] != 0 || counts[UNKNOWN_INDEX] != 0;
+	}
+}
@@ -3,13 +3,19 @@ package com.nisovin.shopkeepers.shopkeeper.registry;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopobjects.AbstractShopObject;
+import com.nisovin.shopkeepers.shopobjects.entity.AbstractEntityShopObject;
+import com.nisovin.shopkeepers.shopobjects.entity.EntityShopObjectIds;
+import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
 
@@ -24,6 +30,9 @@ public class ShopObjectRegistry {
 	// Since some types of shop objects may handle their spawning themselves, shop objects might
 	// already be spawned before their chunk is activated.
 	private final Map<Object, AbstractShopkeeper> shopkeepersByObjectId = new HashMap<>();
+	// The entity types of the registered entity shop objects, by their object ids:
+	private final Map<Object, EntityType> entityTypesByObjectId = new HashMap<>();
+	private final ShopEntityTypeIndex shopEntityTypeIndex = new ShopEntityTypeIndex();
 
 	ShopObjectRegistry() {
 	}
@@ -40,6 +49,8 @@ public class ShopObjectRegistry {
 			Log.warning("Some spawned shop objects were not properly unregistered!");
 			shopkeepersByObjectId.clear();
 		}
+		entityTypesByObjectId.clear();
+		shopEntityTypeIndex.clear();
 	}
 
 	public boolean isRegistered(AbstractShopkeeper shopkeeper) {
@@ -53,6 +64,21 @@ public class ShopObjectRegistry {
 		return shopkeepersByObjectId.get(objectId);
 	}
 
+	/**
+	 * Checks if there might be a spawned shop object for an entity of the given type.
+	 * <p>
+	 * This is a cheap check that can be used to quickly rule out most entities before looking up
+	 * the shopkeeper by the entity's {@link EntityShopObjectIds object id}.
+	 * 
+	 * @param entityType
+	 *            the entity type, not <code>null</code>
+	 * @return <code>true</code> if there might be a shop object for an entity of the given type,
+	 *         <code>false</code> if there is definitely none
+	 */
+	public boolean mightBeShopEntity(EntityType entityType) {
+		return shopEntityTypeIndex.mightBeShopEntity(entityType);
+	}
+
 	/**
 	 * Handles the registration and unregistration of spawned shop objects.
 	 * <p>
@@ -75,7 +101,12 @@ public class ShopObjectRegistry {
 		Object currentObjectId = shopObject.getId();
 		if (Objects.equals(lastObjectId, currentObjectId)) {
 			// The current object id equals the last object id, so there is no need to update the
-			// registration.
+			// registration. However, some shop objects (e.g. Citizens NPCs) reuse the same id for
+			// a new entity, which might be of a different type:
+			if (currentObjectId != null) {
+				this.unindexEntityType(currentObjectId);
+				this.indexEntityType(shopObject, currentObjectId);
+			}
 			return;
 		}
 
@@ -112,6 +143,33 @@ public class ShopObjectRegistry {
 			return;
 		} else {
 			shopObject.setLastId(objectId); // Remember the object id
+			this.indexEntityType(shopObject, objectId);
+		}
+	}
+
+	private void indexEntityType(AbstractShopObject shopObject, Object objectId) {
+		EntityType entityType;
+		if (shopObject instanceof AbstractEntityShopObject) {
+			Entity entity = ((AbstractEntityShopObject) shopObject).getEntity();
+			// The object id is based on the resolved entity:
+			entityType = (entity != null)
+					? EntityUtils.resolveComplexEntity(entity).getType()
+					: EntityType.UNKNOWN;
+		} else if (objectId instanceof UUID) {
+			// A shop object that might be represented by an entity, but whose entity type we
+			// cannot determine: Disables the entity type filtering while registered.
+			entityType = EntityType.UNKNOWN;
+		} else {
+			return; // Not an entity
+		}
+		entityTypesByObjectId.put(objectId, entityType);
+		shopEntityTypeIndex.add(entityType);
+	}
+
+	private void unindexEntityType(Object objectId) {
+		@Nullable EntityType entityType = entityTypesByObjectId.remove(objectId);
+		if (entityType != null) {
+			shopEntityTypeIndex.remove(entityType);
 		}
 	}
 
@@ -125,6 +183,7 @@ public class ShopObjectRegistry {
 				+ "Unregistering object with id '" + objectId + "'.");
 		assert shopkeepersByObjectId.get(objectId) == shopkeeper;
 		shopkeepersByObjectId.remove(objectId);
+		this.unindexEntityType(objectId);
 		shopObject.setLastId(null);
 	}
 }
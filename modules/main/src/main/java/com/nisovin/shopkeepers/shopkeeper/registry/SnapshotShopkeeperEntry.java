@@ -0,0 +1,143 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.shopkeeper.RegistrySnapshot.ShopkeeperEntry;
+import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
+
+/**
+ * Captures the state of a shopkeeper for a {@link SKRegistrySnapshot}.
+ * <p>
+ * Once created, the entry is never modified, so that it can be safely read from any thread.
+ */
+final class SnapshotShopkeeperEntry implements ShopkeeperEntry {
+
+	// Captures the current state of the given shopkeeper. Has to be called on the main thread.
+	static SnapshotShopkeeperEntry capture(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		@Nullable UUID ownerUUID = null;
+		@Nullable String ownerName = null;
+		List<? extends TradingRecipe> recipes;
+		if (shopkeeper instanceof AbstractPlayerShopkeeper) {
+			AbstractPlayerShopkeeper playerShopkeeper = (AbstractPlayerShopkeeper) shopkeeper;
+			ownerUUID = playerShopkeeper.getOwnerUUID();
+			ownerName = playerShopkeeper.getOwnerName();
+			// Checking the stock would load the container's chunk:
+			recipes = playerShopkeeper.getTradingRecipes(null, false);
+		} else {
+			recipes = shopkeeper.getTradingRecipes(null);
+		}
+		return new SnapshotShopkeeperEntry(shopkeeper, ownerUUID, ownerName, recipes);
+	}
+
+	private final int id;
+	private final UUID uniqueId;
+	private final String shopTypeId;
+	private final String shopObjectTypeId;
+	private final String name;
+	private final @Nullable String worldName;
+	private final int x;
+	private final int y;
+	private final int z;
+	private final @Nullable UUID ownerUUID;
+	private final @Nullable String ownerName;
+	private final List<? extends TradingRecipe> offers;
+
+	private SnapshotShopkeeperEntry(
+			AbstractShopkeeper shopkeeper,
+			@Nullable UUID ownerUUID,
+			@Nullable String ownerName,
+			List<? extends TradingRecipe> offers
+	) {
+		this.id = shopkeeper.getId();
+		this.uniqueId = shopkeeper.getUniqueId();
+		this.shopTypeId = shopkeeper.getType().getIdentifier();
+		this.shopObjectTypeId = shopkeeper.getShopObject().getType().getIdentifier();
+		this.name = shopkeeper.getName();
+		this.worldName = shopkeeper.getWorldName();
+		this.x = shopkeeper.getX();
+		this.y = shopkeeper.getY();
+		this.z = shopkeeper.getZ();
+		this.ownerUUID = ownerUUID;
+		this.ownerName = ownerName;
+		// The shopkeeper might return a view on its trading recipes:
+		this.offers = Collections.unmodifiableList(new ArrayList<>(offers));
+	}
+
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public UUID getUniqueId() {
+		return uniqueId;
+	}
+
+	@Override
+	public String getShopTypeId() {
+		return shopTypeId;
+	}
+
+	@Override
+	public String getShopObjectTypeId() {
+		return shopObjectTypeId;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean isVirtual() {
+		return (worldName == null);
+	}
+
+	@Override
+	public @Nullable String getWorldName() {
+		return worldName;
+	}
+
+	@Override
+	public int getX() {
+		return x;
+	}
+
+	@Override
+	public int getY() {
+		return y;
+	}
+
+	@Override
+	public int getZ() {
+		return z;
+	}
+
+	@Override
+	public @Nullable UUID getOwnerUUID() {
+		return ownerUUID;
+	}
+
+	@Override
+	public @Nullable String getOwnerName() {
+		return ownerName;
+	}
+
+	@Override
+	public List<? extends TradingRecipe> getOffers() {
+		return offers;
+	}
+
+	@Override
+	public String toString() {
+		return "SnapshotShopkeeperEntry [id=" + id + ", uniqueId=" + uniqueId + "]";
+	}
+}
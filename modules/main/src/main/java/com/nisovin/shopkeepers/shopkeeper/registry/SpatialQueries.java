@@ -0,0 +1,274 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.MutableChunkCoords;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Spatial range queries on top of the chunk buckets of the {@link ShopkeeperChunkMap}.
+ * <p>
+ * Only the chunks that overlap the queried area are looked up. If the queried area covers more
+ * chunks than there are chunks with shopkeepers in the world, we iterate the chunks with
+ * shopkeepers instead. We don't expect there to be many shopkeepers inside a single chunk, so the
+ * shopkeepers of each chunk are checked one by one.
+ * <p>
+ * Distances are measured to the center of the block at which a shopkeeper is located.
+ */
+final class SpatialQueries {
+
+	private static final int CHUNK_SIZE = 16;
+
+	private static final class Candidate {
+
+		private static final Comparator<Candidate> ORDER = Comparator
+				.comparingDouble((Candidate candidate) -> candidate.distanceSquared)
+				.thenComparingInt(candidate -> candidate.shopkeeper.getId());
+
+		private final AbstractShopkeeper shopkeeper;
+		private final double distanceSquared;
+
+		Candidate(AbstractShopkeeper shopkeeper, double distanceSquared) {
+			this.shopkeeper = shopkeeper;
+			this.distanceSquared = distanceSquared;
+		}
+	}
+
+	private static int toChunkCoord(double blockCoord) {
+		return ChunkCoords.fromBlock((int) Math.floor(blockCoord));
+	}
+
+	private static double getDistanceSquared(
+			AbstractShopkeeper shopkeeper,
+			double x,
+			double y,
+			double z
+	) {
+		double dx = shopkeeper.getX() + 0.5D - x;
+		double dy = shopkeeper.getY() + 0.5D - y;
+		double dz = shopkeeper.getZ() + 0.5D - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	private static List<AbstractShopkeeper> toSortedShopkeepers(List<Candidate> candidates) {
+		candidates.sort(Candidate.ORDER);
+		List<AbstractShopkeeper> shopkeepers = new ArrayList<>(candidates.size());
+		candidates.forEach(candidate -> shopkeepers.add(candidate.shopkeeper));
+		return shopkeepers;
+	}
+
+	private final ShopkeeperChunkMap chunkMap;
+	// Reused for chunk lookups:
+	private final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
+
+	SpatialQueries(ShopkeeperChunkMap chunkMap) {
+		Validate.notNull(chunkMap, "chunkMap is null");
+		this.chunkMap = chunkMap;
+	}
+
+	// The bounds are inclusive block coordinates.
+	List<AbstractShopkeeper> getShopkeepersInBox(
+			String worldName,
+			int minX,
+			int minY,
+			int minZ,
+			int maxX,
+			int maxY,
+			int maxZ
+	) {
+		WorldShopkeepers worldShopkeepers = chunkMap.getWorldShopkeepers(worldName);
+		if (worldShopkeepers == null) return Collections.emptyList();
+
+		List<AbstractShopkeeper> shopkeepers = new ArrayList<>();
+		this.forEachChunk(
+				worldShopkeepers,
+				ChunkCoords.fromBlock(minX),
+				ChunkCoords.fromBlock(minZ),
+				ChunkCoords.fromBlock(maxX),
+				ChunkCoords.fromBlock(maxZ),
+				chunkShopkeepers -> {
+					for (AbstractShopkeeper shopkeeper : chunkShopkeepers.getShopkeepers()) {
+						int x = shopkeeper.getX();
+						int y = shopkeeper.getY();
+						int z = shopkeeper.getZ();
+						if (x >= minX && x <= maxX
+								&& y >= minY && y <= maxY
+								&& z >= minZ && z <= maxZ) {
+							shopkeepers.add(shopkeeper);
+						}
+					}
+				}
+		);
+		return shopkeepers;
+	}
+
+	// Ordered by distance.
+	List<AbstractShopkeeper> getShopkeepersInRadius(
+			String worldName,
+			double x,
+			double y,
+			double z,
+			double radius
+	) {
+		WorldShopkeepers worldShopkeepers = chunkMap.getWorldShopkeepers(worldName);
+		if (worldShopkeepers == null) return Collections.emptyList();
+
+		double radiusSquared = radius * radius;
+		List<Candidate> candidates = new ArrayList<>();
+		this.forEachChunk(
+				worldShopkeepers,
+				toChunkCoord(x - radius),
+				toChunkCoord(z - radius),
+				toChunkCoord(x + radius),
+				toChunkCoord(z + radius),
+				chunkShopkeepers -> {
+					for (AbstractShopkeeper shopkeeper : chunkShopkeepers.getShopkeepers()) {
+						double distanceSquared = getDistanceSquared(shopkeeper, x, y, z);
+						if (distanceSquared <= radiusSquared) {
+							candidates.add(new Candidate(shopkeeper, distanceSquared));
+						}
+					}
+				}
+		);
+		return toSortedShopkeepers(candidates);
+	}
+
+	// Ordered by distance.
+	List<AbstractShopkeeper> getNearestShopkeepers(
+			String worldName,
+			double x,
+			double y,
+			double z,
+			int limit,
+			double maxDistance
+	) {
+		WorldShopkeepers worldShopkeepers = chunkMap.getWorldShopkeepers(worldName);
+		if (worldShopkeepers == null) return Collections.emptyList();
+
+		double maxDistanceSquared = maxDistance * maxDistance;
+		// Max-heap, so that the farthest of the currently nearest shopkeepers is removed first:
+		PriorityQueue<Candidate> nearest = new PriorityQueue<>(
+				limit + 1,
+				Candidate.ORDER.reversed()
+		);
+		Consumer<ChunkShopkeepers> collector = chunkShopkeepers -> {
+			for (AbstractShopkeeper shopkeeper : chunkShopkeepers.getShopkeepers()) {
+				double distanceSquared = getDistanceSquared(shopkeeper, x, y, z);
+				if (distanceSquared > maxDistanceSquared) continue;
+
+				nearest.add(new Candidate(shopkeeper, distanceSquared));
+				if (nearest.size() > limit) {
+					nearest.poll();
+				}
+			}
+		};
+
+		int centerChunkX = toChunkCoord(x);
+		int centerChunkZ = toChunkCoord(z);
+		int maxRing = Math.max(
+				Math.max(centerChunkX - toChunkCoord(x - maxDistance),
+						toChunkCoord(x + maxDistance) - centerChunkX),
+				Math.max(centerChunkZ - toChunkCoord(z - maxDistance),
+						toChunkCoord(z + maxDistance) - centerChunkZ)
+		);
+		long ringsChunkCount = (2L * maxRing + 1) * (2L * maxRing + 1);
+		if (ringsChunkCount > worldShopkeepers.getChunkCount()) {
+			// There are fewer chunks with shopkeepers than chunks in range: Check all of them.
+			worldShopkeepers.getChunks().forEach(collector);
+		} else {
+			// Search the chunks in rings of increasing distance around the center chunk:
+			for (int ring = 0; ring <= maxRing; ring++) {
+				// The shopkeepers in this and all further rings are at least (ring - 1) chunks away.
+				// Once we have found enough shopkeepers that are closer, we can stop the search.
+				if (ring > 1 && nearest.size() >= limit) {
+					double minRingDistance = (ring - 1) * (double) CHUNK_SIZE;
+					Candidate farthest = nearest.peek();
+					assert farthest != null;
+					if (minRingDistance * minRingDistance >= farthest.distanceSquared) break;
+				}
+				this.forEachChunkInRing(
+						worldShopkeepers,
+						centerChunkX,
+						centerChunkZ,
+						ring,
+						collector
+				);
+			}
+		}
+		return toSortedShopkeepers(new ArrayList<>(nearest));
+	}
+
+	// The chunk bounds are inclusive.
+	private void forEachChunk(
+			WorldShopkeepers worldShopkeepers,
+			int minChunkX,
+			int minChunkZ,
+			int maxChunkX,
+			int maxChunkZ,
+			Consumer<? super ChunkShopkeepers> action
+	) {
+		long chunkCount = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+		if (chunkCount > worldShopkeepers.getChunkCount()) {
+			// There are fewer chunks with shopkeepers than chunks in range:
+			for (ChunkShopkeepers chunkShopkeepers : worldShopkeepers.getChunks()) {
+				ChunkCoords chunkCoords = chunkShopkeepers.getChunkCoords();
+				int chunkX = chunkCoords.getChunkX();
+				int chunkZ = chunkCoords.getChunkZ();
+				if (chunkX >= minChunkX && chunkX <= maxChunkX
+						&& chunkZ >= minChunkZ && chunkZ <= maxChunkZ) {
+					action.accept(chunkShopkeepers);
+				}
+			}
+		} else {
+			for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+				for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+					this.visitChunk(worldShopkeepers, chunkX, chunkZ, action);
+				}
+			}
+		}
+	}
+
+	private void forEachChunkInRing(
+			WorldShopkeepers worldShopkeepers,
+			int centerChunkX,
+			int centerChunkZ,
+			int ring,
+			Consumer<? super ChunkShopkeepers> action
+	) {
+		if (ring == 0) {
+			this.visitChunk(worldShopkeepers, centerChunkX, centerChunkZ, action);
+			return;
+		}
+
+		// Top and bottom rows:
+		for (int dx = -ring; dx <= ring; dx++) {
+			this.visitChunk(worldShopkeepers, centerChunkX + dx, centerChunkZ - ring, action);
+			this.visitChunk(worldShopkeepers, centerChunkX + dx, centerChunkZ + ring, action);
+		}
+		// Left and right columns, without the corners:
+		for (int dz = -ring + 1; dz < ring; dz++) {
+			this.visitChunk(worldShopkeepers, centerChunkX - ring, centerChunkZ + dz, action);
+			this.visitChunk(worldShopkeepers, centerChunkX + ring, centerChunkZ + dz, action);
+		}
+	}
+
+	private void visitChunk(
+			WorldShopkeepers worldShopkeepers,
+			int chunkX,
+			int chunkZ,
+			Consumer<? super ChunkShopkeepers> action
+	) {
+		sharedChunkCoords.set(worldShopkeepers.getWorldName(), chunkX, chunkZ);
+		ChunkShopkeepers chunkShopkeepers = worldShopkeepers.getChunkShopkeepers(sharedChunkCoords);
+		if (chunkShopkeepers != null) {
+			action.accept(chunkShopkeepers);
+		}
+	}
+}
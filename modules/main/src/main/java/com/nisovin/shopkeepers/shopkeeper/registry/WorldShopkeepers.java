@@ -62,6 +62,15 @@ final class WorldShopkeepers {
 		return shopkeepersByChunk.get(chunkCoords);
 	}
 
+	// The chunks that contain shopkeepers.
+	Collection<? extends ChunkShopkeepers> getChunks() {
+		return shopkeepersByChunk.values();
+	}
+
+	int getChunkCount() {
+		return shopkeepersByChunk.size();
+	}
+
 	ChunkShopkeepers addShopkeeper(AbstractShopkeeper shopkeeper) {
 		assert shopkeeper != null;
 		assert shopkeeper.getLastChunkCoords() == null;
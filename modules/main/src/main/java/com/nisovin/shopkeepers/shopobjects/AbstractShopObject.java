@@ -116,7 +116,10 @@ public abstract class AbstractShopObject implements ShopObject {
 	) {
 		assert shopkeeper != null;
 		this.shopkeeper = shopkeeper;
-		this.properties = new ShopkeeperPropertyValuesHolder(shopkeeper);
+		this.properties = new ShopkeeperPropertyValuesHolder(
+				shopkeeper,
+				AbstractShopkeeper.SHOP_OBJECT_DATA
+		);
 	}
 
 	@Override
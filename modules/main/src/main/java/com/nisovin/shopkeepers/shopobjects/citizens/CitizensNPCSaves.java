@@ -0,0 +1,122 @@
+package com.nisovin.shopkeepers.shopobjects.citizens;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.bukkit.Ticks;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
+
+/**
+ * Coalesces the requests to save the Citizens NPCs.
+ * <p>
+ * Saving the Citizens NPCs saves all NPCs, which is comparably costly. Bulk operations, such as the
+ * creation, deletion, or moving of many NPC shopkeepers, can request a save for every single
+ * affected NPC. Instead of saving the NPCs for every request, we remember that the NPCs are dirty
+ * and then save them at most once per {@link #MIN_INTERVAL_TICKS minimum interval}.
+ */
+class CitizensNPCSaves {
+
+	// The minimum duration between two consecutive saves:
+	private static final long MIN_INTERVAL_TICKS = Ticks.PER_SECOND * 5L;
+	private static final long MIN_INTERVAL_MILLIS = Ticks.toMillis(MIN_INTERVAL_TICKS);
+
+	private final Plugin plugin;
+	private final Runnable saveAction;
+
+	// Whether there have been save requests since the last save:
+	private boolean dirty = false;
+	private @Nullable BukkitTask saveTask = null;
+	private long lastSaveMillis = 0L;
+
+	// Statistics:
+	private long requestedSaves = 0L;
+	private final Timer saveTimings = new Timer();
+
+	CitizensNPCSaves(Plugin plugin, Runnable saveAction) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(saveAction, "saveAction is null");
+		this.plugin = plugin;
+		this.saveAction = saveAction;
+	}
+
+	/**
+	 * Requests a save of the Citizens NPCs.
+	 * <p>
+	 * The save is performed at the end of the current tick at the earliest, and not before the
+	 * minimum interval since the previous save has passed. Any further save requests until then
+	 * are covered by the same save.
+	 */
+	void requestSave() {
+		requestedSaves++;
+		dirty = true;
+		if (saveTask != null) return; // A save is already pending
+
+		long millisSinceLastSave = System.currentTimeMillis() - lastSaveMillis;
+		long delayTicks = Math.max(
+				1L,
+				Ticks.fromMillis(Math.max(0L, MIN_INTERVAL_MILLIS - millisSinceLastSave))
+		);
+		saveTask = Bukkit.getScheduler().runTaskLater(plugin, this::saveIfDirty, delayTicks);
+	}
+
+	/**
+	 * Saves the Citizens NPCs right away if there are pending save requests.
+	 */
+	void saveIfDirty() {
+		this.cancelSaveTask();
+		if (!dirty) return;
+		this.save();
+	}
+
+	/**
+	 * Saves the Citizens NPCs right away, regardless of whether there are pending save requests.
+	 */
+	void save() {
+		this.cancelSaveTask();
+		dirty = false;
+		lastSaveMillis = System.currentTimeMillis();
+		saveTimings.start();
+		try {
+			saveAction.run();
+		} finally {
+			saveTimings.stop();
+		}
+	}
+
+	/**
+	 * Discards any pending save requests without saving.
+	 */
+	void discard() {
+		this.cancelSaveTask();
+		dirty = false;
+	}
+
+	private void cancelSaveTask() {
+		if (saveTask != null) {
+			saveTask.cancel();
+			saveTask = null;
+		}
+	}
+
+	/**
+	 * Gets the number of save requests.
+	 *
+	 * @return the number of save requests
+	 */
+	long getRequestedSaves() {
+		return requestedSaves;
+	}
+
+	/**
+	 * Gets the timings of the performed saves.
+	 *
+	 * @return the save timings
+	 */
+	Timings getSaveTimings() {
+		return saveTimings;
+	}
+}
@@ -27,6 +27,7 @@ import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.java.TimeUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 import net.citizensnpcs.api.CitizensAPI;
 import net.citizensnpcs.api.npc.NPC;
@@ -74,6 +75,7 @@ public class CitizensShops {
 	private final PluginListener pluginListener = new PluginListener(Unsafe.initialized(this));
 
 	private final CitizensListener citizensListener;
+	private final CitizensNPCSaves npcSaves;
 	private boolean citizensShopsEnabled = false;
 	private @Nullable TraitInfo shopkeeperTrait = null;
 
@@ -88,6 +90,7 @@ public class CitizensShops {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
 		this.citizensListener = new CitizensListener(plugin, Unsafe.initialized(this));
+		this.npcSaves = new CitizensNPCSaves(plugin, Unsafe.initialized(this)::saveNPCsNow);
 	}
 
 	// This is called on plugin enable.
@@ -212,6 +215,14 @@ public class CitizensShops {
 			((SKCitizensShopObject) shopkeeper.getShopObject()).onCitizensShopsDisabled();
 		});
 
+		// Perform any pending NPC save:
+		// If the Citizens plugin is being disabled, it has already saved its NPCs itself.
+		if (CitizensDependency.isPluginEnabled()) {
+			npcSaves.saveIfDirty();
+		} else {
+			npcSaves.discard();
+		}
+
 		Plugin citizensPlugin = CitizensDependency.getPlugin();
 		if (citizensPlugin != null) {
 			// Unregister the shopkeeper trait:
@@ -366,20 +377,26 @@ public class CitizensShops {
 	}
 
 	void onNPCEdited(NPC npc) {
-		// TODO We may sometimes unnecessarily call this multiple times within the same tick. Merge
-		// all save requests within a short time period (i.e. a few ticks)? But we would also need
-		// to ensure that the save is triggered on plugin shutdown, including when Citizens shuts
-		// down.
 		if (Settings.saveCitizenNpcsInstantly) {
-			this.saveNPCs();
+			// Bulk operations can edit many NPCs in a short time: The save requests are coalesced.
+			// Any pending save is performed when the Citizens shops are disabled.
+			npcSaves.requestSave();
 		}
 		// Else: Saving is controlled only by Citizens itself: Periodically, manually, and on
 		// shutdown.
 	}
 
+	/**
+	 * Saves the Citizens NPCs right away.
+	 * <p>
+	 * This also covers any pending save requests.
+	 */
 	public void saveNPCs() {
 		if (!this.isEnabled()) return;
+		npcSaves.save();
+	}
 
+	private void saveNPCsNow() {
 		long startNanos = System.nanoTime();
 		// TODO Saving is quite a heavy operation, but there is no API yet to trigger an
 		// asynchronous save. We therefore execute this command to trigger an asynchronous save.
@@ -394,6 +411,26 @@ public class CitizensShops {
 		Log.debug(() -> "Saved Citizens NPCs (" + TextUtils.format(durationMillis) + " ms).");
 	}
 
+	/**
+	 * Gets the number of requested Citizens NPC saves.
+	 * <p>
+	 * Save requests that are issued within a short time are coalesced into a single save.
+	 *
+	 * @return the number of save requests
+	 */
+	public long getRequestedNPCSaves() {
+		return npcSaves.getRequestedSaves();
+	}
+
+	/**
+	 * Gets the timings of the performed Citizens NPC saves.
+	 *
+	 * @return the save timings
+	 */
+	public Timings getNPCSaveTimings() {
+		return npcSaves.getSaveTimings();
+	}
+
 	/**
 	 * Checks for and optionally warns about or deletes invalid Citizen shopkeepers.
 	 * <p>
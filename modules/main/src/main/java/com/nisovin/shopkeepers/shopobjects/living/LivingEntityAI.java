@@ -13,12 +13,24 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.scheduler.BukkitTask;
@@ -106,6 +118,15 @@ public class LivingEntityAI implements Listener {
 			1,
 			FALLING_CHECK_PERIOD_TICKS + 1
 	);
+	/**
+	 * The period in ticks in which we check if an entity is supposed to fall, if
+	 * {@link Settings#eventDrivenGravityChecks event-driven gravity checks} are enabled.
+	 * <p>
+	 * In this mode, we check if an entity needs to fall whenever a block in its column changes.
+	 * This periodic check only serves as a safety net for block changes that we are not informed
+	 * about, e.g. when plugins modify blocks without calling events.
+	 */
+	private static final int FALLING_SAFETY_CHECK_PERIOD_TICKS = 200;
 
 	// Temporarily re-used objects:
 	private static final Location sharedLocation = new Location(null, 0, 0, 0);
@@ -133,22 +154,40 @@ public class LivingEntityAI implements Listener {
 	 * the gravity of mobs).
 	 */
 	private boolean customGravityEnabled;
+	/**
+	 * Whether we use our custom gravity handling and check for falling entities in reaction to
+	 * block changes.
+	 */
+	private boolean eventDrivenGravityChecks;
+	private final GravityRecheckListener gravityRecheckListener = new GravityRecheckListener(
+			Unsafe.initialized(this)
+	);
 
 	private static class EntityData {
 
 		private final SKLivingShopObject<?> shopObject;
 		private final ChunkData chunkData;
-		// Initial threshold between [1, FALLING_CHECK_PERIOD_TICKS] for load balancing:
-		public final RateLimiter fallingCheckLimiter = new RateLimiter(
-				FALLING_CHECK_PERIOD_TICKS,
-				nextFallingCheckOffset.getAndIncrement()
-		);
+		// The block column of the entity (the entity is assumed to only move vertically):
+		private final int blockX;
+		private final int blockZ;
+		public RateLimiter fallingCheckLimiter;
+		// Set when a block in the entity's column has changed:
+		public boolean gravityCheckPending = false;
 		public boolean falling = false;
 		public double distanceToGround = 0.0D;
 
-		public EntityData(SKLivingShopObject<?> shopObject, ChunkData chunkData) {
+		public EntityData(
+				SKLivingShopObject<?> shopObject,
+				ChunkData chunkData,
+				int blockX,
+				int blockZ,
+				RateLimiter fallingCheckLimiter
+		) {
 			this.shopObject = shopObject;
 			this.chunkData = chunkData;
+			this.blockX = blockX;
+			this.blockZ = blockZ;
+			this.fallingCheckLimiter = fallingCheckLimiter;
 		}
 
 		public boolean isAffectedByGravity() {
@@ -204,10 +243,7 @@ public class LivingEntityAI implements Listener {
 
 	public void onEnable() {
 		// Setup values based on settings:
-		// TODO: Also update these on dynamic setting changes.
-		maxFallingDistancePerUpdate = Settings.mobBehaviorTickPeriod * MAX_FALLING_DISTANCE_PER_TICK;
-		gravityCollisionCheckRange = maxFallingDistancePerUpdate + 0.1D;
-		customGravityEnabled = _isCustomGravityEnabled();
+		this.setupSettingValues();
 
 		// Register listener:
 		Bukkit.getPluginManager().registerEvents(this, plugin);
@@ -216,9 +252,50 @@ public class LivingEntityAI implements Listener {
 		this.startTask();
 	}
 
+	private void setupSettingValues() {
+		maxFallingDistancePerUpdate = Settings.mobBehaviorTickPeriod * MAX_FALLING_DISTANCE_PER_TICK;
+		gravityCollisionCheckRange = maxFallingDistancePerUpdate + 0.1D;
+		customGravityEnabled = _isCustomGravityEnabled();
+
+		boolean wasEventDriven = eventDrivenGravityChecks;
+		eventDrivenGravityChecks = customGravityEnabled && Settings.eventDrivenGravityChecks;
+		if (eventDrivenGravityChecks != wasEventDriven) {
+			if (eventDrivenGravityChecks) {
+				Bukkit.getPluginManager().registerEvents(gravityRecheckListener, plugin);
+			} else {
+				HandlerList.unregisterAll(gravityRecheckListener);
+			}
+
+			// Apply the new falling check period to the already added entities:
+			shopObjects.values().forEach(entityData -> {
+				entityData.fallingCheckLimiter = this.newFallingCheckLimiter();
+			});
+		}
+	}
+
+	/**
+	 * Updates the values that are derived from the settings, and restarts the AI task with the
+	 * current tick period.
+	 * <p>
+	 * This is called when the settings have been reloaded while the plugin remains enabled.
+	 */
+	public void onSettingsChanged() {
+		Validate.State.isTrue(!currentlyRunning,
+				"Cannot apply setting changes while the AI task is running!");
+		this.setupSettingValues();
+
+		// Restart the task, if it is running:
+		if (aiTask != null) {
+			this.stopTask();
+			this.startTask();
+		}
+	}
+
 	public void onDisable() {
 		assert !currentlyRunning;
 		HandlerList.unregisterAll(this); // Unregister listener
+		HandlerList.unregisterAll(gravityRecheckListener);
+		eventDrivenGravityChecks = false;
 		this.stopTask();
 		chunks.clear();
 		shopObjects.clear();
@@ -243,6 +320,8 @@ public class LivingEntityAI implements Listener {
 		// We assert that the chunk is loaded (checked above by isValid call).
 		Location entityLocation = Unsafe.assertNonNull(entity.getLocation(sharedLocation));
 		sharedChunkCoords.set(entityLocation);
+		int blockX = entityLocation.getBlockX();
+		int blockZ = entityLocation.getBlockZ();
 		sharedLocation.setWorld(null); // Reset
 
 		// Add chunk entry:
@@ -262,7 +341,13 @@ public class LivingEntityAI implements Listener {
 		}
 
 		// Add entity entry:
-		EntityData entityData = new EntityData(shopObject, chunkData);
+		EntityData entityData = new EntityData(
+				shopObject,
+				chunkData,
+				blockX,
+				blockZ,
+				this.newFallingCheckLimiter()
+		);
 		shopObjects.put(shopObject, entityData);
 		chunkData.entities.add(entityData);
 
@@ -622,13 +707,28 @@ public class LivingEntityAI implements Listener {
 		return !Settings.disableGravity && Compat.getProvider().isNoAIDisablingGravity();
 	}
 
+	private RateLimiter newFallingCheckLimiter() {
+		// Initial threshold between [1, FALLING_CHECK_PERIOD_TICKS] for load balancing:
+		// This also ensures that newly spawned entities, e.g. after their chunk has been reloaded,
+		// are checked soon, even if event-driven gravity checks are enabled.
+		return new RateLimiter(
+				eventDrivenGravityChecks
+						? FALLING_SAFETY_CHECK_PERIOD_TICKS
+						: FALLING_CHECK_PERIOD_TICKS,
+				nextFallingCheckOffset.getAndIncrement()
+		);
+	}
+
 	private void processGravity(EntityData entityData) {
-		// Check periodically, or if already falling, if the entity is meant to (continue to) fall:
+		// Check periodically, if already falling, or if a block in the entity's column has changed,
+		// if the entity is meant to (continue to) fall:
 		// Note: The falling check limiter is not invoked while the entity is already falling. This
 		// ensures that once the entity stops its current fall the limiter will wait a full cycle
 		// before we check again if the entity is falling again.
 		if (entityData.falling
+				|| entityData.gravityCheckPending
 				|| entityData.fallingCheckLimiter.request(Settings.mobBehaviorTickPeriod)) {
+			entityData.gravityCheckPending = false;
 			// Check if the entity is supposed to (continue to) fall by performing a ray cast
 			// towards the ground:
 			// Note: One attempt of optimizing this has been to only perform the raytrace if the
@@ -710,6 +810,117 @@ public class LivingEntityAI implements Listener {
 		sharedLocation.setWorld(null); // Reset
 	}
 
+	// GRAVITY RE-CHECKS
+
+	/**
+	 * Marks the entities in the column of the given block for a gravity check.
+	 * <p>
+	 * The entities are checked during their next behavior update, if gravity is active in their
+	 * chunk. Otherwise, they are checked once gravity becomes active in their chunk again.
+	 * 
+	 * @param block
+	 *            the changed block
+	 */
+	private void onBlockChanged(Block block) {
+		assert eventDrivenGravityChecks;
+		if (shopObjects.isEmpty()) return;
+
+		// We only expect there to be few entities per chunk, so we check all of them:
+		sharedChunkCoords.set(block);
+		ChunkData chunkData = chunks.get(sharedChunkCoords);
+		if (chunkData == null) return;
+
+		int blockX = block.getX();
+		int blockZ = block.getZ();
+		for (EntityData entityData : chunkData.entities) {
+			if (entityData.blockX == blockX && entityData.blockZ == blockZ) {
+				entityData.gravityCheckPending = true;
+			}
+		}
+	}
+
+	private void onBlocksChanged(List<? extends Block> blocks) {
+		if (shopObjects.isEmpty()) return;
+		blocks.forEach(this::onBlockChanged);
+	}
+
+	/**
+	 * Reacts to block changes that might cause shopkeeper mobs to fall.
+	 * <p>
+	 * This is only registered while event-driven gravity checks are enabled.
+	 */
+	private static class GravityRecheckListener implements Listener {
+
+		private final LivingEntityAI livingEntityAI;
+
+		GravityRecheckListener(LivingEntityAI livingEntityAI) {
+			this.livingEntityAI = livingEntityAI;
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockBreak(BlockBreakEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockPlace(BlockPlaceEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+
+		// Also covers many indirect block changes, since the blocks around a changed block
+		// receive physics updates:
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockPhysics(BlockPhysicsEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockExplode(BlockExplodeEvent event) {
+			livingEntityAI.onBlocksChanged(event.blockList());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onEntityExplode(EntityExplodeEvent event) {
+			livingEntityAI.onBlocksChanged(event.blockList());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockPistonExtend(BlockPistonExtendEvent event) {
+			livingEntityAI.onBlocksChanged(event.getBlocks());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockPistonRetract(BlockPistonRetractEvent event) {
+			livingEntityAI.onBlocksChanged(event.getBlocks());
+			// The piston head is removed (we check both sides of the piston, since the reported
+			// direction is the direction in which the blocks move):
+			Block piston = event.getBlock();
+			BlockFace direction = event.getDirection();
+			livingEntityAI.onBlockChanged(piston.getRelative(direction));
+			livingEntityAI.onBlockChanged(piston.getRelative(direction.getOppositeFace()));
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockBurn(BlockBurnEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onBlockFade(BlockFadeEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onLeavesDecay(LeavesDecayEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onEntityChangeBlock(EntityChangeBlockEvent event) {
+			livingEntityAI.onBlockChanged(event.getBlock());
+		}
+	}
+
 	// ENTITY AI
 
 	// Gets run every behavior update while in range of players:
@@ -935,7 +935,7 @@ public class SKLivingShopObject<E extends LivingEntity>
 	}
 
 	private void handleEquipmentChanged() {
-		shopkeeper.markDirty();
+		shopkeeper.markDirty(AbstractShopkeeper.SHOP_OBJECT_DATA);
 		this.onEquipmentChanged();
 	}
 
@@ -73,6 +73,9 @@ public class SKHangingSignShopObject extends BaseBlockShopObject implements Hang
 			.onValueChanged(Unsafe.initialized(this)::applyGlowingText)
 			.build(properties);
 
+	// The sign contents that were last applied to the sign block:
+	private final SignShops.SignText signText = new SignShops.SignText();
+
 	protected SKHangingSignShopObject(
 			BaseBlockShops blockShops,
 			AbstractShopkeeper shopkeeper,
@@ -161,13 +164,21 @@ public class SKHangingSignShopObject extends BaseBlockShopObject implements Hang
 		return blockData;
 	}
 
+	@Override
+	protected void cleanUpBlock(Block block) {
+		super.cleanUpBlock(block);
+		// The cached sign contents no longer match the sign block:
+		signText.reset();
+	}
+
 	@Override
 	protected void updateBlock() {
 		Sign sign = this.getSign();
 		if (sign == null) return; // Not spawned or no longer a sign
 
 		// Common sign setup (e.g. sign content):
-		SignShops.updateShopSign(sign, shopkeeper);
+		// Skip the block state update if the sign contents have not changed.
+		if (!SignShops.updateShopSign(sign, shopkeeper, signText)) return;
 
 		// Glowing text:
 		this.applyGlowingText(sign);
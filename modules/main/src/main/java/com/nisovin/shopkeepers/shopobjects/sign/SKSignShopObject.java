@@ -164,6 +164,9 @@ public class SKSignShopObject extends BaseBlockShopObject implements SignShopObj
 			.onValueChanged(Unsafe.initialized(this)::applyGlowingText)
 			.build(properties);
 
+	// The sign contents that were last applied to the sign block:
+	private final SignShops.SignText signText = new SignShops.SignText();
+
 	protected SKSignShopObject(
 			BaseBlockShops blockShops,
 			AbstractShopkeeper shopkeeper,
@@ -243,13 +246,21 @@ public class SKSignShopObject extends BaseBlockShopObject implements SignShopObj
 		return blockData;
 	}
 
+	@Override
+	protected void cleanUpBlock(Block block) {
+		super.cleanUpBlock(block);
+		// The cached sign contents no longer match the sign block:
+		signText.reset();
+	}
+
 	@Override
 	protected void updateBlock() {
 		Sign sign = this.getSign();
 		if (sign == null) return; // Not spawned or no longer a sign
 
 		// Common sign setup (e.g. sign content):
-		SignShops.updateShopSign(sign, shopkeeper);
+		// Skip the block state update if the sign contents have not changed.
+		if (!SignShops.updateShopSign(sign, shopkeeper, signText)) return;
 
 		// Glowing text:
 		this.applyGlowingText(sign);
@@ -1,9 +1,12 @@
 package com.nisovin.shopkeepers.shopobjects.sign;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.bukkit.block.Sign;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
@@ -13,54 +16,116 @@ import com.nisovin.shopkeepers.api.shopobjects.ShopObject;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.util.bukkit.SignUtils;
 import com.nisovin.shopkeepers.util.java.StringUtils;
+import com.nisovin.shopkeepers.util.text.MessageArguments;
 
 /**
  * Helpers related to sign and hanging sign shops.
  */
 final class SignShops {
 
+	/**
+	 * Caches the sign lines that were last applied to the sign of a specific sign shop object.
+	 * <p>
+	 * This allows us to skip the block state update when the newly rendered lines match the lines
+	 * that are already shown.
+	 */
+	static final class SignText {
+
+		private final @Nullable String[] lines = new @Nullable String[4];
+		// Whether the cached lines reflect the current contents of the sign block:
+		private boolean applied = false;
+
+		SignText() {
+		}
+
+		/**
+		 * Forgets the cached sign contents.
+		 * <p>
+		 * This needs to be called whenever the sign block is (re-)placed or removed, because its
+		 * contents no longer match the cached lines then.
+		 */
+		void reset() {
+			applied = false;
+			Arrays.fill(lines, null);
+		}
+	}
+
 	// Reused array to pass sign lines:
 	private static final @NonNull String[] TEMP_SIGN_LINES = new @NonNull String[4];
+	// Reused arguments:
+	private static final Map<String, Object> TEMP_ARGUMENTS_MAP = new HashMap<>();
+	private static final MessageArguments TEMP_ARGUMENTS = MessageArguments.ofMap(
+			TEMP_ARGUMENTS_MAP
+	);
 
-	static void updateShopSign(Sign sign, Shopkeeper shopkeeper) {
+	/**
+	 * Updates the contents of the given sign, if the newly rendered sign lines differ from the sign
+	 * lines that were last applied according to the given {@link SignText}.
+	 * <p>
+	 * If this returns <code>true</code>, the caller is responsible to apply the sign state changes.
+	 *
+	 * @param sign
+	 *            the sign, not <code>null</code>
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 * @param signText
+	 *            the cached sign contents of the shop object, not <code>null</code>
+	 * @return <code>true</code> if the sign contents have been modified
+	 */
+	static boolean updateShopSign(Sign sign, Shopkeeper shopkeeper, SignText signText) {
 		// Sign content:
-		if (shopkeeper instanceof PlayerShopkeeper) {
-			updatePlayerShopSign(sign, (PlayerShopkeeper) shopkeeper);
-		} else {
-			assert shopkeeper instanceof AdminShopkeeper;
-			updateAdminShopSign(sign, (AdminShopkeeper) shopkeeper);
+		try {
+			if (shopkeeper instanceof PlayerShopkeeper) {
+				preparePlayerShopSignLines((PlayerShopkeeper) shopkeeper);
+			} else {
+				assert shopkeeper instanceof AdminShopkeeper;
+				prepareAdminShopSignLines((AdminShopkeeper) shopkeeper);
+			}
+		} finally {
+			TEMP_ARGUMENTS_MAP.clear(); // Reset
+		}
+
+		if (signText.applied && Arrays.equals(signText.lines, TEMP_SIGN_LINES)) {
+			// The sign contents are already up-to-date:
+			return false;
 		}
+
+		SignUtils.setBothSidesText(sign, TEMP_SIGN_LINES);
+		System.arraycopy(TEMP_SIGN_LINES, 0, signText.lines, 0, TEMP_SIGN_LINES.length);
+		signText.applied = true;
+		// Array will be reset with the next use.
+		return true;
 	}
 
-	private static void updatePlayerShopSign(Sign sign, PlayerShopkeeper shop) {
+	private static void preparePlayerShopSignLines(PlayerShopkeeper shop) {
 		ShopObject shopObject = shop.getShopObject();
 
-		var arguments = new HashMap<String, Object>();
 		// Not null, can be empty:
-		arguments.put("shopName", Unsafe.assertNonNull(shopObject.prepareName(shop.getName())));
-		arguments.put("owner", shop.getOwnerName());  // Not null, can be empty
+		String shopName = Unsafe.assertNonNull(shopObject.prepareName(shop.getName()));
+		TEMP_ARGUMENTS_MAP.put("shopName", shopName);
+		TEMP_ARGUMENTS_MAP.put("owner", shop.getOwnerName());  // Not null, can be empty
 
-		TEMP_SIGN_LINES[0] = StringUtils.replaceArguments(Messages.playerSignShopLine1, arguments);
-		TEMP_SIGN_LINES[1] = StringUtils.replaceArguments(Messages.playerSignShopLine2, arguments);
-		TEMP_SIGN_LINES[2] = StringUtils.replaceArguments(Messages.playerSignShopLine3, arguments);
-		TEMP_SIGN_LINES[3] = StringUtils.replaceArguments(Messages.playerSignShopLine4, arguments);
-		SignUtils.setBothSidesText(sign, TEMP_SIGN_LINES);
-		// Array will be reset with the next use.
+		TEMP_SIGN_LINES[0] = replaceArguments(Messages.playerSignShopLine1);
+		TEMP_SIGN_LINES[1] = replaceArguments(Messages.playerSignShopLine2);
+		TEMP_SIGN_LINES[2] = replaceArguments(Messages.playerSignShopLine3);
+		TEMP_SIGN_LINES[3] = replaceArguments(Messages.playerSignShopLine4);
 	}
 
-	private static void updateAdminShopSign(Sign sign, AdminShopkeeper shop) {
+	private static void prepareAdminShopSignLines(AdminShopkeeper shop) {
 		ShopObject shopObject = shop.getShopObject();
 
-		var arguments = new HashMap<String, Object>();
 		// Not null, can be empty:
-		arguments.put("shopName", Unsafe.assertNonNull(shopObject.prepareName(shop.getName())));
+		String shopName = Unsafe.assertNonNull(shopObject.prepareName(shop.getName()));
+		TEMP_ARGUMENTS_MAP.put("shopName", shopName);
 
-		TEMP_SIGN_LINES[0] = StringUtils.replaceArguments(Messages.adminSignShopLine1, arguments);
-		TEMP_SIGN_LINES[1] = StringUtils.replaceArguments(Messages.adminSignShopLine2, arguments);
-		TEMP_SIGN_LINES[2] = StringUtils.replaceArguments(Messages.adminSignShopLine3, arguments);
-		TEMP_SIGN_LINES[3] = StringUtils.replaceArguments(Messages.adminSignShopLine4, arguments);
-		SignUtils.setBothSidesText(sign, TEMP_SIGN_LINES);
-		// Array will be reset with the next use.
+		TEMP_SIGN_LINES[0] = replaceArguments(Messages.adminSignShopLine1);
+		TEMP_SIGN_LINES[1] = replaceArguments(Messages.adminSignShopLine2);
+		TEMP_SIGN_LINES[2] = replaceArguments(Messages.adminSignShopLine3);
+		TEMP_SIGN_LINES[3] = replaceArguments(Messages.adminSignShopLine4);
+	}
+
+	private static String replaceArguments(String message) {
+		return StringUtils.replaceArguments(message, TEMP_ARGUMENTS);
 	}
 
 	private SignShops() {
@@ -1,10 +1,14 @@
 package com.nisovin.shopkeepers.storage;
 
+import java.io.FilterWriter;
+import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -12,6 +16,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
@@ -34,10 +39,12 @@ import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.ShopkeeperData;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.storage.migration.RawDataMigrations;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.PluginUtils;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
 import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
+import com.nisovin.shopkeepers.util.bukkit.Ticks;
 import com.nisovin.shopkeepers.util.data.container.DataContainer;
 import com.nisovin.shopkeepers.util.data.persistence.DataStore;
 import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
@@ -126,6 +133,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	/* Loading */
 	private boolean currentlyLoading = false;
+	private @Nullable StoragePhaseTimings lastLoadTimings = null;
 
 	/* Saving */
 	private final SaveTask saveTask;
@@ -134,12 +142,20 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	// save requests.
 	private boolean savingDisabled = false;
 	private @Nullable BukkitTask delayedSaveTask = null;
+	private @Nullable BukkitTask coalescedSaveTask = null;
+	private @Nullable BukkitTask periodicSaveTask = null;
+	// The time at which the last save was prepared, or 0 if there has been no save yet:
+	private long lastSaveStartMillis = 0L;
+	private @Nullable StoragePhaseTimings lastSaveTimings = null;
+	// Futures that are completed by the next save:
+	private List<CompletableFuture<Boolean>> pendingSaveFutures = new ArrayList<>();
+	private final List<SaveListener> saveListeners = new ArrayList<>();
 
 	public SKShopkeeperStorage(SKShopkeepersPlugin plugin) {
 		DataVersion.init();
 		this.plugin = plugin;
 		this.saveFile = Unsafe.initialized(this)._getSaveFile();
-		this.saveTask = new SaveTask(plugin);
+		this.saveTask = new SaveTask(plugin, plugin.getBackgroundExecutor());
 	}
 
 	private Path getPluginDataFolder() {
@@ -156,8 +172,20 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	public void onEnable() {
 		// Start periodic save task:
-		if (!Settings.saveInstantly) {
-			new PeriodicSaveTask().start();
+		this.onSettingsChanged();
+	}
+
+	/**
+	 * Applies changes to the settings that affect the storage.
+	 * <p>
+	 * This is called when the settings have been reloaded while the plugin remains enabled.
+	 */
+	public void onSettingsChanged() {
+		// Start the periodic save task if it is required and not yet running:
+		// If saving instantly gets enabled, any previously started periodic save task keeps running,
+		// but then usually has nothing to save.
+		if (!Settings.saveInstantly && periodicSaveTask == null) {
+			periodicSaveTask = new PeriodicSaveTask().start();
 		}
 	}
 
@@ -193,15 +221,24 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		unsavedShopkeepers.clear();
 		unsavedDeletedShopkeepers.clear();
 		shopkeepersToDelete.clear();
+		// Not expected, since we have just awaited all saves:
+		pendingSaveFutures.forEach(future -> future.complete(false));
+		pendingSaveFutures.clear();
 		delayedSaveTask = null;
+		coalescedSaveTask = null;
+		lastSaveStartMillis = 0L;
+		if (periodicSaveTask != null) {
+			periodicSaveTask.cancel();
+			periodicSaveTask = null;
+		}
 	}
 
 	private class PeriodicSaveTask implements Runnable {
 
 		private static final long PERIOD_TICKS = 6000L; // 5 minutes
 
-		void start() {
-			Bukkit.getScheduler().runTaskTimer(plugin, this, PERIOD_TICKS, PERIOD_TICKS);
+		BukkitTask start() {
+			return Bukkit.getScheduler().runTaskTimer(plugin, this, PERIOD_TICKS, PERIOD_TICKS);
 		}
 
 		@Override
@@ -350,9 +387,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		this.saveIfDirtyAndAwaitCompletion();
 
 		currentlyLoading = true;
+		StoragePhaseTimings.Recorder timingsRecorder = new StoragePhaseTimings.Recorder();
 		boolean result;
 		try {
-			result = this.doReload();
+			result = this.doReload(timingsRecorder);
 		} catch (Exception e) {
 			Log.severe(
 					"Something unexpected went wrong during the loading of the saved shopkeepers data!",
@@ -362,13 +400,18 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		} finally {
 			currentlyLoading = false;
 		}
+
+		StoragePhaseTimings loadTimings = timingsRecorder.finish();
+		lastLoadTimings = loadTimings;
+		Log.debug(() -> "Loaded shopkeeper data (" + loadTimings.getShopkeeperCount()
+				+ " shopkeepers): " + loadTimings.formatPhases());
 		return result;
 	}
 
 	// TODO Move parts of this into the ShopkeeperRegistry (resolves the currently existing cyclic
 	// dependency between the storage and the registry).
 	// Returns true on success, and false if there was some severe issue during loading.
-	private boolean doReload() {
+	private boolean doReload(StoragePhaseTimings.Recorder timingsRecorder) {
 		// Unload all currently loaded shopkeepers:
 		SKShopkeeperRegistry shopkeeperRegistry = this.getShopkeeperRegistry();
 		shopkeeperRegistry.unloadAllShopkeepers();
@@ -397,11 +440,14 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 		// Load the save data:
 		try (Reader reader = Files.newBufferedReader(saveFile, StandardCharsets.UTF_8)) {
+			timingsRecorder.startPhase("read");
 			var content = FileUtils.read(reader);
 
 			// Apply string-based migrations:
+			timingsRecorder.startPhase("raw migration");
 			var migratedContent = RawDataMigrations.applyMigrations(content);
 			rawDataMigrated = !content.equals(migratedContent);
+			timingsRecorder.endPhase();
 
 			if (rawDataMigrated) {
 				var now = LocalDateTime.now();
@@ -445,7 +491,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 			// Since Bukkit 1.16.5, this automatically clears the save data before loading the new
 			// entries:
+			timingsRecorder.startPhase("parse");
 			saveData.loadFromString(migratedContent);
+			timingsRecorder.endPhase();
 		} catch (InvalidDataFormatException e) {
 			Log.severe("Failed to load the save file! Note: Server downgrades or manually "
 					+ "editing the save file are not supported!", e);
@@ -555,7 +603,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// immediately look into. However, we do not abort the enabling of the plugin if
 			// individual shopkeepers cannot be loaded, because this would disable the protection of
 			// all player shop containers on the server (which is even worse).
-			this.loadShopkeeper(key, forceSaveAllShopkeepers);
+			this.loadShopkeeper(key, forceSaveAllShopkeepers, timingsRecorder);
 		}
 		return true;
 	}
@@ -580,7 +628,11 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		return shopkeeperData;
 	}
 
-	private void loadShopkeeper(String key, boolean forceSave) {
+	private void loadShopkeeper(
+			String key,
+			boolean forceSave,
+			StoragePhaseTimings.Recorder timingsRecorder
+	) {
 		Integer idInt = ConversionUtils.parseInt(key);
 		if (idInt == null || idInt <= 0) {
 			this.failedToLoadShopkeeper(key, "Invalid id: " + key);
@@ -592,6 +644,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			maxUsedShopkeeperId = shopkeeperId;
 		}
 
+		long startNanos = System.nanoTime();
 		ShopkeeperData shopkeeperData = this.getShopkeeperData(shopkeeperId);
 		if (shopkeeperData == null) {
 			this.failedToLoadShopkeeper(key, "Invalid shopkeeper data!");
@@ -606,13 +659,23 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			this.failedToLoadShopkeeper(key, "Shopkeeper data migration failed!", e);
 			return;
 		}
+		long migratedNanos = System.nanoTime();
+		timingsRecorder.addPhaseNanos("data migration", migratedNanos - startNanos);
 
 		// Load the shopkeeper:
 		SKShopkeeperRegistry shopkeeperRegistry = this.getShopkeeperRegistry();
 		AbstractShopkeeper shopkeeper;
+		long deserializedNanos;
 		try {
-			shopkeeper = shopkeeperRegistry.loadShopkeeper(shopkeeperData);
-			assert shopkeeper != null && shopkeeper.isValid();
+			shopkeeper = shopkeeperRegistry.deserializeShopkeeper(shopkeeperData);
+			deserializedNanos = System.nanoTime();
+			timingsRecorder.addPhaseNanos(
+					"deserialization (" + shopkeeper.getType().getIdentifier() + ")",
+					deserializedNanos - migratedNanos
+			);
+
+			shopkeeperRegistry.addLoadedShopkeeper(shopkeeper);
+			assert shopkeeper.isValid();
 		} catch (InvalidDataException e) {
 			this.failedToLoadShopkeeper(key, "Shopkeeper data could not be loaded!", e);
 			return;
@@ -620,6 +683,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			this.failedToLoadShopkeeper(key, "Unexpected error!", e);
 			return;
 		}
+		long endNanos = System.nanoTime();
+		timingsRecorder.addPhaseNanos("registry insertion", endNanos - deserializedNanos);
+		timingsRecorder.recordShopkeeper(shopkeeperId, endNanos - startNanos);
 
 		// If the shopkeeper was migrated or a forced save is requested, mark the shopkeeper as
 		// dirty:
@@ -642,6 +708,26 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		Log.warning("Failed to load shopkeeper '" + idKey + "': " + reason, throwable);
 	}
 
+	// TIMINGS
+
+	/**
+	 * Gets the phase timings of the last load of the shopkeeper data.
+	 * 
+	 * @return the timings, or <code>null</code> if the shopkeeper data has not been loaded yet
+	 */
+	public @Nullable StoragePhaseTimings getLastLoadTimings() {
+		return lastLoadTimings;
+	}
+
+	/**
+	 * Gets the phase timings of the last completed save of the shopkeeper data.
+	 * 
+	 * @return the timings, or <code>null</code> if the shopkeeper data has not been saved yet
+	 */
+	public @Nullable StoragePhaseTimings getLastSaveTimings() {
+		return lastSaveTimings;
+	}
+
 	// SHOPKEEPER DATA CHANGES
 
 	// Note: This does not take into account any unsaved data that a save in progress might
@@ -803,12 +889,53 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	@Override
 	public void save() {
 		if (Settings.saveInstantly) {
-			this.saveNow();
+			this.saveCoalesced();
 		} else {
 			this.requestSave();
 		}
 	}
 
+	// Saves right away, unless the previous save started less than the minimum interval ago. In
+	// that case, the save is delayed until the minimum interval has passed, and any further save
+	// requests until then are covered by the same save.
+	private void saveCoalesced() {
+		long minIntervalTicks = Settings.saveInstantlyMinIntervalTicks;
+		if (minIntervalTicks <= 0) {
+			this.saveNow();
+			return;
+		}
+
+		this.requestSave();
+		if (coalescedSaveTask != null) return; // A save is already pending
+
+		long millisSinceLastSave = System.currentTimeMillis() - lastSaveStartMillis;
+		long remainingMillis = Ticks.toMillis(minIntervalTicks) - millisSinceLastSave;
+		if (remainingMillis <= 0L && !saveTask.isRunning()) {
+			this.saveNow();
+		} else {
+			// If a save is in progress, this avoids that we immediately prepare another save once
+			// the current save completes.
+			long delayTicks = Math.max(1L, Ticks.fromMillis(Math.max(0L, remainingMillis)));
+			coalescedSaveTask = SchedulerUtils.runTaskLaterOrOmit(
+					plugin,
+					new CoalescedSaveTask(),
+					delayTicks
+			);
+			if (coalescedSaveTask == null) {
+				// The plugin is being disabled: Save right away.
+				this.saveNow();
+			}
+		}
+	}
+
+	private class CoalescedSaveTask implements Runnable {
+		@Override
+		public void run() {
+			coalescedSaveTask = null;
+			saveIfDirty();
+		}
+	}
+
 	@Override
 	public void saveDelayed() {
 		this.requestSave();
@@ -850,6 +977,47 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 	}
 
+	@Override
+	public CompletableFuture<Boolean> saveAsync() {
+		if (savingDisabled) {
+			Log.warning("Skipping save, because saving got disabled.");
+			return CompletableFuture.completedFuture(false);
+		}
+
+		// Completed by the next save that is prepared:
+		CompletableFuture<Boolean> future = new CompletableFuture<>();
+		pendingSaveFutures.add(future);
+		this.saveNow();
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> flush() {
+		if (this.isDirty()) {
+			return this.saveAsync();
+		}
+		if (saveTask.isRunning()) {
+			// The save in progress includes all data changes:
+			CompletableFuture<Boolean> future = new CompletableFuture<>();
+			saveTask.savingFutures.add(future);
+			return future;
+		}
+		// All data changes have already been persisted:
+		return CompletableFuture.completedFuture(true);
+	}
+
+	@Override
+	public void addSaveListener(SaveListener listener) {
+		Validate.notNull(listener, "listener is null");
+		saveListeners.add(listener);
+	}
+
+	@Override
+	public void removeSaveListener(SaveListener listener) {
+		Validate.notNull(listener, "listener is null");
+		saveListeners.remove(listener);
+	}
+
 	private void doSave(boolean async) {
 		if (savingDisabled) {
 			Log.warning("Skipping save, because saving got disabled.");
@@ -870,18 +1038,21 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		Set<AbstractShopkeeper> savingDirtyShopkeepers = new LinkedHashSet<>();
 		// The shopkeepers that we were not able to save for some reason:
 		private final Set<AbstractShopkeeper> failedToSave = new LinkedHashSet<>();
+		// The futures that are completed by the current save. Only modified synchronously.
+		List<CompletableFuture<Boolean>> savingFutures = new ArrayList<>();
 
 		/* Last save */
 		// These variables get replaced during the next save.
 		// Note: Explicit synchronization is not needed for these variables, because they already
-		// get synchronized before they are used, either by the Bukkit Scheduler (when starting the
-		// async task and when going back to the main thread by starting a sync task), or/and via
-		// synchronization with the save task's lock.
+		// get synchronized before they are used, either by the background executor (when starting the
+		// async task), by the Bukkit Scheduler (when going back to the main thread by starting a sync
+		// task), or/and via synchronization with the save task's lock.
 		private boolean savingSucceeded = false;
 		private long lastSaveErrorMsgMillis = 0L;
+		private StoragePhaseTimings.@Nullable Recorder timingsRecorder = null;
 
-		SaveTask(Plugin plugin) {
-			super(plugin);
+		SaveTask(Plugin plugin, BackgroundExecutor backgroundExecutor) {
+			super(plugin, backgroundExecutor);
 		}
 
 		void onDisable() {
@@ -906,11 +1077,16 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 		@Override
 		protected void prepare() {
-			// Stop any active delayed save task:
+			// Stop any active delayed or coalesced save task:
 			if (delayedSaveTask != null) {
 				delayedSaveTask.cancel();
 				delayedSaveTask = null;
 			}
+			if (coalescedSaveTask != null) {
+				coalescedSaveTask.cancel();
+				coalescedSaveTask = null;
+			}
+			lastSaveStartMillis = System.currentTimeMillis();
 
 			// Set up the file header:
 			// This replaces any previously existing and loaded header and thereby ensures that it
@@ -923,15 +1099,32 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// Note: This flag is also reset to true if the current save attempt fails.
 			pendingSaveRequest = false;
 
+			// This save completes the futures of all save requests up to this point:
+			assert savingFutures.isEmpty();
+			List<CompletableFuture<Boolean>> newPendingSaveFutures = savingFutures;
+			savingFutures = pendingSaveFutures;
+			pendingSaveFutures = newPendingSaveFutures;
+
+			StoragePhaseTimings.Recorder timingsRecorder = new StoragePhaseTimings.Recorder();
+			this.timingsRecorder = timingsRecorder;
+
 			// Swap the dirty shopkeepers sets:
+			timingsRecorder.startPhase("dirty-set swap");
 			assert savingDirtyShopkeepers.isEmpty();
 			Set<AbstractShopkeeper> newDirtyShopkeepers = savingDirtyShopkeepers;
 			savingDirtyShopkeepers = dirtyShopkeepers;
 			dirtyShopkeepers = newDirtyShopkeepers;
+			timingsRecorder.endPhase();
 
 			// Save the data of dirty shopkeepers:
 			assert failedToSave.isEmpty();
-			savingDirtyShopkeepers.forEach(this::saveShopkeeper);
+			savingDirtyShopkeepers.forEach(shopkeeper -> {
+				long startNanos = System.nanoTime();
+				this.saveShopkeeper(shopkeeper);
+				long durationNanos = System.nanoTime() - startNanos;
+				timingsRecorder.addPhaseNanos("serialization", durationNanos);
+				timingsRecorder.recordShopkeeper(shopkeeper.getId(), durationNanos);
+			});
 		}
 
 		private void saveShopkeeper(AbstractShopkeeper shopkeeper) {
@@ -942,7 +1135,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// This replaces the previous shopkeeper data:
 			ShopkeeperData newData = ShopkeeperData.ofNonNull(saveData.createContainer(key));
 			try {
-				shopkeeper.save(newData, false); // May reference externally stored data
+				// May reference externally stored data. Reuses the previously saved data of
+				// unchanged data sections.
+				shopkeeper.saveToStorage(newData);
 			} catch (Exception e) {
 				// Error while saving shopkeeper data:
 				// Restore previous shopkeeper data and then skip this shopkeeper.
@@ -973,23 +1168,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		// Returns true if the saving was successful.
 		private boolean saveToFile(DataStore saveData) {
 			try {
-				// Serialize data to String:
-				// TODO Do this on the main thread? Bukkit's serialization API is not strictly
-				// thread-safe ...
-				// However, this should usually not be an issue if the serialized objects inside the
-				// save data are not accessed externally, and do not rely on external state during
-				// serialization.
-				String data;
-				try {
-					data = saveData.saveToString();
-				} catch (Exception e) {
-					throw new ShopkeeperStorageSaveException(
-							"Could not serialize shopkeeper data!", e
-					);
-				}
-
 				Retry.retry((VoidCallable) () -> {
-					this.doSaveToFile(data);
+					this.doSaveToFile(saveData);
 				}, SAVING_MAX_ATTEMPTS, (attemptNumber, exception, retry) -> {
 					// Saving failed:
 					assert exception != null;
@@ -1026,7 +1206,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 
 		/**
-		 * Writes the given properly formatted shopkeeper data to disk.
+		 * Serializes the given shopkeeper data and writes it to disk.
+		 * <p>
+		 * The data is streamed to the temporary save file entry by entry, instead of first
+		 * serializing the complete save data to a single String in memory.
 		 * <p>
 		 * Saving procedure:
 		 * <ul>
@@ -1036,7 +1219,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		 * <li>Else: Remove temporary save file.
 		 * </ul>
 		 * <li>Create temporary save file's parent directories (if required).
-		 * <li>Create new temporary save file and write data to it.
+		 * <li>Create new temporary save file and serialize the data to it.
 		 * <li>Sync temporary save file and containing directory (ensures that the data is persisted
 		 * to disk).
 		 * <li>Remove old save file (if it exists).
@@ -1046,28 +1229,110 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		 * disk).
 		 * </ul>
 		 * 
-		 * @param data
-		 *            the formatted data
+		 * @param saveData
+		 *            the save data
 		 * @throws ShopkeeperStorageSaveException
 		 *             if something goes wrong
 		 */
-		private void doSaveToFile(String data) throws ShopkeeperStorageSaveException {
-			assert data != null;
+		private void doSaveToFile(DataStore saveData) throws ShopkeeperStorageSaveException {
+			assert saveData != null;
+			StoragePhaseTimings.Recorder timingsRecorder = Unsafe.assertNonNull(
+					this.timingsRecorder
+			);
+			SaveDataWriter saveDataWriter = new SaveDataWriter(saveData);
+			long startNanos = System.nanoTime();
 			try {
 				FileUtils.writeSafely(
 						saveFile,
-						data,
+						saveDataWriter,
 						StandardCharsets.UTF_8,
 						Log.getLogger(),
 						getPluginDataFolder()
 				);
 			} catch (Exception e) {
 				throw new ShopkeeperStorageSaveException(e.getMessage(), e);
+			} finally {
+				long totalNanos = System.nanoTime() - startNanos;
+				long contentNanos = saveDataWriter.contentNanos;
+				long writeNanos = saveDataWriter.writeNanos;
+				timingsRecorder.addPhaseNanos("YAML dump", contentNanos - writeNanos);
+				timingsRecorder.addPhaseNanos("file write", writeNanos);
+				timingsRecorder.addPhaseNanos("fsync and rename", totalNanos - contentNanos);
+			}
+		}
+
+		/**
+		 * Serializes the save data to the save file, and keeps track of how much of that time is
+		 * spent writing to the file.
+		 */
+		private class SaveDataWriter implements FileUtils.ContentWriter {
+
+			private final DataStore saveData;
+			// The total time spent in write(Writer):
+			long contentNanos = 0L;
+			// The time spent inside the file writer:
+			long writeNanos = 0L;
+
+			SaveDataWriter(DataStore saveData) {
+				this.saveData = saveData;
+			}
+
+			@Override
+			public void write(Writer writer) throws IOException {
+				long startNanos = System.nanoTime();
+				// TODO Do this on the main thread? Bukkit's serialization API is not strictly
+				// thread-safe ...
+				// However, this should usually not be an issue if the serialized objects inside the
+				// save data are not accessed externally, and do not rely on external state during
+				// serialization.
+				try {
+					saveData.save(new FilterWriter(writer) {
+						@Override
+						public void write(int c) throws IOException {
+							long writeStartNanos = System.nanoTime();
+							super.write(c);
+							writeNanos += System.nanoTime() - writeStartNanos;
+						}
+
+						@Override
+						public void write(char[] cbuf, int off, int len) throws IOException {
+							long writeStartNanos = System.nanoTime();
+							super.write(cbuf, off, len);
+							writeNanos += System.nanoTime() - writeStartNanos;
+						}
+
+						@Override
+						public void write(String str, int off, int len) throws IOException {
+							long writeStartNanos = System.nanoTime();
+							super.write(str, off, len);
+							writeNanos += System.nanoTime() - writeStartNanos;
+						}
+
+						@Override
+						public void close() throws IOException {
+							// Flushes the remaining buffered data to the file:
+							long writeStartNanos = System.nanoTime();
+							super.close();
+							writeNanos += System.nanoTime() - writeStartNanos;
+						}
+					});
+				} catch (RuntimeException e) {
+					throw new IOException("Could not serialize shopkeeper data: "
+							+ ThrowableUtils.getDescription(e), e);
+				} finally {
+					contentNanos += System.nanoTime() - startNanos;
+				}
 			}
 		}
 
 		@Override
 		protected void syncCallback() {
+			StoragePhaseTimings.Recorder timingsRecorder = this.timingsRecorder;
+			if (timingsRecorder != null) {
+				lastSaveTimings = timingsRecorder.finish();
+				this.timingsRecorder = null;
+			}
+
 			// Print debug info:
 			printDebugInfo();
 
@@ -1126,6 +1391,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			shopkeepersToDelete.forEach(SKShopkeeperStorage.this::deleteShopkeeper);
 			shopkeepersToDelete.clear();
 
+			// Inform the save listeners and complete the futures of this save:
+			this.informSaveListeners();
+			this.completeSavingFutures();
+
 			// Any other remaining post-processing that should happen after the storage's state has
 			// been updated:
 			if (!savingSucceeded) {
@@ -1152,6 +1421,32 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			}
 		}
 
+		private void informSaveListeners() {
+			// Copied, in case listeners unregister themselves:
+			for (SaveListener listener : new ArrayList<>(saveListeners)) {
+				try {
+					listener.onSaveCompleted(savingSucceeded);
+				} catch (Exception e) {
+					Log.severe("Error in save listener " + listener.getClass().getName() + "!", e);
+				}
+			}
+		}
+
+		private void completeSavingFutures() {
+			if (savingFutures.isEmpty()) return;
+
+			List<CompletableFuture<Boolean>> futures = savingFutures;
+			savingFutures = new ArrayList<>();
+			boolean succeeded = savingSucceeded;
+			// The futures are completed outside of the save task's execution, so that their
+			// dependent actions are able to trigger further saves. During plugin disable, we
+			// complete them right away.
+			Runnable completion = () -> futures.forEach(future -> future.complete(succeeded));
+			if (SchedulerUtils.runTaskOrOmit(plugin, completion) == null) {
+				completion.run();
+			}
+		}
+
 		private void printDebugInfo() {
 			Log.debug(() -> {
 				StringBuilder sb = new StringBuilder();
@@ -1176,6 +1471,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 				// Timing summary:
 				sb.append("): ");
 				sb.append(this.getExecutionTimingString());
+				StoragePhaseTimings saveTimings = lastSaveTimings;
+				if (saveTimings != null) {
+					sb.append(" (").append(saveTimings.formatPhases()).append(")");
+				}
 
 				// Failure indicator:
 				if (!savingSucceeded) {
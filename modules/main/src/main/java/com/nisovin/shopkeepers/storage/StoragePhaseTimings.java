@@ -0,0 +1,235 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+
+/**
+ * The durations of the individual phases of a single save or load of the shopkeeper data, and the
+ * shopkeepers that took the longest to process.
+ * <p>
+ * Instances of this class are immutable. They are produced by a {@link Recorder}.
+ */
+public final class StoragePhaseTimings {
+
+	/**
+	 * The maximum number of {@link #getSlowestShopkeepers() slowest shopkeepers} that are kept
+	 * track of.
+	 */
+	public static final int SLOWEST_SHOPKEEPERS_LIMIT = 5;
+
+	private static double toMillis(long nanos) {
+		return nanos / 1000000.0D;
+	}
+
+	/**
+	 * The time it took to process a specific shopkeeper.
+	 */
+	public static final class ShopkeeperTiming {
+
+		private final int shopkeeperId;
+		private final long nanos;
+
+		private ShopkeeperTiming(int shopkeeperId, long nanos) {
+			this.shopkeeperId = shopkeeperId;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * Gets the shopkeeper id.
+		 *
+		 * @return the shopkeeper id
+		 */
+		public int getShopkeeperId() {
+			return shopkeeperId;
+		}
+
+		/**
+		 * Gets the time it took to process the shopkeeper.
+		 *
+		 * @return the duration in milliseconds
+		 */
+		public double getTimeMillis() {
+			return toMillis(nanos);
+		}
+
+		@Override
+		public String toString() {
+			return "#" + shopkeeperId + " (" + TextUtils.format(this.getTimeMillis()) + " ms)";
+		}
+	}
+
+	/**
+	 * Records the {@link StoragePhaseTimings} of a single save or load.
+	 * <p>
+	 * This is not thread-safe: A recorder is only used by one thread at a time, and the hand-over
+	 * between threads is expected to be synchronized externally.
+	 */
+	static final class Recorder {
+
+		private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+		// Min-heap, so that the fastest of the currently slowest shopkeepers is removed first:
+		private final PriorityQueue<ShopkeeperTiming> slowestShopkeepers = new PriorityQueue<>(
+				SLOWEST_SHOPKEEPERS_LIMIT + 1,
+				Comparator.comparingLong(timing -> timing.nanos)
+		);
+		private int shopkeeperCount = 0;
+
+		private @Nullable String currentPhase = null;
+		private long currentPhaseStartNanos;
+
+		Recorder() {
+		}
+
+		/**
+		 * Starts the timing of the specified phase.
+		 * <p>
+		 * This ends any currently timed phase.
+		 *
+		 * @param phase
+		 *            the phase name
+		 */
+		void startPhase(String phase) {
+			this.endPhase();
+			currentPhase = phase;
+			currentPhaseStartNanos = System.nanoTime();
+		}
+
+		/**
+		 * Ends the timing of the current phase, if there is one.
+		 */
+		void endPhase() {
+			String phase = currentPhase;
+			if (phase == null) return;
+			currentPhase = null;
+			this.addPhaseNanos(phase, System.nanoTime() - currentPhaseStartNanos);
+		}
+
+		/**
+		 * Adds the given duration to the specified phase.
+		 * <p>
+		 * This can be used for phases that are interleaved with other phases, such as the
+		 * processing of the individual shopkeepers.
+		 *
+		 * @param phase
+		 *            the phase name
+		 * @param nanos
+		 *            the duration in nanoseconds
+		 */
+		void addPhaseNanos(String phase, long nanos) {
+			phaseNanos.merge(phase, nanos, Long::sum);
+		}
+
+		/**
+		 * Records the time it took to process the specified shopkeeper.
+		 *
+		 * @param shopkeeperId
+		 *            the shopkeeper id
+		 * @param nanos
+		 *            the duration in nanoseconds
+		 */
+		void recordShopkeeper(int shopkeeperId, long nanos) {
+			shopkeeperCount++;
+			slowestShopkeepers.add(new ShopkeeperTiming(shopkeeperId, nanos));
+			if (slowestShopkeepers.size() > SLOWEST_SHOPKEEPERS_LIMIT) {
+				slowestShopkeepers.poll();
+			}
+		}
+
+		/**
+		 * Ends any currently timed phase and creates the {@link StoragePhaseTimings}.
+		 *
+		 * @return the timings, not <code>null</code>
+		 */
+		StoragePhaseTimings finish() {
+			this.endPhase();
+			List<ShopkeeperTiming> slowest = new ArrayList<>(slowestShopkeepers);
+			slowest.sort(Comparator.comparingLong((ShopkeeperTiming timing) -> timing.nanos)
+					.reversed());
+			return new StoragePhaseTimings(
+					new LinkedHashMap<>(phaseNanos),
+					slowest,
+					shopkeeperCount
+			);
+		}
+	}
+
+	private final Map<String, Long> phaseNanos;
+	private final List<ShopkeeperTiming> slowestShopkeepers;
+	private final int shopkeeperCount;
+	private final long totalNanos;
+
+	private StoragePhaseTimings(
+			Map<String, Long> phaseNanos,
+			List<ShopkeeperTiming> slowestShopkeepers,
+			int shopkeeperCount
+	) {
+		this.phaseNanos = Collections.unmodifiableMap(phaseNanos);
+		this.slowestShopkeepers = Collections.unmodifiableList(slowestShopkeepers);
+		this.shopkeeperCount = shopkeeperCount;
+		this.totalNanos = phaseNanos.values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * Gets the summed up duration of all phases.
+	 *
+	 * @return the total duration in milliseconds
+	 */
+	public double getTotalTimeMillis() {
+		return toMillis(totalNanos);
+	}
+
+	/**
+	 * Gets the durations of the individual phases, in the order in which the phases were first
+	 * recorded.
+	 *
+	 * @return an unmodifiable view on the durations in milliseconds by phase name
+	 */
+	public Map<String, Double> getPhaseTimesMillis() {
+		Map<String, Double> phaseMillis = new LinkedHashMap<>();
+		phaseNanos.forEach((phase, nanos) -> phaseMillis.put(phase, toMillis(nanos)));
+		return Collections.unmodifiableMap(phaseMillis);
+	}
+
+	/**
+	 * Gets the number of processed shopkeepers.
+	 *
+	 * @return the number of processed shopkeepers
+	 */
+	public int getShopkeeperCount() {
+		return shopkeeperCount;
+	}
+
+	/**
+	 * Gets the shopkeepers that took the longest to process, ordered from slowest to fastest.
+	 * <p>
+	 * This contains at most {@link #SLOWEST_SHOPKEEPERS_LIMIT} entries.
+	 *
+	 * @return an unmodifiable view on the slowest shopkeepers
+	 */
+	public List<ShopkeeperTiming> getSlowestShopkeepers() {
+		return slowestShopkeepers;
+	}
+
+	/**
+	 * Formats the phase durations as a single line of text.
+	 *
+	 * @return the formatted phase durations
+	 */
+	public String formatPhases() {
+		StringBuilder sb = new StringBuilder();
+		phaseNanos.forEach((phase, nanos) -> {
+			if (sb.length() > 0) sb.append(" | ");
+			sb.append(phase).append(": ").append(TextUtils.format(toMillis(nanos))).append(" ms");
+		});
+		return sb.toString();
+	}
+}
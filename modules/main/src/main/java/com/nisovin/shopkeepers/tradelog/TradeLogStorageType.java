@@ -7,5 +7,6 @@ public enum TradeLogStorageType {
 
 	DISABLED,
 	SQLITE,
-	CSV
+	CSV,
+	CSV_BATCHED
 }
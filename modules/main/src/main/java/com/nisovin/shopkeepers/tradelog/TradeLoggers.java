@@ -8,15 +8,18 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
-import org.bukkit.plugin.Plugin;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.events.ShopkeeperTradeCompletedEvent;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.tradelog.csv.BatchedCsvTradeLogger;
 import com.nisovin.shopkeepers.tradelog.csv.CsvTradeLogger;
 import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
 import com.nisovin.shopkeepers.tradelog.sqlite.SQLiteTradeLogger;
+import com.nisovin.shopkeepers.tradelog.stats.SKTradeStatistics;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsLogger;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.trading.MergedTrades;
 import com.nisovin.shopkeepers.util.trading.TradeMerger;
@@ -24,7 +27,7 @@ import com.nisovin.shopkeepers.util.trading.TradeMerger.MergeMode;
 
 public class TradeLoggers implements Listener {
 
-	private final Plugin plugin;
+	private final SKShopkeepersPlugin plugin;
 	private final List<TradeLogger> loggers = new ArrayList<>();
 	// In order to represent the logged trades more compactly, we merge equivalent trades that are
 	// triggered in quick succession over a certain period of time. The maximum merge duration is
@@ -37,7 +40,7 @@ public class TradeLoggers implements Listener {
 	private @Nullable TradeMerger tradeMerger;
 	private boolean enabled = false;
 
-	public TradeLoggers(Plugin plugin) {
+	public TradeLoggers(SKShopkeepersPlugin plugin) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
 	}
@@ -58,16 +61,26 @@ public class TradeLoggers implements Listener {
 
 		switch (Settings.tradeLogStorage) {
 		case CSV:
-			loggers.add(new CsvTradeLogger(plugin));
+			loggers.add(new CsvTradeLogger(plugin, plugin.getBackgroundExecutor()));
+			break;
+		case CSV_BATCHED:
+			loggers.add(new BatchedCsvTradeLogger(plugin, plugin.getBackgroundExecutor()));
 			break;
 		case SQLITE:
-			loggers.add(new SQLiteTradeLogger(plugin));
+			loggers.add(new SQLiteTradeLogger(plugin, plugin.getBackgroundExecutor()));
 			break;
 		case DISABLED:
 		default:
 			break;
 		}
 
+		// The trade statistics are aggregated independently of the trade log storage:
+		SKTradeStatistics tradeStatistics = plugin.getTradeStatistics();
+		if (Settings.tradeStatistics) {
+			loggers.add(new TradeStatisticsLogger(plugin, tradeStatistics));
+		}
+		tradeStatistics.setEnabled(Settings.tradeStatistics);
+
 		loggers.forEach(TradeLogger::setup);
 
 		Bukkit.getPluginManager().registerEvents(this, plugin);
@@ -86,6 +99,7 @@ public class TradeLoggers implements Listener {
 		// Wait for any pending writes to complete:
 		loggers.forEach(TradeLogger::flush);
 		loggers.clear();
+		plugin.getTradeStatistics().setEnabled(false);
 	}
 
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
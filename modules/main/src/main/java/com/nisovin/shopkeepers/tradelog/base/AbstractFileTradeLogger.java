@@ -6,6 +6,7 @@ import org.bukkit.plugin.Plugin;
 
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.tradelog.TradeLogger;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
 
 /**
  * Base class for file-based {@link TradeLogger}s with a single concurrent writer.
@@ -22,9 +23,44 @@ public abstract class AbstractFileTradeLogger extends AbstractSingleWriterTradeL
 	 */
 	protected final Path tradeLogsFolder;
 
-	public AbstractFileTradeLogger(Plugin plugin, TradeLogStorageType storageType) {
-		super(plugin, storageType);
+	public AbstractFileTradeLogger(
+			Plugin plugin,
+			BackgroundExecutor backgroundExecutor,
+			TradeLogStorageType storageType
+	) {
+		super(plugin, backgroundExecutor, storageType);
 
-		this.tradeLogsFolder = plugin.getDataFolder().toPath().resolve(TRADE_LOGS_FOLDER);
+		this.tradeLogsFolder = getTradeLogsFolder(plugin);
+	}
+
+	/**
+	 * Creates a file-based trade logger that is not associated with a {@link TradeLogStorageType}.
+	 * 
+	 * @param plugin
+	 *            the plugin
+	 * @param backgroundExecutor
+	 *            the background executor
+	 * @param name
+	 *            the name of the trade logger, used in log messages
+	 */
+	protected AbstractFileTradeLogger(
+			Plugin plugin,
+			BackgroundExecutor backgroundExecutor,
+			String name
+	) {
+		super(plugin, backgroundExecutor, name);
+
+		this.tradeLogsFolder = getTradeLogsFolder(plugin);
+	}
+
+	/**
+	 * Gets the path of the trade logs directory of the given plugin.
+	 * 
+	 * @param plugin
+	 *            the plugin
+	 * @return the path of the trade logs directory
+	 */
+	public static Path getTradeLogsFolder(Plugin plugin) {
+		return plugin.getDataFolder().toPath().resolve(TRADE_LOGS_FOLDER);
 	}
 }
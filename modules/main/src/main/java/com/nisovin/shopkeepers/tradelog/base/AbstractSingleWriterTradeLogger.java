@@ -17,9 +17,9 @@ import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
-import com.nisovin.shopkeepers.tradelog.TradeLogUtils;
 import com.nisovin.shopkeepers.tradelog.TradeLogger;
 import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
 import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
@@ -46,7 +46,7 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	private static final long SAVE_ERROR_MSG_THROTTLE_MILLIS = TimeUnit.MINUTES.toMillis(5);
 
 	protected final Plugin plugin;
-	protected final TradeLogStorageType storageType;
+	protected final String name;
 	protected final String logPrefix;
 
 	private final SetupTask setupTask;
@@ -61,14 +61,39 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	// value of this setting remains constant during the save and does not differ for the items of
 	// the trades that are being saved as part of the same batch.
 	private boolean logItemMetadata;
+	// Only used by the writer:
+	private final ItemMetadataCache itemMetadataCache = new ItemMetadataCache();
+
+	public AbstractSingleWriterTradeLogger(
+			Plugin plugin,
+			BackgroundExecutor backgroundExecutor,
+			TradeLogStorageType storageType
+	) {
+		this(plugin, backgroundExecutor, storageType.toString());
+	}
 
-	public AbstractSingleWriterTradeLogger(Plugin plugin, TradeLogStorageType storageType) {
+	/**
+	 * Creates a trade logger that is not associated with a {@link TradeLogStorageType}.
+	 * 
+	 * @param plugin
+	 *            the plugin
+	 * @param backgroundExecutor
+	 *            the background executor
+	 * @param name
+	 *            the name of the trade logger, used in log messages
+	 */
+	protected AbstractSingleWriterTradeLogger(
+			Plugin plugin,
+			BackgroundExecutor backgroundExecutor,
+			String name
+	) {
 		Validate.notNull(plugin, "plugin is null");
+		Validate.notEmpty(name, "name is null or empty");
 		this.plugin = plugin;
-		this.storageType = storageType;
-		this.logPrefix = storageType.toString() + " trade log: ";
-		this.setupTask = new SetupTask(plugin);
-		this.saveTask = new SaveTask(plugin);
+		this.name = name;
+		this.logPrefix = name + " trade log: ";
+		this.setupTask = new SetupTask(plugin, backgroundExecutor);
+		this.saveTask = new SaveTask(plugin, backgroundExecutor);
 	}
 
 	@Override
@@ -104,10 +129,19 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	protected void postSetup() {
 	}
 
+	/**
+	 * Override this to capture any state on the server's main thread that is required by the
+	 * subsequent {@link #writeTrades(SaveContext)}.
+	 * <p>
+	 * This is invoked prior to every save.
+	 */
+	protected void preSave() {
+	}
+
 	private class SetupTask extends SingletonTask {
 
-		private SetupTask(Plugin plugin) {
-			super(plugin);
+		private SetupTask(Plugin plugin, BackgroundExecutor backgroundExecutor) {
+			super(plugin, backgroundExecutor);
 		}
 
 		private class InternalAsyncTask extends SingletonTask.InternalAsyncTask {
@@ -241,8 +275,8 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		private boolean saveSucceeded = false;
 		private long lastSaveErrorMsgMillis = 0L;
 
-		private SaveTask(Plugin plugin) {
-			super(plugin);
+		private SaveTask(Plugin plugin, BackgroundExecutor backgroundExecutor) {
+			super(plugin, backgroundExecutor);
 		}
 
 		private class InternalAsyncTask extends SingletonTask.InternalAsyncTask {
@@ -269,6 +303,8 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 			// Reset local logItemMetadata setting:
 			logItemMetadata = Settings.logItemMetadata;
 
+			preSave();
+
 			// Swap the pending and saving lists of trades:
 			assert saving.isEmpty();
 			List<TradeRecord> temp = saving;
@@ -331,7 +367,7 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 
 				StringBuilder sb = new StringBuilder();
 				sb.append("Logged trades to the ");
-				sb.append(storageType);
+				sb.append(name);
 				sb.append(" trade log (");
 
 				// Number of logged trade records:
@@ -397,8 +433,19 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 			return trades.get(nextUnsaved);
 		}
 
-		// May return a sublist view:
-		private List<? extends TradeRecord> getUnsavedTrades() {
+		/**
+		 * Gets the remaining unsaved {@link TradeRecord}s of this batch.
+		 * <p>
+		 * This can be used to persist several trade records at once. Call
+		 * {@link #onTradesSuccessfullySaved(int)} once the trade records have been successfully
+		 * persisted to move the cursor forward.
+		 * <p>
+		 * The returned list may be a view on the trades of this batch. It must not be modified, and
+		 * it is only valid until the cursor is moved.
+		 * 
+		 * @return the unsaved trade records, not <code>null</code>
+		 */
+		public List<? extends TradeRecord> getUnsavedTrades() {
 			if (!this.hasUnsavedTrades()) {
 				return Collections.emptyList();
 			} else {
@@ -413,10 +460,28 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		public void onTradeSuccessfullySaved() {
 			nextUnsaved++;
 		}
+
+		/**
+		 * This must be called after successfully persisting the given number of
+		 * {@link TradeRecord}s from the start of {@link #getUnsavedTrades()}.
+		 * 
+		 * @param count
+		 *            the number of persisted trade records
+		 */
+		public void onTradesSuccessfullySaved(int count) {
+			Validate.isTrue(count >= 0, "count cannot be negative");
+			Validate.isTrue(
+					nextUnsaved + count <= trades.size(),
+					"count exceeds the number of unsaved trades"
+			);
+			nextUnsaved += count;
+		}
 	}
 
 	/**
 	 * Gets a compact (one line) string representation of the item's metadata.
+	 * <p>
+	 * The metadata of recently logged items is cached.
 	 * 
 	 * @param itemStack
 	 *            the item
@@ -427,7 +492,25 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		assert itemStack != null;
 		if (!logItemMetadata) return ""; // Disabled
 
-		return TradeLogUtils.getItemMetadata(itemStack);
+		return itemMetadataCache.get(itemStack).getMetadata();
+	}
+
+	/**
+	 * Gets the cached metadata of the given item, including its content hash.
+	 * 
+	 * @param itemStack
+	 *            the item
+	 * @return the cached item metadata, or <code>null</code> if {@link Settings#logItemMetadata} is
+	 *         <code>false</code>.
+	 * @see #getItemMetadata(UnmodifiableItemStack)
+	 */
+	protected ItemMetadataCache.@Nullable Entry getItemMetadataEntry(
+			UnmodifiableItemStack itemStack
+	) {
+		assert itemStack != null;
+		if (!logItemMetadata) return null; // Disabled
+
+		return itemMetadataCache.get(itemStack);
 	}
 
 	// May be invoked asynchronously.
@@ -0,0 +1,109 @@
+package com.nisovin.shopkeepers.tradelog.base;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.tradelog.TradeLogUtils;
+import com.nisovin.shopkeepers.util.java.LRUCache;
+
+/**
+ * Memoizes the {@link TradeLogUtils#getItemMetadata(UnmodifiableItemStack) serialized metadata} of
+ * recently logged items.
+ * <p>
+ * Usually, only a small number of different items is traded over and over again. Serializing these
+ * items only once avoids the comparably costly item serialization and Yaml formatting for every
+ * logged trade.
+ * <p>
+ * This is not thread-safe, and therefore meant to only be used by the single writer of a trade
+ * logger.
+ */
+public final class ItemMetadataCache {
+
+	private static final int MAX_SIZE = 256;
+
+	/**
+	 * The cached metadata of an item.
+	 */
+	public static final class Entry {
+
+		private final String metadata;
+		private @Nullable String hash = null; // Lazily calculated
+
+		private Entry(String metadata) {
+			this.metadata = metadata;
+		}
+
+		/**
+		 * Gets the serialized item metadata.
+		 *
+		 * @return the serialized item metadata, not <code>null</code>
+		 */
+		public String getMetadata() {
+			return metadata;
+		}
+
+		/**
+		 * Gets the hex-encoded SHA-256 hash of the {@link #getMetadata() serialized metadata}.
+		 * <p>
+		 * This can be used to address the serialized metadata by its content.
+		 *
+		 * @return the hash, not <code>null</code>
+		 */
+		public String getHash() {
+			String hash = this.hash;
+			if (hash == null) {
+				hash = HexFormat.of().formatHex(
+						getSha256Digest().digest(metadata.getBytes(StandardCharsets.UTF_8))
+				);
+				this.hash = hash;
+			}
+			return hash;
+		}
+	}
+
+	private static MessageDigest getSha256Digest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256:
+			throw new IllegalStateException("SHA-256 is not supported!", e);
+		}
+	}
+
+	// Item stacks that only differ in their amount are cached separately. Since the items of
+	// consecutive trades are usually the same, this is not an issue in practice.
+	private final Map<UnmodifiableItemStack, Entry> cache = new LRUCache<>(MAX_SIZE);
+
+	public ItemMetadataCache() {
+	}
+
+	/**
+	 * Gets the cached metadata of the given item, serializing the item if it is not yet cached.
+	 *
+	 * @param itemStack
+	 *            the item, not <code>null</code>
+	 * @return the cache entry, not <code>null</code>
+	 */
+	public Entry get(UnmodifiableItemStack itemStack) {
+		assert itemStack != null;
+		Entry entry = cache.get(itemStack);
+		if (entry == null) {
+			entry = new Entry(TradeLogUtils.getItemMetadata(itemStack));
+			cache.put(itemStack, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes all cached entries.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+}
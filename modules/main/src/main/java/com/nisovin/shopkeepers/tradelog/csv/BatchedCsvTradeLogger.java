@@ -0,0 +1,251 @@
+package com.nisovin.shopkeepers.tradelog.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
+import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Logs trades to the same daily CSV files as the {@link CsvTradeLogger}, but writes each batch of
+ * trades with a single write and fsync.
+ * <p>
+ * The {@link CsvTradeLogger} writes and syncs each trade individually, which is safe but costs
+ * several system calls per trade. This logger instead encodes all trades of a batch that belong to
+ * the same log file into a reused buffer, writes the buffer through a {@link FileChannel}, and
+ * then syncs the file once.
+ * <p>
+ * Since a batch write is not atomic, we rely on the framing of the CSV records instead: Every
+ * record ends with a newline, and the fields of the records never contain unescaped newlines. A
+ * log file that does not end with a newline therefore ends with an incomplete record, e.g. because
+ * the server crashed during a write. When we open a log file for the first time, we check for such
+ * an incomplete record and truncate it. If a batch write fails, we truncate the log file back to
+ * its previous size before the write is retried, so that trades are not logged twice.
+ */
+public class BatchedCsvTradeLogger extends CsvTradeLogger {
+
+	private static final byte RECORD_SEPARATOR = '\n';
+	private static final int INITIAL_BUFFER_CAPACITY = 64 * 1024; // 64 KiB
+	// Larger buffers are released again after the write:
+	private static final int MAX_RETAINED_BUFFER_CAPACITY = 1024 * 1024; // 1 MiB
+	private static final int TAIL_SCAN_CHUNK_SIZE = 4096;
+
+	// Only used by the writer:
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_CAPACITY);
+	// The last log file that we checked for an incomplete trailing record:
+	private @Nullable Path verifiedLogFile = null;
+
+	public BatchedCsvTradeLogger(Plugin plugin, BackgroundExecutor backgroundExecutor) {
+		super(plugin, backgroundExecutor, TradeLogStorageType.CSV_BATCHED);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Depending on their timestamps, the trades may need to be logged to different log files. This
+	 * writes all consecutive trades that need to be logged to the same log file, and then
+	 * recursively invokes itself to write the remaining trades to other log files.
+	 *
+	 * @param saveContext
+	 *            the save context
+	 * @throws Exception
+	 *             if saving fails
+	 */
+	@Override
+	protected void writeTrades(SaveContext saveContext) throws Exception {
+		this.archiveOldLogFilesIfDue();
+
+		List<? extends TradeRecord> unsavedTrades = saveContext.getUnsavedTrades();
+		if (unsavedTrades.isEmpty()) return; // There are no unsaved trades
+
+		Path logFile = this.getLogFile(unsavedTrades.get(0).getTimestamp());
+
+		// Create the parent directories if they are missing:
+		FileUtils.createParentDirectories(logFile);
+
+		// Check the write permission for the parent directory:
+		Path parent = logFile.getParent();
+		if (parent != null) {
+			FileUtils.checkIsDirectoryWritable(parent);
+		}
+
+		// Check if the file already exists:
+		boolean isNew = !Files.exists(logFile);
+
+		// Check the write permission for the log file, if it already exists:
+		if (!isNew) {
+			FileUtils.checkIsFileWritable(logFile);
+		}
+
+		OpenOption[] openOptions;
+		if (isNew) {
+			openOptions = new OpenOption[] {
+					StandardOpenOption.CREATE_NEW, // Create a new file, fail if it already exists
+					StandardOpenOption.WRITE
+			};
+		} else {
+			// Fails if the file no longer exists when the attempt to open it:
+			openOptions = new OpenOption[] { StandardOpenOption.WRITE, StandardOpenOption.READ };
+		}
+
+		boolean done = false;
+		int tradeCount = 0;
+		try (FileChannel channel = FileChannel.open(logFile, openOptions)) {
+			if (isNew) {
+				// Fsync the parent directory to ensure that the newly created log file has been
+				// successfully persisted:
+				FileUtils.fsyncParentDirectory(logFile);
+				verifiedLogFile = logFile;
+			}
+
+			long startPosition = this.truncateIncompleteRecord(channel, logFile);
+
+			// Encode the CSV header, if the file is empty, and all consecutive trades that need to
+			// be logged to the same log file:
+			buffer.clear();
+			if (startPosition == 0L) {
+				this.appendToBuffer(this.getCSVHeader());
+			}
+			for (TradeRecord trade : unsavedTrades) {
+				if (!logFile.equals(this.getLogFile(trade.getTimestamp()))) break;
+
+				this.appendToBuffer(this.toCSVRecord(trade));
+				tradeCount++;
+			}
+			buffer.flip();
+
+			try {
+				long position = startPosition;
+				while (buffer.hasRemaining()) {
+					position += channel.write(buffer, position);
+				}
+				channel.force(false);
+			} catch (IOException e) {
+				// Remove any partially written records, so that the trades are not logged twice
+				// when the write is retried:
+				try {
+					channel.truncate(startPosition);
+				} catch (IOException e2) {
+					e.addSuppressed(e2);
+					// Check the log file again the next time we write to it:
+					verifiedLogFile = null;
+				}
+				throw e;
+			}
+
+			// If we did not throw an IOException up until this point, we assume that the trades
+			// have been successfully written to the trade log.
+			saveContext.onTradesSuccessfullySaved(tradeCount);
+
+			// We are about to close the log file:
+			done = true;
+		} catch (IOException e) {
+			if (!done) {
+				throw e;
+			} else {
+				// Since the write and sync reported to have been successful, we assume that the
+				// trades have been successfully logged. Any exceptions raised during the closing of
+				// the channel are still logged, but they don't trigger a retry of the trade log
+				// attempt.
+				Log.severe(logPrefix + "Failed to close the CSV trade log file!", e);
+			}
+		} finally {
+			this.releaseLargeBuffer();
+		}
+
+		// Recursively log the remaining trades to their target log files:
+		if (saveContext.hasUnsavedTrades()) {
+			this.writeTrades(saveContext);
+		}
+	}
+
+	private void appendToBuffer(String record) {
+		byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+		if (buffer.remaining() < bytes.length) {
+			int requiredCapacity = buffer.position() + bytes.length;
+			int newCapacity = Math.max(buffer.capacity() * 2, requiredCapacity);
+			ByteBuffer newBuffer = ByteBuffer.allocateDirect(newCapacity);
+			buffer.flip();
+			newBuffer.put(buffer);
+			buffer = newBuffer;
+		}
+		buffer.put(bytes);
+	}
+
+	private void releaseLargeBuffer() {
+		if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+			buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_CAPACITY);
+		}
+	}
+
+	/**
+	 * Removes any incomplete record from the end of the given log file.
+	 * <p>
+	 * Each log file is only checked once, when we write to it for the first time.
+	 *
+	 * @param channel
+	 *            the channel of the log file, opened for reading and writing
+	 * @param logFile
+	 *            the log file
+	 * @return the size of the log file after the incomplete record has been removed
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	private long truncateIncompleteRecord(FileChannel channel, Path logFile) throws IOException {
+		long size = channel.size();
+		if (logFile.equals(verifiedLogFile)) return size;
+
+		long validSize = findEndOfLastRecord(channel, size, logFile);
+		if (validSize < size) {
+			Log.warning(logPrefix + "Log file '" + logFile.getFileName()
+					+ "' ends with an incomplete record (" + (size - validSize) + " bytes)."
+					+ " The server might have crashed while logging trades. Removing the"
+					+ " incomplete record.");
+			channel.truncate(validSize);
+			channel.force(false);
+		}
+
+		verifiedLogFile = logFile;
+		return validSize;
+	}
+
+	// Returns the position after the last record separator, or 0 if there is none.
+	private static long findEndOfLastRecord(
+			FileChannel channel,
+			long size,
+			Path logFile
+	) throws IOException {
+		ByteBuffer chunk = ByteBuffer.allocate(TAIL_SCAN_CHUNK_SIZE);
+		long chunkEnd = size;
+		while (chunkEnd > 0L) {
+			int chunkLength = (int) Math.min(TAIL_SCAN_CHUNK_SIZE, chunkEnd);
+			long chunkStart = chunkEnd - chunkLength;
+			chunk.clear().limit(chunkLength);
+			while (chunk.hasRemaining()) {
+				if (channel.read(chunk, chunkStart + chunk.position()) < 0) {
+					throw new IOException("Unexpected end of file: " + logFile);
+				}
+			}
+			for (int i = chunkLength - 1; i >= 0; i--) {
+				if (chunk.get(i) == RECORD_SEPARATOR) {
+					return chunkStart + i + 1;
+				}
+			}
+			chunkEnd = chunkStart;
+		}
+		return 0L;
+	}
+}
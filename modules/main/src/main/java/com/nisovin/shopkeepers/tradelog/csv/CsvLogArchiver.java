@@ -0,0 +1,196 @@
+package com.nisovin.shopkeepers.tradelog.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Compresses and deletes the daily CSV log files of previous days.
+ * <p>
+ * Log files are named {@code <prefix>yyyy-MM-dd.csv}. Compressed log files keep their name and get
+ * the additional {@code .gz} extension. Since trades may still be logged to the log file of the
+ * previous day shortly after midnight (trades are merged and written in batches), we only compress
+ * log files that are older than that.
+ * <p>
+ * The compression writes to a temporary file first, which is then moved to the compressed log file.
+ * Only then is the original log file deleted. If the compressed log file already exists, we keep
+ * both files, because the original log file might contain trades that were logged after the
+ * previous compression.
+ */
+final class CsvLogArchiver {
+
+	private static final String LOG_FILE_EXTENSION = ".csv";
+	private static final String COMPRESSED_FILE_EXTENSION = ".gz";
+	private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
+	private final Path logsFolder;
+	private final String fileNamePrefix;
+	private final boolean compressOldFiles;
+	private final int retentionDays; // 0 to keep log files forever
+
+	/**
+	 * Creates a new {@link CsvLogArchiver}.
+	 *
+	 * @param logsFolder
+	 *            the folder that contains the log files
+	 * @param fileNamePrefix
+	 *            the common prefix of the log file names
+	 * @param compressOldFiles
+	 *            whether to compress the log files of previous days
+	 * @param retentionDays
+	 *            the number of days after which log files are deleted, or <code>0</code> to keep
+	 *            log files forever
+	 */
+	CsvLogArchiver(
+			Path logsFolder,
+			String fileNamePrefix,
+			boolean compressOldFiles,
+			int retentionDays
+	) {
+		Validate.notNull(logsFolder, "logsFolder is null");
+		Validate.notEmpty(fileNamePrefix, "fileNamePrefix is null or empty");
+		Validate.isTrue(retentionDays >= 0, "retentionDays cannot be negative");
+		this.logsFolder = logsFolder;
+		this.fileNamePrefix = fileNamePrefix;
+		this.compressOldFiles = compressOldFiles;
+		this.retentionDays = retentionDays;
+	}
+
+	/**
+	 * Checks if there is anything to do, i.e. if either the compression or the deletion of old log
+	 * files is enabled.
+	 *
+	 * @return <code>true</code> if enabled
+	 */
+	boolean isEnabled() {
+		return compressOldFiles || retentionDays > 0;
+	}
+
+	/**
+	 * Compresses and deletes the old log files.
+	 * <p>
+	 * This performs blocking IO and is meant to be invoked by the writer of the log files. Any
+	 * errors are logged.
+	 *
+	 * @param today
+	 *            the current date
+	 * @param logPrefix
+	 *            the prefix for logged messages
+	 */
+	void archiveOldLogFiles(LocalDate today, String logPrefix) {
+		assert today != null && logPrefix != null;
+		if (!this.isEnabled()) return;
+		if (!Files.isDirectory(logsFolder)) return; // Nothing logged yet
+
+		List<Path> files;
+		try (Stream<Path> fileStream = Files.list(logsFolder)) {
+			files = fileStream.collect(Collectors.toList());
+		} catch (IOException e) {
+			Log.severe(logPrefix + "Failed to list the log files for archiving!", e);
+			return;
+		}
+
+		LocalDate compressBefore = today.minusDays(1);
+		LocalDate deleteBefore = today.minusDays(retentionDays);
+		int compressed = 0;
+		int deleted = 0;
+		for (Path file : files) {
+			@Nullable Path fileNamePath = file.getFileName();
+			if (fileNamePath == null) continue;
+			String fileName = fileNamePath.toString();
+			LocalDate date = this.getLogFileDate(fileName);
+			if (date == null) continue; // Not a log file
+
+			try {
+				if (retentionDays > 0 && date.isBefore(deleteBefore)) {
+					FileUtils.delete(file);
+					deleted++;
+				} else if (compressOldFiles
+						&& fileName.endsWith(LOG_FILE_EXTENSION)
+						&& date.isBefore(compressBefore)) {
+					if (this.compress(file, logPrefix)) {
+						compressed++;
+					}
+				}
+			} catch (IOException e) {
+				Log.severe(logPrefix + "Failed to archive log file '" + fileName + "'!", e);
+			}
+		}
+
+		if (compressed > 0 || deleted > 0) {
+			Log.info(logPrefix + "Compressed " + compressed + " and deleted " + deleted
+					+ " old log files.");
+		}
+	}
+
+	// Returns null if the given file name does not match the name of a (compressed) log file.
+	private @Nullable LocalDate getLogFileDate(String fileName) {
+		if (!fileName.startsWith(fileNamePrefix)) return null;
+
+		String dateString;
+		if (fileName.endsWith(LOG_FILE_EXTENSION)) {
+			dateString = fileName.substring(
+					fileNamePrefix.length(),
+					fileName.length() - LOG_FILE_EXTENSION.length()
+			);
+		} else if (fileName.endsWith(LOG_FILE_EXTENSION + COMPRESSED_FILE_EXTENSION)) {
+			dateString = fileName.substring(
+					fileNamePrefix.length(),
+					fileName.length() - LOG_FILE_EXTENSION.length()
+							- COMPRESSED_FILE_EXTENSION.length()
+			);
+		} else {
+			return null;
+		}
+
+		try {
+			return LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	// Returns false if the log file was not compressed.
+	private boolean compress(Path logFile, String logPrefix) throws IOException {
+		String compressedFileName = logFile.getFileName() + COMPRESSED_FILE_EXTENSION;
+		Path compressedFile = logFile.resolveSibling(compressedFileName);
+		if (Files.exists(compressedFile)) {
+			Log.warning(logPrefix + "Skipping the compression of log file '" + logFile.getFileName()
+					+ "': The compressed log file already exists.");
+			return false;
+		}
+
+		Path tempFile = FileUtils.getTempSibling(compressedFile);
+		FileUtils.deleteIfExists(tempFile); // Left over from a previous attempt
+		try (	InputStream input = Files.newInputStream(logFile);
+				OutputStream output = new GZIPOutputStream(
+						Files.newOutputStream(tempFile),
+						COMPRESSION_BUFFER_SIZE
+				)) {
+			input.transferTo(output);
+		}
+		FileUtils.fsync(tempFile);
+
+		FileUtils.moveFile(tempFile, compressedFile, Log.getLogger());
+		FileUtils.fsyncParentDirectory(compressedFile);
+
+		// Only delete the original log file once the compressed log file has been persisted:
+		FileUtils.delete(logFile);
+		return true;
+	}
+}
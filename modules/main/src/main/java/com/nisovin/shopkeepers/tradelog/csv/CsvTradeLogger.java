@@ -8,6 +8,7 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
@@ -15,21 +16,27 @@ import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.tradelog.base.AbstractFileTradeLogger;
 import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
 import com.nisovin.shopkeepers.tradelog.data.ShopRecord;
 import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
 import com.nisovin.shopkeepers.util.csv.CsvFormatter;
 import com.nisovin.shopkeepers.util.java.FileUtils;
 import com.nisovin.shopkeepers.util.java.StringUtils;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
- * Logs trades to CSV files.
+ * Logs trades to daily CSV files.
+ * <p>
+ * Depending on the settings, the log files of previous days are compressed and deleted after some
+ * time by a {@link CsvLogArchiver}.
  */
 public class CsvTradeLogger extends AbstractFileTradeLogger {
 
@@ -60,10 +67,11 @@ public class CsvTradeLogger extends AbstractFileTradeLogger {
 
 	// TODO This uses the system locale and timezone currently. Config option(s) to change the
 	// locale and timezone? Or always store in UTC?
+	private static final ZoneId TIME_ZONE = Unsafe.assertNonNull(ZoneId.systemDefault());
 	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd")
-			.withZone(Unsafe.assertNonNull(ZoneId.systemDefault()));
+			.withZone(TIME_ZONE);
 	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss")
-			.withZone(Unsafe.assertNonNull(ZoneId.systemDefault()));
+			.withZone(TIME_ZONE);
 
 	// Note: Even though the CSV format allows quoted fields to span across multiple lines, we want
 	// each CSV record to only span a single line. However, even though we do not want fields to
@@ -75,17 +83,81 @@ public class CsvTradeLogger extends AbstractFileTradeLogger {
 			.escapeNewlines(false)
 			.warnOnNewlines();
 
-	public CsvTradeLogger(Plugin plugin) {
-		super(plugin, TradeLogStorageType.CSV);
+	private final CsvLogArchiver archiver;
+	// Only accessed by the writer: The date of the last archiving of old log files.
+	private @Nullable LocalDate lastArchivingDate = null;
+
+	public CsvTradeLogger(Plugin plugin, BackgroundExecutor backgroundExecutor) {
+		this(plugin, backgroundExecutor, TradeLogStorageType.CSV);
+	}
+
+	protected CsvTradeLogger(
+			Plugin plugin,
+			BackgroundExecutor backgroundExecutor,
+			TradeLogStorageType storageType
+	) {
+		super(plugin, backgroundExecutor, storageType);
+
+		this.archiver = new CsvLogArchiver(
+				tradeLogsFolder,
+				FILE_NAME_PREFIX,
+				Settings.tradeLogCsvCompressOldFiles,
+				Settings.tradeLogCsvRetentionDays
+		);
+	}
+
+	@Override
+	protected void asyncSetup() {
+		this.archiveOldLogFilesIfDue();
+	}
+
+	/**
+	 * Compresses and deletes old log files according to the settings, if this has not yet been done
+	 * today.
+	 * <p>
+	 * This is invoked by the writer and therefore usually runs asynchronously. Any errors are
+	 * logged, but do not affect the logging of trades.
+	 */
+	protected final void archiveOldLogFilesIfDue() {
+		if (!archiver.isEnabled()) return;
+
+		LocalDate today = LocalDate.now(TIME_ZONE);
+		if (today.equals(lastArchivingDate)) return;
+
+		lastArchivingDate = today;
+		archiver.archiveOldLogFiles(today, logPrefix);
 	}
 
-	private Path getLogFile(Instant timestamp) {
+	/**
+	 * Gets the log file for trades with the given timestamp.
+	 * 
+	 * @param timestamp
+	 *            the trade timestamp
+	 * @return the log file path
+	 */
+	protected final Path getLogFile(Instant timestamp) {
 		assert timestamp != null;
 		String fileName = FILE_NAME_PREFIX + DATE_FORMAT.format(timestamp) + ".csv";
 		return tradeLogsFolder.resolve(fileName);
 	}
 
-	private String toCSVRecord(TradeRecord trade) {
+	/**
+	 * Gets the CSV header record, including the trailing record separator.
+	 * 
+	 * @return the CSV header record
+	 */
+	protected final String getCSVHeader() {
+		return csv.formatRecord(CSV_HEADER);
+	}
+
+	/**
+	 * Formats the given trade as CSV record, including the trailing record separator.
+	 * 
+	 * @param trade
+	 *            the trade
+	 * @return the CSV record
+	 */
+	protected final String toCSVRecord(TradeRecord trade) {
 		Instant timestamp = trade.getTimestamp();
 		PlayerRecord player = trade.getPlayer();
 
@@ -176,6 +248,8 @@ public class CsvTradeLogger extends AbstractFileTradeLogger {
 	 */
 	@Override
 	protected void writeTrades(SaveContext saveContext) throws Exception {
+		this.archiveOldLogFilesIfDue();
+
 		TradeRecord trade = saveContext.getNextUnsavedTrade();
 		if (trade == null) return; // There are no unsaved trades
 
@@ -246,7 +320,7 @@ public class CsvTradeLogger extends AbstractFileTradeLogger {
 			if (isEmpty) {
 				// Note: A BOM should not be required for UTF-8, and it is actually recommended
 				// omitting it.
-				writer.write(csv.formatRecord(CSV_HEADER));
+				writer.write(this.getCSVHeader());
 				writer.flush();
 			}
 
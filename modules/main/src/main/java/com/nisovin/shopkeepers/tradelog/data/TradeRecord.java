@@ -64,7 +64,15 @@ public class TradeRecord {
 		UnmodifiableItemStack resultItem = tradeEvent.getTradingRecipe().getResultItem();
 		UnmodifiableItemStack item1 = tradeEvent.getOfferedItem1();
 		UnmodifiableItemStack item2 = tradeEvent.getOfferedItem2();
-		return new TradeRecord(timestamp, playerRecord, shopRecord, resultItem, item1, item2, 1);
+		return new TradeRecord(
+				timestamp,
+				playerRecord,
+				shopRecord,
+				resultItem,
+				item1,
+				item2,
+				tradeEvent.getTradeCount()
+		);
 	}
 
 	private final Instant timestamp; // Not null
@@ -3,10 +3,14 @@ package com.nisovin.shopkeepers.tradelog.sqlite;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.bukkit.plugin.Plugin;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -14,9 +18,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.tradelog.base.AbstractFileTradeLogger;
+import com.nisovin.shopkeepers.tradelog.base.ItemMetadataCache;
 import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
 import com.nisovin.shopkeepers.tradelog.data.ShopRecord;
 import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.bukkit.BackgroundExecutor;
+import com.nisovin.shopkeepers.util.java.LRUCache;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
@@ -26,9 +33,22 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 
 	private static final String FILE_NAME = "trades.db";
 	private static final String TABLE_NAME = "trade";
+	private static final String ITEM_TABLE_NAME = "item";
 	// Note: SQLite does not have rigid data types, but storage classes and type affinity. The data
 	// types specified here are not enforced by SQLite or us, but only used to document the expected
 	// structure of the data.
+	// The item table stores each distinct item metadata only once. The items are addressed by the
+	// SHA-256 hash of their metadata.
+	private static final String CREATE_ITEM_TABLE = "CREATE TABLE IF NOT EXISTS " + ITEM_TABLE_NAME
+			+ " ("
+			+ "id INTEGER PRIMARY KEY, "
+			+ "hash CHARACTER(64) NOT NULL UNIQUE, " // Hex-encoded SHA-256 hash of the metadata
+			+ "metadata TEXT NOT NULL"
+			+ ");";
+	private static final String INSERT_ITEM = "INSERT OR IGNORE INTO " + ITEM_TABLE_NAME
+			+ "(hash, metadata) VALUES(?, ?)";
+	private static final String SELECT_ITEM_ID = "SELECT id FROM " + ITEM_TABLE_NAME
+			+ " WHERE hash = ?";
 	private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
 			+ "timestamp VARCHAR(30) NOT NULL, " // ISO 8601 UTC date time with fractional seconds
 			+ "player_uuid CHARACTER(36) NOT NULL, "
@@ -43,13 +63,16 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 			+ "shop_owner_name VARCHAR(16), "
 			+ "item_1_type VARCHAR(64) NOT NULL, "
 			+ "item_1_amount TINYINT UNSIGNED NOT NULL, "
-			+ "item_1_metadata TEXT NOT NULL, " // Empty string if the item has no metadata
+			// Null if the logging of item metadata is disabled. Otherwise, this also references an
+			// item entry for items without item meta, since the logged metadata includes the data
+			// version:
+			+ "item_1_metadata_id INTEGER REFERENCES " + ITEM_TABLE_NAME + "(id), "
 			+ "item_2_type VARCHAR(64), " // Second item is optional and can thus be null
 			+ "item_2_amount TINYINT UNSIGNED, "
-			+ "item_2_metadata TEXT, "
+			+ "item_2_metadata_id INTEGER REFERENCES " + ITEM_TABLE_NAME + "(id), "
 			+ "result_item_type VARCHAR(64) NOT NULL, "
 			+ "result_item_amount TINYINT UNSIGNED NOT NULL, "
-			+ "result_item_metadata TEXT NOT NULL, "
+			+ "result_item_metadata_id INTEGER REFERENCES " + ITEM_TABLE_NAME + "(id), "
 			+ "trade_count SMALLINT UNSIGNED NOT NULL"
 			+ ");";
 	private static final String INSERT_TRADE = "INSERT INTO " + TABLE_NAME
@@ -57,18 +80,51 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 			+ "player_uuid, player_name, "
 			+ "shop_uuid, shop_type, shop_world, shop_x, shop_y, shop_z, "
 			+ "shop_owner_uuid, shop_owner_name, "
-			+ "item_1_type, item_1_amount, item_1_metadata, "
-			+ "item_2_type, item_2_amount, item_2_metadata, "
-			+ "result_item_type, result_item_amount, result_item_metadata, "
+			+ "item_1_type, item_1_amount, item_1_metadata_id, "
+			+ "item_2_type, item_2_amount, item_2_metadata_id, "
+			+ "result_item_type, result_item_amount, result_item_metadata_id, "
 			+ "trade_count) "
 			+ "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
+	// Previous versions stored the item metadata inline, inside the following (non-null) columns
+	// of the trade table. We add the item metadata id columns to these existing tables, and then
+	// store empty item metadata inside the old columns for newly logged trades.
+	private static final String[] LEGACY_METADATA_COLUMNS = {
+			"item_1_metadata",
+			"item_2_metadata",
+			"result_item_metadata"
+	};
+	private static final String[] METADATA_ID_COLUMNS = {
+			"item_1_metadata_id",
+			"item_2_metadata_id",
+			"result_item_metadata_id"
+	};
+	private static final String INSERT_TRADE_LEGACY = "INSERT INTO " + TABLE_NAME
+			+ "(timestamp, "
+			+ "player_uuid, player_name, "
+			+ "shop_uuid, shop_type, shop_world, shop_x, shop_y, shop_z, "
+			+ "shop_owner_uuid, shop_owner_name, "
+			+ "item_1_type, item_1_amount, item_1_metadata_id, "
+			+ "item_2_type, item_2_amount, item_2_metadata_id, "
+			+ "result_item_type, result_item_amount, result_item_metadata_id, "
+			+ "trade_count, "
+			+ "item_1_metadata, result_item_metadata) "
+			+ "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, '', '')";
+
+	// The number of item ids that we remember:
+	private static final int ITEM_IDS_CACHE_SIZE = 1024;
+
 	private final String connectionURL;
 
 	private volatile @Nullable String setupFailureReason = null;
+	// Whether the trade table still contains the legacy item metadata columns:
+	private volatile boolean legacyMetadataColumns = false;
 
-	public SQLiteTradeLogger(Plugin plugin) {
-		super(plugin, TradeLogStorageType.SQLITE);
+	// Only used by the writer: Maps item metadata hashes to their ids inside the item table.
+	private final Map<String, Long> itemIds = new LRUCache<>(ITEM_IDS_CACHE_SIZE);
+
+	public SQLiteTradeLogger(Plugin plugin, BackgroundExecutor backgroundExecutor) {
+		super(plugin, backgroundExecutor, TradeLogStorageType.SQLITE);
 
 		this.connectionURL = "jdbc:sqlite:" + tradeLogsFolder.resolve(FILE_NAME);
 
@@ -97,13 +153,42 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 	private void createTable() {
 		try (	Connection connection = getConnection();
 				Statement statement = connection.createStatement()) {
+			statement.execute(CREATE_ITEM_TABLE);
 			statement.execute(CREATE_TABLE);
+			this.migrateLegacyMetadataColumns(statement);
 		} catch (SQLException e) {
 			setupFailureReason = "Could not create table '" + TABLE_NAME + "'.";
 			Log.severe(logPrefix + setupFailureReason, e);
 		}
 	}
 
+	// Adds the item metadata id columns to trade tables that were created by previous versions.
+	private void migrateLegacyMetadataColumns(Statement statement) throws SQLException {
+		Set<String> columns = new HashSet<>();
+		try (ResultSet tableInfo = statement.executeQuery("PRAGMA table_info(" + TABLE_NAME + ")")) {
+			while (tableInfo.next()) {
+				columns.add(tableInfo.getString("name"));
+			}
+		}
+
+		for (String column : METADATA_ID_COLUMNS) {
+			if (columns.contains(column)) continue;
+
+			Log.info(logPrefix + "Adding column '" + column + "' to table '" + TABLE_NAME + "'.");
+			statement.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + column
+					+ " INTEGER REFERENCES " + ITEM_TABLE_NAME + "(id)");
+		}
+
+		boolean legacyMetadataColumns = false;
+		for (String column : LEGACY_METADATA_COLUMNS) {
+			if (columns.contains(column)) {
+				legacyMetadataColumns = true;
+				break;
+			}
+		}
+		this.legacyMetadataColumns = legacyMetadataColumns;
+	}
+
 	@Override
 	protected void writeTrades(SaveContext saveContext) throws Exception {
 		TradeRecord trade = saveContext.getNextUnsavedTrade();
@@ -112,9 +197,16 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 		boolean done = false;
 		// TODO Keep the connection open? Cache the PreparedStatement?
 		try (	Connection connection = this.getConnection();
-				PreparedStatement insertStatement = connection.prepareStatement(INSERT_TRADE)) {
+				PreparedStatement insertStatement = connection.prepareStatement(
+						legacyMetadataColumns ? INSERT_TRADE_LEGACY : INSERT_TRADE
+				);
+				PreparedStatement insertItemStatement = connection.prepareStatement(INSERT_ITEM);
+				PreparedStatement selectItemIdStatement = connection.prepareStatement(
+						SELECT_ITEM_ID
+				)) {
+			ItemIdLookup itemIdLookup = new ItemIdLookup(insertItemStatement, selectItemIdStatement);
 			do {
-				this.insertTrade(insertStatement, trade);
+				this.insertTrade(insertStatement, itemIdLookup, trade);
 
 				// Trade successfully saved:
 				saveContext.onTradeSuccessfullySaved();
@@ -128,6 +220,9 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 			done = true;
 		} catch (SQLException e) {
 			if (!done) {
+				// The database might have been modified externally, so we no longer trust the
+				// remembered item ids:
+				itemIds.clear();
 				throw e;
 			} else {
 				// Since all inserts completed successfully, we assume that the trades have been
@@ -139,8 +234,50 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 		}
 	}
 
-	private void insertTrade(PreparedStatement insertStatement, TradeRecord trade)
-			throws SQLException {
+	private class ItemIdLookup {
+
+		private final PreparedStatement insertItemStatement;
+		private final PreparedStatement selectItemIdStatement;
+
+		ItemIdLookup(
+				PreparedStatement insertItemStatement,
+				PreparedStatement selectItemIdStatement
+		) {
+			this.insertItemStatement = insertItemStatement;
+			this.selectItemIdStatement = selectItemIdStatement;
+		}
+
+		// Returns null if the logging of item metadata is disabled.
+		@Nullable Long getItemMetadataId(UnmodifiableItemStack itemStack) throws SQLException {
+			ItemMetadataCache.@Nullable Entry itemMetadata = getItemMetadataEntry(itemStack);
+			if (itemMetadata == null) return null;
+
+			String hash = itemMetadata.getHash();
+			Long itemId = itemIds.get(hash);
+			if (itemId != null) return itemId;
+
+			// Insert the item metadata, if it is not yet stored:
+			insertItemStatement.setString(1, hash);
+			insertItemStatement.setString(2, itemMetadata.getMetadata());
+			insertItemStatement.executeUpdate();
+
+			selectItemIdStatement.setString(1, hash);
+			try (ResultSet resultSet = selectItemIdStatement.executeQuery()) {
+				if (!resultSet.next()) {
+					throw new SQLException("Could not find the id of the inserted item metadata!");
+				}
+				itemId = resultSet.getLong(1);
+			}
+			itemIds.put(hash, itemId);
+			return itemId;
+		}
+	}
+
+	private void insertTrade(
+			PreparedStatement insertStatement,
+			ItemIdLookup itemIdLookup,
+			TradeRecord trade
+	) throws SQLException {
 		Instant timestamp = trade.getTimestamp();
 		PlayerRecord player = trade.getPlayer();
 
@@ -158,11 +295,11 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 		UnmodifiableItemStack item2 = trade.getItem2(); // Can be null
 		@Nullable String item2Type = null;
 		@Nullable Integer item2Amount = null;
-		@Nullable String item2Metadata = null;
+		@Nullable Long item2MetadataId = null;
 		if (item2 != null) {
 			item2Type = item2.getType().name(); // TODO Store the namespaced key instead
 			item2Amount = item2.getAmount();
-			item2Metadata = this.getItemMetadata(item2);
+			item2MetadataId = itemIdLookup.getItemMetadataId(item2);
 		}
 
 		insertStatement.setString(1, timestamp.toString()); // timestamp as ISO UTC
@@ -183,16 +320,18 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger {
 		// TODO Store the namespaced key instead
 		insertStatement.setString(12, item1.getType().name()); // item_1_type
 		insertStatement.setInt(13, item1.getAmount()); // item_1_amount
-		insertStatement.setString(14, this.getItemMetadata(item1)); // item_1_metadata
+		// item_1_metadata_id:
+		insertStatement.setObject(14, itemIdLookup.getItemMetadataId(item1), Types.INTEGER);
 
 		insertStatement.setString(15, item2Type); // item_2_type
 		insertStatement.setObject(16, item2Amount, Types.TINYINT); // item_2_amount
-		insertStatement.setString(17, item2Metadata); // item_2_metadata
+		insertStatement.setObject(17, item2MetadataId, Types.INTEGER); // item_2_metadata_id
 
 		// TODO Store the namespaced key instead
 		insertStatement.setString(18, resultItem.getType().name()); // result_item_type
 		insertStatement.setInt(19, resultItem.getAmount()); // result_item_amount
-		insertStatement.setString(20, this.getItemMetadata(resultItem)); // result_item_metadata
+		// result_item_metadata_id:
+		insertStatement.setObject(20, itemIdLookup.getItemMetadataId(resultItem), Types.INTEGER);
 
 		insertStatement.setInt(21, trade.getTradeCount()); // trade_count
 
@@ -0,0 +1,185 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics;
+import com.nisovin.shopkeepers.tradelog.base.AbstractFileTradeLogger;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * The {@link TradeStatistics} implementation.
+ * <p>
+ * The rollups are stored inside an SQLite database inside the trade logs folder. They are updated
+ * by the {@link TradeStatisticsLogger}, which is registered as a trade logger if the trade
+ * statistics are enabled. Queries open their own connection to the database and are executed via
+ * the background executor. The database uses a write-ahead log, so that queries are not blocked by
+ * concurrent updates.
+ */
+public class SKTradeStatistics implements TradeStatistics {
+
+	private static final String FILE_NAME = "trade-statistics.db";
+	static final String TABLE_NAME = "trade_stats";
+	// The primary key orders the rows by the dimension key and then by time, so that the rollups of
+	// a single key can be queried via a range scan. Without a separate rowid, the table itself is
+	// the primary key index.
+	static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
+			+ "period VARCHAR(8) NOT NULL, " // Period name
+			+ "dimension VARCHAR(8) NOT NULL, " // Dimension name
+			+ "dimension_key VARCHAR(64) NOT NULL, "
+			+ "period_start INTEGER NOT NULL, " // Unix epoch seconds
+			+ "trade_count INTEGER NOT NULL, "
+			+ "items_in INTEGER NOT NULL, "
+			+ "items_out INTEGER NOT NULL, "
+			+ "currency_in INTEGER NOT NULL, "
+			+ "currency_out INTEGER NOT NULL, "
+			+ "PRIMARY KEY (period, dimension, dimension_key, period_start)"
+			+ ") WITHOUT ROWID;";
+	static final String UPSERT_ROLLUP = "INSERT INTO " + TABLE_NAME
+			+ "(period, dimension, dimension_key, period_start, "
+			+ "trade_count, items_in, items_out, currency_in, currency_out) "
+			+ "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?) "
+			+ "ON CONFLICT(period, dimension, dimension_key, period_start) DO UPDATE SET "
+			+ "trade_count = trade_count + excluded.trade_count, "
+			+ "items_in = items_in + excluded.items_in, "
+			+ "items_out = items_out + excluded.items_out, "
+			+ "currency_in = currency_in + excluded.currency_in, "
+			+ "currency_out = currency_out + excluded.currency_out";
+	private static final String SELECT_ROLLUPS = "SELECT period_start, "
+			+ "trade_count, items_in, items_out, currency_in, currency_out "
+			+ "FROM " + TABLE_NAME + " "
+			+ "WHERE period = ? AND dimension = ? AND dimension_key = ? "
+			+ "AND period_start >= ? AND period_start < ? "
+			+ "ORDER BY period_start";
+
+	/**
+	 * Gets the start of the period that contains the given timestamp.
+	 *
+	 * @param period
+	 *            the period
+	 * @param timestamp
+	 *            the timestamp
+	 * @return the start of the period, in Unix epoch seconds
+	 */
+	static long getPeriodStart(Period period, Instant timestamp) {
+		switch (period) {
+		case HOUR:
+			return timestamp.truncatedTo(ChronoUnit.HOURS).getEpochSecond();
+		case DAY:
+			return timestamp.truncatedTo(ChronoUnit.DAYS).getEpochSecond();
+		default:
+			throw new IllegalArgumentException("Unknown period: " + period);
+		}
+	}
+
+	// Rounds up to full seconds.
+	private static long getEpochSecondsCeil(Instant instant) {
+		return instant.getEpochSecond() + (instant.getNano() > 0 ? 1 : 0);
+	}
+
+	private final SKShopkeepersPlugin plugin;
+	// Updated on the main thread, but can be read from any thread:
+	private volatile boolean enabled = false;
+
+	public SKTradeStatistics(SKShopkeepersPlugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	private Path getDatabaseFile() {
+		return AbstractFileTradeLogger.getTradeLogsFolder(plugin).resolve(FILE_NAME);
+	}
+
+	Connection getConnection() throws SQLException {
+		return DriverManager.getConnection("jdbc:sqlite:" + this.getDatabaseFile());
+	}
+
+	@Override
+	public CompletableFuture<List<? extends Rollup>> getRollups(
+			Period period,
+			Dimension dimension,
+			String key,
+			Instant from,
+			Instant to
+	) {
+		Validate.notNull(period, "period is null");
+		Validate.notNull(dimension, "dimension is null");
+		Validate.notNull(key, "key is null");
+		Validate.notNull(from, "from is null");
+		Validate.notNull(to, "to is null");
+
+		CompletableFuture<List<? extends Rollup>> future = new CompletableFuture<>();
+		Runnable query = () -> {
+			try {
+				future.complete(this.queryRollups(period, dimension, key, from, to));
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		};
+		if (!plugin.getBackgroundExecutor().execute(query)) {
+			// The background executor is not running, e.g. during plugin shutdown:
+			query.run();
+		}
+		return future;
+	}
+
+	private List<? extends Rollup> queryRollups(
+			Period period,
+			Dimension dimension,
+			String key,
+			Instant from,
+			Instant to
+	) throws SQLException {
+		// Avoid creating the database if no trades have been aggregated yet:
+		if (!Files.exists(this.getDatabaseFile())) {
+			return Collections.emptyList();
+		}
+
+		List<Rollup> rollups = new ArrayList<>();
+		try (	Connection connection = this.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SELECT_ROLLUPS)) {
+			statement.setString(1, period.name());
+			statement.setString(2, dimension.name());
+			statement.setString(3, key);
+			statement.setLong(4, getEpochSecondsCeil(from));
+			statement.setLong(5, getEpochSecondsCeil(to));
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					rollups.add(new SKTradeStatisticsRollup(
+							period,
+							Instant.ofEpochSecond(resultSet.getLong(1)), // period_start
+							dimension,
+							key,
+							resultSet.getLong(2), // trade_count
+							resultSet.getLong(3), // items_in
+							resultSet.getLong(4), // items_out
+							resultSet.getLong(5), // currency_in
+							resultSet.getLong(6) // currency_out
+					));
+				}
+			}
+		}
+		return Collections.unmodifiableList(rollups);
+	}
+}
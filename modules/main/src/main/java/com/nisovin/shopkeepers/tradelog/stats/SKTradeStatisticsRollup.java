@@ -0,0 +1,103 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.time.Instant;
+
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Dimension;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Period;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Rollup;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * An immutable {@link Rollup}.
+ */
+public final class SKTradeStatisticsRollup implements Rollup {
+
+	private final Period period;
+	private final Instant periodStart;
+	private final Dimension dimension;
+	private final String key;
+	private final long tradeCount;
+	private final long itemsIn;
+	private final long itemsOut;
+	private final long currencyIn;
+	private final long currencyOut;
+
+	public SKTradeStatisticsRollup(
+			Period period,
+			Instant periodStart,
+			Dimension dimension,
+			String key,
+			long tradeCount,
+			long itemsIn,
+			long itemsOut,
+			long currencyIn,
+			long currencyOut
+	) {
+		Validate.notNull(period, "period is null");
+		Validate.notNull(periodStart, "periodStart is null");
+		Validate.notNull(dimension, "dimension is null");
+		Validate.notNull(key, "key is null");
+		this.period = period;
+		this.periodStart = periodStart;
+		this.dimension = dimension;
+		this.key = key;
+		this.tradeCount = tradeCount;
+		this.itemsIn = itemsIn;
+		this.itemsOut = itemsOut;
+		this.currencyIn = currencyIn;
+		this.currencyOut = currencyOut;
+	}
+
+	@Override
+	public Period getPeriod() {
+		return period;
+	}
+
+	@Override
+	public Instant getPeriodStart() {
+		return periodStart;
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return dimension;
+	}
+
+	@Override
+	public String getKey() {
+		return key;
+	}
+
+	@Override
+	public long getTradeCount() {
+		return tradeCount;
+	}
+
+	@Override
+	public long getItemsIn() {
+		return itemsIn;
+	}
+
+	@Override
+	public long getItemsOut() {
+		return itemsOut;
+	}
+
+	@Override
+	public long getCurrencyIn() {
+		return currencyIn;
+	}
+
+	@Override
+	public long getCurrencyOut() {
+		return currencyOut;
+	}
+
+	@Override
+	public String toString() {
+		return "SKTradeStatisticsRollup [period=" + period + ", periodStart=" + periodStart
+				+ ", dimension=" + dimension + ", key=" + key + ", tradeCount=" + tradeCount
+				+ ", itemsIn=" + itemsIn + ", itemsOut=" + itemsOut + ", currencyIn=" + currencyIn
+				+ ", currencyOut=" + currencyOut + "]";
+	}
+}
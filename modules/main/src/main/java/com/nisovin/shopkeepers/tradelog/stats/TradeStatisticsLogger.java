@@ -0,0 +1,273 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Dimension;
+import com.nisovin.shopkeepers.api.trading.TradeStatistics.Period;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.currency.Currencies;
+import com.nisovin.shopkeepers.currency.Currency;
+import com.nisovin.shopkeepers.tradelog.base.AbstractFileTradeLogger;
+import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
+import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Adds the logged trades to the rollups of the {@link SKTradeStatistics}.
+ * <p>
+ * Each batch of trades is first aggregated in memory, so that each affected rollup is only updated
+ * once per batch. All rollup updates of a batch are applied within a single transaction: If the
+ * update fails, none of the trades of the batch have been added to the rollups, and the retry of
+ * the batch does not count any trades twice.
+ */
+public class TradeStatisticsLogger extends AbstractFileTradeLogger {
+
+	private static final String NAME = "STATISTICS";
+
+	private static final class RollupKey {
+
+		private final Period period;
+		private final long periodStart;
+		private final Dimension dimension;
+		private final String key;
+
+		RollupKey(Period period, long periodStart, Dimension dimension, String key) {
+			this.period = period;
+			this.periodStart = periodStart;
+			this.dimension = dimension;
+			this.key = key;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(period, periodStart, dimension, key);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof RollupKey)) return false;
+			RollupKey other = (RollupKey) obj;
+			return period == other.period
+					&& periodStart == other.periodStart
+					&& dimension == other.dimension
+					&& key.equals(other.key);
+		}
+	}
+
+	private static final class RollupCounts {
+
+		private long tradeCount;
+		private long itemsIn;
+		private long itemsOut;
+		private long currencyIn;
+		private long currencyOut;
+	}
+
+	private final SKTradeStatistics tradeStatistics;
+
+	private volatile @Nullable String setupFailureReason = null;
+	// The currencies might be reloaded on the main thread. We therefore capture them prior to every
+	// save.
+	private volatile List<? extends Currency> currencies = Collections.emptyList();
+
+	public TradeStatisticsLogger(SKShopkeepersPlugin plugin, SKTradeStatistics tradeStatistics) {
+		super(plugin, plugin.getBackgroundExecutor(), NAME);
+		Validate.notNull(tradeStatistics, "tradeStatistics is null");
+		this.tradeStatistics = tradeStatistics;
+	}
+
+	@Override
+	protected void asyncSetup() {
+		super.asyncSetup();
+
+		try (	Connection connection = tradeStatistics.getConnection();
+				Statement statement = connection.createStatement()) {
+			// Allows queries to read the database while the rollups are updated:
+			statement.execute("PRAGMA journal_mode=WAL");
+			statement.execute(SKTradeStatistics.CREATE_TABLE);
+		} catch (SQLException e) {
+			setupFailureReason = "Could not create table '" + SKTradeStatistics.TABLE_NAME + "'.";
+			Log.severe(logPrefix + setupFailureReason, e);
+		}
+	}
+
+	@Override
+	protected void postSetup() {
+		var setupFailureReason = this.setupFailureReason;
+		if (setupFailureReason != null) {
+			this.disable(setupFailureReason);
+		}
+	}
+
+	@Override
+	protected void preSave() {
+		currencies = new ArrayList<>(Currencies.getAll());
+	}
+
+	@Override
+	protected void writeTrades(SaveContext saveContext) throws Exception {
+		List<? extends TradeRecord> trades = saveContext.getUnsavedTrades();
+		if (trades.isEmpty()) return; // There are no unsaved trades
+
+		Map<RollupKey, RollupCounts> rollups = new LinkedHashMap<>();
+		for (TradeRecord trade : trades) {
+			this.aggregate(rollups, trade);
+		}
+
+		boolean done = false;
+		try (	Connection connection = tradeStatistics.getConnection();
+				PreparedStatement upsertStatement = connection.prepareStatement(
+						SKTradeStatistics.UPSERT_ROLLUP
+				)) {
+			connection.setAutoCommit(false);
+			try {
+				for (Map.Entry<RollupKey, RollupCounts> entry : rollups.entrySet()) {
+					RollupKey rollupKey = entry.getKey();
+					RollupCounts counts = entry.getValue();
+					upsertStatement.setString(1, rollupKey.period.name()); // period
+					upsertStatement.setString(2, rollupKey.dimension.name()); // dimension
+					upsertStatement.setString(3, rollupKey.key); // dimension_key
+					upsertStatement.setLong(4, rollupKey.periodStart); // period_start
+					upsertStatement.setLong(5, counts.tradeCount); // trade_count
+					upsertStatement.setLong(6, counts.itemsIn); // items_in
+					upsertStatement.setLong(7, counts.itemsOut); // items_out
+					upsertStatement.setLong(8, counts.currencyIn); // currency_in
+					upsertStatement.setLong(9, counts.currencyOut); // currency_out
+					upsertStatement.addBatch();
+				}
+				upsertStatement.executeBatch();
+				connection.commit();
+			} catch (SQLException e) {
+				try {
+					connection.rollback();
+				} catch (SQLException e2) {
+					e.addSuppressed(e2);
+				}
+				throw e;
+			}
+
+			// All trades of the batch have been successfully added to the rollups:
+			saveContext.onTradesSuccessfullySaved(trades.size());
+
+			// We are about to close the connection:
+			done = true;
+		} catch (SQLException e) {
+			if (!done) {
+				throw e;
+			} else {
+				// Since the transaction has been committed, we assume that the trades have been
+				// successfully saved. The exception is still logged, but it does not trigger a
+				// retry.
+				Log.severe(logPrefix + "Failed to close the database connection!", e);
+			}
+		}
+	}
+
+	private void aggregate(Map<RollupKey, RollupCounts> rollups, TradeRecord trade) {
+		long tradeCount = trade.getTradeCount();
+		UnmodifiableItemStack resultItem = trade.getResultItem();
+		UnmodifiableItemStack item1 = trade.getItem1();
+		UnmodifiableItemStack item2 = trade.getItem2(); // Can be null
+
+		long itemsIn = (item1.getAmount() + (item2 != null ? item2.getAmount() : 0)) * tradeCount;
+		long itemsOut = resultItem.getAmount() * tradeCount;
+		long currencyIn = (this.getCurrencyValue(item1) + this.getCurrencyValue(item2))
+				* tradeCount;
+		long currencyOut = this.getCurrencyValue(resultItem) * tradeCount;
+
+		String shopKey = trade.getShop().getUniqueId().toString();
+		PlayerRecord owner = trade.getShop().getOwner();
+		@Nullable String ownerKey = (owner != null) ? owner.getUniqueId().toString() : null;
+
+		// The distinct item types involved in the trade:
+		String resultItemType = getItemTypeKey(resultItem);
+		List<String> itemTypes = new ArrayList<>(3);
+		itemTypes.add(resultItemType);
+		String item1Type = getItemTypeKey(item1);
+		if (!itemTypes.contains(item1Type)) {
+			itemTypes.add(item1Type);
+		}
+		@Nullable String item2Type = (item2 != null) ? getItemTypeKey(item2) : null;
+		if (item2Type != null && !itemTypes.contains(item2Type)) {
+			itemTypes.add(item2Type);
+		}
+
+		Instant timestamp = trade.getTimestamp();
+		for (Period period : Period.values()) {
+			long periodStart = SKTradeStatistics.getPeriodStart(period, timestamp);
+			add(rollups, new RollupKey(period, periodStart, Dimension.SHOP, shopKey),
+					tradeCount, itemsIn, itemsOut, currencyIn, currencyOut);
+			if (ownerKey != null) {
+				add(rollups, new RollupKey(period, periodStart, Dimension.OWNER, ownerKey),
+						tradeCount, itemsIn, itemsOut, currencyIn, currencyOut);
+			}
+
+			for (String itemType : itemTypes) {
+				long typeItemsIn = 0L;
+				if (itemType.equals(item1Type)) {
+					typeItemsIn += item1.getAmount();
+				}
+				if (item2 != null && itemType.equals(item2Type)) {
+					typeItemsIn += item2.getAmount();
+				}
+				typeItemsIn *= tradeCount;
+				boolean isResultItem = itemType.equals(resultItemType);
+				add(rollups, new RollupKey(period, periodStart, Dimension.ITEM, itemType),
+						tradeCount,
+						typeItemsIn,
+						isResultItem ? itemsOut : 0L,
+						isResultItem ? currencyIn : 0L,
+						(typeItemsIn > 0L) ? currencyOut : 0L
+				);
+			}
+		}
+	}
+
+	private static void add(
+			Map<RollupKey, RollupCounts> rollups,
+			RollupKey rollupKey,
+			long tradeCount,
+			long itemsIn,
+			long itemsOut,
+			long currencyIn,
+			long currencyOut
+	) {
+		RollupCounts counts = rollups.computeIfAbsent(rollupKey, key -> new RollupCounts());
+		counts.tradeCount += tradeCount;
+		counts.itemsIn += itemsIn;
+		counts.itemsOut += itemsOut;
+		counts.currencyIn += currencyIn;
+		counts.currencyOut += currencyOut;
+	}
+
+	private static String getItemTypeKey(UnmodifiableItemStack itemStack) {
+		return itemStack.getType().getKey().toString();
+	}
+
+	// Returns the value of the given item in units of the base currency, or 0 if the item is not a
+	// currency item.
+	private long getCurrencyValue(@Nullable UnmodifiableItemStack itemStack) {
+		if (itemStack == null) return 0L;
+		for (Currency currency : currencies) {
+			if (currency.getItemData().matches(itemStack)) {
+				return (long) currency.getValue() * itemStack.getAmount();
+			}
+		}
+		return 0L;
+	}
+}
@@ -0,0 +1,224 @@
+package com.nisovin.shopkeepers.tradenotifications;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.util.bukkit.SoundEffect;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Coalesces the trade notifications that are sent to the same player within a short time window.
+ * <p>
+ * The first notification of a window is sent immediately. Any further notifications for the same
+ * player during the window are buffered, and then sent as a single summary message with a single
+ * sound once the window ends. If notifications have been buffered, a new window is started right
+ * away, so that players receive at most one summary per window while trades keep taking place.
+ * <p>
+ * The length of the window is specified by {@link Settings#tradeNotificationBatchTicks}. A value of
+ * <code>0</code> disables the buffering.
+ */
+class NotificationBuffers implements Listener {
+
+	private class RecipientBuffer implements Runnable {
+
+		private final UUID playerId;
+		private @Nullable BukkitTask flushTask = null;
+
+		private int bufferedNotifications = 0;
+		private int bufferedOwnerNotifications = 0;
+		// Each notification can represent several merged trades:
+		private int bufferedTrades = 0;
+		private int bufferedOwnerTrades = 0;
+		// The most recently buffered notification and its sound: If this is the only buffered
+		// notification, it is sent as is instead of sending a summary.
+		private @Nullable Text lastNotification = null;
+		private SoundEffect lastSound = SoundEffect.EMPTY;
+
+		RecipientBuffer(UUID playerId) {
+			this.playerId = playerId;
+		}
+
+		void startWindow(long windowTicks) {
+			flushTask = Bukkit.getScheduler().runTaskLater(plugin, this, windowTicks);
+		}
+
+		void add(
+				Text notification,
+				int tradeCount,
+				SoundEffect sound,
+				boolean ownerNotification
+		) {
+			if (ownerNotification) {
+				bufferedOwnerNotifications++;
+				bufferedOwnerTrades += tradeCount;
+			} else {
+				bufferedNotifications++;
+				bufferedTrades += tradeCount;
+			}
+			// The given Text is reused for other notifications, so we need to copy it:
+			lastNotification = notification.copy();
+			lastSound = sound;
+		}
+
+		boolean isEmpty() {
+			return (bufferedNotifications + bufferedOwnerNotifications) == 0;
+		}
+
+		// Invoked when the window ends.
+		@Override
+		public void run() {
+			flushTask = null;
+			if (this.isEmpty()) {
+				// No further notifications during this window:
+				buffers.remove(playerId);
+				return;
+			}
+
+			this.flush();
+
+			// Start a new window:
+			long windowTicks = Settings.tradeNotificationBatchTicks;
+			if (windowTicks > 0) {
+				this.startWindow(windowTicks);
+			} else {
+				buffers.remove(playerId);
+			}
+		}
+
+		// Sends and resets the buffered notifications.
+		void flush() {
+			Player player = Bukkit.getPlayer(playerId);
+			if (player != null && !this.isEmpty()) {
+				if (bufferedNotifications + bufferedOwnerNotifications == 1) {
+					assert lastNotification != null;
+					TextUtils.sendMessage(player, lastNotification);
+				} else {
+					if (bufferedOwnerNotifications > 0) {
+						TextUtils.sendMessage(player, Messages.ownerTradeNotificationsSummary,
+								"count", bufferedOwnerTrades
+						);
+					}
+					if (bufferedNotifications > 0) {
+						TextUtils.sendMessage(player, Messages.tradeNotificationsSummary,
+								"count", bufferedTrades
+						);
+					}
+				}
+				lastSound.play(player);
+			}
+
+			bufferedNotifications = 0;
+			bufferedOwnerNotifications = 0;
+			bufferedTrades = 0;
+			bufferedOwnerTrades = 0;
+			lastNotification = null;
+			lastSound = SoundEffect.EMPTY;
+		}
+
+		void cancel() {
+			if (flushTask != null) {
+				flushTask.cancel();
+				flushTask = null;
+			}
+		}
+	}
+
+	private final Plugin plugin;
+	private final Map<UUID, RecipientBuffer> buffers = new HashMap<>();
+
+	NotificationBuffers(Plugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+	}
+
+	void onEnable() {
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+	}
+
+	void onDisable() {
+		HandlerList.unregisterAll(this);
+		// Send any pending notifications:
+		for (RecipientBuffer buffer : new ArrayList<>(buffers.values())) {
+			buffer.cancel();
+			buffer.flush();
+		}
+		buffers.clear();
+	}
+
+	/**
+	 * Sends the given trade notification to the given player, or buffers it if the player has
+	 * already received a trade notification during the current window.
+	 * <p>
+	 * The given notification is not modified, but it might be copied.
+	 *
+	 * @param player
+	 *            the player, not <code>null</code>
+	 * @param notification
+	 *            the notification, not <code>null</code>
+	 * @param tradeCount
+	 *            the number of trades that the notification represents, at least <code>1</code>
+	 * @param sound
+	 *            the sound effect to play, not <code>null</code>
+	 * @param ownerNotification
+	 *            <code>true</code> if this is a notification for a shop owner about a trade in
+	 *            their shop
+	 * @return <code>true</code> if the notification has been sent immediately, <code>false</code>
+	 *         if it has been buffered
+	 */
+	boolean send(
+			Player player,
+			Text notification,
+			int tradeCount,
+			SoundEffect sound,
+			boolean ownerNotification
+	) {
+		Validate.notNull(player, "player is null");
+		Validate.notNull(notification, "notification is null");
+		Validate.isTrue(tradeCount >= 1, "tradeCount has to be positive");
+		Validate.notNull(sound, "sound is null");
+
+		RecipientBuffer buffer = buffers.get(player.getUniqueId());
+		if (buffer != null) {
+			buffer.add(notification, tradeCount, sound, ownerNotification);
+			return false;
+		}
+
+		TextUtils.sendMessage(player, notification);
+		sound.play(player);
+
+		// Start a new window, if enabled:
+		long windowTicks = Settings.tradeNotificationBatchTicks;
+		if (windowTicks > 0) {
+			buffer = new RecipientBuffer(player.getUniqueId());
+			buffers.put(player.getUniqueId(), buffer);
+			buffer.startWindow(windowTicks);
+		}
+		return true;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onPlayerQuit(PlayerQuitEvent event) {
+		RecipientBuffer buffer = buffers.remove(event.getPlayer().getUniqueId());
+		if (buffer != null) {
+			// The buffered notifications are dropped:
+			buffer.cancel();
+		}
+	}
+}
@@ -177,6 +177,8 @@ public class TradeNotifications implements Listener {
 	private final Plugin plugin;
 	private final NotificationUserPreferences userPreferences;
 	private final TradeMerger tradeMerger;
+	// Coalesces the notifications of the same recipient:
+	private final NotificationBuffers notificationBuffers;
 
 	private boolean enabled;
 
@@ -189,6 +191,7 @@ public class TradeNotifications implements Listener {
 				MergeMode.DURATION,
 				Unsafe.initialized(this)::onTradesCompleted
 		).withMergeDurations(TRADE_MERGE_DURATION_TICKS, NEXT_MERGE_TIMEOUT_TICKS);
+		this.notificationBuffers = new NotificationBuffers(plugin);
 	}
 
 	public void onEnable() {
@@ -198,13 +201,16 @@ public class TradeNotifications implements Listener {
 		Bukkit.getPluginManager().registerEvents(this, plugin);
 		userPreferences.onEnable();
 		tradeMerger.onEnable();
+		notificationBuffers.onEnable();
 	}
 
 	public void onDisable() {
 		if (!enabled) return;
 		enabled = false;
 
+		// Process the remaining merged trades, and then send the remaining buffered notifications:
 		tradeMerger.onDisable();
+		notificationBuffers.onDisable();
 		userPreferences.onDisable();
 		HandlerList.unregisterAll(this);
 	}
@@ -250,9 +256,15 @@ public class TradeNotifications implements Listener {
 
 			// Note: We also send trade notifications for own trades (i.e. when the trading player
 			// matches the recipient of the notification).
-			TextUtils.sendMessage(player, tradeNotification.get());
-			Settings.tradeNotificationSound.play(player);
-			this.sendDisableTradeNotificationsHint(player);
+			if (notificationBuffers.send(
+					player,
+					tradeNotification.get(),
+					tradeContext.getTradeCount(),
+					Settings.tradeNotificationSound,
+					false
+			)) {
+				this.sendDisableTradeNotificationsHint(player);
+			}
 		}
 	}
 
@@ -337,9 +349,15 @@ public class TradeNotifications implements Listener {
 		// Note: We also send trade notifications for own trades (i.e. when the trading player
 		// matches the recipient of the notification).
 		Text message = this.getOwnerTradeNotificationMessage(tradeContext);
-		TextUtils.sendMessage(owner, message);
-		Settings.shopOwnerTradeNotificationSound.play(owner);
-		this.sendDisableTradeNotificationsHint(owner);
+		if (notificationBuffers.send(
+				owner,
+				message,
+				tradeContext.getTradeCount(),
+				Settings.shopOwnerTradeNotificationSound,
+				true
+		)) {
+			this.sendDisableTradeNotificationsHint(owner);
+		}
 	}
 
 	private Text getOwnerTradeNotificationMessage(TradeContext tradeContext) {
@@ -53,6 +53,9 @@ public class TradedCommandsTradeEffect implements TradeEffect {
 	private void dispatchTradedCommand(ShopkeeperTradeEvent tradeEvent, @Nullable String command, int count) {
 		if (command == null || count <= 0) return;
 
+		// Batched trades dispatch the commands for all of their trades at once:
+		int totalCount = count * tradeEvent.getTradeCount();
+
 		// Replace placeholders:
 		Player tradingPlayer = tradeEvent.getPlayer();
 		Shopkeeper shopkeeper = tradeEvent.getShopkeeper();
@@ -64,8 +67,8 @@ public class TradedCommandsTradeEffect implements TradeEffect {
 		);
 
 		// Dispatch the command:
-		Log.debug("Dispatching " + count + "x traded command \"" + preparedCommand + "\"");
-		for (int i = 0; i < count; i++) {
+		Log.debug("Dispatching " + totalCount + "x traded command \"" + preparedCommand + "\"");
+		for (int i = 0; i < totalCount; i++) {
 			try {
 				Bukkit.dispatchCommand(Bukkit.getConsoleSender(), preparedCommand);
 			} catch (Exception e) {
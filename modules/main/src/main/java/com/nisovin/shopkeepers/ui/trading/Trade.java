@@ -50,6 +50,9 @@ public final class Trade {
 	 * @param swappedItemOrder
 	 *            <code>true</code> if the offered items are placed in reverse order inside the
 	 *            merchant inventory
+	 * @param tradeCount
+	 *            the number of times the trade is applied, at least <code>1</code>, see
+	 *            {@link ShopkeeperTradeEvent#getTradeCount()}
 	 */
 	Trade(
 			TradingContext tradingContext,
@@ -57,7 +60,8 @@ public final class Trade {
 			TradingRecipe tradingRecipe,
 			ItemStack offeredItem1,
 			@Nullable ItemStack offeredItem2,
-			boolean swappedItemOrder
+			boolean swappedItemOrder,
+			int tradeCount
 	) {
 		Validate.notNull(tradingContext, "tradingContext is null");
 		Validate.isTrue(tradeNumber >= 1, "tradeNumber is less than 1");
@@ -91,7 +95,8 @@ public final class Trade {
 				tradingRecipe,
 				UnmodifiableItemStack.ofNonNull(eventOfferedItem1),
 				UnmodifiableItemStack.of(eventOfferedItem2),
-				swappedItemOrder
+				swappedItemOrder,
+				tradeCount
 		);
 	}
 
@@ -25,6 +25,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.events.ShopkeeperTradeCompletedEvent;
 import com.nisovin.shopkeepers.api.events.ShopkeeperTradeEvent;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
 import com.nisovin.shopkeepers.api.trading.TradeEffect;
@@ -482,6 +483,13 @@ public class TradingView extends View {
 			// the individual trades (especially if plugins or the shopkeepers themselves react to
 			// the individual trades), and each trade may have other side effects. So trading one
 			// time 64 for 64 items may not be equivalent to trading 64 times one item for one item.
+			// Batched trades are therefore opt-in:
+			if (Settings.batchShiftClickTrades) {
+				this.handleBatchedTrade(trade);
+				this.updateTrades();
+				return;
+			}
+
 			while (true) {
 				if (!this.handleTrade(trade)) {
 					// Trade was aborted:
@@ -498,27 +506,12 @@ public class TradingView extends View {
 
 					// Check if there is enough space in the player's inventory:
 					newPlayerContents = playerInventory.getStorageContents();
-
-					// Minecraft is adding items in reverse container order (starting with hotbar
-					// slot 9), so we reverse the player contents accordingly before adding items:
-					// Changes write through to the original array.
-					List<ItemStack> listView = Arrays.asList(newPlayerContents);
-					List<ItemStack> hotbarView = listView.subList(0, 9);
-					List<ItemStack> contentsView = listView.subList(9, 36);
-					Collections.reverse(hotbarView);
-					Collections.reverse(contentsView);
-
-					// No item copy required here:
-					if (InventoryUtils.addItems(newPlayerContents, resultItem) != 0) {
+					if (addShiftClickedItems(newPlayerContents, resultItem, 1) != 1) {
 						Log.debug(() -> this.getContext().getLogPrefix()
 								+ "Not handling trade: Not enough inventory space.");
 						this.onTradeAborted(tradingContext, false);
 						break;
 					}
-
-					// Revert the previous reverse:
-					Collections.reverse(hotbarView);
-					Collections.reverse(contentsView);
 				}
 
 				if (!this.finalTradePreparation(trade)) {
@@ -562,6 +555,140 @@ public class TradingView extends View {
 		}
 	}
 
+	// Applies the given trade as often as possible at once, for the same trading recipe. The trade
+	// count is determined up front, so that a single trade event can be called for all trades.
+	private void handleBatchedTrade(Trade trade) {
+		TradingContext tradingContext = trade.getTradingContext();
+		PlayerInventory playerInventory = tradingContext.getPlayerInventory();
+		TradingRecipe tradingRecipe = trade.getTradingRecipe();
+
+		// Shopkeeper-specific checks and preparation:
+		if (!this.prepareTrade(trade)) {
+			// The trade got cancelled for some shopkeeper-specific reason:
+			this.onTradeAborted(tradingContext, false);
+			return;
+		}
+
+		// Determine how often the trade can be applied, based on the offered items, the space in
+		// the player's inventory, and any shopkeeper-specific limits:
+		int maxTradeCount = getMaxTradeCountByOfferedItems(trade);
+		ItemStack[] simulatedPlayerContents = playerInventory.getStorageContents();
+		maxTradeCount = addShiftClickedItems(
+				simulatedPlayerContents,
+				tradingRecipe.getResultItem(),
+				maxTradeCount
+		);
+		if (maxTradeCount > 1) {
+			maxTradeCount = Math.min(maxTradeCount, this.getMaxTradeCount(trade, maxTradeCount));
+		}
+		// If the trade cannot be applied at all, we still continue with a single trade so that it
+		// gets aborted by the usual checks, which also inform the player:
+		int tradeCount = Math.max(1, maxTradeCount);
+
+		if (tradeCount > 1) {
+			// Replace the trade with a batched trade:
+			trade = new Trade(
+					tradingContext,
+					trade.getTradeNumber(),
+					tradingRecipe,
+					trade.getOfferedItem1(),
+					trade.getOfferedItem2(),
+					trade.isItemOrderSwapped(),
+					tradeCount
+			);
+			this.setupTrade(trade);
+			tradingContext.setCurrentTrade(trade);
+		}
+
+		if (!this.handleTradeEvent(trade)) {
+			// Trade was aborted:
+			return;
+		}
+
+		UnmodifiableItemStack resultItem = trade.getTradeEvent().getResultItem();
+		boolean resultItemEmpty = ItemUtils.isEmpty(resultItem);
+
+		ItemStack[] newPlayerContents = null;
+		if (!resultItemEmpty) {
+			assert resultItem != null;
+
+			// Check if there is enough space in the player's inventory:
+			// The result item might have been altered during the trade event.
+			newPlayerContents = playerInventory.getStorageContents();
+			if (addShiftClickedItems(newPlayerContents, resultItem, tradeCount) != tradeCount) {
+				Log.debug(() -> this.getContext().getLogPrefix()
+						+ "Not handling trade: Not enough inventory space.");
+				this.onTradeAborted(tradingContext, false);
+				return;
+			}
+		}
+
+		// The final trade preparations are cumulative, e.g. player shops remove the stock of one
+		// trade from their container contents each time:
+		for (int i = 0; i < tradeCount; i++) {
+			if (!this.finalTradePreparation(trade)) {
+				return;
+			}
+		}
+
+		// We are going to apply the trade now:
+		this.preApplyTrade(trade);
+
+		if (!resultItemEmpty) {
+			assert newPlayerContents != null;
+
+			// Apply player inventory changes:
+			InventoryUtils.setStorageContents(playerInventory, newPlayerContents);
+		}
+
+		// Common apply trade:
+		this.commonApplyTrade(trade);
+	}
+
+	private static int getMaxTradeCountByOfferedItems(Trade trade) {
+		TradingRecipe tradingRecipe = trade.getTradingRecipe();
+		int maxTradeCount = trade.getOfferedItem1().getAmount()
+				/ tradingRecipe.getItem1().getAmount();
+		UnmodifiableItemStack requiredItem2 = tradingRecipe.getItem2();
+		if (!ItemUtils.isEmpty(requiredItem2)) {
+			assert requiredItem2 != null;
+			ItemStack offeredItem2 = Unsafe.assertNonNull(trade.getOfferedItem2());
+			maxTradeCount = Math.min(
+					maxTradeCount,
+					offeredItem2.getAmount() / requiredItem2.getAmount()
+			);
+		}
+		return maxTradeCount;
+	}
+
+	// Adds the given item up to the specified number of times to the given player storage contents,
+	// and returns the number of times the item could be fully added.
+	private static int addShiftClickedItems(
+			@ReadOnly @Nullable ItemStack @ReadWrite [] playerContents,
+			UnmodifiableItemStack item,
+			int count
+	) {
+		// Minecraft is adding items in reverse container order (starting with hotbar slot 9), so we
+		// reverse the player contents accordingly before adding items:
+		// Changes write through to the original array.
+		List<@Nullable ItemStack> listView = Arrays.asList(playerContents);
+		List<@Nullable ItemStack> hotbarView = listView.subList(0, 9);
+		List<@Nullable ItemStack> contentsView = listView.subList(9, 36);
+		Collections.reverse(hotbarView);
+		Collections.reverse(contentsView);
+
+		int added = 0;
+		// No item copy required here:
+		while (added < count && InventoryUtils.addItems(playerContents, item) == 0) {
+			added++;
+		}
+
+		// Revert the previous reverse:
+		Collections.reverse(hotbarView);
+		Collections.reverse(contentsView);
+		return added;
+	}
+
 	private void clearResultSlotForInvalidTrade(MerchantInventory merchantInventory) {
 		// TODO This is not working currently. The client updates the result slot contents whenever
 		// it receives a slot update from the server.
@@ -740,7 +867,8 @@ public class TradingView extends View {
 				tradingRecipe,
 				offeredItem1,
 				offeredItem2,
-				swappedItemOrder
+				swappedItemOrder,
+				1
 		);
 		this.setupTrade(trade);
 		tradingContext.setCurrentTrade(trade);
@@ -800,6 +928,11 @@ public class TradingView extends View {
 			return false;
 		}
 
+		return this.handleTradeEvent(trade);
+	}
+
+	// Returns false if the trade was aborted.
+	private boolean handleTradeEvent(Trade trade) {
 		Player tradingPlayer = trade.getTradingPlayer();
 
 		// Call the trade event:
@@ -846,13 +979,15 @@ public class TradingView extends View {
 		merchantInventory.setItem(RESULT_ITEM_SLOT_ID, null); // Clear result slot, just in case
 
 		TradingRecipe tradingRecipe = trade.getTradingRecipe();
+		ShopkeeperTradeEvent tradeEvent = trade.getTradeEvent();
+		int tradeCount = tradeEvent.getTradeCount();
 		ItemStack newOfferedItem1 = ItemUtils.decreaseItemAmount(
 				trade.getOfferedItem1(),
-				ItemUtils.getItemStackAmount(tradingRecipe.getItem1())
+				ItemUtils.getItemStackAmount(tradingRecipe.getItem1()) * tradeCount
 		);
 		ItemStack newOfferedItem2 = ItemUtils.decreaseItemAmount(
 				trade.getOfferedItem2(),
-				ItemUtils.getItemStackAmount(tradingRecipe.getItem2())
+				ItemUtils.getItemStackAmount(tradingRecipe.getItem2()) * tradeCount
 		);
 		// Inform the merchant inventory about the change (updates the active trading recipe and
 		// result item):
@@ -872,14 +1007,13 @@ public class TradingView extends View {
 
 		// Increment 'traded-with-villager' statistic for every trade:
 		if (Settings.incrementVillagerStatistics) {
-			player.incrementStatistic(Statistic.TRADED_WITH_VILLAGER);
+			player.incrementStatistic(Statistic.TRADED_WITH_VILLAGER, tradeCount);
 		}
 
 		// Shopkeeper-specific application of the trade:
 		this.onTradeApplied(trade);
 
 		// Apply additional trade effects:
-		ShopkeeperTradeEvent tradeEvent = trade.getTradeEvent();
 		tradeEvent.getTradeEffects().forEach(tradeEffect -> tradeEffect.onTradeApplied(tradeEvent));
 
 		// Call trade completed event:
@@ -897,7 +1031,8 @@ public class TradingView extends View {
 
 		// Log trade:
 		Log.debug(() -> trade.getShopkeeper().getLogPrefix() + "Trade (#" + trade.getTradeNumber()
-				+ ") by " + player.getName() + ": " + ItemUtils.getSimpleRecipeInfo(tradingRecipe));
+				+ (tradeCount > 1 ? ", " + tradeCount + "x" : "") + ") by " + player.getName()
+				+ ": " + ItemUtils.getSimpleRecipeInfo(tradingRecipe));
 
 		this.onTradeCompleted(trade);
 		this.onTradeOver(trade.getTradingContext());
@@ -959,6 +1094,28 @@ public class TradingView extends View {
 		return true;
 	}
 
+	/**
+	 * Determines how often the given trade can be applied at most by a single batched trade, based
+	 * on shopkeeper-specific limits such as the stock of a shop.
+	 * <p>
+	 * This is only called if {@link Settings#batchShiftClickTrades batched trades} are enabled,
+	 * after {@link #prepareTrade(Trade)} and before the {@link ShopkeeperTradeEvent} is called.
+	 * This is not supposed to inform the player about any limits: If the trade cannot be applied at
+	 * all, it is aborted by the usual trade handling.
+	 * <p>
+	 * For a batched trade, {@link #finalTradePreparation(Trade)} is invoked once for each of its
+	 * trades.
+	 * 
+	 * @param trade
+	 *            the trade
+	 * @param maxTradeCount
+	 *            the maximum trade count determined so far, greater than <code>1</code>
+	 * @return the maximum trade count, not greater than the given maximum trade count
+	 */
+	protected int getMaxTradeCount(Trade trade, int maxTradeCount) {
+		return maxTradeCount;
+	}
+
 	/**
 	 * This is called whenever a trade attempt has been cancelled for some reason.
 	 * <p>
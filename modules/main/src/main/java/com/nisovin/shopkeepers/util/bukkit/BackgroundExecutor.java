@@ -0,0 +1,239 @@
+package com.nisovin.shopkeepers.util.bukkit;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * A plugin-owned executor for background work that is not supposed to run on the server's main
+ * thread, such as file IO.
+ * <p>
+ * Tasks are executed on virtual threads. The threads are named after the plugin, so that they can
+ * be easily identified in thread dumps.
+ * <p>
+ * Unlike tasks that are submitted to Bukkit's async scheduler, tasks submitted to this executor
+ * start immediately, i.e. without waiting for the next server tick to begin.
+ * <p>
+ * The executor keeps track of some statistics, such as the number of pending tasks and the delay
+ * until submitted tasks begin their execution.
+ * <p>
+ * The executor is started by {@link #onEnable()} and stopped by {@link #onDisable(int)}. Tasks can
+ * only be submitted while the executor is running.
+ */
+public class BackgroundExecutor {
+
+	private final Plugin plugin;
+	private @Nullable ExecutorService executor = null;
+
+	// Statistics: These may be updated concurrently.
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final AtomicInteger maxPendingCount = new AtomicInteger();
+	private final AtomicInteger activeCount = new AtomicInteger();
+	private final AtomicLong executedCount = new AtomicLong();
+	private final AtomicLong totalDelayNanos = new AtomicLong();
+	private final AtomicLong maxDelayNanos = new AtomicLong();
+	private final AtomicLong totalExecutionNanos = new AtomicLong();
+	private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+	public BackgroundExecutor(Plugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+	}
+
+	public void onEnable() {
+		if (executor != null) return; // Already running
+
+		executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+				.name(plugin.getName() + " Worker #", 1L)
+				.factory());
+		Log.debug("Started background executor.");
+	}
+
+	/**
+	 * Stops accepting new tasks and waits for the already submitted tasks to complete.
+	 *
+	 * @param timeoutSeconds
+	 *            the maximum duration in seconds to wait for the submitted tasks to complete
+	 */
+	public void onDisable(int timeoutSeconds) {
+		Validate.isTrue(timeoutSeconds >= 0, "timeoutSeconds cannot be negative");
+		ExecutorService executor = this.executor;
+		if (executor == null) return; // Not running
+		this.executor = null;
+
+		executor.shutdown();
+		int remainingTasks = pendingCount.get() + activeCount.get();
+		if (remainingTasks > 0) {
+			Log.info("Waiting up to " + timeoutSeconds + " seconds for " + remainingTasks
+					+ " remaining background tasks to finish ...");
+		}
+
+		boolean terminated = false;
+		final long waitStartNanos = System.nanoTime();
+		try {
+			terminated = executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			// Abort waiting, but reset the interrupt flag:
+			Thread.currentThread().interrupt();
+		}
+		long waitDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStartNanos);
+		if (waitDurationMillis > 1) {
+			Log.info("Waited " + waitDurationMillis + " ms for background tasks to finish.");
+		}
+
+		if (!terminated) {
+			// Severe, since this can potentially result in data loss, depending on what the tasks
+			// are doing:
+			Log.severe("There are still " + (pendingCount.get() + activeCount.get())
+					+ " remaining background tasks active! Disabling anyway now.");
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Checks if this executor is currently accepting new tasks.
+	 *
+	 * @return <code>true</code> if running
+	 */
+	public boolean isRunning() {
+		return (executor != null);
+	}
+
+	/**
+	 * Submits the given task for execution.
+	 *
+	 * @param task
+	 *            the task, not <code>null</code>
+	 * @return <code>true</code> if the task has been submitted, <code>false</code> if the executor
+	 *         is not running
+	 */
+	public boolean execute(Runnable task) {
+		Validate.notNull(task, "task is null");
+		ExecutorService executor = this.executor;
+		if (executor == null) return false;
+
+		final long submitNanos = System.nanoTime();
+		int pending = pendingCount.incrementAndGet();
+		maxPendingCount.accumulateAndGet(pending, Math::max);
+		try {
+			executor.execute(() -> this.runTask(task, submitNanos));
+		} catch (RejectedExecutionException e) {
+			// The executor has been shut down just now:
+			pendingCount.decrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	private void runTask(Runnable task, long submitNanos) {
+		final long startNanos = System.nanoTime();
+		pendingCount.decrementAndGet();
+		activeCount.incrementAndGet();
+		long delayNanos = startNanos - submitNanos;
+		totalDelayNanos.addAndGet(delayNanos);
+		maxDelayNanos.accumulateAndGet(delayNanos, Math::max);
+		try {
+			task.run();
+		} catch (Throwable e) {
+			Log.severe("Error during the execution of a background task!", e);
+		} finally {
+			long executionNanos = System.nanoTime() - startNanos;
+			totalExecutionNanos.addAndGet(executionNanos);
+			maxExecutionNanos.accumulateAndGet(executionNanos, Math::max);
+			executedCount.incrementAndGet();
+			activeCount.decrementAndGet();
+		}
+	}
+
+	// STATISTICS
+
+	/**
+	 * Gets the number of submitted tasks that have not yet started their execution.
+	 *
+	 * @return the number of pending tasks
+	 */
+	public int getPendingCount() {
+		return pendingCount.get();
+	}
+
+	/**
+	 * Gets the maximum number of tasks that were at some point pending at the same time.
+	 *
+	 * @return the maximum number of pending tasks
+	 */
+	public int getMaxPendingCount() {
+		return maxPendingCount.get();
+	}
+
+	/**
+	 * Gets the number of tasks that are currently being executed.
+	 *
+	 * @return the number of active tasks
+	 */
+	public int getActiveCount() {
+		return activeCount.get();
+	}
+
+	/**
+	 * Gets the number of tasks that have completed their execution.
+	 *
+	 * @return the number of executed tasks
+	 */
+	public long getExecutedCount() {
+		return executedCount.get();
+	}
+
+	private static double toAverageMillis(long totalNanos, long count) {
+		if (count == 0) return 0.0D;
+		return (double) totalNanos / count / TimeUnit.MILLISECONDS.toNanos(1L);
+	}
+
+	private static double toMillis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1L);
+	}
+
+	/**
+	 * Gets the average delay between the submission of a task and the start of its execution.
+	 *
+	 * @return the average delay in milliseconds
+	 */
+	public double getAverageDelayMillis() {
+		return toAverageMillis(totalDelayNanos.get(), executedCount.get());
+	}
+
+	/**
+	 * Gets the maximum delay between the submission of a task and the start of its execution.
+	 *
+	 * @return the maximum delay in milliseconds
+	 */
+	public double getMaxDelayMillis() {
+		return toMillis(maxDelayNanos.get());
+	}
+
+	/**
+	 * Gets the average execution duration of the tasks.
+	 *
+	 * @return the average execution duration in milliseconds
+	 */
+	public double getAverageExecutionMillis() {
+		return toAverageMillis(totalExecutionNanos.get(), executedCount.get());
+	}
+
+	/**
+	 * Gets the maximum execution duration of the tasks.
+	 *
+	 * @return the maximum execution duration in milliseconds
+	 */
+	public double getMaxExecutionMillis() {
+		return toMillis(maxExecutionNanos.get());
+	}
+}
@@ -1,21 +1,24 @@
 package com.nisovin.shopkeepers.util.bukkit;
 
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
  * Represents a task that is triggered from the server's main thread and of which only one execution
  * can take place simultaneously.
  * <p>
- * The task is usually run asynchronously, but it may also run on the server's main thread (for
- * example when forcing an immediate execution, such as during shutdown).
+ * The task is usually run asynchronously via the plugin's {@link BackgroundExecutor}, but it may
+ * also run on the server's main thread (for example when forcing an immediate execution, such as
+ * during shutdown).
  * <p>
  * While the task is already running asynchronously, any subsequent requests to execute the task are
  * deferred until after the task finishes its current execution. The next execution of the task is
@@ -56,17 +59,20 @@ public abstract class SingletonTask {
 	}
 
 	private final Plugin plugin;
+	private final BackgroundExecutor backgroundExecutor;
 	// The lock used to coordinate the main thread with threads executing the task asynchronously.
 	// Note: This lock is not acquired for synchronous executions.
 	// Note: This lock is not provided to the outside of this class, because it is not suited for
 	// the coordination with other tasks. Each task execution completes with the execution of its
 	// synchronous callback. So instead, other tasks can use #awaitExecutions() to wait for any
 	// current and pending executions to complete.
-	private final Object executionLock = new Object();
+	// Note: The async executions run on virtual threads and may block on IO while holding this
+	// lock. Unlike a synchronized block, a ReentrantLock does not pin the carrier thread then.
+	private final ReentrantLock executionLock = new ReentrantLock();
 
 	private State state = State.NOT_RUNNING;
-	// The Bukkit task asynchronously executing this task. Only relevant for async executions.
-	private @Nullable BukkitTask asyncTask = null;
+	// The future asynchronously executing this task. Only relevant for async executions.
+	private @Nullable FutureTask<?> asyncTask = null;
 	// The (internal) callbacks of the current execution:
 	// Run immediately, possibly asynchronously:
 	private @Nullable Runnable internalCallback = null;
@@ -90,9 +96,11 @@ public abstract class SingletonTask {
 	private long executionDurationMillis;
 	private long totalDurationMillis;
 
-	public SingletonTask(Plugin plugin) {
+	public SingletonTask(Plugin plugin, BackgroundExecutor backgroundExecutor) {
 		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(backgroundExecutor, "backgroundExecutor is null");
 		this.plugin = plugin;
+		this.backgroundExecutor = backgroundExecutor;
 	}
 
 	/**
@@ -167,14 +175,14 @@ public abstract class SingletonTask {
 	 * current execution completes.
 	 * <p>
 	 * During plugin disable (after the plugin has already been marked as {@link Plugin#isEnabled()
-	 * disabled}), asynchronous executions are not supported. Any execution requests will then take
-	 * place immediately.
+	 * disabled}), or if the background executor is not running, asynchronous executions are not
+	 * supported. Any execution requests will then take place immediately.
 	 * <p>
 	 * This method cannot be called from within an execution, i.e. from within {@link #prepare()},
 	 * {@link #execute()}, or {@link #syncCallback()}.
 	 */
 	public final void run() {
-		if (plugin.isEnabled()) {
+		if (plugin.isEnabled() && backgroundExecutor.isRunning()) {
 			this.runTask(true);
 		} else {
 			// During plugin disable, all executions take place immediately:
@@ -204,8 +212,8 @@ public abstract class SingletonTask {
 	 * <p>
 	 * Implementation notes:<br>
 	 * If an async execution has already been scheduled, but not yet started, the async execution is
-	 * cancelled and then run synchronously. This is because the Bukkit scheduler starts async tasks
-	 * from within the main thread, which we are blocking currently. Also note: We do not skip the
+	 * cancelled and then run synchronously. This avoids having to wait for the background executor
+	 * to pick up the task, which might be busy with other work. Also note: We do not skip the
 	 * execution in this case in order to ensure that progress is made. Otherwise, frequent requests
 	 * to start the task could continually abort the task so that it is never able to complete.
 	 * <p>
@@ -229,11 +237,10 @@ public abstract class SingletonTask {
 		// If an async execution is currently executing, acquiring the lock will wait for it to
 		// finish.
 		// If the async execution has not taken the lock yet, then it is either still pending to be
-		// started by the Scheduler on the main thread (which we are currently blocking), or it has
-		// already been started but not acquired the lock yet. In the latter case there may or may
-		// not already exist a worker thread for it, and it may or may not have checked its
-		// cancellation state yet.
-		synchronized (executionLock) {
+		// started by the background executor, or it has already been started but not acquired the
+		// lock yet. In the latter case it may or may not have checked its cancellation state yet.
+		executionLock.lock();
+		try {
 			if (state == State.PENDING) {
 				// The task has not yet started its execution / taken the lock yet.
 				// We cancel it and manually run it here. Note: We cancel this within the locked
@@ -245,13 +252,15 @@ public abstract class SingletonTask {
 				// cancellation state again within the locked section in order to reliably detect
 				// it.
 				assert asyncTask != null;
-				asyncTask.cancel();
+				asyncTask.cancel(false);
 			} else {
 				assert state == State.EXECUTING;
 				// Because we were able to acquire the lock, and we are no longer in state PENDING,
 				// the task must already have finished its execution and async callback. However,
 				// its sync callback is still pending to be run. We will manually run it here.
 			}
+		} finally {
+			executionLock.unlock();
 		}
 		// Else: state is PENDING and execution got cancelled:
 		boolean hasExecuted = (state == State.EXECUTING);
@@ -286,10 +295,10 @@ public abstract class SingletonTask {
 
 	private void runTask(boolean async) {
 		this.validateMainThreadAndNotWithinExecution();
-		// During plugin disable, only synchronous executions are allowed, because the Bukkit
-		// Scheduler does no longer accept new tasks. This has to be ensured by the caller (i.e.
+		// During plugin disable, only synchronous executions are allowed, because the background
+		// executor does no longer accept new tasks. This has to be ensured by the caller (i.e.
 		// other methods of this class).
-		Validate.State.isTrue(!async || plugin.isEnabled(),
+		Validate.State.isTrue(!async || (plugin.isEnabled() && backgroundExecutor.isRunning()),
 				"Cannot execute asynchronously during or after plugin disable!");
 
 		// Is another async execution already in progress?
@@ -362,7 +371,14 @@ public abstract class SingletonTask {
 			// TODO Measure the time it takes to schedule the async task as part of the preparation?
 			// Tricky, since in general there is no guarantee about the order in which the task and
 			// any following instructions are executed.
-			this.asyncTask = this.createInternalAsyncTask().runTaskAsynchronously();
+			FutureTask<?> asyncTask = this.createInternalAsyncTask().submit();
+			if (asyncTask != null) {
+				this.asyncTask = asyncTask;
+			} else {
+				// The background executor has been shut down just now. Execute synchronously
+				// instead:
+				this.executeTask(null);
+			}
 		} else {
 			// Synchronous execution:
 			this.executeTask(null);
@@ -377,19 +393,39 @@ public abstract class SingletonTask {
 	 */
 	public abstract class InternalAsyncTask implements Runnable {
 
-		private @Nullable BukkitTask task; // Captured Bukkit task
+		// The future that executes this task:
+		// This is created and captured before the task is submitted, because the background
+		// executor might start the task before the submission returns.
+		private final FutureTask<?> future = new AsyncExecution(Unsafe.initialized(this));
 
 		protected InternalAsyncTask() {
 		}
 
-		private BukkitTask runTaskAsynchronously() {
-			this.task = Bukkit.getScheduler().runTaskAsynchronously(plugin, this);
-			return task;
+		// Returns null if the background executor did not accept the task.
+		private @Nullable FutureTask<?> submit() {
+			if (!backgroundExecutor.execute(future)) {
+				return null;
+			}
+			return future;
 		}
 
 		@Override
 		public final void run() {
-			executeTask(task);
+			executeTask(future);
+		}
+	}
+
+	private static final class AsyncExecution extends FutureTask<@Nullable Void> {
+
+		AsyncExecution(Runnable task) {
+			super(task, null);
+		}
+
+		@Override
+		protected void setException(Throwable t) {
+			super.setException(t);
+			// The future would otherwise silently capture the exception:
+			Log.severe("Error during the asynchronous execution of a task!", t);
 		}
 	}
 
@@ -460,13 +496,14 @@ public abstract class SingletonTask {
 	// asyncTask: The async task executing this method. Null for sync executions.
 	// If the async task got cancelled and another execution has already been started, this may not
 	// match the current value of this class' asyncTask variable.
-	private void executeTask(@Nullable BukkitTask asyncTask) {
+	private void executeTask(@Nullable FutureTask<?> asyncTask) {
 		if (asyncTask != null) {
 			// Asynchronous execution:
 			// Requires the lock for coordination with the main thread, and might have been
 			// cancelled.
 			final long lockAcquireStartTimeNanos = System.nanoTime();
-			synchronized (executionLock) {
+			executionLock.lock();
+			try {
 				final long localLockAcquireDurationMillis = TimeUnit.NANOSECONDS.toMillis(
 						System.nanoTime() - lockAcquireStartTimeNanos
 				);
@@ -487,6 +524,8 @@ public abstract class SingletonTask {
 
 				// Actual execution:
 				this.doExecuteTask();
+			} finally {
+				executionLock.unlock();
 			}
 		} else {
 			// Synchronous execution:
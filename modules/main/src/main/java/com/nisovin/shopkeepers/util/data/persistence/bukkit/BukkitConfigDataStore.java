@@ -1,5 +1,9 @@
 package com.nisovin.shopkeepers.util.data.persistence.bukkit;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -9,6 +13,7 @@ import com.nisovin.shopkeepers.util.data.container.ConfigBasedDataContainer;
 import com.nisovin.shopkeepers.util.data.persistence.DataStore;
 import com.nisovin.shopkeepers.util.data.persistence.DataStoreBase;
 import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.java.Validate;
 
 /**
  * A {@link DataStore} that uses a Bukkit {@link FileConfiguration} to store, save, and load the
@@ -68,4 +73,61 @@ public class BukkitConfigDataStore extends ConfigBasedDataContainer implements D
 	public String saveToString() {
 		return this.getConfig().saveToString();
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If this data store is based on a {@link YamlConfiguration}, its top-level entries are
+	 * serialized and written one after the other. This produces the same output as
+	 * {@link #saveToString()}, but only ever requires the serialized form of a single top-level
+	 * entry to be held in memory. The only difference is that YAML anchors and aliases are not
+	 * shared across top-level entries.
+	 */
+	@Override
+	public void save(Writer writer) throws IOException {
+		Validate.notNull(writer, "writer is null");
+		FileConfiguration config = this.getConfig();
+		if (!(config instanceof YamlConfiguration)) {
+			DataStoreBase.super.save(writer);
+			return;
+		}
+
+		Set<String> keys = config.getKeys(false);
+		if (keys.isEmpty()) {
+			DataStoreBase.super.save(writer);
+			return;
+		}
+
+		YamlConfiguration yamlConfig = (YamlConfiguration) config;
+		try {
+			int index = 0;
+			int lastIndex = keys.size() - 1;
+			for (String key : keys) {
+				YamlConfiguration entryConfig = newEntryConfig(yamlConfig);
+				if (index == 0) {
+					entryConfig.options().setHeader(yamlConfig.options().getHeader());
+				}
+				if (index == lastIndex) {
+					entryConfig.options().setFooter(yamlConfig.options().getFooter());
+				}
+				entryConfig.set(key, yamlConfig.get(key));
+				entryConfig.setComments(key, yamlConfig.getComments(key));
+				entryConfig.setInlineComments(key, yamlConfig.getInlineComments(key));
+
+				writer.write(entryConfig.saveToString());
+				index++;
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static YamlConfiguration newEntryConfig(YamlConfiguration config) {
+		YamlConfiguration entryConfig = ConfigUtils.newYamlConfig();
+		entryConfig.options()
+				.pathSeparator(config.options().pathSeparator())
+				.indent(config.options().indent())
+				.width(config.options().width());
+		return entryConfig;
+	}
 }
@@ -0,0 +1,96 @@
+package com.nisovin.shopkeepers.util.inventory;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.PolyNull;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+
+/**
+ * A pool of interned {@link UnmodifiableItemStack}s.
+ * <p>
+ * Shops frequently store equal items, for example when admin shops are copied across a shop network,
+ * or when many player shops trade the same custom currency item. Interning these items lets all of
+ * these shops share the same item stack instance. This reduces the heap usage and allows equality
+ * checks between these items to usually succeed by reference comparison.
+ * <p>
+ * Items are considered equal if their {@link UnmodifiableItemStack#equals(Object) data and amount}
+ * are equal. The pool only weakly references its items: Items that are no longer used anywhere else
+ * are automatically removed from the pool.
+ * <p>
+ * The interned items are assumed to be immutable. This is thread-safe.
+ */
+public final class ItemInterner {
+
+	// Maps each interned item to a weak reference to itself.
+	private static final Map<UnmodifiableItemStack, WeakReference<UnmodifiableItemStack>> POOL = new WeakHashMap<>();
+
+	/**
+	 * Gets the interned item that is equal to the given item.
+	 * <p>
+	 * If there is no such item yet, the given item is added to the pool and returned.
+	 *
+	 * @param itemStack
+	 *            the item, assumed to be immutable, can be <code>null</code>
+	 * @return the interned item, or <code>null</code> if the given item is <code>null</code>
+	 */
+	public static synchronized @PolyNull UnmodifiableItemStack intern(
+			@PolyNull UnmodifiableItemStack itemStack
+	) {
+		if (itemStack == null) return null;
+		WeakReference<UnmodifiableItemStack> internedRef = POOL.get(itemStack);
+		if (internedRef != null) {
+			UnmodifiableItemStack interned = internedRef.get();
+			if (interned != null) return interned;
+		}
+
+		POOL.put(itemStack, new WeakReference<>(itemStack));
+		return itemStack;
+	}
+
+	/**
+	 * Gets the interned item that is equal to the given item.
+	 * <p>
+	 * If there is no such item yet, a copy of the given item is added to the pool and returned. The
+	 * given item is only copied if there is no equal interned item yet.
+	 *
+	 * @param itemStack
+	 *            the item, can be <code>null</code>
+	 * @return the interned item, or <code>null</code> if the given item is <code>null</code>
+	 */
+	public static synchronized @PolyNull UnmodifiableItemStack internCopy(
+			@ReadOnly @PolyNull ItemStack itemStack
+	) {
+		if (itemStack == null) return null;
+		// The temporary unmodifiable view is only used for the lookup:
+		WeakReference<UnmodifiableItemStack> internedRef = POOL.get(
+				UnmodifiableItemStack.ofNonNull(itemStack)
+		);
+		if (internedRef != null) {
+			UnmodifiableItemStack interned = internedRef.get();
+			if (interned != null) return interned;
+		}
+
+		UnmodifiableItemStack copy = ItemUtils.nonNullUnmodifiableClone(itemStack);
+		POOL.put(copy, new WeakReference<>(copy));
+		return copy;
+	}
+
+	/**
+	 * Gets the number of items that are currently interned.
+	 * <p>
+	 * This may include items that are no longer used, but have not yet been removed from the pool.
+	 *
+	 * @return the number of interned items
+	 */
+	public static synchronized int getSize() {
+		return POOL.size();
+	}
+
+	private ItemInterner() {
+	}
+}
@@ -452,6 +452,61 @@ public final class FileUtils {
 			Logger logger,
 			@Nullable Path basePath
 	) throws IOException {
+		Validate.notNull(content, "content is null");
+		writeSafely(path, writer -> writer.write(content), charset, logger, basePath);
+	}
+
+	/**
+	 * Writes the contents of a file.
+	 */
+	@FunctionalInterface
+	public interface ContentWriter {
+
+		/**
+		 * Writes the file contents to the given {@link Writer}.
+		 * <p>
+		 * The writer is buffered, and closed by the caller once this method returns.
+		 * 
+		 * @param writer
+		 *            the writer, not <code>null</code>
+		 * @throws IOException
+		 *             if the writing fails
+		 */
+		public void write(Writer writer) throws IOException;
+	}
+
+	/**
+	 * Safely writes the contents produced by the given {@link ContentWriter} to a file at the
+	 * specified path.
+	 * <p>
+	 * This behaves like {@link #writeSafely(Path, String, Charset, Logger, Path)}, but streams the
+	 * contents directly to the temporary file instead of requiring them to be available as a single
+	 * String first. This is useful for large files that are produced piece by piece.
+	 * <p>
+	 * If the content writer fails, the destination file is left untouched.
+	 * 
+	 * @param path
+	 *            the file path
+	 * @param contentWriter
+	 *            writes the file content
+	 * @param charset
+	 *            the {@link Charset}
+	 * @param logger
+	 *            the {@link Logger} to use for certain warnings
+	 * @param basePath
+	 *            if specified, any error or warning messages that include path strings will use the
+	 *            path relative to this base path instead
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	public static void writeSafely(
+			Path path,
+			ContentWriter contentWriter,
+			Charset charset,
+			Logger logger,
+			@Nullable Path basePath
+	) throws IOException {
+		Validate.notNull(contentWriter, "contentWriter is null");
 		var tempPath = getTempSibling(path);
 		assert tempPath != null;
 
@@ -474,7 +529,7 @@ public final class FileUtils {
 
 		// Create new temporary file and write data to it:
 		try (Writer writer = Files.newBufferedWriter(tempPath, charset)) {
-			writer.write(content);
+			contentWriter.write(writer);
 		} catch (IOException e) {
 			throw new IOException("Could not write temporary file ("
 					+ relativize(basePath, tempPath) + "): " + ThrowableUtils.getDescription(e), e);
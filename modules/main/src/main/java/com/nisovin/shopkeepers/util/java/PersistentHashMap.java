@@ -0,0 +1,415 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+
+/**
+ * An immutable hash map that shares its structure with the maps it has been derived from.
+ * <p>
+ * The entries are stored in a hash trie with a branching factor of 32. Adding, replacing, or
+ * removing an entry only copies the nodes on the path to the entry, and the resulting map shares
+ * all other nodes with the original map. This makes these operations cheap even for large maps,
+ * and allows maps to be safely shared between threads once they have been published.
+ * <p>
+ * The iteration order of the entries is unspecified. Keys and values cannot be <code>null</code>.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public final class PersistentHashMap<K, V> {
+
+	private static final int BITS_PER_LEVEL = 5;
+	private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+	private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+	/**
+	 * Gets the empty map.
+	 *
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @return the empty map
+	 */
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return Unsafe.cast(EMPTY);
+	}
+
+	private static int hash(Object key) {
+		int hashCode = key.hashCode();
+		// Spreads the higher bits to the lower bits, which select the top level nodes:
+		return hashCode ^ (hashCode >>> 16);
+	}
+
+	private static int index(int hash, int shift) {
+		return (hash >>> shift) & LEVEL_MASK;
+	}
+
+	private abstract static class Node<K, V> {
+
+		abstract @Nullable V get(Object key, int hash, int shift);
+
+		// Returns this node if nothing has changed.
+		abstract Node<K, V> with(Leaf<K, V> leaf, int shift);
+
+		// Returns this node if nothing has changed, or null if the node has become empty.
+		abstract @Nullable Node<K, V> without(Object key, int hash, int shift);
+
+		abstract Stream<Leaf<K, V>> leaves();
+	}
+
+	// The hash of a leaf or collision node is independent of the node's position in the trie.
+	private abstract static class HashNode<K, V> extends Node<K, V> {
+
+		abstract int hash();
+	}
+
+	private static final class Leaf<K, V> extends HashNode<K, V> {
+
+		private final K key;
+		private final V value;
+		private final int hash;
+
+		Leaf(K key, V value, int hash) {
+			this.key = key;
+			this.value = value;
+			this.hash = hash;
+		}
+
+		@Override
+		int hash() {
+			return hash;
+		}
+
+		@Override
+		@Nullable V get(Object key, int hash, int shift) {
+			return (this.hash == hash && this.key.equals(key)) ? value : null;
+		}
+
+		@Override
+		Node<K, V> with(Leaf<K, V> leaf, int shift) {
+			if (hash == leaf.hash && key.equals(leaf.key)) {
+				return (value == leaf.value) ? this : leaf;
+			}
+			if (hash == leaf.hash) {
+				return new CollisionNode<>(hash, Unsafe.cast(new Leaf<?, ?>[] { this, leaf }));
+			}
+			return merge(this, leaf, shift);
+		}
+
+		@Override
+		@Nullable Node<K, V> without(Object key, int hash, int shift) {
+			return (this.hash == hash && this.key.equals(key)) ? null : this;
+		}
+
+		@Override
+		Stream<Leaf<K, V>> leaves() {
+			return Stream.of(this);
+		}
+	}
+
+	// Leaves whose keys have the same hash.
+	private static final class CollisionNode<K, V> extends HashNode<K, V> {
+
+		private final int hash;
+		private final Leaf<K, V>[] leaves;
+
+		CollisionNode(int hash, Leaf<K, V>[] leaves) {
+			assert leaves.length >= 2;
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Override
+		int hash() {
+			return hash;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key.equals(key)) return i;
+			}
+			return -1;
+		}
+
+		@Override
+		@Nullable V get(Object key, int hash, int shift) {
+			if (this.hash != hash) return null;
+			int index = this.indexOf(key);
+			return (index >= 0) ? leaves[index].value : null;
+		}
+
+		@Override
+		Node<K, V> with(Leaf<K, V> leaf, int shift) {
+			if (hash != leaf.hash) {
+				return merge(this, leaf, shift);
+			}
+
+			int index = this.indexOf(leaf.key);
+			if (index >= 0) {
+				if (leaves[index].value == leaf.value) return this;
+				Leaf<K, V>[] newLeaves = leaves.clone();
+				newLeaves[index] = leaf;
+				return new CollisionNode<>(hash, newLeaves);
+			}
+
+			Leaf<K, V>[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+			newLeaves[leaves.length] = leaf;
+			return new CollisionNode<>(hash, newLeaves);
+		}
+
+		@Override
+		@Nullable Node<K, V> without(Object key, int hash, int shift) {
+			if (this.hash != hash) return this;
+			int index = this.indexOf(key);
+			if (index < 0) return this;
+			if (leaves.length == 2) {
+				return leaves[1 - index];
+			}
+
+			Leaf<K, V>[] newLeaves = Unsafe.cast(new Leaf<?, ?>[leaves.length - 1]);
+			System.arraycopy(leaves, 0, newLeaves, 0, index);
+			System.arraycopy(leaves, index + 1, newLeaves, index, leaves.length - index - 1);
+			return new CollisionNode<>(hash, newLeaves);
+		}
+
+		@Override
+		Stream<Leaf<K, V>> leaves() {
+			return Arrays.stream(leaves);
+		}
+	}
+
+	// Only stores the children of the occupied slots, which are indicated by the bitmap.
+	private static final class BranchNode<K, V> extends Node<K, V> {
+
+		private final int bitmap;
+		private final Node<K, V>[] children;
+
+		BranchNode(int bitmap, Node<K, V>[] children) {
+			assert Integer.bitCount(bitmap) == children.length;
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		private int childIndex(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		@Nullable V get(Object key, int hash, int shift) {
+			int bit = 1 << index(hash, shift);
+			if ((bitmap & bit) == 0) return null;
+			return children[this.childIndex(bit)].get(key, hash, shift + BITS_PER_LEVEL);
+		}
+
+		@Override
+		Node<K, V> with(Leaf<K, V> leaf, int shift) {
+			int bit = 1 << index(leaf.hash, shift);
+			int childIndex = this.childIndex(bit);
+			if ((bitmap & bit) == 0) {
+				Node<K, V>[] newChildren = Unsafe.cast(new Node<?, ?>[children.length + 1]);
+				System.arraycopy(children, 0, newChildren, 0, childIndex);
+				newChildren[childIndex] = leaf;
+				System.arraycopy(
+						children,
+						childIndex,
+						newChildren,
+						childIndex + 1,
+						children.length - childIndex
+				);
+				return new BranchNode<>(bitmap | bit, newChildren);
+			}
+
+			Node<K, V> child = children[childIndex];
+			Node<K, V> newChild = child.with(leaf, shift + BITS_PER_LEVEL);
+			if (newChild == child) return this;
+
+			Node<K, V>[] newChildren = children.clone();
+			newChildren[childIndex] = newChild;
+			return new BranchNode<>(bitmap, newChildren);
+		}
+
+		@Override
+		@Nullable Node<K, V> without(Object key, int hash, int shift) {
+			int bit = 1 << index(hash, shift);
+			if ((bitmap & bit) == 0) return this;
+
+			int childIndex = this.childIndex(bit);
+			Node<K, V> child = children[childIndex];
+			@Nullable Node<K, V> newChild = child.without(key, hash, shift + BITS_PER_LEVEL);
+			if (newChild == child) return this;
+
+			if (newChild != null) {
+				if (children.length == 1 && newChild instanceof HashNode) {
+					// The remaining leaves do not depend on their position:
+					return newChild;
+				}
+				Node<K, V>[] newChildren = children.clone();
+				newChildren[childIndex] = newChild;
+				return new BranchNode<>(bitmap, newChildren);
+			}
+
+			if (children.length == 1) return null;
+			if (children.length == 2) {
+				Node<K, V> remainingChild = children[1 - childIndex];
+				if (remainingChild instanceof HashNode) {
+					return remainingChild;
+				}
+			}
+
+			Node<K, V>[] newChildren = Unsafe.cast(new Node<?, ?>[children.length - 1]);
+			System.arraycopy(children, 0, newChildren, 0, childIndex);
+			System.arraycopy(
+					children,
+					childIndex + 1,
+					newChildren,
+					childIndex,
+					children.length - childIndex - 1
+			);
+			return new BranchNode<>(bitmap & ~bit, newChildren);
+		}
+
+		@Override
+		Stream<Leaf<K, V>> leaves() {
+			return Arrays.stream(children).flatMap(Node::leaves);
+		}
+	}
+
+	// Creates the branch nodes that separate the given nodes, which have different hashes.
+	private static <K, V> Node<K, V> merge(HashNode<K, V> node1, HashNode<K, V> node2, int shift) {
+		assert node1.hash() != node2.hash();
+		int index1 = index(node1.hash(), shift);
+		int index2 = index(node2.hash(), shift);
+		if (index1 == index2) {
+			Node<K, V>[] children = Unsafe.cast(new Node<?, ?>[] {
+					merge(node1, node2, shift + BITS_PER_LEVEL)
+			});
+			return new BranchNode<>(1 << index1, children);
+		}
+
+		Node<K, V>[] children = Unsafe.cast((index1 < index2)
+				? new Node<?, ?>[] { node1, node2 }
+				: new Node<?, ?>[] { node2, node1 });
+		return new BranchNode<>((1 << index1) | (1 << index2), children);
+	}
+
+	private final @Nullable Node<K, V> root;
+	private final int size;
+	private final Collection<V> valuesView = new AbstractCollection<V>() {
+		@Override
+		public Iterator<V> iterator() {
+			Stream<V> values = leaves().map(leaf -> leaf.value);
+			return values.iterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	};
+
+	private PersistentHashMap(@Nullable Node<K, V> root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	private Stream<Leaf<K, V>> leaves() {
+		return (root != null) ? root.leaves() : Stream.empty();
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if this map is empty.
+	 *
+	 * @return <code>true</code> if empty
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+
+	/**
+	 * Gets the value of the given key.
+	 *
+	 * @param key
+	 *            the key, not <code>null</code>
+	 * @return the value, or <code>null</code> if there is no entry for the given key
+	 */
+	public @Nullable V get(Object key) {
+		Validate.notNull(key, "key is null");
+		if (root == null) return null;
+		return root.get(key, hash(key), 0);
+	}
+
+	/**
+	 * Creates a map that maps the given key to the given value, and otherwise contains the entries
+	 * of this map.
+	 *
+	 * @param key
+	 *            the key, not <code>null</code>
+	 * @param value
+	 *            the value, not <code>null</code>
+	 * @return the resulting map, or this map if it already maps the given key to the given value
+	 */
+	public PersistentHashMap<K, V> with(K key, V value) {
+		Validate.notNull(key, "key is null");
+		Validate.notNull(value, "value is null");
+		Leaf<K, V> leaf = new Leaf<>(key, value, hash(key));
+		if (root == null) {
+			return new PersistentHashMap<>(leaf, 1);
+		}
+
+		Node<K, V> newRoot = root.with(leaf, 0);
+		if (newRoot == root) return this;
+		boolean added = (root.get(key, leaf.hash, 0) == null);
+		return new PersistentHashMap<>(newRoot, added ? size + 1 : size);
+	}
+
+	/**
+	 * Creates a map that contains the entries of this map, except the entry for the given key.
+	 *
+	 * @param key
+	 *            the key, not <code>null</code>
+	 * @return the resulting map, or this map if it does not contain an entry for the given key
+	 */
+	public PersistentHashMap<K, V> without(Object key) {
+		Validate.notNull(key, "key is null");
+		if (root == null) return this;
+
+		@Nullable Node<K, V> newRoot = root.without(key, hash(key), 0);
+		if (newRoot == root) return this;
+		if (newRoot == null) return empty();
+		return new PersistentHashMap<>(newRoot, size - 1);
+	}
+
+	/**
+	 * Gets the values of this map.
+	 *
+	 * @return an unmodifiable view on the values, not <code>null</code>
+	 */
+	public Collection<V> values() {
+		return valuesView;
+	}
+
+	@Override
+	public String toString() {
+		return "PersistentHashMap [size=" + size + "]";
+	}
+}
@@ -19,11 +19,11 @@ public class MergedTrades {
 
 	private final ShopkeeperTradeEvent initialTrade;
 	private final Instant timestamp = Instant.now();
-	private int tradeCount = 1;
+	private int tradeCount;
 
 	/**
-	 * Creates a new {@link MergedTrades} for the given {@link ShopkeeperTradeEvent trade} with a
-	 * {@link #getTradeCount() trade count} of one.
+	 * Creates a new {@link MergedTrades} for the given {@link ShopkeeperTradeEvent trade} with the
+	 * {@link ShopkeeperTradeEvent#getTradeCount() trade count} of that trade.
 	 * 
 	 * @param initialTrade
 	 *            the initial trade, not <code>null</code>
@@ -31,6 +31,7 @@ public class MergedTrades {
 	public MergedTrades(ShopkeeperTradeEvent initialTrade) {
 		Validate.notNull(initialTrade, "initialTrade is null");
 		this.initialTrade = initialTrade;
+		this.tradeCount = initialTrade.getTradeCount();
 	}
 
 	/**
@@ -163,7 +163,7 @@ public class TradeMerger {
 			this.startDelayedTasks();
 		} else if (previousTrades.canMerge(tradeEvent, mergeMode == MergeMode.SAME_CLICK_EVENT)) {
 			// Merge the trade with the previous trades:
-			previousTrades.addTrades(1);
+			previousTrades.addTrades(tradeEvent.getTradeCount());
 			lastMergedTradeNanos = nowNanos;
 		} else {
 			// The trade could not be merged with the previous trades.
@@ -0,0 +1,63 @@
+package com.nisovin.shopkeepers.container.protection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProtectedContainerIndexTests {
+
+	private static final String WORLD = "world";
+	private static final String OTHER_WORLD = "world_nether";
+
+	@Test
+	public void testContainerAndAdjacentColumns() {
+		ProtectedContainerIndex index = new ProtectedContainerIndex();
+		index.add(WORLD, 5, 7);
+
+		Assert.assertTrue(index.mightBeProtected(WORLD, 5, 7));
+		// Adjacent columns (connected double chests):
+		Assert.assertTrue(index.mightBeProtected(WORLD, 4, 7));
+		Assert.assertTrue(index.mightBeProtected(WORLD, 6, 7));
+		Assert.assertTrue(index.mightBeProtected(WORLD, 5, 6));
+		Assert.assertTrue(index.mightBeProtected(WORLD, 5, 8));
+
+		// Diagonal and other columns:
+		Assert.assertFalse(index.mightBeProtected(WORLD, 4, 6));
+		Assert.assertFalse(index.mightBeProtected(WORLD, 7, 7));
+		Assert.assertFalse(index.mightBeProtected(WORLD, 5 + 16, 7));
+		Assert.assertFalse(index.mightBeProtected(OTHER_WORLD, 5, 7));
+	}
+
+	@Test
+	public void testChunkBorders() {
+		ProtectedContainerIndex index = new ProtectedContainerIndex();
+		index.add(WORLD, 0, -1);
+
+		Assert.assertTrue(index.mightBeProtected(WORLD, 0, -1));
+		// Adjacent columns in neighboring chunks:
+		Assert.assertTrue(index.mightBeProtected(WORLD, -1, -1));
+		Assert.assertTrue(index.mightBeProtected(WORLD, 0, 0));
+		Assert.assertFalse(index.mightBeProtected(WORLD, -1, 0));
+
+		index.remove(WORLD, 0, -1);
+		Assert.assertFalse(index.mightBeProtected(WORLD, 0, -1));
+		Assert.assertFalse(index.mightBeProtected(WORLD, -1, -1));
+		Assert.assertFalse(index.mightBeProtected(WORLD, 0, 0));
+	}
+
+	@Test
+	public void testOverlappingContainers() {
+		ProtectedContainerIndex index = new ProtectedContainerIndex();
+		index.add(WORLD, 10, 10);
+		index.add(WORLD, 11, 10);
+
+		index.remove(WORLD, 10, 10);
+		// Still covered by the remaining container:
+		Assert.assertTrue(index.mightBeProtected(WORLD, 10, 10));
+		Assert.assertTrue(index.mightBeProtected(WORLD, 11, 10));
+		Assert.assertFalse(index.mightBeProtected(WORLD, 9, 10));
+
+		index.remove(WORLD, 11, 10);
+		Assert.assertFalse(index.mightBeProtected(WORLD, 10, 10));
+		Assert.assertFalse(index.mightBeProtected(WORLD, 11, 10));
+	}
+}
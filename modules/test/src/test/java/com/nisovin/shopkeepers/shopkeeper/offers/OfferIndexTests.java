@@ -0,0 +1,212 @@
+package com.nisovin.shopkeepers.shopkeeper.offers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.IndexedOffer;
+import com.nisovin.shopkeepers.shopkeeper.SKTradingRecipe;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.testutil.ShopkeeperMock;
+
+public class OfferIndexTests extends AbstractBukkitTest {
+
+	private static TradingRecipe recipe(
+			Material resultType,
+			Material item1Type,
+			@Nullable Material item2Type
+	) {
+		return new SKTradingRecipe(
+				new ItemStack(resultType),
+				new ItemStack(item1Type),
+				(item2Type != null) ? new ItemStack(item2Type) : null
+		);
+	}
+
+	private static List<Integer> getShopkeeperIds(List<? extends IndexedOffer> offers) {
+		List<Integer> shopkeeperIds = new ArrayList<>();
+		offers.forEach(offer -> shopkeeperIds.add(offer.getShopkeeperId()));
+		return shopkeeperIds;
+	}
+
+	// Shopkeeper id -> trading recipes:
+	private final Map<Integer, List<TradingRecipe>> recipes = new HashMap<>();
+	// The shopkeeper ids in the order in which the shopkeepers have been indexed:
+	private final List<Integer> indexedShopkeepers = new ArrayList<>();
+	// The previous offers that have been passed during the last indexing:
+	private List<SKIndexedOffer> lastPreviousOffers = Collections.emptyList();
+
+	private final SKOfferIndex index = new SKOfferIndex(
+			ShopkeepersPlugin.getInstance(),
+			this::createOffers
+	);
+
+	private List<SKIndexedOffer> createOffers(
+			Shopkeeper shopkeeper,
+			List<SKIndexedOffer> previousOffers
+	) {
+		indexedShopkeepers.add(shopkeeper.getId());
+		lastPreviousOffers = previousOffers;
+		List<TradingRecipe> shopkeeperRecipes = recipes.getOrDefault(
+				shopkeeper.getId(),
+				Collections.emptyList()
+		);
+		List<SKIndexedOffer> offers = new ArrayList<>();
+		for (TradingRecipe recipe : shopkeeperRecipes) {
+			offers.add(new SKIndexedOffer(shopkeeper, recipe, IndexedOffer.UNLIMITED_STOCK));
+		}
+		return offers;
+	}
+
+	private Shopkeeper createShopkeeper(int id, TradingRecipe... shopkeeperRecipes) {
+		recipes.put(id, Arrays.asList(shopkeeperRecipes));
+		return new ShopkeeperMock(id).getShopkeeper();
+	}
+
+	@Test
+	public void testInvalidatedShopkeeperIsNotIndexedUntilUpdate() {
+		Shopkeeper shopkeeper = this.createShopkeeper(1,
+				recipe(Material.DIAMOND, Material.EMERALD, null)
+		);
+		index.invalidate(shopkeeper);
+
+		// Queries do not re-index stale shopkeepers:
+		Assert.assertEquals(1, index.getStaleShopkeeperCount());
+		Assert.assertTrue(index.getOffersByResultItem(Material.DIAMOND).isEmpty());
+		Assert.assertTrue(index.getOffers(shopkeeper).isEmpty());
+		Assert.assertTrue(indexedShopkeepers.isEmpty());
+
+		index.updateStaleShopkeepers(10);
+		Assert.assertEquals(0, index.getStaleShopkeeperCount());
+		Assert.assertEquals(1, index.getOffers(shopkeeper).size());
+		Assert.assertEquals(1, index.getOffersByResultItem(Material.DIAMOND).size());
+		Assert.assertEquals(1, index.getOffersByCostItem(Material.EMERALD).size());
+		Assert.assertTrue(index.getOffersByResultItem(Material.EMERALD).isEmpty());
+		Assert.assertTrue(index.getOffersByCostItem(Material.DIAMOND).isEmpty());
+	}
+
+	@Test
+	public void testUpdateIsLimited() {
+		for (int id = 1; id <= 5; id++) {
+			index.invalidate(this.createShopkeeper(id,
+					recipe(Material.DIAMOND, Material.EMERALD, null)
+			));
+		}
+
+		index.updateStaleShopkeepers(2);
+		Assert.assertEquals(Arrays.asList(1, 2), indexedShopkeepers);
+		Assert.assertEquals(3, index.getStaleShopkeeperCount());
+		Assert.assertEquals(Arrays.asList(1, 2),
+				getShopkeeperIds(index.getOffersByResultItem(Material.DIAMOND)));
+
+		index.updateStaleShopkeepers(10);
+		Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), indexedShopkeepers);
+		Assert.assertEquals(0, index.getStaleShopkeeperCount());
+	}
+
+	@Test
+	public void testRepeatedInvalidationKeepsPosition() {
+		Shopkeeper shopkeeper1 = this.createShopkeeper(1,
+				recipe(Material.DIAMOND, Material.EMERALD, null)
+		);
+		Shopkeeper shopkeeper2 = this.createShopkeeper(2,
+				recipe(Material.DIAMOND, Material.EMERALD, null)
+		);
+		index.invalidate(shopkeeper1);
+		index.invalidate(shopkeeper2);
+		index.invalidate(shopkeeper1);
+		Assert.assertEquals(2, index.getStaleShopkeeperCount());
+
+		index.updateStaleShopkeepers(1);
+		Assert.assertEquals(Arrays.asList(1), indexedShopkeepers);
+
+		index.updateStaleShopkeepers(10);
+		// Each shopkeeper is only indexed once:
+		Assert.assertEquals(Arrays.asList(1, 2), indexedShopkeepers);
+	}
+
+	@Test
+	public void testOffersAreOrderedByShopkeeperId() {
+		TradingRecipe recipe1 = recipe(Material.DIAMOND, Material.EMERALD, null);
+		TradingRecipe recipe2 = recipe(Material.DIAMOND, Material.GOLD_INGOT, null);
+		index.invalidate(this.createShopkeeper(3, recipe1));
+		index.invalidate(this.createShopkeeper(1, recipe1, recipe2));
+		index.invalidate(this.createShopkeeper(2, recipe2));
+		index.updateStaleShopkeepers(10);
+
+		List<? extends IndexedOffer> offers = index.getOffersByResultItem(Material.DIAMOND);
+		Assert.assertEquals(Arrays.asList(1, 1, 2, 3), getShopkeeperIds(offers));
+		// The offers of the same shopkeeper are in the order of its trades:
+		Assert.assertEquals(recipe1, offers.get(0).getTradingRecipe());
+		Assert.assertEquals(recipe2, offers.get(1).getTradingRecipe());
+	}
+
+	@Test
+	public void testSecondCostItem() {
+		Shopkeeper shopkeeper1 = this.createShopkeeper(1,
+				recipe(Material.DIAMOND, Material.EMERALD, Material.GOLD_INGOT)
+		);
+		Shopkeeper shopkeeper2 = this.createShopkeeper(2,
+				recipe(Material.DIAMOND, Material.EMERALD, Material.EMERALD)
+		);
+		index.invalidate(shopkeeper1);
+		index.invalidate(shopkeeper2);
+		index.updateStaleShopkeepers(10);
+
+		Assert.assertEquals(Arrays.asList(1, 2),
+				getShopkeeperIds(index.getOffersByCostItem(Material.EMERALD)));
+		Assert.assertEquals(Arrays.asList(1),
+				getShopkeeperIds(index.getOffersByCostItem(Material.GOLD_INGOT)));
+	}
+
+	@Test
+	public void testReindexReplacesOffers() {
+		Shopkeeper shopkeeper = this.createShopkeeper(1,
+				recipe(Material.DIAMOND, Material.EMERALD, Material.GOLD_INGOT)
+		);
+		index.invalidate(shopkeeper);
+		index.updateStaleShopkeepers(10);
+		List<? extends IndexedOffer> previousOffers = index.getOffers(shopkeeper);
+
+		recipes.put(1, Arrays.asList(recipe(Material.IRON_INGOT, Material.EMERALD, null)));
+		index.invalidate(shopkeeper);
+		// The previous offers remain queryable until the shopkeeper is re-indexed:
+		Assert.assertEquals(1, index.getOffersByResultItem(Material.DIAMOND).size());
+
+		index.updateStaleShopkeepers(10);
+		Assert.assertEquals(previousOffers, lastPreviousOffers);
+		Assert.assertTrue(index.getOffersByResultItem(Material.DIAMOND).isEmpty());
+		Assert.assertTrue(index.getOffersByCostItem(Material.GOLD_INGOT).isEmpty());
+		Assert.assertEquals(1, index.getOffersByResultItem(Material.IRON_INGOT).size());
+		Assert.assertEquals(1, index.getOffersByCostItem(Material.EMERALD).size());
+	}
+
+	@Test
+	public void testInvalidShopkeeperIsRemoved() {
+		ShopkeeperMock shopkeeperMock = new ShopkeeperMock(1);
+		Shopkeeper shopkeeper = shopkeeperMock.getShopkeeper();
+		recipes.put(1, Arrays.asList(recipe(Material.DIAMOND, Material.EMERALD, null)));
+		index.invalidate(shopkeeper);
+		index.updateStaleShopkeepers(10);
+		Assert.assertEquals(1, index.getOffers(shopkeeper).size());
+
+		shopkeeperMock.setValid(false);
+		index.invalidate(shopkeeper);
+		index.updateStaleShopkeepers(10);
+		Assert.assertTrue(index.getOffers(shopkeeper).isEmpty());
+		Assert.assertTrue(index.getOffersByResultItem(Material.DIAMOND).isEmpty());
+		Assert.assertTrue(index.getOffersByCostItem(Material.EMERALD).isEmpty());
+	}
+}
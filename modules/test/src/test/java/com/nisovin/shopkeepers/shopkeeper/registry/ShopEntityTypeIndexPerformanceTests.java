@@ -0,0 +1,98 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.bukkit.entity.EntityType;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.PerformanceTests;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.java.MutableLong;
+
+/**
+ * Compares the lookup of shopkeepers by entity with and without the {@link ShopEntityTypeIndex}
+ * pre-filter, for the entities of a typical mob farm.
+ * <p>
+ * Like {@link PerformanceTests}, this is excluded from the regular test runs.
+ */
+public class ShopEntityTypeIndexPerformanceTests extends AbstractBukkitTest {
+
+	private static final Logger LOGGER = Logger.getLogger(
+			ShopEntityTypeIndexPerformanceTests.class.getCanonicalName()
+	);
+
+	private static final int SHOPKEEPERS = 5000;
+	private static final int ENTITIES = 10000;
+	private static final EntityType[] FARM_ENTITY_TYPES = {
+			EntityType.ZOMBIE,
+			EntityType.SKELETON,
+			EntityType.CREEPER,
+			EntityType.SPIDER,
+			EntityType.ENDERMAN,
+			EntityType.IRON_GOLEM
+	};
+
+	@Test
+	public void testEntityLookupPerformance() {
+		LOGGER.info("Testing shopkeeper lookup by entity performance:");
+		int warmupCount = 100;
+		int testCount = 1000;
+		Random random = new Random(42L);
+
+		// Villager shopkeepers:
+		Map<Object, Object> shopkeepersByObjectId = new HashMap<>();
+		ShopEntityTypeIndex index = new ShopEntityTypeIndex();
+		for (int i = 0; i < SHOPKEEPERS; i++) {
+			shopkeepersByObjectId.put(UUID.randomUUID(), Integer.valueOf(i));
+			index.add(EntityType.VILLAGER);
+		}
+
+		// Mob farm entities that are not shopkeepers:
+		UUID[] entityIds = new UUID[ENTITIES];
+		EntityType[] entityTypes = new EntityType[ENTITIES];
+		for (int i = 0; i < ENTITIES; i++) {
+			entityIds[i] = UUID.randomUUID();
+			entityTypes[i] = FARM_ENTITY_TYPES[random.nextInt(FARM_ENTITY_TYPES.length)];
+		}
+
+		// Prevents that the lookups are optimized away:
+		MutableLong found = new MutableLong();
+
+		PerformanceTests.testPerformance(
+				"  ",
+				"lookup by object id (" + ENTITIES + " entities)",
+				warmupCount,
+				testCount,
+				() -> {
+					for (int i = 0; i < ENTITIES; i++) {
+						if (shopkeepersByObjectId.get(entityIds[i]) != null) {
+							found.increment(1);
+						}
+					}
+				}
+		);
+
+		PerformanceTests.testPerformance(
+				"  ",
+				"entity type pre-filter and lookup by object id (" + ENTITIES + " entities)",
+				warmupCount,
+				testCount,
+				() -> {
+					for (int i = 0; i < ENTITIES; i++) {
+						if (!index.mightBeShopEntity(entityTypes[i])) continue;
+						if (shopkeepersByObjectId.get(entityIds[i]) != null) {
+							found.increment(1);
+						}
+					}
+				}
+		);
+
+		if (found.getValue() != 0) {
+			throw new IllegalStateException("Unexpected test outcome.");
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import org.bukkit.entity.EntityType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+
+public class ShopEntityTypeIndexTests extends AbstractBukkitTest {
+
+	@Test
+	public void testEmpty() {
+		ShopEntityTypeIndex index = new ShopEntityTypeIndex();
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.VILLAGER));
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.ZOMBIE));
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		ShopEntityTypeIndex index = new ShopEntityTypeIndex();
+		index.add(EntityType.VILLAGER);
+		index.add(EntityType.VILLAGER);
+
+		Assert.assertTrue(index.mightBeShopEntity(EntityType.VILLAGER));
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.ZOMBIE));
+
+		index.remove(EntityType.VILLAGER);
+		// Still covered by the remaining shop object:
+		Assert.assertTrue(index.mightBeShopEntity(EntityType.VILLAGER));
+
+		index.remove(EntityType.VILLAGER);
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.VILLAGER));
+	}
+
+	@Test
+	public void testUnknownEntityType() {
+		ShopEntityTypeIndex index = new ShopEntityTypeIndex();
+		index.add(EntityType.UNKNOWN);
+
+		// Shop objects of unknown type disable the filtering:
+		Assert.assertTrue(index.mightBeShopEntity(EntityType.VILLAGER));
+		Assert.assertTrue(index.mightBeShopEntity(EntityType.ZOMBIE));
+
+		index.remove(EntityType.UNKNOWN);
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.ZOMBIE));
+	}
+
+	@Test
+	public void testClear() {
+		ShopEntityTypeIndex index = new ShopEntityTypeIndex();
+		index.add(EntityType.VILLAGER);
+		index.add(EntityType.UNKNOWN);
+		index.clear();
+
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.VILLAGER));
+		Assert.assertFalse(index.mightBeShopEntity(EntityType.ZOMBIE));
+	}
+}
@@ -0,0 +1,242 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.PerformanceTests;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.testutil.LoadSimulation;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
+
+/**
+ * Simulates the save data of a server with a large number of admin and player shopkeepers, and
+ * drives create, edit, trade, move, delete, save and load cycles on it.
+ * <p>
+ * The shopkeeper data has the same structure as the data inside the save file of the
+ * {@link SKShopkeeperStorage}: Admin shops with trading recipes, player shops with owners,
+ * containers and offers, and some shopkeepers with snapshots. The number of shopkeepers can be
+ * configured via the system property {@value LoadSimulation#SHOPKEEPERS_PROPERTY}.
+ * <p>
+ * Like {@link PerformanceTests}, this is excluded from the regular test runs. It can be run via the
+ * Gradle task {@code performanceTest}.
+ */
+public class StorageLoadSimulationPerformanceTests extends AbstractBukkitTest {
+
+	private static final Logger LOGGER = Logger.getLogger(
+			StorageLoadSimulationPerformanceTests.class.getCanonicalName()
+	);
+
+	private static final String[] WORLDS = { "world", "world_nether", "world_the_end" };
+	// The shopkeepers are spread across this many chunks around the world origin:
+	private static final int CHUNK_RADIUS = 200;
+	private static final int MAX_OFFERS = 8;
+	// Every n-th shopkeeper is an admin shopkeeper:
+	private static final int ADMIN_SHOP_INTERVAL = 4;
+	// Every n-th shopkeeper has a snapshot:
+	private static final int SNAPSHOT_INTERVAL = 10;
+	// The portion of shopkeepers that are affected by each edit, trade, move, and delete phase:
+	private static final double CHANGED_PORTION = 0.1D;
+	private static final int SAVE_LOAD_CYCLES = 3;
+
+	private static final Material[] ITEM_TYPES = {
+			Material.STONE,
+			Material.OAK_LOG,
+			Material.IRON_INGOT,
+			Material.GOLD_INGOT,
+			Material.DIAMOND,
+			Material.BREAD,
+			Material.COOKED_BEEF,
+			Material.ARROW,
+			Material.TORCH,
+			Material.GLASS
+	};
+
+	private final Random random = new Random(42L);
+	// Reused for the items with item meta:
+	private final ItemStack complexItem = TestItemStacks.createItemStackComplete();
+
+	@Test
+	public void testStorageScaling() {
+		int shopkeeperCount = LoadSimulation.getShopkeeperCount();
+		int changedCount = Math.max(1, (int) (shopkeeperCount * CHANGED_PORTION));
+		LOGGER.info("Simulating the storage of " + shopkeeperCount + " shopkeepers:");
+
+		BukkitConfigDataStore saveData = BukkitConfigDataStore.ofNewYamlConfig();
+		List<Integer> shopkeeperIds = new ArrayList<>(shopkeeperCount);
+
+		LoadSimulation.runPhase("  ", "create", shopkeeperCount, index -> {
+			int shopkeeperId = index + 1;
+			DataContainer shopkeeperData = saveData.createContainer(String.valueOf(shopkeeperId));
+			this.createShopkeeperData(shopkeeperData, index);
+			shopkeeperIds.add(shopkeeperId);
+		});
+
+		String savedData = this.runSaveLoadCycles("initial", saveData, shopkeeperIds.size());
+
+		LoadSimulation.runPhase("  ", "edit", changedCount, index -> {
+			DataContainer shopkeeperData = this.getRandomShopkeeperData(saveData, shopkeeperIds);
+			shopkeeperData.set("name", "Edited shop " + index);
+			this.setRandomOffers(shopkeeperData);
+		});
+
+		// Trades only affect the data of player shops, which store the trade notification setting
+		// and are marked dirty by the changed container contents:
+		LoadSimulation.runPhase("  ", "trade", changedCount, index -> {
+			DataContainer shopkeeperData = this.getRandomShopkeeperData(saveData, shopkeeperIds);
+			if (!shopkeeperData.contains("owner uuid")) return;
+			shopkeeperData.set("notifyOnTrades", random.nextBoolean());
+		});
+
+		LoadSimulation.runPhase("  ", "move", changedCount, index -> {
+			DataContainer shopkeeperData = this.getRandomShopkeeperData(saveData, shopkeeperIds);
+			this.setRandomLocation(shopkeeperData);
+		});
+
+		LoadSimulation.runPhase("  ", "delete", changedCount, index -> {
+			int shopkeeperId = shopkeeperIds.remove(random.nextInt(shopkeeperIds.size()));
+			saveData.remove(String.valueOf(shopkeeperId));
+		});
+
+		savedData = this.runSaveLoadCycles("after changes", saveData, shopkeeperIds.size());
+		Assert.assertTrue("Unexpected save data size!", savedData.length() > 0);
+	}
+
+	// Returns the data of the last save.
+	private String runSaveLoadCycles(
+			String label,
+			BukkitConfigDataStore saveData,
+			int expectedShopkeepers
+	) {
+		String[] savedData = new String[1];
+		LoadSimulation.runPhase("  ", "save (" + label + ")", SAVE_LOAD_CYCLES, index -> {
+			savedData[0] = saveData.saveToString();
+		});
+		LOGGER.info("    Save data size: " + (savedData[0].length() / 1024) + " KiB");
+
+		BukkitConfigDataStore loadedData = BukkitConfigDataStore.ofNewYamlConfig();
+		LoadSimulation.runPhase("  ", "load (" + label + ")", SAVE_LOAD_CYCLES, index -> {
+			try {
+				loadedData.loadFromString(savedData[0]);
+			} catch (InvalidDataFormatException e) {
+				throw new IllegalStateException("Failed to load the saved data!", e);
+			}
+		});
+		Assert.assertEquals(
+				"Unexpected number of loaded shopkeepers!",
+				expectedShopkeepers,
+				loadedData.getKeys().size()
+		);
+		return savedData[0];
+	}
+
+	private DataContainer getRandomShopkeeperData(
+			BukkitConfigDataStore saveData,
+			List<Integer> shopkeeperIds
+	) {
+		int shopkeeperId = shopkeeperIds.get(random.nextInt(shopkeeperIds.size()));
+		DataContainer shopkeeperData = saveData.getContainer(String.valueOf(shopkeeperId));
+		if (shopkeeperData == null) {
+			throw new IllegalStateException("Missing data for shopkeeper " + shopkeeperId);
+		}
+		return shopkeeperData;
+	}
+
+	private void createShopkeeperData(DataContainer shopkeeperData, int index) {
+		boolean adminShop = (index % ADMIN_SHOP_INTERVAL == 0);
+		shopkeeperData.set("uniqueId", UUID.randomUUID().toString());
+		shopkeeperData.set("type", adminShop ? "admin" : "sell");
+		shopkeeperData.set("name", "Shop " + index);
+		if (!adminShop) {
+			shopkeeperData.set("owner uuid", UUID.randomUUID().toString());
+			shopkeeperData.set("owner", "Player" + random.nextInt(1000));
+			shopkeeperData.set("notifyOnTrades", true);
+		}
+		this.setRandomLocation(shopkeeperData);
+		shopkeeperData.set("yaw", random.nextFloat() * 360.0F);
+		shopkeeperData.createContainer("object").set("type", "villager");
+		this.setRandomOffers(shopkeeperData);
+
+		if (index % SNAPSHOT_INTERVAL == 0) {
+			Map<String, Object> snapshotData = new LinkedHashMap<>();
+			snapshotData.put("name", "Shop " + index);
+			snapshotData.put(this.getOffersKey(shopkeeperData), this.createOffers(shopkeeperData));
+			Map<String, Object> snapshot = new LinkedHashMap<>();
+			snapshot.put("name", "backup");
+			snapshot.put("timestamp", "2024-01-01T00:00:00Z");
+			snapshot.put("data", snapshotData);
+			shopkeeperData.set("snapshots", Collections.singletonList(snapshot));
+		}
+	}
+
+	private String getOffersKey(DataContainer shopkeeperData) {
+		return shopkeeperData.contains("owner uuid") ? "offers" : "recipes";
+	}
+
+	private void setRandomOffers(DataContainer shopkeeperData) {
+		shopkeeperData.set(this.getOffersKey(shopkeeperData), this.createOffers(shopkeeperData));
+	}
+
+	private void setRandomLocation(DataContainer shopkeeperData) {
+		shopkeeperData.set("world", WORLDS[random.nextInt(WORLDS.length)]);
+		int x = this.getRandomBlockCoordinate();
+		int y = 60 + random.nextInt(40);
+		int z = this.getRandomBlockCoordinate();
+		shopkeeperData.set("x", x);
+		shopkeeperData.set("y", y);
+		shopkeeperData.set("z", z);
+		if (shopkeeperData.contains("owner uuid")) {
+			// The container is located below the shopkeeper:
+			shopkeeperData.set("chestx", x);
+			shopkeeperData.set("chesty", y - 1);
+			shopkeeperData.set("chestz", z);
+		}
+	}
+
+	private int getRandomBlockCoordinate() {
+		return random.nextInt(CHUNK_RADIUS * 2 * 16) - CHUNK_RADIUS * 16;
+	}
+
+	private List<Map<String, Object>> createOffers(DataContainer shopkeeperData) {
+		boolean playerShop = shopkeeperData.contains("owner uuid");
+		int offerCount = 1 + random.nextInt(MAX_OFFERS);
+		List<Map<String, Object>> offers = new ArrayList<>(offerCount);
+		for (int i = 0; i < offerCount; i++) {
+			Map<String, Object> offer = new LinkedHashMap<>();
+			if (playerShop) {
+				offer.put("item", this.createRandomItem());
+				offer.put("price", 1 + random.nextInt(64));
+			} else {
+				offer.put("resultItem", this.createRandomItem());
+				offer.put("item1", this.createRandomItem());
+				if (random.nextBoolean()) {
+					offer.put("item2", this.createRandomItem());
+				}
+			}
+			offers.add(offer);
+		}
+		return offers;
+	}
+
+	private ItemStack createRandomItem() {
+		// Some items with item meta:
+		if (random.nextInt(10) == 0) {
+			return complexItem.clone();
+		}
+		Material type = ITEM_TYPES[random.nextInt(ITEM_TYPES.length)];
+		return new ItemStack(type, 1 + random.nextInt(type.getMaxStackSize()));
+	}
+}
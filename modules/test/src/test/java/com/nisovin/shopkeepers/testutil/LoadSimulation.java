@@ -0,0 +1,190 @@
+package com.nisovin.shopkeepers.testutil;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+import com.nisovin.shopkeepers.util.java.TimeUtils;
+
+/**
+ * Utilities for load simulations that measure how the plugin scales with large numbers of
+ * shopkeepers.
+ * <p>
+ * Each simulation phase executes an operation a number of times and reports the throughput, the
+ * latency percentiles of the individual operations, and the allocation rate of the current thread.
+ * <p>
+ * The number of simulated shopkeepers can be configured via the system property
+ * {@value #SHOPKEEPERS_PROPERTY}.
+ */
+public final class LoadSimulation {
+
+	private static final Logger LOGGER = Logger.getLogger(LoadSimulation.class.getCanonicalName());
+
+	public static final String SHOPKEEPERS_PROPERTY = "shopkeepers.simulation.shopkeepers";
+	public static final int DEFAULT_SHOPKEEPERS = 20000;
+
+	/**
+	 * Gets the configured number of shopkeepers to simulate.
+	 *
+	 * @return the number of shopkeepers
+	 */
+	public static int getShopkeeperCount() {
+		return Integer.getInteger(SHOPKEEPERS_PROPERTY, DEFAULT_SHOPKEEPERS);
+	}
+
+	/**
+	 * The measurements of a simulation phase.
+	 */
+	public static final class PhaseResult {
+
+		private final String name;
+		private final long[] latenciesNanos; // Sorted
+		private final long durationNanos;
+		private final long allocatedBytes; // -1 if not supported
+
+		private PhaseResult(
+				String name,
+				long[] latenciesNanos,
+				long durationNanos,
+				long allocatedBytes
+		) {
+			this.name = name;
+			this.latenciesNanos = latenciesNanos;
+			this.durationNanos = durationNanos;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getOperations() {
+			return latenciesNanos.length;
+		}
+
+		public double getDurationMillis() {
+			return TimeUtils.convert(durationNanos, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+		}
+
+		public double getOperationsPerSecond() {
+			if (durationNanos == 0L) return 0.0D;
+			return latenciesNanos.length * (double) TimeUnit.SECONDS.toNanos(1L) / durationNanos;
+		}
+
+		/**
+		 * Gets the latency at the given percentile.
+		 *
+		 * @param percentile
+		 *            the percentile, between <code>0</code> and <code>100</code>
+		 * @return the latency in microseconds
+		 */
+		public double getLatencyMicros(double percentile) {
+			if (latenciesNanos.length == 0) return 0.0D;
+			int index = (int) Math.ceil(percentile / 100.0D * latenciesNanos.length) - 1;
+			index = Math.max(0, Math.min(index, latenciesNanos.length - 1));
+			return TimeUtils.convert(
+					latenciesNanos[index],
+					TimeUnit.NANOSECONDS,
+					TimeUnit.MICROSECONDS
+			);
+		}
+
+		/**
+		 * Gets the number of bytes that were allocated by the current thread during this phase.
+		 *
+		 * @return the allocated bytes, or <code>-1</code> if not supported by the JVM
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(name).append(": ")
+					.append(latenciesNanos.length).append(" ops in ")
+					.append(String.format("%.1f", this.getDurationMillis())).append(" ms (")
+					.append(String.format("%.0f", this.getOperationsPerSecond())).append(" ops/s)")
+					.append(", latency p50/p90/p99/max: ")
+					.append(String.format("%.1f/%.1f/%.1f/%.1f",
+							this.getLatencyMicros(50.0D),
+							this.getLatencyMicros(90.0D),
+							this.getLatencyMicros(99.0D),
+							this.getLatencyMicros(100.0D)))
+					.append(" us");
+			if (allocatedBytes >= 0L) {
+				double allocatedMiB = allocatedBytes / (1024.0D * 1024.0D);
+				double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1L);
+				double allocationRate = (seconds > 0.0D) ? allocatedMiB / seconds : 0.0D;
+				sb.append(", allocated: ")
+						.append(String.format("%.1f", allocatedMiB)).append(" MiB (")
+						.append(String.format("%.1f", allocationRate)).append(" MiB/s)");
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Runs a simulation phase and logs its measurements.
+	 *
+	 * @param outputPrefix
+	 *            the prefix of the logged output
+	 * @param phaseName
+	 *            the phase name
+	 * @param operations
+	 *            the number of operations
+	 * @param operation
+	 *            the operation, invoked with the index of the operation
+	 * @return the measurements
+	 */
+	public static PhaseResult runPhase(
+			String outputPrefix,
+			String phaseName,
+			int operations,
+			IntConsumer operation
+	) {
+		long[] latenciesNanos = new long[operations];
+		long allocatedBytesStart = getCurrentThreadAllocatedBytes();
+		long startNanos = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			long operationStartNanos = System.nanoTime();
+			operation.accept(i);
+			latenciesNanos[i] = System.nanoTime() - operationStartNanos;
+		}
+		long durationNanos = System.nanoTime() - startNanos;
+		long allocatedBytesEnd = getCurrentThreadAllocatedBytes();
+		long allocatedBytes = -1L;
+		if (allocatedBytesStart >= 0L && allocatedBytesEnd >= 0L) {
+			allocatedBytes = allocatedBytesEnd - allocatedBytesStart;
+		}
+
+		Arrays.sort(latenciesNanos);
+		PhaseResult result = new PhaseResult(
+				phaseName,
+				latenciesNanos,
+				durationNanos,
+				allocatedBytes
+		);
+		LOGGER.info(outputPrefix + result);
+		return result;
+	}
+
+	// Returns -1 if not supported.
+	private static long getCurrentThreadAllocatedBytes() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) return -1L;
+
+		var allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+		if (!allocationMXBean.isThreadAllocatedMemorySupported()
+				|| !allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+			return -1L;
+		}
+		return allocationMXBean.getCurrentThreadAllocatedBytes();
+	}
+
+	private LoadSimulation() {
+	}
+}
@@ -0,0 +1,69 @@
+package com.nisovin.shopkeepers.testutil;
+
+import java.util.UUID;
+
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+
+/**
+ * Mocks a {@link Shopkeeper} (at least the functions required for our tests).
+ */
+public class ShopkeeperMock extends ProxyHandler<Shopkeeper> {
+
+	private final int id;
+	private final UUID uniqueId = UUID.randomUUID();
+	private boolean valid = true;
+	private final Shopkeeper shopkeeper;
+
+	public ShopkeeperMock(int id) {
+		super(Shopkeeper.class);
+		this.id = id;
+		this.shopkeeper = this.newProxy();
+	}
+
+	@Override
+	protected void setupMethodHandlers() throws Exception {
+		this.addHandler(
+				Shopkeeper.class.getMethod("getId"),
+				(proxy, args) -> {
+					return id;
+				}
+		);
+		this.addHandler(
+				Shopkeeper.class.getMethod("getUniqueId"),
+				(proxy, args) -> {
+					return uniqueId;
+				}
+		);
+		this.addHandler(
+				Shopkeeper.class.getMethod("isValid"),
+				(proxy, args) -> {
+					return valid;
+				}
+		);
+		this.addHandler(
+				Object.class.getMethod("toString"),
+				(proxy, args) -> {
+					return "ShopkeeperMock [id=" + id + "]";
+				}
+		);
+	}
+
+	/**
+	 * Gets the mocked shopkeeper.
+	 *
+	 * @return the shopkeeper, not <code>null</code>
+	 */
+	public Shopkeeper getShopkeeper() {
+		return shopkeeper;
+	}
+
+	/**
+	 * Sets whether the mocked shopkeeper is valid.
+	 *
+	 * @param valid
+	 *            <code>true</code> if the shopkeeper is valid
+	 */
+	public void setValid(boolean valid) {
+		this.valid = valid;
+	}
+}
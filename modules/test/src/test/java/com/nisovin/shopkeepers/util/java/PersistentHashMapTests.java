@@ -0,0 +1,158 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PersistentHashMapTests {
+
+	// A key with a configurable hash code, for testing hash collisions.
+	private static final class Key {
+
+		private final String name;
+		private final int hashCode;
+
+		Key(String name, int hashCode) {
+			this.name = name;
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Key)) return false;
+			return name.equals(((Key) obj).name);
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private static <K, V> void assertContent(Map<K, V> expected, PersistentHashMap<K, V> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		Assert.assertEquals(expected.isEmpty(), actual.isEmpty());
+		for (Map.Entry<K, V> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		}
+
+		List<V> expectedValues = new ArrayList<>(expected.values());
+		List<V> actualValues = new ArrayList<>(actual.values());
+		Assert.assertEquals(expected.size(), actualValues.size());
+		Assert.assertEquals(new HashSet<>(expectedValues), new HashSet<>(actualValues));
+	}
+
+	@Test
+	public void testEmpty() {
+		PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+		assertContent(Collections.emptyMap(), map);
+		Assert.assertNull(map.get(1));
+		Assert.assertSame(map, map.without(1));
+	}
+
+	@Test
+	public void testWithAndWithout() {
+		PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+		map = map.with(1, "a").with(2, "b").with(33, "c");
+		assertContent(Map.of(1, "a", 2, "b", 33, "c"), map);
+
+		// Replace:
+		map = map.with(2, "d");
+		assertContent(Map.of(1, "a", 2, "d", 33, "c"), map);
+
+		map = map.without(1);
+		assertContent(Map.of(2, "d", 33, "c"), map);
+
+		// Missing key:
+		Assert.assertSame(map, map.without(1));
+
+		map = map.without(2).without(33);
+		assertContent(Collections.emptyMap(), map);
+	}
+
+	@Test
+	public void testUnchangedMapIsReturned() {
+		String value = "a";
+		PersistentHashMap<Integer, String> map = PersistentHashMap.<Integer, String>empty()
+				.with(1, value)
+				.with(2, "b");
+		Assert.assertSame(map, map.with(1, value));
+	}
+
+	@Test
+	public void testPreviousMapsAreNotModified() {
+		PersistentHashMap<Integer, String> map1 = PersistentHashMap.<Integer, String>empty()
+				.with(1, "a")
+				.with(2, "b");
+		PersistentHashMap<Integer, String> map2 = map1.with(3, "c").with(1, "d").without(2);
+
+		assertContent(Map.of(1, "a", 2, "b"), map1);
+		assertContent(Map.of(1, "d", 3, "c"), map2);
+	}
+
+	@Test
+	public void testHashCollisions() {
+		Key key1 = new Key("1", 42);
+		Key key2 = new Key("2", 42);
+		Key key3 = new Key("3", 42);
+		Key otherKey = new Key("other", 42 + 32);
+
+		PersistentHashMap<Key, String> map = PersistentHashMap.<Key, String>empty()
+				.with(key1, "a")
+				.with(key2, "b")
+				.with(otherKey, "o")
+				.with(key3, "c");
+		assertContent(Map.of(key1, "a", key2, "b", key3, "c", otherKey, "o"), map);
+
+		map = map.with(key2, "d");
+		assertContent(Map.of(key1, "a", key2, "d", key3, "c", otherKey, "o"), map);
+
+		map = map.without(key1);
+		assertContent(Map.of(key2, "d", key3, "c", otherKey, "o"), map);
+		Assert.assertNull(map.get(new Key("missing", 42)));
+
+		map = map.without(key3).without(otherKey);
+		assertContent(Map.of(key2, "d"), map);
+
+		map = map.without(key2);
+		assertContent(Collections.emptyMap(), map);
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(12345L);
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 20000; i++) {
+			// Includes negative keys and keys that only differ in their higher bits:
+			int key = random.nextInt(2000) * ((i % 2 == 0) ? 1 : -65536);
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				map = map.without(key);
+			} else {
+				expected.put(key, i);
+				map = map.with(key, i);
+			}
+		}
+		assertContent(expected, map);
+
+		for (Integer key : new ArrayList<>(expected.keySet())) {
+			map = map.without(key);
+		}
+		assertContent(Collections.emptyMap(), map);
+	}
+}
@@ -0,0 +1,127 @@
+package com.nisovin.shopkeepers.util.yaml;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
+
+/**
+ * Tests that {@link BukkitConfigDataStore#save(java.io.Writer)}, which writes the top-level entries
+ * one after the other, produces the same output as {@link BukkitConfigDataStore#saveToString()}.
+ */
+public class BukkitConfigDataStoreSaveTest extends AbstractBukkitTest {
+
+	private static String saveToWriter(BukkitConfigDataStore dataStore) throws IOException {
+		StringWriter writer = new StringWriter();
+		dataStore.save(writer);
+		return writer.toString();
+	}
+
+	private static void testSaveMatchesSaveToString(BukkitConfigDataStore dataStore)
+			throws IOException {
+		Assert.assertEquals(dataStore.saveToString(), saveToWriter(dataStore));
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		BukkitConfigDataStore dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		testSaveMatchesSaveToString(dataStore);
+	}
+
+	@Test
+	public void testEmptyWithHeaderAndFooter() throws IOException {
+		BukkitConfigDataStore dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		FileConfiguration config = dataStore.getConfig();
+		config.options().setHeader(Arrays.asList("Header"));
+		config.options().setFooter(Arrays.asList("Footer"));
+		testSaveMatchesSaveToString(dataStore);
+	}
+
+	@Test
+	public void testSingleEntryWithHeaderAndFooter() throws IOException {
+		BukkitConfigDataStore dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		FileConfiguration config = dataStore.getConfig();
+		config.options().setHeader(Arrays.asList("Header line 1", "Header line 2"));
+		config.options().setFooter(Arrays.asList("Footer"));
+		config.set("key", "value");
+		testSaveMatchesSaveToString(dataStore);
+	}
+
+	@Test
+	public void testCommentsAndNestedSections() throws IOException {
+		BukkitConfigDataStore dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		FileConfiguration config = dataStore.getConfig();
+		config.options().setHeader(Arrays.asList("Header line 1", "", "Header line 2"));
+		config.options().setFooter(Arrays.asList("Footer line 1", "Footer line 2"));
+
+		config.set("data-version", 5);
+		config.setComments("data-version", Arrays.asList("Block comment", null));
+		config.setInlineComments("data-version", Arrays.asList("Inline comment"));
+
+		ConfigurationSection section = config.createSection("1");
+		section.set("name", "Shop name");
+		section.set("list", Arrays.asList("a", "b", "c"));
+		section.set("empty-list", Collections.emptyList());
+		section.setComments("name", Arrays.asList("Nested block comment"));
+		section.setInlineComments("list", Arrays.asList("Nested inline comment"));
+
+		ConfigurationSection nestedSection = section.createSection("nested");
+		nestedSection.set("value", 1.5D);
+		nestedSection.setComments("value", Arrays.asList("Deeply nested comment"));
+		config.setComments("1", Arrays.asList(null, "Section comment"));
+		config.setInlineComments("1", Arrays.asList("Section inline comment"));
+
+		config.set("2", "Multiline\nText\n\nWith empty lines\n");
+		config.set("3", Collections.emptyMap());
+		testSaveMatchesSaveToString(dataStore);
+	}
+
+	@Test
+	public void testItemStacks() throws IOException {
+		BukkitConfigDataStore dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		FileConfiguration config = dataStore.getConfig();
+		config.set("complete", TestItemStacks.createItemStackComplete());
+		config.set("list", TestItemStacks.createAllItemStacks());
+
+		ConfigurationSection section = config.createSection("shop");
+		section.set("item", TestItemStacks.createItemStackWrittenBook());
+		section.set("other-item", TestItemStacks.createItemStackBlockData());
+		section.setComments("item", Arrays.asList("Item comment"));
+		testSaveMatchesSaveToString(dataStore);
+	}
+
+	@Test
+	public void testLoadedComments() throws IOException, InvalidDataFormatException {
+		BukkitConfigDataStore dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		dataStore.getConfig().options().parseComments(true);
+		dataStore.loadFromString(String.join("\n",
+				"# Header",
+				"",
+				"# Comment",
+				"data-version: 5 # Inline comment",
+				"'1':",
+				"  # Nested comment",
+				"  name: Shop",
+				"  nested:",
+				"    value: 1 # Nested inline comment",
+				"",
+				"# Comment after an empty line",
+				"'2':",
+				"  name: Other shop",
+				"",
+				"# Footer",
+				""
+		));
+		testSaveMatchesSaveToString(dataStore);
+	}
+}